@@ -1,5 +1,5 @@
 // pages/user/SlotAvailabilityPage.js
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useMemo } from 'react';
 import {
   Grid,
   Card,
@@ -29,6 +29,7 @@ import {
 import { motion } from 'framer-motion';
 import { useNavigate } from 'react-router-dom';
 import { parkingSlotAPI, facilityAPI } from '../../utils/api';
+import { openEventStream } from '../../utils/eventStream';
 import { toast } from 'react-toastify';
 
 const SlotCard = ({ slot, onBook ,facilities}) => {
@@ -154,10 +155,30 @@ const SlotAvailabilityPage = () => {
   useEffect(() => {
     fetchSlots();
     fetchFacilities();
-    const interval = setInterval(fetchSlots, 30000);
-    return () => clearInterval(interval);
   }, [page, filters]);
 
+  // Facilities of the slots on screen, watched over one live stream instead of re-polling the list
+  const streamedFacilities = useMemo(
+    () => [...new Set(slots.map((slot) => slot.facilityId).filter(Boolean))].sort((a, b) => a - b).join(','),
+    [slots]
+  );
+
+  useEffect(() => {
+    if (!streamedFacilities) return undefined;
+    const applyStates = (states) =>
+      setSlots((current) =>
+        current.map((slot) =>
+          states.has(slot.slotId) ? { ...slot, isAvailable: states.get(slot.slotId) === 'FREE' } : slot
+        )
+      );
+    return openEventStream(`/availability/stream?facilityIds=${streamedFacilities}`, {
+      snapshot: ({ slots: states }) =>
+        applyStates(new Map(states.map(({ slot, state }) => [slot.slotId, state]))),
+      delta: ({ changes }) =>
+        applyStates(new Map(changes.map(({ slotId, state }) => [slotId, state]))),
+    });
+  }, [streamedFacilities]);
+
   const fetchSlots = async () => {
     setLoading(true);
     try {
@@ -218,7 +239,7 @@ const SlotAvailabilityPage = () => {
             Available Parking Slots
           </Typography>
           <Typography variant="body1" color="textSecondary">
-            Real-time slot availability - Updated every 30 seconds
+            Real-time slot availability - Updated live
           </Typography>
         </Paper>
       </motion.div>
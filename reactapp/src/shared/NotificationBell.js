@@ -24,6 +24,7 @@ import {
 } from '@mui/icons-material';
 import { useAuth } from '../src/App';
 import { notificationAPI } from '../src/utils/api';
+import { openEventStream } from '../src/utils/eventStream';
 import { useNavigate } from 'react-router-dom';
 import dayjs from 'dayjs';
 import relativeTime from 'dayjs/plugin/relativeTime';
@@ -40,8 +41,21 @@ const NotificationBell = () => {
   useEffect(() => {
     if (user) {
       fetchNotifications();
-      const interval = setInterval(fetchNotifications, 30000); // Check every 30 seconds
-      return () => clearInterval(interval);
+      // Pushed over SSE; the slow poll only covers a stream that can't connect
+      const close = openEventStream(`/notifications/user/${user.id}/stream`, {
+        notification: (notification) =>
+          setNotifications((current) => [
+            notification,
+            ...current.filter((n) => n.notificationId !== notification.notificationId),
+          ].slice(0, 5)),
+        'unread-count': ({ count }) => setUnreadCount(count),
+        resync: () => fetchNotifications(),
+      });
+      const interval = setInterval(fetchNotifications, 300000);
+      return () => {
+        close();
+        clearInterval(interval);
+      };
     }
   }, [user]);
 
@@ -0,0 +1,90 @@
+// utils/eventStream.js
+// Server-Sent Events over fetch: EventSource can't send the Authorization header our API needs.
+
+const API_BASE_URL = process.env.REACT_APP_API_BASE_URL || 'http://localhost:8080/api';
+
+const INITIAL_RETRY_MS = 1000;
+const MAX_RETRY_MS = 30000;
+
+// Parses one "\n\n"-terminated block into { id, event, data }; comment-only blocks (heartbeats) return null
+const parseBlock = (block) => {
+  let id;
+  let event = 'message';
+  const data = [];
+  block.split('\n').forEach((line) => {
+    if (!line || line.startsWith(':')) return;
+    const colon = line.indexOf(':');
+    const field = colon < 0 ? line : line.slice(0, colon);
+    let value = colon < 0 ? '' : line.slice(colon + 1);
+    if (value.startsWith(' ')) value = value.slice(1);
+    if (field === 'id') id = value;
+    else if (field === 'event') event = value;
+    else if (field === 'data') data.push(value);
+  });
+  return data.length ? { id, event, data: data.join('\n') } : null;
+};
+
+/**
+ * Opens a reconnecting event stream. handlers maps event names to callbacks receiving the parsed
+ * JSON payload. Reconnects with backoff and sends Last-Event-ID so the server can replay what was
+ * missed. Returns a function that closes the stream.
+ */
+export const openEventStream = (path, handlers) => {
+  const controller = new AbortController();
+  let lastEventId = null;
+  let retryMs = INITIAL_RETRY_MS;
+  let timer = null;
+
+  const dispatch = ({ id, event, data }) => {
+    if (id) lastEventId = id;
+    const handler = handlers[event];
+    if (!handler) return;
+    try {
+      handler(JSON.parse(data));
+    } catch (error) {
+      console.error(`Error handling ${event} event:`, error);
+    }
+  };
+
+  const connect = async () => {
+    const headers = { Accept: 'text/event-stream' };
+    const token = localStorage.getItem('authToken');
+    if (token) headers.Authorization = `Bearer ${token}`;
+    if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+
+    try {
+      const response = await fetch(`${API_BASE_URL}${path}`, { headers, signal: controller.signal });
+      if (response.status === 401 || response.status === 403) return; // don't hammer with a dead token
+      if (!response.ok || !response.body) throw new Error(`Stream failed with status ${response.status}`);
+      retryMs = INITIAL_RETRY_MS;
+
+      const reader = response.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      for (;;) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n');
+        let end;
+        while ((end = buffer.indexOf('\n\n')) >= 0) {
+          const event = parseBlock(buffer.slice(0, end));
+          buffer = buffer.slice(end + 2);
+          if (event) dispatch(event);
+        }
+      }
+    } catch (error) {
+      if (controller.signal.aborted) return;
+      console.error('Event stream error:', error);
+    }
+    if (!controller.signal.aborted) {
+      timer = setTimeout(connect, retryMs);
+      retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+    }
+  };
+
+  connect();
+  return () => {
+    clearTimeout(timer);
+    controller.abort();
+  };
+};
@@ -1,10 +1,14 @@
 package com.example.springapp.config;
 
+import com.example.springapp.dto.LoginRequest;
 import com.example.springapp.model.AuditLog;
 import com.example.springapp.service.AuditLogService;
+import com.example.springapp.service.UserService;
 import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -12,7 +16,8 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import jakarta.servlet.http.HttpServletRequest;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Aspect
 @Component
@@ -22,12 +27,27 @@ public class AuditConfig {
     private AuditLogService auditLogService;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private UserService userService;
 
-    @AfterReturning(pointcut = "execution(* com.example.springapp.controller.AuthController.login(..))", returning = "result")
-    public void auditLogin(JoinPoint joinPoint, Object result) {
-        createAuditLog("LOGIN", "Authentication", AuditLog.Severity.LOW, 
-                      "User successfully logged in", null);
+    // Login completes off the request thread: capture the request details now and audit the outcome
+    // once the future settles, failed attempts included
+    @AfterReturning(pointcut = "execution(* com.example.springapp.controller.AuthController.login(..)) && args(request)",
+                    returning = "result")
+    public void auditLogin(LoginRequest request, CompletableFuture<?> result) {
+        RequestContext captured = captureRequestContext();
+        RequestContext context = new RequestContext(request.getUsernameOrEmail(), captured.ipAddress(),
+                captured.sessionId(), captured.userAgent());
+        result.whenComplete((response, failure) -> {
+            if (failure == null) {
+                submit(context, "LOGIN", "Authentication", AuditLog.Severity.LOW,
+                        "User successfully logged in", null);
+            } else {
+                Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure;
+                submit(context, "LOGIN_FAILED", "Authentication", AuditLog.Severity.HIGH,
+                        "Login failed: " + cause.getMessage(), null);
+            }
+        });
     }
 
     @AfterReturning(pointcut = "execution(* com.example.springapp.controller.AuthController.register(..))", returning = "result")
@@ -36,30 +56,24 @@ public class AuditConfig {
                       "New user registered", null);
     }
 
+    // Only the created booking is referenced here; the audit writer renders it as the diff from nothing
     @AfterReturning(pointcut = "execution(* com.example.springapp.controller.BookingController.create(..))", returning = "result")
     public void auditBookingCreation(JoinPoint joinPoint, Object result) {
-        Object[] args = joinPoint.getArgs();
-        String changes = null;
-        try {
-            changes = objectMapper.writeValueAsString(args[0]);
-        } catch (Exception e) {
-            changes = "Unable to serialize booking data";
-        }
-        createAuditLog("BOOKING_CREATED", "Booking Management", AuditLog.Severity.MEDIUM, 
-                      "New booking created", changes);
+        Object created = result instanceof ResponseEntity<?> response ? response.getBody() : null;
+        createChangeAuditLog("BOOKING_CREATED", "Booking Management", AuditLog.Severity.MEDIUM,
+                      "New booking created", null, created);
     }
 
-    @AfterReturning(pointcut = "execution(* com.example.springapp.controller.UserController.update(..))", returning = "result")
-    public void auditUserUpdate(JoinPoint joinPoint, Object result) {
-        Object[] args = joinPoint.getArgs();
-        String changes = null;
-        try {
-            changes = objectMapper.writeValueAsString(args[1]);
-        } catch (Exception e) {
-            changes = "Unable to serialize user data";
+    // The pre-update state is read before the call (a second-level cache hit) so the writer can diff it
+    @Around("execution(* com.example.springapp.controller.UserController.update(..)) && args(id, ..)")
+    public Object auditUserUpdate(ProceedingJoinPoint joinPoint, Long id) throws Throwable {
+        Object before = userService.getById(id).orElse(null);
+        Object result = joinPoint.proceed();
+        if (result instanceof ResponseEntity<?> response && response.getBody() != null) {
+            createChangeAuditLog("USER_UPDATED", "User Management", AuditLog.Severity.HIGH,
+                          "User information updated", before, response.getBody());
         }
-        createAuditLog("USER_UPDATED", "User Management", AuditLog.Severity.HIGH, 
-                      "User information updated", changes);
+        return result;
     }
 
     @AfterThrowing(pointcut = "execution(* com.example.springapp.controller.*.*(..))", throwing = "exception")
@@ -71,23 +85,51 @@ public class AuditConfig {
     private void createAuditLog(String action, String resource, AuditLog.Severity severity, 
                                String details, String changes) {
         try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String username = auth != null ? auth.getName() : "anonymous";
-
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-            String ipAddress = "unknown";
-            String sessionId = "unknown";
-            String userAgent = "unknown";
-
-            if (attributes != null) {
-                HttpServletRequest request = attributes.getRequest();
-                ipAddress = getClientIpAddress(request);
-                sessionId = request.getSession(false) != null ? request.getSession().getId() : "no-session";
-                userAgent = request.getHeader("User-Agent");
-            }
+            submit(captureRequestContext(), action, resource, severity, details, changes);
+        } catch (Exception e) {
+            System.err.println("Failed to create audit log: " + e.getMessage());
+        }
+    }
+
+    private void createChangeAuditLog(String action, String resource, AuditLog.Severity severity,
+                                      String details, Object before, Object after) {
+        try {
+            RequestContext context = captureRequestContext();
+            auditLogService.createChangeAuditLog(context.username(), action, resource, severity,
+                                               context.ipAddress(), context.sessionId(), context.userAgent(),
+                                               details, before, after);
+        } catch (Exception e) {
+            System.err.println("Failed to create audit log: " + e.getMessage());
+        }
+    }
+
+    private record RequestContext(String username, String ipAddress, String sessionId, String userAgent) {}
 
-            auditLogService.createAuditLog(username, action, resource, severity, 
-                                         ipAddress, sessionId, userAgent, details, changes);
+    private RequestContext captureRequestContext() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String username = auth != null ? auth.getName() : "anonymous";
+
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        String ipAddress = "unknown";
+        String sessionId = "unknown";
+        String userAgent = "unknown";
+
+        if (attributes != null) {
+            HttpServletRequest request = attributes.getRequest();
+            ipAddress = getClientIpAddress(request);
+            sessionId = request.getSession(false) != null ? request.getSession().getId() : "no-session";
+            userAgent = request.getHeader("User-Agent");
+        }
+        return new RequestContext(username, ipAddress, sessionId, userAgent);
+    }
+
+    // Only enqueues: the database write happens on the audit writer thread (see AuditPipeline)
+    private void submit(RequestContext context, String action, String resource, AuditLog.Severity severity,
+                        String details, String changes) {
+        try {
+            auditLogService.createAuditLog(context.username(), action, resource, severity,
+                                         context.ipAddress(), context.sessionId(), context.userAgent(),
+                                         details, changes);
         } catch (Exception e) {
             // Log the error but don't fail the main operation
             System.err.println("Failed to create audit log: " + e.getMessage());
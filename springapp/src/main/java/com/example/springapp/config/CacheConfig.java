@@ -0,0 +1,87 @@
+package com.example.springapp.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level and query cache for the reference entities (Facility, ParkingSlot, User)
+ * read on every booking. Regions live in an in-process Caffeine JCache manager; each region's
+ * bound is read from app.cache.regions.&lt;region&gt;.max-size / ttl-seconds. READ_WRITE entity
+ * regions are updated or invalidated by Hibernate on every write through the session, and bulk
+ * HQL updates evict the affected region.
+ */
+@Configuration
+@Slf4j
+public class CacheConfig {
+
+    public static final String FACILITY_REGION = "facility";
+    public static final String PARKING_SLOT_REGION = "parking-slot";
+    public static final String USER_REGION = "user";
+    public static final String QUERY_RESULTS_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String UPDATE_TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    // region -> {default max entries, default ttl seconds}; a ttl of 0 means entries never expire
+    private static final Map<String, long[]> REGION_DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        REGION_DEFAULTS.put(FACILITY_REGION, new long[]{1_000, 3_600});
+        REGION_DEFAULTS.put(PARKING_SLOT_REGION, new long[]{50_000, 900});
+        REGION_DEFAULTS.put(USER_REGION, new long[]{20_000, 900});
+        REGION_DEFAULTS.put(QUERY_RESULTS_REGION, new long[]{10_000, 300});
+        // Timestamps must outlive every cached query result or stale results would be served
+        REGION_DEFAULTS.put(UPDATE_TIMESTAMPS_REGION, new long[]{10_000, 0});
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment env) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        REGION_DEFAULTS.forEach((region, defaults) -> {
+            long maxSize = env.getProperty("app.cache.regions." + region + ".max-size", Long.class, defaults[0]);
+            long ttlSeconds = env.getProperty("app.cache.regions." + region + ".ttl-seconds", Long.class, defaults[1]);
+            CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+            config.setMaximumSize(OptionalLong.of(maxSize));
+            if (ttlSeconds > 0) {
+                config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            }
+            config.setStatisticsEnabled(true);
+            // Caffeine's own counters, read by CacheStatisticsService whether or not Hibernate counts
+            config.setNativeStatisticsEnabled(true);
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, config);
+            }
+            log.debug("Cache region {}: max-size={}, ttl={}s", region, maxSize, ttlSeconds);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every region is declared above; an unknown one is a mapping mistake, not something to create unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Hibernate's own statistics (GENERATE_STATISTICS) add bookkeeping to every session, so they are
+            // only collected with the cache-stats profile; region hits and misses come from Caffeine instead
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
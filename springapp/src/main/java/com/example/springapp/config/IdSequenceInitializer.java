@@ -0,0 +1,56 @@
+package com.example.springapp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Booking, Payment, BookingHistory, Notification and AuditLog ids moved from IDENTITY to pooled sequences. On MySQL
+ * Hibernate emulates each sequence with a one-row table that starts at 1, so on databases
+ * that already hold rows the sequence is moved past the current max id before anything
+ * is inserted.
+ *
+ * <p>The pooled optimizer treats the value it reads as the top of a block and hands out
+ * {@code next_val - allocationSize + 1 .. next_val}, so the sequence has to sit a whole block
+ * above the max id. This runs while the context is refreshed, right after the schema update and
+ * before the audit writer, the schedulers and the web server start inserting.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class IdSequenceInitializer implements InitializingBean {
+
+    /** Must match the allocationSize of the entities' @SequenceGenerator. */
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final String[][] SEQUENCES = {
+            {"booking_seq", "booking", "booking_id"},
+            {"payment_seq", "payment", "payment_id"},
+            {"booking_history_seq", "booking_history", "history_id"},
+            {"notification_seq", "notification", "notification_id"},
+            {"audit_log_seq", "audit_log", "audit_id"},
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String[] seq : SEQUENCES) {
+            try {
+                jdbcTemplate.update("UPDATE " + seq[0] + " SET next_val = GREATEST(next_val, "
+                        + "(SELECT COALESCE(MAX(" + seq[2] + "), 0) + " + (ALLOCATION_SIZE + 1)
+                        + " FROM " + seq[1] + "))");
+            } catch (DataAccessException e) {
+                // Databases with native sequences have no table to align
+                log.debug("Skipping id sequence alignment for {}: {}", seq[0], e.getMessage());
+            }
+        }
+    }
+}
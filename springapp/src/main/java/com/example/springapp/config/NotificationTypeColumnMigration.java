@@ -0,0 +1,49 @@
+package com.example.springapp.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * On MySQL, Hibernate created the notification type columns as native {@code enum(...)} columns
+ * listing the types that existed at the time, and {@code ddl-auto=update} never alters an
+ * existing column, so a new type such as DIGEST is rejected on insert. The entities now map the
+ * columns as VARCHAR; this converts columns still created as enums. Like the id sequence
+ * alignment, it runs right after the schema update and before anything inserts.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class NotificationTypeColumnMigration implements InitializingBean {
+
+    private static final List<String> TABLES = List.of("notification", "notification_broadcast");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationTypeColumnMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String table : TABLES) {
+            try {
+                List<String> types = jdbcTemplate.queryForList("SELECT DATA_TYPE FROM information_schema.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'type'",
+                        String.class, table);
+                if (types.size() == 1 && "enum".equalsIgnoreCase(types.get(0))) {
+                    jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY COLUMN type VARCHAR(30) NOT NULL");
+                    log.info("Converted {}.type from a native enum to VARCHAR(30)", table);
+                }
+            } catch (DataAccessException e) {
+                // Databases without native enums (or this information_schema) have nothing to convert
+                log.debug("Skipping type column check for {}: {}", table, e.getMessage());
+            }
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.springapp.controller;
 
+import com.example.springapp.dto.AuditDashboardDTO;
+import com.example.springapp.dto.AuditLogDTO;
+import com.example.springapp.dto.AuditPipelineStatsDTO;
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.model.AuditLog;
 import com.example.springapp.service.AuditLogService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,11 +28,27 @@ public class AuditLogController {
         return auditLogService.getAllAuditLogs();
     }
 
+    @GetMapping("/page")
+    public CursorPage<AuditLogDTO> getPage(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer size,
+                                           @RequestParam(defaultValue = "false") boolean withTotal) {
+        return auditLogService.getAuditLogPage(cursor, size, withTotal);
+    }
+
     @GetMapping("/username/{username}")
     public List<AuditLog> getAuditLogsByUsername(@PathVariable String username) {
         return auditLogService.getAuditLogsByUsername(username);
     }
 
+    @GetMapping("/search")
+    public List<AuditLogDTO> search(@RequestParam(required = false) String username,
+                                    @RequestParam(required = false) String action,
+                                    @RequestParam(required = false) String resource,
+                                    @RequestParam(required = false) String q,
+                                    @RequestParam(required = false) Integer limit) {
+        return auditLogService.searchAuditLogs(username, action, resource, q, limit);
+    }
+
     @GetMapping("/action/{action}")
     public List<AuditLog> getAuditLogsByAction(@PathVariable String action) {
         return auditLogService.getAuditLogsByAction(action);
@@ -46,6 +66,17 @@ public class AuditLogController {
         return auditLogService.getAuditLogsByDateRange(startDate, endDate);
     }
 
+    @GetMapping("/pipeline")
+    public AuditPipelineStatsDTO getPipelineStats() {
+        return auditLogService.getPipelineStats();
+    }
+
+    // Every dashboard count in one call, served from in-memory counters
+    @GetMapping("/dashboard")
+    public AuditDashboardDTO getDashboard() {
+        return auditLogService.getDashboard();
+    }
+
     @GetMapping("/count/{severity}")
     public ResponseEntity<Long> getCountBySeverity(@PathVariable AuditLog.Severity severity) {
         Long count = auditLogService.getCountBySeverity(severity);
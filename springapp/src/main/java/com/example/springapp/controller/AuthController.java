@@ -1,12 +1,19 @@
 package com.example.springapp.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import com.example.springapp.service.AuthService;
 import com.example.springapp.dto.*;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -20,8 +27,32 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Validated @RequestBody LoginRequest req) {
-        return ResponseEntity.ok(authService.login(req));
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Validated @RequestBody LoginRequest req) {
+        return authService.login(req).thenApply(ResponseEntity::ok);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(name = "Authorization", required = false) String auth) {
+        if (auth == null || !auth.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            authService.logout(auth.substring(7));
+        } catch (JwtException e) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<Void> onAuthenticationFailure(AuthenticationException e) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    // BCrypt queue full: shed the login rather than queueing it behind the backlog
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> onVerifierSaturated(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
     }
 
     @GetMapping("/me")
@@ -0,0 +1,59 @@
+package com.example.springapp.controller;
+
+import com.example.springapp.dto.FacilityAvailabilityDTO;
+import com.example.springapp.dto.SlotAvailabilityDTO;
+import com.example.springapp.service.AvailabilityService;
+import com.example.springapp.service.SlotAvailabilityStream;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/availability")
+public class AvailabilityController {
+
+    private final AvailabilityService availabilityService;
+    private final SlotAvailabilityStream availabilityStream;
+
+    public AvailabilityController(AvailabilityService availabilityService, SlotAvailabilityStream availabilityStream) {
+        this.availabilityService = availabilityService;
+        this.availabilityStream = availabilityStream;
+    }
+
+    @GetMapping("/facilities/{facilityId}/free-slots")
+    public List<SlotAvailabilityDTO> getFreeSlots(
+            @PathVariable Long facilityId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String slotType) {
+        return availabilityService.findFreeSlots(facilityId, start, end, slotType);
+    }
+
+    @GetMapping("/facilities/{facilityId}/summary")
+    public FacilityAvailabilityDTO getFacilityAvailability(
+            @PathVariable Long facilityId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "false") boolean buckets) {
+        return availabilityService.getFacilityAvailability(facilityId, start, end, buckets);
+    }
+
+    // Live slot states of several facilities on one connection: a snapshot per facility, then deltas of
+    // changed slots; Last-Event-ID resumes each facility after a gap
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam List<Long> facilityIds,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return availabilityStream.subscribe(facilityIds, lastEventId);
+    }
+
+    // Inverted windows, windows beyond the bitmap horizon, unknown slot types and unknown facilities
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> onInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
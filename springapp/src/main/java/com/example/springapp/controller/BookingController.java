@@ -1,6 +1,8 @@
 package com.example.springapp.controller;
 
 import com.example.springapp.dto.BookingDTO;
+import com.example.springapp.dto.BulkBookingResultDTO;
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.service.BookingService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +23,13 @@ public class BookingController {
         return bookingService.getAllBookings();
     }
 
+    @GetMapping("/page")
+    public CursorPage<BookingDTO> getPage(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(defaultValue = "false") boolean withTotal) {
+        return bookingService.getBookingPage(cursor, size, withTotal);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingDTO> getById(@PathVariable Long id) {
         return ResponseEntity.ok(bookingService.getBookingById(id));
@@ -31,6 +40,11 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.createBooking(dto));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkBookingResultDTO> createBulk(@RequestBody List<BookingDTO> dtos) {
+        return ResponseEntity.ok(bookingService.createBookings(dtos));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<BookingDTO> update(@PathVariable Long id, @RequestBody BookingDTO dto) {
         return ResponseEntity.ok(bookingService.updateBooking(id, dto));
@@ -41,4 +55,10 @@ public class BookingController {
         bookingService.deleteBooking(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Missing ids, bad windows and unknown statuses are rejected before any lock or transaction
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> onInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
 }
\ No newline at end of file
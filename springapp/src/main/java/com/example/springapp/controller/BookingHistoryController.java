@@ -1,6 +1,7 @@
 package com.example.springapp.controller;
 
 import com.example.springapp.dto.BookingHistoryDTO;
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.service.BookingHistoryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,6 +22,13 @@ public class BookingHistoryController {
         return historyService.getAllHistories();
     }
 
+    @GetMapping("/page")
+    public CursorPage<BookingHistoryDTO> getPage(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size,
+                                                 @RequestParam(defaultValue = "false") boolean withTotal) {
+        return historyService.getHistoryPage(cursor, size, withTotal);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<BookingHistoryDTO> getById(@PathVariable Long id) {
         return ResponseEntity.ok(historyService.getHistoryById(id));
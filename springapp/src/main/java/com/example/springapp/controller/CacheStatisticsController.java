@@ -0,0 +1,32 @@
+package com.example.springapp.controller;
+
+import com.example.springapp.dto.CacheRegionStatsDTO;
+import com.example.springapp.service.CacheStatisticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@PreAuthorize("hasRole('SYSTEM_ADMIN')")
+public class CacheStatisticsController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public CacheStatisticsController(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @GetMapping("/stats")
+    public List<CacheRegionStatsDTO> getStats() {
+        return cacheStatisticsService.getRegionStatistics();
+    }
+
+    @DeleteMapping("/stats")
+    public ResponseEntity<Void> resetStats() {
+        cacheStatisticsService.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.springapp.controller;
+
+import com.example.springapp.dto.NotificationBroadcastDTO;
+import com.example.springapp.service.NotificationFanoutService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/notification-broadcasts")
+@PreAuthorize("hasRole('SYSTEM_ADMIN')")
+public class NotificationBroadcastController {
+
+    private final NotificationFanoutService fanoutService;
+
+    public NotificationBroadcastController(NotificationFanoutService fanoutService) {
+        this.fanoutService = fanoutService;
+    }
+
+    // Accepted, not delivered: poll GET /{id} for progress
+    @PostMapping
+    public ResponseEntity<NotificationBroadcastDTO> submit(@RequestBody NotificationBroadcastDTO dto) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(fanoutService.submit(dto));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping
+    public List<NotificationBroadcastDTO> getRecent() {
+        return fanoutService.getRecent();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<NotificationBroadcastDTO> getById(@PathVariable Long id) {
+        return fanoutService.getById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.springapp.controller;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.NotificationDTO;
+import com.example.springapp.security.AppUserDetails;
+import com.example.springapp.security.JwtPrincipal;
 import com.example.springapp.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -20,6 +27,13 @@ public class NotificationController {
         return service.getAll();
     }
 
+    @GetMapping("/page")
+    public CursorPage<NotificationDTO> getPage(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(defaultValue = "false") boolean withTotal) {
+        return service.getPage(cursor, size, withTotal);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<NotificationDTO> getById(@PathVariable Long id) {
         return service.getById(id)
@@ -49,6 +63,26 @@ public class NotificationController {
         return service.getNotificationsByUser(userId);
     }
 
+    @GetMapping("/user/{userId}/page")
+    public CursorPage<NotificationDTO> getUserPage(@PathVariable Long userId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size) {
+        return service.getUserPage(userId, cursor, size);
+    }
+
+    // Push channel replacing polling: notification, unread-count and resync events. It carries the
+    // user's notifications, so only that user may open it.
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(
+            @PathVariable Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @AuthenticationPrincipal Object principal) {
+        if (!userId.equals(userIdOf(principal))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(service.subscribe(userId, lastEventId));
+    }
+
     @GetMapping("/user/{userId}/unread")
     public List<NotificationDTO> getUnreadByUser(@PathVariable Long userId) {
         return service.getUnreadNotificationsByUser(userId);
@@ -66,6 +100,11 @@ public class NotificationController {
         service.markAllAsRead(userId);
     }
 
+    @PutMapping("/user/{userId}/mark-read/type/{type}")
+    public void markAllAsReadByType(@PathVariable Long userId, @PathVariable String type) {
+        service.markAllAsReadByType(userId, type);
+    }
+
     @GetMapping("/type/{type}")
     public List<NotificationDTO> getByType(@PathVariable String type) {
         return service.getNotificationsByType(type);
@@ -80,4 +119,20 @@ public class NotificationController {
     public long getUnreadCount(@PathVariable Long userId) {
         return service.getUnreadCount(userId);
     }
-}
\ No newline at end of file
+
+    // Unknown notification types and priorities
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> onInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    private static Long userIdOf(Object principal) {
+        if (principal instanceof JwtPrincipal jwt) {
+            return jwt.userId();
+        }
+        if (principal instanceof AppUserDetails details) {
+            return details.user().getUserId();
+        }
+        return null;
+    }
+}
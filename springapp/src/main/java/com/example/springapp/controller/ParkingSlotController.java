@@ -1,5 +1,6 @@
 package com.example.springapp.controller;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.ParkingSlotDTO;
 import com.example.springapp.model.ParkingSlot;
 import com.example.springapp.service.ParkingSlotService;
@@ -30,6 +31,17 @@ public class ParkingSlotController {
         return service.getParkingSlots(page, size, facilityId, slotType, availableOnly);
     }
 
+    // Cursor-based alternative to /paginated: no COUNT(*) and no OFFSET, so deep pages stay cheap
+    @GetMapping("/page")
+    public CursorPage<ParkingSlotDTO> getSlotPage(
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer size,
+        @RequestParam(required = false) Long facilityId,
+        @RequestParam(required = false) String slotType,
+        @RequestParam(required = false) Boolean availableOnly) {
+        return service.getSlotPage(cursor, size, facilityId, slotType, availableOnly);
+    }
+
 
     @GetMapping("/{id}")
     public ResponseEntity<ParkingSlotDTO> getById(@PathVariable Long id) {
@@ -1,5 +1,6 @@
 package com.example.springapp.controller;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.PaymentDTO;
 import com.example.springapp.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +21,13 @@ public class PaymentController {
         return service.getAll();
     }
 
+    @GetMapping("/page")
+    public CursorPage<PaymentDTO> getPage(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(defaultValue = "false") boolean withTotal) {
+        return service.getPage(cursor, size, withTotal);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PaymentDTO> getById(@PathVariable Long id) {
         return service.getById(id)
@@ -0,0 +1,52 @@
+package com.example.springapp.controller;
+
+import com.example.springapp.dto.BookingDTO;
+import com.example.springapp.dto.HoldConfirmationDTO;
+import com.example.springapp.dto.SlotHoldDTO;
+import com.example.springapp.service.BookingService;
+import com.example.springapp.service.SlotHoldService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/holds")
+public class SlotHoldController {
+
+    private final SlotHoldService holdService;
+    private final BookingService bookingService;
+
+    public SlotHoldController(SlotHoldService holdService, BookingService bookingService) {
+        this.holdService = holdService;
+        this.bookingService = bookingService;
+    }
+
+    @PostMapping
+    public ResponseEntity<SlotHoldDTO> create(@RequestBody SlotHoldDTO dto) {
+        return ResponseEntity.status(201).body(holdService.createHold(dto));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SlotHoldDTO> getById(@PathVariable Long id) {
+        return holdService.getHold(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<BookingDTO> confirm(@PathVariable Long id, @RequestBody HoldConfirmationDTO request) {
+        return ResponseEntity.ok(bookingService.confirmHold(id, request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> release(@PathVariable Long id) {
+        return holdService.releaseHold(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // Missing ids, inverted windows and unknown payment methods
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> onInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
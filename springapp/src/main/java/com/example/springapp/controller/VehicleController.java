@@ -1,5 +1,6 @@
 package com.example.springapp.controller;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.VehicleDTO;
 import com.example.springapp.service.VehicleService;
 import jakarta.persistence.EntityNotFoundException;
@@ -21,6 +22,13 @@ public class VehicleController {
         return ResponseEntity.ok(service.getAll());
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<CursorPage<VehicleDTO>> getPage(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size,
+                                                          @RequestParam(defaultValue = "false") boolean withTotal) {
+        return ResponseEntity.ok(service.getPage(cursor, size, withTotal));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<VehicleDTO> getById(@PathVariable Long id) {
         try {
@@ -0,0 +1,17 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+public class AuditDashboardDTO {
+    private long total;
+    private Map<String, Long> bySeverity;
+    private Map<String, Long> byAction;
+    // Keyed by bucket start, oldest first; only buckets with events are present
+    private Map<LocalDateTime, Long> perMinute;
+    private Map<LocalDateTime, Long> perHour;
+    private Map<LocalDateTime, Long> perDay;
+}
@@ -0,0 +1,19 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+
+@Data
+public class AuditPipelineStatsDTO {
+    private String policy;
+    private int queueDepth;
+    private int queueCapacity;
+    private long submitted;
+    private long written;
+    private long dropped;
+    private long spilled;
+    private long failed;
+    // Age of the oldest event in the most recent batch when it was committed
+    private long lastBatchLagMs;
+    private long maxBatchLagMs;
+    private boolean spillPending;
+}
@@ -0,0 +1,22 @@
+package com.example.springapp.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/** Payload of the facility availability stream: a full snapshot, or the changes of one seq. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AvailabilityStreamEventDTO {
+    private Long facilityId;
+    private long seq;
+    // Set on snapshot events
+    private List<SlotStateDTO> slots;
+    // Set on delta events
+    private List<SlotStateChangeDTO> changes;
+}
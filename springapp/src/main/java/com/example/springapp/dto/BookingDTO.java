@@ -1,9 +1,11 @@
 package com.example.springapp.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class BookingDTO {
     private Long bookingId;
     private String vehicleNumber;
@@ -19,4 +21,25 @@ public class BookingDTO {
     private Long userId;
     private Long slotId;
     private Long paymentId; 
+
+    // JPQL constructor-expression target (see BookingRepository.BOOKING_DTO)
+    public BookingDTO(Long bookingId, String vehicleNumber, LocalDateTime startTime, LocalDateTime endTime,
+                      double totalCost, Enum<?> status, int extendedTime, LocalDateTime createdDate,
+                      LocalDateTime lastModified, LocalDateTime checkInTime, LocalDateTime checkOutTime,
+                      Long userId, Long slotId, Long paymentId) {
+        this.bookingId = bookingId;
+        this.vehicleNumber = vehicleNumber;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.totalCost = totalCost;
+        this.status = status != null ? status.name() : null;
+        this.extendedTime = extendedTime;
+        this.createdDate = createdDate;
+        this.lastModified = lastModified;
+        this.checkInTime = checkInTime;
+        this.checkOutTime = checkOutTime;
+        this.userId = userId;
+        this.slotId = slotId;
+        this.paymentId = paymentId;
+    }
 }
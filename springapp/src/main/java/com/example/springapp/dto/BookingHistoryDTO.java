@@ -1,9 +1,13 @@
 package com.example.springapp.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class BookingHistoryDTO {
     private Long historyId;
     private Long bookingId;
@@ -0,0 +1,15 @@
+package com.example.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBookingItemResultDTO {
+    private int index;
+    private Long bookingId;
+    private String status; // CREATED, REJECTED or FAILED
+    private String error;
+}
@@ -0,0 +1,12 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BulkBookingResultDTO {
+    private int requested;
+    private int created;
+    private int rejected;
+    private List<BulkBookingItemResultDTO> items;
+}
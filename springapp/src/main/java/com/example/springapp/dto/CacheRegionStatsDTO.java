@@ -0,0 +1,18 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+
+@Data
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    // Puts into a Hibernate region are only counted under the cache-stats profile; -1 otherwise
+    private long putCount;
+    // Size/TTL evictions
+    private long evictionCount;
+    // hits / (hits + misses), 0 when the region has not been read yet
+    private double hitRatio;
+    // Entries currently held (estimated)
+    private long elementCount;
+}
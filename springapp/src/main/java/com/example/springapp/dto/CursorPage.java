@@ -0,0 +1,18 @@
+package com.example.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    // Opaque token for the next page; null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+    // Only filled in when the caller asks for it, since it costs a COUNT(*)
+    private Long total;
+}
@@ -0,0 +1,16 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+public class FacilityAvailabilityDTO {
+    private Long facilityId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private int totalFree;
+    private Map<String, Integer> freeByType;
+    // Free-slot count per 15-minute bucket, keyed by bucket start
+    private Map<LocalDateTime, Integer> freeByBucket;
+}
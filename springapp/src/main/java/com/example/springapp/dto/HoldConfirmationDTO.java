@@ -0,0 +1,12 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+
+@Data
+public class HoldConfirmationDTO {
+    private String vehicleNumber;
+    private String paymentMethod;
+    private String transactionId;
+    // Defaults to the slot's hourly rate times the held duration
+    private double amount;
+}
@@ -0,0 +1,27 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class NotificationBroadcastDTO {
+    private Long broadcastId;
+    private String message;
+    private String type;
+    private String priority;
+    private String relatedEntityType;
+    private String relatedEntityId;
+    // ALL | ROLE (with role) | FACILITY (with facilityId)
+    private String audience;
+    private String role;
+    private Long facilityId;
+    // Progress, read-only
+    private String status;
+    private Long totalRecipients;
+    private long delivered;
+    private String error;
+    private LocalDateTime createdDate;
+    private LocalDateTime startedDate;
+    private LocalDateTime completedDate;
+}
@@ -1,9 +1,12 @@
 package com.example.springapp.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.sql.Timestamp;
+import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
 public class PaymentDTO {
     private Long paymentId;
     private Long bookingId;
@@ -14,4 +17,18 @@ public class PaymentDTO {
     private Timestamp paymentDate;
     private double refundAmount;
     private String gatewayResponse;
+
+    // JPQL constructor-expression target (see PaymentRepository.PAYMENT_DTO)
+    public PaymentDTO(Long paymentId, Long bookingId, double amount, Enum<?> paymentMethod, String transactionId,
+                      Enum<?> status, LocalDateTime paymentDate, double refundAmount, String gatewayResponse) {
+        this.paymentId = paymentId;
+        this.bookingId = bookingId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod != null ? paymentMethod.name() : null;
+        this.transactionId = transactionId;
+        this.status = status != null ? status.name() : null;
+        this.paymentDate = paymentDate != null ? Timestamp.valueOf(paymentDate) : null;
+        this.refundAmount = refundAmount;
+        this.gatewayResponse = gatewayResponse;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.example.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotAvailabilityDTO {
+    private Long slotId;
+    private Long facilityId;
+    private String slotNumber;
+    private String slotType;
+    private int floor;
+    private String section;
+    private double hourlyRate;
+}
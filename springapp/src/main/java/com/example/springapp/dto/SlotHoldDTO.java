@@ -0,0 +1,14 @@
+package com.example.springapp.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class SlotHoldDTO {
+    private Long holdId;
+    private Long slotId;
+    private Long userId;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,14 @@
+package com.example.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotStateChangeDTO {
+    private Long slotId;
+    private String state;
+    private long version;
+}
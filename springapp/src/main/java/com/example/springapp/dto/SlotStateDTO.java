@@ -0,0 +1,15 @@
+package com.example.springapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Live state of one slot in an availability snapshot; version is the stream seq of its last change. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotStateDTO {
+    private SlotAvailabilityDTO slot;
+    private String state;
+    private long version;
+}
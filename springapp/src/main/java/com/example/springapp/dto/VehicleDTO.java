@@ -2,9 +2,10 @@ package com.example.springapp.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
-import java.sql.Timestamp;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 public class VehicleDTO {
     private Long vehicleId;
     private Long userId;
@@ -16,4 +17,18 @@ public class VehicleDTO {
     private int year;
     @JsonProperty("isDefault")
     private boolean isDefault;
+
+    // JPQL constructor-expression target (see VehicleRepository.VEHICLE_DTO)
+    public VehicleDTO(Long vehicleId, Long userId, String licensePlate, Enum<?> vehicleType, String make,
+                      String model, String color, Integer year, boolean isDefault) {
+        this.vehicleId = vehicleId;
+        this.userId = userId;
+        this.licensePlate = licensePlate;
+        this.vehicleType = vehicleType != null ? vehicleType.name() : null;
+        this.make = make;
+        this.model = model;
+        this.color = color;
+        this.year = year != null ? year : 0;
+        this.isDefault = isDefault;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.springapp.exception;
+
+/**
+ * Thrown by an audit store whose batch append failed part-way: the first {@link #getAppended()}
+ * events of the batch are stored, the rest are not. The {@link #getRejected()} events right after
+ * them can never be stored (e.g. larger than a segment, or dated before the retention window) and
+ * must not be retried.
+ */
+public class AuditAppendException extends RuntimeException {
+
+    private final int appended;
+    private final int rejected;
+
+    public AuditAppendException(int appended, int rejected, Throwable cause) {
+        super(cause.getMessage(), cause);
+        this.appended = appended;
+        this.rejected = rejected;
+    }
+
+    public int getAppended() {
+        return appended;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+}
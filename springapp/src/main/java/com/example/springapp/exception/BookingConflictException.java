@@ -0,0 +1,16 @@
+package com.example.springapp.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a booking request overlaps an existing booking for the same slot,
+ * or when the slot could not be locked in time under heavy contention.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -45,4 +45,19 @@ public class BookingMapper {
         if (payment != null) booking.setPayment(payment);
         return booking;
     }
+
+    // Copies the editable fields onto a managed booking; id, creation time and scheduler state stay
+    public static void updateEntity(Booking booking, BookingDTO dto, User user, ParkingSlot slot, Payment payment) {
+        booking.setVehicleNumber(dto.getVehicleNumber());
+        booking.setStartTime(dto.getStartTime());
+        booking.setEndTime(dto.getEndTime());
+        booking.setTotalCost(dto.getTotalCost());
+        booking.setStatus(Booking.Status.valueOf(dto.getStatus().toUpperCase()));
+        booking.setExtendedTime(dto.getExtendedTime());
+        booking.setCheckInTime(dto.getCheckInTime());
+        booking.setCheckOutTime(dto.getCheckOutTime());
+        booking.setUser(user);
+        booking.setSlot(slot);
+        if (payment != null) booking.setPayment(payment);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.example.springapp.mapper;
+
+import com.example.springapp.dto.NotificationBroadcastDTO;
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.NotificationBroadcast;
+import com.example.springapp.model.User;
+
+public class NotificationBroadcastMapper {
+
+    public static NotificationBroadcastDTO toDTO(NotificationBroadcast broadcast) {
+        NotificationBroadcastDTO dto = new NotificationBroadcastDTO();
+        dto.setBroadcastId(broadcast.getBroadcastId());
+        dto.setMessage(broadcast.getMessage());
+        dto.setType(broadcast.getType() != null ? broadcast.getType().name() : null);
+        dto.setPriority(broadcast.getPriority() != null ? broadcast.getPriority().name() : null);
+        dto.setRelatedEntityType(broadcast.getRelatedEntityType());
+        dto.setRelatedEntityId(broadcast.getRelatedEntityId());
+        dto.setAudience(broadcast.getAudience() != null ? broadcast.getAudience().name() : null);
+        dto.setRole(broadcast.getRole() != null ? broadcast.getRole().name() : null);
+        dto.setFacilityId(broadcast.getFacilityId());
+        dto.setStatus(broadcast.getStatus() != null ? broadcast.getStatus().name() : null);
+        dto.setTotalRecipients(broadcast.getTotalRecipients());
+        dto.setDelivered(broadcast.getDelivered());
+        dto.setError(broadcast.getError());
+        dto.setCreatedDate(broadcast.getCreatedDate());
+        dto.setStartedDate(broadcast.getStartedDate());
+        dto.setCompletedDate(broadcast.getCompletedDate());
+        return dto;
+    }
+
+    // Enum names are validated here; IllegalArgumentException on unknown values
+    public static NotificationBroadcast toEntity(NotificationBroadcastDTO dto) {
+        return NotificationBroadcast.builder()
+                .message(dto.getMessage())
+                .type(Notification.Type.valueOf(dto.getType().toUpperCase()))
+                .priority(dto.getPriority() != null
+                        ? Notification.Priority.valueOf(dto.getPriority().toUpperCase())
+                        : Notification.Priority.MEDIUM)
+                .relatedEntityType(dto.getRelatedEntityType())
+                .relatedEntityId(dto.getRelatedEntityId())
+                .audience(NotificationBroadcast.Audience.valueOf(dto.getAudience().toUpperCase()))
+                .role(dto.getRole() != null ? User.Role.valueOf(dto.getRole().toUpperCase()) : null)
+                .facilityId(dto.getFacilityId())
+                .build();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.springapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One materialised audit counter shared by every instance (see AuditCounters). Keys look like
+ * {@code severity:HIGH}, {@code action:LOGIN} or {@code minute:<epoch minute>}; keys under
+ * {@code month:<yyyy-MM>:} hold the same totals for one month, so retention can subtract them.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditCounter {
+
+    @Id
+    @Column(length = 100)
+    private String counterKey;
+
+    @Column(nullable = false)
+    private long counterValue;
+}
@@ -2,6 +2,7 @@ package com.example.springapp.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 @Entity
@@ -11,8 +12,15 @@ import java.time.LocalDateTime;
 @Builder
 public class AuditLog {
 
+    // Column widths; AuditLogService clamps request-supplied values so an event always fits its row
+    public static final int SHORT_TEXT_LENGTH = 255;
+    public static final int USER_AGENT_LENGTH = 1000;
+    public static final int DETAILS_LENGTH = 2000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence so the async audit writer's inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_seq")
+    @SequenceGenerator(name = "audit_log_seq", sequenceName = "audit_log_seq", allocationSize = 50)
     private Long auditId;
 
     @Column(nullable = false)
@@ -35,10 +43,10 @@ public class AuditLog {
     @Column(nullable = false)
     private String sessionId;
 
-    @Column(length = 1000)
+    @Column(length = USER_AGENT_LENGTH)
     private String userAgent;
 
-    @Column(length = 2000)
+    @Column(length = DETAILS_LENGTH)
     private String details;
 
     @Column(columnDefinition = "TEXT")
@@ -48,10 +56,19 @@ public class AuditLog {
     @Builder.Default
     private LocalDateTime timestamp = LocalDateTime.now();
 
+    // Before/after references captured on the request thread; the audit writer diffs them into changes
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private PendingChange pendingChange;
+
     public enum Severity {
         LOW, MEDIUM, HIGH
     }
 
+    public record PendingChange(Object before, Object after) {}
+
     @PrePersist
     protected void onCreate() {
         if (timestamp == null) {
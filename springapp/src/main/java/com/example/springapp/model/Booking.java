@@ -5,12 +5,20 @@ import lombok.*;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity
+@Table(indexes = {
+    @Index(name = "idx_booking_slot_time", columnList = "slotId, startTime, endTime"),
+    @Index(name = "idx_booking_status_start", columnList = "status, startTime"),
+    @Index(name = "idx_booking_status_end", columnList = "status, endTime"),
+    @Index(name = "idx_booking_status_modified", columnList = "status, lastModified")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +27,9 @@ public class Booking {
     
     // ID and Basic Attributes
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence (table-backed on MySQL) instead of IDENTITY so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long bookingId;
 
     @Column(nullable = false, length = 20)
@@ -42,6 +52,11 @@ public class Booking {
     @Builder.Default
     private int extendedTime = 0;
 
+    // Set by the lifecycle scheduler once the start-time reminder has gone out
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean reminderSent = false;
+
     // Timestamps
     @Column(updatable = false, nullable = false)
     private LocalDateTime createdDate;
@@ -80,6 +95,9 @@ public class Booking {
     public enum Status {
         CONFIRMED, ACTIVE, COMPLETED, CANCELLED, OVERDUE
     }
+
+    // Statuses that still occupy the slot for their time window
+    public static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.CONFIRMED, Status.ACTIVE, Status.OVERDUE);
     
     @PrePersist
     protected void onCreate() {
@@ -15,7 +15,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 public class BookingHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_history_seq")
+    @SequenceGenerator(name = "booking_history_seq", sequenceName = "booking_history_seq", allocationSize = 50)
     private Long historyId;
 
     @ManyToOne
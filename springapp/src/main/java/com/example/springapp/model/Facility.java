@@ -2,6 +2,8 @@ package com.example.springapp.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,6 +12,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "facility")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
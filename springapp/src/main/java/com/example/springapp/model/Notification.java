@@ -2,6 +2,8 @@ package com.example.springapp.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
@@ -13,16 +15,20 @@ import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@Table(indexes = @Index(name = "idx_notification_user_read", columnList = "user_id, isRead"))
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long notificationId;
 
     @Column(nullable = false, length = 500)
     private String message;
 
+    // VARCHAR rather than a MySQL enum, so adding a type needs no column change (NotificationTypeColumnMigration)
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
     @Column(nullable = false, length = 30)
     private Type type;
 
@@ -58,7 +64,9 @@ public class Notification {
         PAYMENT_FAILURE,
         REMINDER, 
         ALERT,
-        SYSTEM_UPDATE
+        SYSTEM_UPDATE,
+        // Several LOW-priority notifications rolled into one (see NotificationCoalescer)
+        DIGEST
     }
     
     public enum Priority {
@@ -0,0 +1,99 @@
+package com.example.springapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * One notification sent to an audience (every active user, one role, or the users with active
+ * bookings at a facility) and fanned out into per-user Notification rows in the background.
+ * Recipients are processed in ascending user id; {@code lastUserId} is committed with each chunk
+ * of inserts, so an interrupted fan-out resumes after the last delivered user without duplicates.
+ * Only the holder of an unexpired lease delivers chunks, so two instances never run one broadcast.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_notification_broadcast_status", columnList = "status"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationBroadcast {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long broadcastId;
+
+    @Column(nullable = false, length = 500)
+    private String message;
+
+    // Same VARCHAR mapping as Notification.type
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 30)
+    private Notification.Type type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 15)
+    @Builder.Default
+    private Notification.Priority priority = Notification.Priority.MEDIUM;
+
+    @Column(length = 50)
+    private String relatedEntityType;
+
+    @Column(length = 50)
+    private String relatedEntityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Audience audience;
+
+    // Set for ROLE broadcasts
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private User.Role role;
+
+    // Set for FACILITY broadcasts
+    private Long facilityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    @Builder.Default
+    private Status status = Status.PENDING;
+
+    // Audience size when the fan-out started; users joining later may still be included
+    private Long totalRecipients;
+
+    @Builder.Default
+    private long delivered = 0;
+
+    // Resume cursor: every recipient with a lower or equal id has been delivered
+    @Builder.Default
+    private long lastUserId = 0;
+
+    @Column(length = 500)
+    private String error;
+
+    // Lease of the instance running the fan-out: a fresh token per claim, renewed with each chunk
+    @Column(length = 36)
+    private String leaseToken;
+
+    private LocalDateTime leaseUntil;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdDate = LocalDateTime.now();
+
+    private LocalDateTime startedDate;
+    private LocalDateTime completedDate;
+
+    public enum Audience {
+        ALL, ROLE, FACILITY
+    }
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -2,6 +2,8 @@ package com.example.springapp.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -11,6 +13,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "parking-slot")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -74,6 +77,12 @@ public class ParkingSlot {
 
     private LocalDateTime lastModified;
 
+    // Optimistic lock guard; bumped by every booking write, which locks the slot with a forced increment
+    @Version
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long version = 0L;
+
     public enum SlotType {
         REGULAR, VIP, HANDICAPPED, ELECTRIC_VEHICLE
     }
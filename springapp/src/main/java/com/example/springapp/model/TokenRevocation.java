@@ -0,0 +1,51 @@
+package com.example.springapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One revocation rule for stateless JWT authorization: either a single token id (jti), or every
+ * token of a user issued at or before {@code revokedBefore}. Rows are only needed until
+ * {@code expiresAt}, after which every token they could match has expired on its own.
+ */
+@Entity
+@Table(indexes = {
+    @Index(name = "idx_token_revocation_expires", columnList = "expiresAt"),
+    @Index(name = "idx_token_revocation_created", columnList = "createdDate")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long revocationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Type type;
+
+    // Set for TOKEN rules
+    @Column(length = 36)
+    private String tokenId;
+
+    // Set for USER rules (and recorded for TOKEN rules when known)
+    private Long userId;
+
+    // USER rules: tokens with iat at or before this instant are rejected
+    private LocalDateTime revokedBefore;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime createdDate = LocalDateTime.now();
+
+    public enum Type {
+        TOKEN, USER
+    }
+}
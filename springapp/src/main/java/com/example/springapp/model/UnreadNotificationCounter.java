@@ -0,0 +1,22 @@
+package com.example.springapp.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A user's unread notification count, shared by every instance (see UnreadNotificationCounters).
+ * Adjusted in the same transaction as the notification write that changes it.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UnreadNotificationCounter {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long unreadCount;
+}
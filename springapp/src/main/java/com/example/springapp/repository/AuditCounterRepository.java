@@ -0,0 +1,22 @@
+package com.example.springapp.repository;
+
+import com.example.springapp.model.AuditCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AuditCounterRepository extends JpaRepository<AuditCounter, String> {
+
+    // Additive, so instances flushing at the same time both count
+    @Modifying
+    @Query("UPDATE AuditCounter c SET c.counterValue = c.counterValue + :delta WHERE c.counterKey = :key")
+    int addTo(@Param("key") String key, @Param("delta") long delta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<AuditCounter> findByCounterKeyStartingWith(String prefix);
+}
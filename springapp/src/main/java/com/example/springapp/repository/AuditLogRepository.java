@@ -1,6 +1,8 @@
 package com.example.springapp.repository;
 
 import com.example.springapp.model.AuditLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,4 +23,12 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
     @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.severity = :severity")
     Long countBySeverity(@Param("severity") AuditLog.Severity severity);
+
+    @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :from AND a.timestamp < :to AND a.auditId > :afterId " +
+           "ORDER BY a.auditId")
+    List<AuditLog> findBetweenAfter(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    // auditId is assigned in insert order, so descending id is newest-first without a timestamp sort
+    Slice<AuditLog> findByAuditIdLessThanOrderByAuditIdDesc(Long auditId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,7 +1,29 @@
 package com.example.springapp.repository;
 
+import com.example.springapp.dto.BookingHistoryDTO;
 import com.example.springapp.model.BookingHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface BookingHistoryRepository extends JpaRepository<BookingHistory, Long> {
-}
\ No newline at end of file
+
+    // changedBy is optional, hence the outer join rather than an implicit path
+    String HISTORY_DTO = "SELECT new com.example.springapp.dto.BookingHistoryDTO(h.historyId, h.booking.bookingId, " +
+            "c.userId, h.statusChange, h.previousStatus, h.newStatus, h.changeDate, h.notes, h.reason) " +
+            "FROM BookingHistory h LEFT JOIN h.changedBy c";
+
+    @Query(HISTORY_DTO + " ORDER BY h.historyId")
+    List<BookingHistoryDTO> findAllDtos();
+
+    @Query(HISTORY_DTO + " WHERE h.historyId = :id")
+    Optional<BookingHistoryDTO> findDtoById(@Param("id") Long id);
+
+    @Query(HISTORY_DTO + " WHERE h.historyId < :before ORDER BY h.historyId DESC")
+    Slice<BookingHistoryDTO> findDtosBefore(@Param("before") Long before, Pageable pageable);
+}
@@ -1,7 +1,121 @@
 package com.example.springapp.repository;
 
+import com.example.springapp.dto.BookingDTO;
 import com.example.springapp.model.Booking;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+
+    // Read path: selects only the DTO columns in one statement. user/slot ids come from the FK
+    // columns and the inverse-side payment is a single outer join, so nothing is loaded per row.
+    String BOOKING_DTO = "SELECT new com.example.springapp.dto.BookingDTO(b.bookingId, b.vehicleNumber, " +
+            "b.startTime, b.endTime, b.totalCost, b.status, b.extendedTime, b.createdDate, b.lastModified, " +
+            "b.checkInTime, b.checkOutTime, b.user.userId, b.slot.slotId, p.paymentId) " +
+            "FROM Booking b LEFT JOIN b.payment p";
+
+    @Query(BOOKING_DTO + " ORDER BY b.bookingId")
+    List<BookingDTO> findAllDtos();
+
+    @Query(BOOKING_DTO + " WHERE b.bookingId = :id")
+    Optional<BookingDTO> findDtoById(@Param("id") Long id);
+
+    @Query(BOOKING_DTO + " WHERE b.bookingId < :before ORDER BY b.bookingId DESC")
+    Slice<BookingDTO> findDtosBefore(@Param("before") Long before, Pageable pageable);
+
+    // Half-open [startTime, endTime) overlap check against bookings that still hold the slot
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.slot.slotId = :slotId " +
+           "AND b.status IN :statuses " +
+           "AND b.startTime < :endTime AND b.endTime > :startTime " +
+           "AND (:excludeId IS NULL OR b.bookingId <> :excludeId)")
+    boolean existsOverlapping(@Param("slotId") Long slotId,
+                              @Param("startTime") LocalDateTime startTime,
+                              @Param("endTime") LocalDateTime endTime,
+                              @Param("statuses") Collection<Booking.Status> statuses,
+                              @Param("excludeId") Long excludeId);
+
+    // [bookingId, slotId, startTime, endTime, status] for every booking still holding a slot after :from;
+    // OVERDUE bookings hold theirs past endTime until check-out
+    @Query("SELECT b.bookingId, b.slot.slotId, b.startTime, b.endTime, b.status FROM Booking b " +
+           "WHERE b.status IN :statuses AND (b.endTime > :from OR b.status = :overdue)")
+    List<Object[]> findActiveWindows(@Param("statuses") Collection<Booking.Status> statuses,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("overdue") Booking.Status overdue);
+
+    // [slotId, startTime, endTime] of blocking bookings on any of the slots that intersect [from, to)
+    @Query("SELECT b.slot.slotId, b.startTime, b.endTime FROM Booking b " +
+           "WHERE b.slot.slotId IN :slotIds AND b.status IN :statuses " +
+           "AND b.startTime < :to AND b.endTime > :from")
+    List<Object[]> findWindowsForSlots(@Param("slotIds") Collection<Long> slotIds,
+                                       @Param("statuses") Collection<Booking.Status> statuses,
+                                       @Param("from") LocalDateTime from,
+                                       @Param("to") LocalDateTime to);
+
+    // Lifecycle scheduler batches: [bookingId, slotId, userId, startTime, endTime], served by idx_booking_status_end.
+    // The rows are locked until the batch commits, so nothing else can move them between this and the UPDATE.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.bookingId, b.slot.slotId, b.user.userId, b.startTime, b.endTime FROM Booking b " +
+           "WHERE b.status = :status AND b.endTime <= :cutoff ORDER BY b.endTime, b.bookingId")
+    List<Object[]> findEndedBefore(@Param("status") Booking.Status status,
+                                   @Param("cutoff") LocalDateTime cutoff,
+                                   Pageable pageable);
+
+    // Served by idx_booking_status_start; locked like findEndedBefore so two instances can't both remind
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b.bookingId, b.slot.slotId, b.user.userId, b.startTime, b.endTime FROM Booking b " +
+           "WHERE b.status = :status AND b.reminderSent = false " +
+           "AND b.startTime > :now AND b.startTime <= :cutoff ORDER BY b.startTime, b.bookingId")
+    List<Object[]> findStartingBetween(@Param("status") Booking.Status status,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("cutoff") LocalDateTime cutoff,
+                                       Pageable pageable);
+
+    // Slots of bookings in the given (finished) statuses that ended, served by idx_booking_status_end, or were
+    // changed, served by idx_booking_status_modified, within (from, to]
+    @Query("SELECT DISTINCT b.slot.slotId FROM Booking b " +
+           "WHERE b.status IN :statuses AND b.endTime > :from AND b.endTime <= :to")
+    List<Long> findSlotsEndedBetween(@Param("statuses") Collection<Booking.Status> statuses,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    @Query("SELECT DISTINCT b.slot.slotId FROM Booking b " +
+           "WHERE b.status IN :statuses AND b.lastModified > :from AND b.lastModified <= :to")
+    List<Long> findSlotsModifiedBetween(@Param("statuses") Collection<Booking.Status> statuses,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to, b.lastModified = :now " +
+           "WHERE b.bookingId IN :ids AND b.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") Booking.Status from,
+                         @Param("to") Booking.Status to,
+                         @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.reminderSent = true WHERE b.bookingId IN :ids AND b.reminderSent = false")
+    int markRemindersSent(@Param("ids") Collection<Long> ids);
+
+    // Broadcast fan-out: users holding bookings in the given statuses at a facility, ascending keyset chunks
+    @Query("SELECT DISTINCT b.user.userId FROM Booking b WHERE b.slot.facility.facilityId = :facilityId " +
+           "AND b.status IN :statuses AND b.user.userId > :after ORDER BY b.user.userId")
+    List<Long> findUserIdsAtFacilityAfter(@Param("facilityId") Long facilityId,
+                                          @Param("statuses") Collection<Booking.Status> statuses,
+                                          @Param("after") long after, Pageable pageable);
+
+    @Query("SELECT COUNT(DISTINCT b.user.userId) FROM Booking b WHERE b.slot.facility.facilityId = :facilityId " +
+           "AND b.status IN :statuses")
+    long countUsersAtFacility(@Param("facilityId") Long facilityId,
+                              @Param("statuses") Collection<Booking.Status> statuses);
 }
@@ -0,0 +1,36 @@
+package com.example.springapp.repository;
+
+import com.example.springapp.model.NotificationBroadcast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationBroadcastRepository extends JpaRepository<NotificationBroadcast, Long> {
+
+    List<NotificationBroadcast> findByStatusInOrderByBroadcastId(Collection<NotificationBroadcast.Status> statuses);
+
+    List<NotificationBroadcast> findTop50ByOrderByBroadcastIdDesc();
+
+    // Conditional UPDATE, so of two instances claiming the same broadcast only one matches
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationBroadcast b SET b.leaseToken = :token, b.leaseUntil = :until " +
+           "WHERE b.broadcastId = :id AND b.status IN :statuses AND (b.leaseUntil IS NULL OR b.leaseUntil < :now)")
+    int claim(@Param("id") Long id, @Param("statuses") Collection<NotificationBroadcast.Status> statuses,
+              @Param("token") String token, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Zero rows once the lease has been lost to another claim; null until releases it
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationBroadcast b SET b.leaseUntil = :until " +
+           "WHERE b.broadcastId = :id AND b.leaseToken = :token")
+    int renew(@Param("id") Long id, @Param("token") String token, @Param("until") LocalDateTime until);
+}
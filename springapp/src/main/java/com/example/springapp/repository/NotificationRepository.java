@@ -1,9 +1,16 @@
 package com.example.springapp.repository;
 
 import com.example.springapp.model.Notification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,7 +22,27 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     Long countByUserUserIdAndIsReadFalse(Long userId);
 
+    /** Rows of (userId, unread count); users without unread notifications are absent. */
+    @Query("SELECT n.user.userId, COUNT(n) FROM Notification n " +
+           "WHERE n.user.userId IN :userIds AND n.isRead = false GROUP BY n.user.userId")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.userId = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.user.userId = :userId AND n.type = :type AND n.isRead = false")
+    int markAllReadByType(@Param("userId") Long userId, @Param("type") Notification.Type type);
+
     List<Notification> findByType(Notification.Type type);
 
     List<Notification> findByPriority(Notification.Priority priority);
+
+    Slice<Notification> findByNotificationIdLessThanOrderByNotificationIdDesc(Long notificationId, Pageable pageable);
+
+    Slice<Notification> findByUserUserIdAndNotificationIdLessThanOrderByNotificationIdDesc(Long userId, Long notificationId, Pageable pageable);
 }
@@ -2,12 +2,22 @@ package com.example.springapp.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.example.springapp.model.Booking;
 import com.example.springapp.model.ParkingSlot;
 
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 public interface ParkingSlotRepository extends JpaRepository<ParkingSlot, Long> {
     @Query("SELECT s FROM ParkingSlot s WHERE " +
        "(:facilityId IS NULL OR s.facility.facilityId = :facilityId) AND " +
@@ -18,4 +28,34 @@ Page<ParkingSlot> findFiltered(@Param("facilityId") Long facilityId,
                                @Param("availableOnly") Boolean availableOnly,
                                Pageable pageable);
 
+    // Keyset variant of findFiltered: seeks past the last slotId instead of skipping OFFSET rows
+    @Query("SELECT s FROM ParkingSlot s WHERE s.slotId < :beforeId AND " +
+           "(:facilityId IS NULL OR s.facility.facilityId = :facilityId) AND " +
+           "(:slotType IS NULL OR s.slotType = :slotType) AND " +
+           "(:availableOnly IS NULL OR s.isAvailable = :availableOnly) ORDER BY s.slotId DESC")
+    Slice<ParkingSlot> findFilteredBefore(@Param("beforeId") Long beforeId,
+                                          @Param("facilityId") Long facilityId,
+                                          @Param("slotType") ParkingSlot.SlotType slotType,
+                                          @Param("availableOnly") Boolean availableOnly,
+                                          Pageable pageable);
+
+    // Row lock (SELECT ... FOR UPDATE) so bookings on the same slot serialise across app instances; the
+    // lock also bumps the version, since booking a slot that is already unavailable leaves it unchanged
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT s FROM ParkingSlot s WHERE s.slotId = :slotId")
+    Optional<ParkingSlot> findByIdForUpdate(@Param("slotId") Long slotId);
+
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT s FROM ParkingSlot s WHERE s.slotId IN :slotIds ORDER BY s.slotId")
+    List<ParkingSlot> findAllByIdForUpdate(@Param("slotIds") Collection<Long> slotIds);
+
+    // Frees slots whose booking has ended, unless another blocking booking covers the current time
+    @Modifying
+    @Query("UPDATE ParkingSlot s SET s.isAvailable = true, s.version = s.version + 1, s.lastModified = :now " +
+           "WHERE s.slotId IN :slotIds AND s.isAvailable = false AND NOT EXISTS (" +
+           "SELECT b FROM Booking b WHERE b.slot = s AND b.status IN :statuses " +
+           "AND b.startTime <= :now AND b.endTime > :now)")
+    int releaseIfIdle(@Param("slotIds") Collection<Long> slotIds,
+                      @Param("statuses") Collection<Booking.Status> statuses,
+                      @Param("now") LocalDateTime now);
 }
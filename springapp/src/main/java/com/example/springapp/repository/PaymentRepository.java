@@ -1,7 +1,29 @@
 package com.example.springapp.repository;
 
+import com.example.springapp.dto.PaymentDTO;
 import com.example.springapp.model.Payment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-}
\ No newline at end of file
+
+    // bookingId is read from the FK column, so the eager Payment.booking graph is never loaded
+    String PAYMENT_DTO = "SELECT new com.example.springapp.dto.PaymentDTO(p.paymentId, p.booking.bookingId, " +
+            "p.amount, p.paymentMethod, p.transactionId, p.status, p.paymentDate, p.refundAmount, " +
+            "p.gatewayResponse) FROM Payment p";
+
+    @Query(PAYMENT_DTO + " ORDER BY p.paymentId")
+    List<PaymentDTO> findAllDtos();
+
+    @Query(PAYMENT_DTO + " WHERE p.paymentId = :id")
+    Optional<PaymentDTO> findDtoById(@Param("id") Long id);
+
+    @Query(PAYMENT_DTO + " WHERE p.paymentId < :before ORDER BY p.paymentId DESC")
+    Slice<PaymentDTO> findDtosBefore(@Param("before") Long before, Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.example.springapp.repository;
+
+import com.example.springapp.model.TokenRevocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    // Incremental refresh: rows past the cursor, plus recent ones that may have committed out of id order
+    @Query("SELECT r FROM TokenRevocation r WHERE r.revocationId > :after OR r.createdDate >= :since " +
+           "ORDER BY r.revocationId")
+    List<TokenRevocation> findAfterOrCreatedSince(@Param("after") Long after, @Param("since") LocalDateTime since);
+
+    List<TokenRevocation> findByExpiresAtAfterOrderByRevocationIdAsc(LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TokenRevocation r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
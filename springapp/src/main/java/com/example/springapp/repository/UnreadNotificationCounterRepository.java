@@ -0,0 +1,40 @@
+package com.example.springapp.repository;
+
+import com.example.springapp.model.UnreadNotificationCounter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UnreadNotificationCounterRepository extends JpaRepository<UnreadNotificationCounter, Long> {
+
+    // Skips users whose counter isn't seeded yet; their seed's COUNT includes this write
+    @Modifying
+    @Transactional
+    @Query("UPDATE UnreadNotificationCounter c SET c.unreadCount = c.unreadCount + :delta " +
+           "WHERE c.userId IN :userIds")
+    int addTo(@Param("userIds") Collection<Long> userIds, @Param("delta") long delta);
+
+    // INSERT ... SELECT reads the notifications with shared locks (InnoDB, REPEATABLE READ), so it
+    // waits for an uncommitted write to the user's notifications instead of missing it
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO unread_notification_counter (user_id, unread_count) " +
+                   "SELECT :userId, COUNT(*) FROM notification WHERE user_id = :userId AND is_read = false",
+           nativeQuery = true)
+    int seed(@Param("userId") Long userId);
+
+    // Compare-and-set, so a correction never overwrites a write that committed after the recount
+    @Modifying
+    @Transactional
+    @Query("UPDATE UnreadNotificationCounter c SET c.unreadCount = :actual " +
+           "WHERE c.userId = :userId AND c.unreadCount = :seen")
+    int correct(@Param("userId") Long userId, @Param("seen") long seen, @Param("actual") long actual);
+
+    List<UnreadNotificationCounter> findByUserIdGreaterThanOrderByUserId(Long after, Pageable pageable);
+}
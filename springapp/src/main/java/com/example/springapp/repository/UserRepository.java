@@ -1,14 +1,32 @@
 package com.example.springapp.repository;
 
+import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import com.example.springapp.model.User;
+import jakarta.persistence.QueryHint;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    // Resolved on every authenticated request; the cached id list is invalidated by any User write
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByUsernameOrEmail(String username, String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByRole(User.Role role);
+    Slice<User> findByUserIdLessThanOrderByUserIdDesc(Long userId, Pageable pageable);
+    // Broadcast fan-out: recipient ids in ascending keyset chunks
+    @Query("SELECT u.userId FROM User u WHERE u.isActive = true AND u.userId > :after ORDER BY u.userId")
+    List<Long> findActiveIdsAfter(@Param("after") long after, Pageable pageable);
+    @Query("SELECT u.userId FROM User u WHERE u.isActive = true AND u.role = :role AND u.userId > :after ORDER BY u.userId")
+    List<Long> findActiveIdsByRoleAfter(@Param("role") User.Role role, @Param("after") long after, Pageable pageable);
+    long countByIsActiveTrue();
+    long countByRoleAndIsActiveTrue(User.Role role);
 }
@@ -1,7 +1,27 @@
 package com.example.springapp.repository;
 
+import com.example.springapp.dto.VehicleDTO;
 import com.example.springapp.model.Vehicle;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
-}
\ No newline at end of file
+
+    String VEHICLE_DTO = "SELECT new com.example.springapp.dto.VehicleDTO(v.vehicleId, v.user.userId, " +
+            "v.licensePlate, v.vehicleType, v.make, v.model, v.color, v.year, v.isDefault) FROM Vehicle v";
+
+    @Query(VEHICLE_DTO + " ORDER BY v.vehicleId")
+    List<VehicleDTO> findAllDtos();
+
+    @Query(VEHICLE_DTO + " WHERE v.vehicleId = :id")
+    Optional<VehicleDTO> findDtoById(@Param("id") Long id);
+
+    @Query(VEHICLE_DTO + " WHERE v.vehicleId < :before ORDER BY v.vehicleId DESC")
+    Slice<VehicleDTO> findDtosBefore(@Param("before") Long before, Pageable pageable);
+}
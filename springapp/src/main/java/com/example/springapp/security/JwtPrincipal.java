@@ -0,0 +1,26 @@
+package com.example.springapp.security;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import io.jsonwebtoken.Claims;
+
+/** Principal built purely from verified token claims, used when stateless authorization is enabled. */
+public record JwtPrincipal(Long userId, String username, String role) implements Principal {
+
+    public static JwtPrincipal from(Claims claims) {
+        return new JwtPrincipal(claims.get("id", Long.class), claims.getSubject(), claims.get("role", String.class));
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        // Same ROLE_ prefix as AppUserDetails so hasRole() checks behave identically
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
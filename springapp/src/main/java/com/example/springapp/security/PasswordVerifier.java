@@ -0,0 +1,63 @@
+package com.example.springapp.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt verification on a small fixed pool with a bounded queue, so a login burst costs at
+ * most {@code threads} cores and excess attempts are rejected up front instead of tying up
+ * request threads behind a CPU-bound backlog.
+ */
+@Component
+public class PasswordVerifier {
+
+    private final PasswordEncoder passwordEncoder;
+    // Compared against when the user doesn't exist so response time doesn't reveal registered usernames
+    private final String dummyHash;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder,
+                            @Value("${app.auth.bcrypt-threads:0}") int threads,
+                            @Value("${app.auth.bcrypt-queue:256}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Completes with whether {@code rawPassword} matches {@code passwordHash}; a null hash runs the
+     * comparison against a dummy hash and completes with false.
+     *
+     * @throws RejectedExecutionException when the verification queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String passwordHash) {
+        return CompletableFuture.supplyAsync(() -> {
+            boolean matches = passwordEncoder.matches(rawPassword, passwordHash != null ? passwordHash : dummyHash);
+            return passwordHash != null && matches;
+        }, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
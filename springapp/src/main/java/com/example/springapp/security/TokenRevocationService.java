@@ -0,0 +1,215 @@
+package com.example.springapp.security;
+
+import com.example.springapp.model.TokenRevocation;
+import com.example.springapp.repository.TokenRevocationRepository;
+import com.example.springapp.util.BloomFilter;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory view of the token_revocation table used by the JWT filter to reject revoked tokens
+ * without a database read. Revoked token ids go into a Bloom filter (the common "not revoked"
+ * answer never touches the exact set) backed by an exact set; per-user "issued before" cutoffs
+ * live in a map. Every instance appends new rows on a short interval and periodically rebuilds
+ * the whole view so expired rows fall out of the Bloom filter.
+ * <p>
+ * IDENTITY ids are taken at insert, not at commit, so a row with a lower id can become visible
+ * after a higher one was already read. Each refresh therefore re-reads every row created within
+ * {@code app.security.revocation.rescan-window-ms} besides those past the id cursor; applying a
+ * rule twice is harmless.
+ * <p>
+ * If the database can't be read, revocations made on other instances stop arriving. By default
+ * the view keeps answering from what it has (fail open: availability over prompt revocation).
+ * With {@code app.security.revocation.fail-open=false}, every token is treated as revoked once
+ * the view is {@code app.security.revocation.max-staleness-ms} old.
+ */
+@Service
+@Slf4j
+public class TokenRevocationService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final class State {
+        final BloomFilter tokenFilter;
+        final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+        final Map<Long, Long> userCutoffMs = new ConcurrentHashMap<>();
+        volatile long lastSeenId;
+
+        State(int expectedTokens) {
+            tokenFilter = new BloomFilter(expectedTokens, 0.01);
+        }
+    }
+
+    private final TokenRevocationRepository repository;
+    private final long tokenLifetimeMs;
+    private final int expectedTokens;
+    private final long rescanWindowMs;
+    private final boolean failOpen;
+    private final long maxStalenessMs;
+    private volatile State state;
+    private volatile long syncedAtMs = System.currentTimeMillis();
+    private final AtomicBoolean staleReported = new AtomicBoolean();
+
+    public TokenRevocationService(TokenRevocationRepository repository,
+                                  @Value("${app.jwt.expiration-ms}") long tokenLifetimeMs,
+                                  @Value("${app.security.revocation.expected-tokens:100000}") int expectedTokens,
+                                  @Value("${app.security.revocation.rescan-window-ms:60000}") long rescanWindowMs,
+                                  @Value("${app.security.revocation.fail-open:true}") boolean failOpen,
+                                  @Value("${app.security.revocation.max-staleness-ms:60000}") long maxStalenessMs) {
+        this.repository = repository;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+        this.expectedTokens = expectedTokens;
+        this.rescanWindowMs = rescanWindowMs;
+        this.failOpen = failOpen;
+        this.maxStalenessMs = maxStalenessMs;
+        this.state = new State(expectedTokens);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (!failOpen && System.currentTimeMillis() - syncedAtMs >= maxStalenessMs) {
+            if (staleReported.compareAndSet(false, true)) {
+                log.error("Token revocations not synced for {} ms; rejecting all tokens (fail-open=false)",
+                        maxStalenessMs);
+            }
+            return true;
+        }
+        State current = state;
+        String tokenId = claims.getId();
+        if (tokenId != null && current.tokenFilter.mightContain(tokenId) && current.tokenIds.contains(tokenId)) {
+            return true;
+        }
+        Long userId = claims.get("id", Long.class);
+        Long cutoff = userId != null ? current.userCutoffMs.get(userId) : null;
+        if (cutoff == null) {
+            return false;
+        }
+        // iat has second precision, so a token minted in the same second as the cutoff is rejected too
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() <= cutoff;
+    }
+
+    /** Revokes a single token (logout). Takes effect here immediately, elsewhere on the next refresh. */
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null) {
+            // Tokens minted before ids were added can only be revoked per user
+            revokeUserTokens(claims.get("id", Long.class));
+            return;
+        }
+        TokenRevocation saved = repository.save(TokenRevocation.builder()
+                .type(TokenRevocation.Type.TOKEN)
+                .tokenId(claims.getId())
+                .userId(claims.get("id", Long.class))
+                .expiresAt(toLocal(claims.getExpiration().getTime()))
+                .build());
+        applyLocally(saved);
+    }
+
+    /** Revokes every token issued to the user so far (role change, disable, delete). */
+    public void revokeUserTokens(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        TokenRevocation saved = repository.save(TokenRevocation.builder()
+                .type(TokenRevocation.Type.USER)
+                .userId(userId)
+                .revokedBefore(toLocal(now))
+                .expiresAt(toLocal(now + tokenLifetimeMs))
+                .build());
+        applyLocally(saved);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-ms:2000}")
+    public void refresh() {
+        State current = state;
+        long startedMs = System.currentTimeMillis();
+        try {
+            List<TokenRevocation> rows = repository.findAfterOrCreatedSince(current.lastSeenId,
+                    toLocal(startedMs - rescanWindowMs));
+            rows.forEach(row -> apply(current, row));
+            synced(startedMs);
+        } catch (DataAccessException e) {
+            syncFailed("refresh", e);
+        }
+    }
+
+    // Drops expired rows and rebuilds the view (a Bloom filter can't forget entries on its own)
+    @Scheduled(fixedDelayString = "${app.security.revocation.rebuild-ms:600000}",
+               initialDelayString = "${app.security.revocation.rebuild-ms:600000}")
+    public void rebuild() {
+        long startedMs = System.currentTimeMillis();
+        try {
+            LocalDateTime now = toLocal(startedMs);
+            int purged = repository.deleteExpired(now);
+            State fresh = new State(expectedTokens);
+            repository.findByExpiresAtAfterOrderByRevocationIdAsc(now).forEach(row -> apply(fresh, row));
+            // lastSeenId stays at the snapshot's max; rows committed meanwhile, even below it, are
+            // picked up by the next refresh's rescan window
+            state = fresh;
+            synced(startedMs);
+            if (purged > 0) {
+                log.debug("Purged {} expired token revocations", purged);
+            }
+        } catch (DataAccessException e) {
+            syncFailed("rebuild", e);
+        }
+    }
+
+    private void synced(long startedMs) {
+        syncedAtMs = startedMs;
+        if (staleReported.compareAndSet(true, false)) {
+            log.info("Token revocations in sync again");
+        }
+    }
+
+    private void syncFailed(String what, DataAccessException e) {
+        if (failOpen) {
+            log.warn("Token revocation {} failed, serving the view from {} ms ago (fail-open): {}",
+                    what, System.currentTimeMillis() - syncedAtMs, e.getMessage());
+        } else {
+            log.warn("Token revocation {} failed, tokens are rejected after {} ms without a sync: {}",
+                    what, maxStalenessMs, e.getMessage());
+        }
+    }
+
+    // Effective on this instance at once; lastSeenId is left alone so the refresh cursor never skips
+    // rows other instances committed with lower ids in the meantime
+    private void applyLocally(TokenRevocation row) {
+        addRule(state, row);
+    }
+
+    private static void apply(State target, TokenRevocation row) {
+        addRule(target, row);
+        synchronized (target) {
+            target.lastSeenId = Math.max(target.lastSeenId, row.getRevocationId());
+        }
+    }
+
+    private static void addRule(State target, TokenRevocation row) {
+        if (row.getType() == TokenRevocation.Type.TOKEN && row.getTokenId() != null) {
+            target.tokenFilter.put(row.getTokenId());
+            target.tokenIds.add(row.getTokenId());
+        } else if (row.getType() == TokenRevocation.Type.USER && row.getUserId() != null
+                && row.getRevokedBefore() != null) {
+            long cutoff = row.getRevokedBefore().atZone(ZONE).toInstant().toEpochMilli();
+            target.userCutoffMs.merge(row.getUserId(), cutoff, Math::max);
+        }
+    }
+
+    private static LocalDateTime toLocal(long epochMs) {
+        return LocalDateTime.ofInstant(new Date(epochMs).toInstant(), ZONE);
+    }
+}
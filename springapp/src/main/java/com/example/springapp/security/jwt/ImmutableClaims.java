@@ -0,0 +1,113 @@
+package com.example.springapp.security.jwt;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of verified claims, safe to hand to every request that presents the same token.
+ * It wraps the parser's own instance, which nothing else references, and rejects every mutator.
+ */
+final class ImmutableClaims extends AbstractMap<String, Object> implements Claims {
+
+    private final Claims claims;
+    private final Set<Map.Entry<String, Object>> entries;
+
+    ImmutableClaims(Claims claims) {
+        this.claims = claims;
+        this.entries = Collections.unmodifiableMap(claims).entrySet();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return entries;
+    }
+
+    @Override
+    public Object get(Object key) {
+        return claims.get(key);
+    }
+
+    @Override
+    public <T> T get(String claimName, Class<T> requiredType) {
+        return claims.get(claimName, requiredType);
+    }
+
+    @Override
+    public String getIssuer() {
+        return claims.getIssuer();
+    }
+
+    @Override
+    public String getSubject() {
+        return claims.getSubject();
+    }
+
+    @Override
+    public String getAudience() {
+        return claims.getAudience();
+    }
+
+    @Override
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    @Override
+    public Date getNotBefore() {
+        return claims.getNotBefore();
+    }
+
+    @Override
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    @Override
+    public String getId() {
+        return claims.getId();
+    }
+
+    @Override
+    public Claims setIssuer(String iss) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setSubject(String sub) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setAudience(String aud) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setExpiration(Date exp) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setNotBefore(Date nbf) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setIssuedAt(Date iat) {
+        throw readOnly();
+    }
+
+    @Override
+    public Claims setId(String jti) {
+        throw readOnly();
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Cached claims are shared and read-only");
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.springapp.security.jwt;
 
 import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -9,6 +10,11 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import com.example.springapp.security.AppUserDetailsService;
+import com.example.springapp.security.JwtPrincipal;
+import com.example.springapp.security.PrincipalCache;
+import com.example.springapp.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +27,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final AppUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService revocationService;
+
+    // Authorities come from the verified role claim; the user row is only read for legacy tokens
+    @Value("${app.security.stateless-auth:false}")
+    private boolean statelessAuth;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
@@ -33,13 +45,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String username = jwtService.getClaim(jwt, c -> c.getSubject());
+        final Claims claims;
+        try {
+            // One parse/verify per request (and none for tokens already in the claims cache)
+            claims = jwtService.parseClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            chain.doFilter(request, response);
+            return;
+        }
+        final String username = claims.getSubject();
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !revocationService.isRevoked(claims)) {
+            UsernamePasswordAuthenticationToken auth = null;
+            if (statelessAuth && claims.get("id") != null && claims.get("role") != null) {
+                JwtPrincipal principal = JwtPrincipal.from(claims);
+                auth = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+            } else {
+                UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
+                if (jwtService.isTokenValid(claims, userDetails.getUsername())) {
+                    auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                }
+            }
+            if (auth != null) {
                 auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(auth);
             }
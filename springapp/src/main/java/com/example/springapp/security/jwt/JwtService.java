@@ -1,9 +1,18 @@
 package com.example.springapp.security.jwt;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import javax.crypto.SecretKey;
@@ -14,21 +23,34 @@ public class JwtService {
     private final SecretKey key;
     private final long expirationMs;
     private final String issuer;
+    // Immutable and thread-safe; building one per call dominated verification cost
+    private final JwtParser parser;
+    // Verified claims keyed by SHA-256 of the compact token, each entry living until its exp claim.
+    // Entries are shared by every request presenting the token, so they are read-only views.
+    private final Cache<ByteBuffer, Claims> verifiedClaims;
 
     public JwtService(
         @Value("${app.jwt.secret}") String base64Secret,
         @Value("${app.jwt.expiration-ms}") long expirationMs,
-        @Value("${app.jwt.issuer}") String issuer
+        @Value("${app.jwt.issuer}") String issuer,
+        @Value("${app.jwt.claims-cache-size:50000}") long claimsCacheSize
     ) {
         this.key = Keys.hmacShaKeyFor(io.jsonwebtoken.io.Decoders.BASE64.decode(base64Secret));
         this.expirationMs = expirationMs;
         this.issuer = issuer;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfter(new UntilExpiration())
+                .build();
     }
 
     public String generateToken(Long id,String subject, String role) {
         long now = System.currentTimeMillis();
         return Jwts.builder()
                 .setSubject(subject)
+                // jti lets a single token be revoked (see TokenRevocationService)
+                .setId(UUID.randomUUID().toString())
                 .claim("role", role)
                 .claim("id", id)
                 .setIssuer(issuer)
@@ -38,19 +60,69 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Parses and HMAC-verifies the token at most once while it is valid; later calls with the same
+     * token are served from the claims cache. The returned claims are read-only. Throws
+     * {@link JwtException} for bad or expired tokens.
+     */
+    public Claims parseClaims(String token) {
+        ByteBuffer digest = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(digest);
+        if (claims != null && !isExpired(claims)) {
+            return claims;
+        }
+        claims = new ImmutableClaims(parser.parseClaimsJws(token).getBody());
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(digest, claims);
+        }
+        return claims;
+    }
+
+    public boolean isTokenValid(Claims claims, String username) {
+        return username.equals(claims.getSubject()) && !isExpired(claims);
+    }
+
     public boolean isTokenValid(String token, String username) {
-        String subject = getClaim(token, Claims::getSubject);
-        return subject.equals(username) && !isExpired(token);
+        return isTokenValid(parseClaims(token), username);
     }
 
     public boolean isExpired(String token) {
-        Date exp = getClaim(token, Claims::getExpiration);
-        return exp.before(new Date());
+        return isExpired(parseClaims(token));
     }
 
     public <T> T getClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody();
-        return resolver.apply(claims);
+        return resolver.apply(parseClaims(token));
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.before(new Date());
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UntilExpiration implements Expiry<ByteBuffer, Claims> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the before/after references captured on the request thread into the audit
+ * {@code changes} column: a JSON-Patch (RFC 6902) style list of {@code add}, {@code remove} and
+ * {@code replace} operations covering only the properties that differ. Objects are compared
+ * property by property; arrays and scalars that differ are replaced whole. Runs on the audit
+ * writer thread, so the request never pays for the serialisation.
+ */
+@Component
+@Slf4j
+public class AuditChangeCapture {
+
+    private final ObjectMapper objectMapper;
+
+    public AuditChangeCapture(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /** Replaces each event's pending change with its rendered diff. */
+    public void materialize(List<AuditLog> events) {
+        for (AuditLog event : events) {
+            AuditLog.PendingChange pending = event.getPendingChange();
+            if (pending == null) {
+                continue;
+            }
+            event.setPendingChange(null);
+            try {
+                event.setChanges(diff(pending.before(), pending.after()));
+            } catch (RuntimeException e) {
+                log.warn("Could not diff audit change for {}: {}", event.getAction(), e.getMessage());
+                event.setChanges("Unable to diff changes");
+            }
+        }
+    }
+
+    public String diff(Object before, Object after) {
+        ArrayNode ops = objectMapper.createArrayNode();
+        compare("", tree(before), tree(after), ops);
+        return ops.toString();
+    }
+
+    private JsonNode tree(Object value) {
+        return value == null ? NullNode.getInstance() : objectMapper.valueToTree(value);
+    }
+
+    private void compare(String path, JsonNode before, JsonNode after, ArrayNode ops) {
+        if (before.equals(after)) {
+            return;
+        }
+        if (before.isObject() && after.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = before.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isNull()) {
+                    continue; // set-from-null is an add, emitted below
+                }
+                String child = path + "/" + escape(field.getKey());
+                JsonNode next = after.get(field.getKey());
+                if (next == null || next.isNull()) {
+                    ops.add(op("remove", child, null));
+                } else {
+                    compare(child, field.getValue(), next, ops);
+                }
+            }
+            Iterator<Map.Entry<String, JsonNode>> added = after.fields();
+            while (added.hasNext()) {
+                Map.Entry<String, JsonNode> field = added.next();
+                JsonNode previous = before.get(field.getKey());
+                if ((previous == null || previous.isNull()) && !field.getValue().isNull()) {
+                    ops.add(op("add", path + "/" + escape(field.getKey()), field.getValue()));
+                }
+            }
+            return;
+        }
+        if (before.isNull()) {
+            if (after.isObject()) {
+                // Creation: list only the properties that were set
+                compare(path, objectMapper.createObjectNode(), after, ops);
+            } else {
+                ops.add(op("add", path, after));
+            }
+        } else if (after.isNull()) {
+            ops.add(op("remove", path, null));
+        } else {
+            ops.add(op("replace", path, after));
+        }
+    }
+
+    private ObjectNode op(String name, String path, JsonNode value) {
+        ObjectNode op = objectMapper.createObjectNode();
+        op.put("op", name);
+        op.put("path", path);
+        if (value != null) {
+            op.set("value", value);
+        }
+        return op;
+    }
+
+    // JSON Pointer escaping (RFC 6901)
+    private static String escape(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,363 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AuditDashboardDTO;
+import com.example.springapp.model.AuditCounter;
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.repository.AuditCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Materialised audit counts for the admin dashboard: totals per severity and per action, plus
+ * per-minute, per-hour and per-day buckets of recent activity. The audit writer adds each
+ * persisted batch, so reads are O(1) in the size of the audit store.
+ *
+ * <p>The audit_counter table holds the totals of every instance. Each instance adds what it
+ * counted since its last flush with {@code counter_value = counter_value + delta} (periodically
+ * and on shutdown) and then reloads the table, so counts from other instances show up within
+ * {@code persist-ms}; an instance that dies without shutting down loses at most that much of its
+ * own counts. An empty table is seeded once from the store by whichever instance claims it.
+ * Totals are also kept per month, so a month dropped by retention is subtracted exactly once.
+ */
+@Component
+@Slf4j
+public class AuditCounters {
+
+    private static final String TOTAL = "total";
+    private static final String SEVERITY = "severity:";
+    private static final String ACTION = "action:";
+    private static final String MONTH = "month:";
+    private static final int SEED_PAGE = 5000;
+
+    /** Recent-activity buckets of one width, keyed by bucket start in epoch units of that width. */
+    private static final class Buckets {
+        final String prefix;
+        final ChronoUnit unit;
+        final int keep;
+
+        Buckets(String prefix, ChronoUnit unit, int keep) {
+            this.prefix = prefix;
+            this.unit = unit;
+            this.keep = keep;
+        }
+
+        long key(LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC) / unit.getDuration().getSeconds();
+        }
+
+        LocalDateTime start(long key) {
+            return LocalDateTime.ofEpochSecond(key * unit.getDuration().getSeconds(), 0, ZoneOffset.UTC);
+        }
+
+        boolean expired(long key, LocalDateTime now) {
+            return key <= key(now) - keep;
+        }
+    }
+
+    private final AuditStore auditStore;
+    private final AuditCounterRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final List<Buckets> buckets = List.of(
+            new Buckets("minute:", ChronoUnit.MINUTES, 120),
+            new Buckets("hour:", ChronoUnit.HOURS, 48),
+            new Buckets("day:", ChronoUnit.DAYS, 90));
+    private final Object flushLock = new Object();
+
+    // Totals as last read from the table and deltas being flushed: immutable once published, replaced
+    // under flushLock. Deltas counted since are striped adders, so the writer and readers never block.
+    private volatile Map<String, Long> persisted = Map.of();
+    private volatile Map<String, Long> flushing = Map.of();
+    private final ConcurrentHashMap<String, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public AuditCounters(AuditStore auditStore, AuditCounterRepository repository,
+                         TransactionTemplate transactionTemplate) {
+        this.auditStore = auditStore;
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /** Loads the shared totals, seeding them first if nobody has; runs before the audit writer starts. */
+    @PostConstruct
+    public void load() {
+        synchronized (flushLock) {
+            if (repository.count() == 0 && claimSeed()) {
+                long seeded = seed();
+                flush();
+                log.info("Audit counters seeded from {} stored events", seeded);
+            }
+            reload();
+        }
+        log.info("Audit counters loaded: {} events total", value(TOTAL));
+    }
+
+    /** Adds a persisted batch. Called by the audit writer only. */
+    public void record(List<AuditLog> events) {
+        LocalDateTime now = LocalDateTime.now();
+        for (AuditLog event : events) {
+            if (event.getAuditId() != null) {
+                count(event, now);
+            }
+        }
+    }
+
+    public long countBySeverity(AuditLog.Severity severity) {
+        return value(SEVERITY + severity.name());
+    }
+
+    public AuditDashboardDTO getDashboard() {
+        LocalDateTime now = LocalDateTime.now();
+        AuditDashboardDTO dto = new AuditDashboardDTO();
+        dto.setTotal(value(TOTAL));
+        Map<String, Long> severities = new LinkedHashMap<>();
+        for (AuditLog.Severity severity : AuditLog.Severity.values()) {
+            severities.put(severity.name(), value(SEVERITY + severity.name()));
+        }
+        dto.setBySeverity(severities);
+        Map<String, Long> actions = new TreeMap<>();
+        Map<Buckets, Map<LocalDateTime, Long>> series = new HashMap<>();
+        for (String key : keys()) {
+            if (key.startsWith(ACTION)) {
+                actions.put(key.substring(ACTION.length()), value(key));
+            }
+            for (Buckets width : buckets) {
+                if (key.startsWith(width.prefix)) {
+                    long bucket = Long.parseLong(key.substring(width.prefix.length()));
+                    if (!width.expired(bucket, now)) {
+                        series.computeIfAbsent(width, w -> new TreeMap<>()).put(width.start(bucket), value(key));
+                    }
+                }
+            }
+        }
+        dto.setByAction(actions);
+        dto.setPerMinute(series.getOrDefault(buckets.get(0), new TreeMap<>()));
+        dto.setPerHour(series.getOrDefault(buckets.get(1), new TreeMap<>()));
+        dto.setPerDay(series.getOrDefault(buckets.get(2), new TreeMap<>()));
+        return dto;
+    }
+
+    @Scheduled(fixedDelayString = "${app.audit.counters.persist-ms:60000}",
+               initialDelayString = "${app.audit.counters.persist-ms:60000}")
+    public void persist() {
+        synchronized (flushLock) {
+            if (flush()) {
+                reload();
+            }
+        }
+    }
+
+    // Runs after the audit pipeline (which depends on this bean) has drained
+    @PreDestroy
+    public void shutdown() {
+        synchronized (flushLock) {
+            flush();
+        }
+    }
+
+    /**
+     * Subtracts the dropped month from the totals and deletes its rows. Every instance hears the
+     * drop; the rows are read under a write lock, so only the first one finds anything to subtract.
+     */
+    @EventListener
+    public void onPartitionDropped(AuditPartitionDroppedEvent event) {
+        String prefix = MONTH + event.month() + ":";
+        synchronized (flushLock) {
+            flush();
+            try {
+                long removed = transactionTemplate.execute(status -> {
+                    List<AuditCounter> rows = repository.findByCounterKeyStartingWith(prefix);
+                    for (AuditCounter row : rows) {
+                        repository.addTo(row.getCounterKey().substring(prefix.length()), -row.getCounterValue());
+                    }
+                    repository.deleteAllInBatch(rows);
+                    repository.deleteAllByIdInBatch(dayKeys(event.month()));
+                    return rows.stream().filter(row -> row.getCounterKey().equals(prefix + TOTAL))
+                            .mapToLong(AuditCounter::getCounterValue).sum();
+                });
+                log.info("Audit counters: subtracted {} events of dropped month {}", removed, event.month());
+            } catch (DataAccessException e) {
+                log.warn("Could not subtract audit counts of {}: {}", event.month(), e.getMessage());
+            }
+            reload();
+        }
+    }
+
+    /**
+     * Adds the deltas counted since the last flush to the table; on failure they wait for the next one.
+     * Each delta is published as flushing before it is taken off its adder, so a concurrent read may
+     * briefly count it twice but never misses it. Callers hold flushLock.
+     */
+    private boolean flush() {
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Long> deltas = new HashMap<>();
+        pending.forEach((key, adder) -> {
+            long delta = adder.sum();
+            if (delta != 0) {
+                deltas.put(key, delta);
+            }
+        });
+        flushing = deltas;
+        deltas.forEach((key, delta) -> pending.get(key).add(-delta));
+        // Expired buckets get no more counts; drop their adders so the map doesn't grow with time
+        pending.entrySet().removeIf(entry -> expiredBucket(entry.getKey(), now) && entry.getValue().sum() == 0);
+        List<String> expired = expiredBucketKeys(now);
+        if (deltas.isEmpty() && expired.isEmpty()) {
+            flushing = Map.of();
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                deltas.forEach((key, delta) -> {
+                    if (repository.addTo(key, delta) == 0) {
+                        // A concurrent insert of the same key fails this flush; the retry updates it
+                        repository.save(new AuditCounter(key, delta));
+                    }
+                });
+                repository.deleteAllByIdInBatch(expired);
+            });
+        } catch (DataAccessException e) {
+            deltas.forEach((key, delta) -> adder(key).add(delta));
+            flushing = Map.of();
+            log.warn("Audit counter flush failed: {}", e.getMessage());
+            return false;
+        }
+        // Part of the table now; kept here too in case the reload that follows fails
+        Map<String, Long> updated = new HashMap<>(persisted);
+        deltas.forEach((key, delta) -> updated.merge(key, delta, Long::sum));
+        expired.forEach(updated::remove);
+        persisted = updated;
+        flushing = Map.of();
+        return true;
+    }
+
+    private void reload() {
+        Map<String, Long> fresh = new HashMap<>();
+        try {
+            repository.findAll().forEach(row -> fresh.put(row.getCounterKey(), row.getCounterValue()));
+        } catch (DataAccessException e) {
+            log.warn("Could not reload audit counters: {}", e.getMessage());
+            return;
+        }
+        persisted = fresh;
+    }
+
+    /** True if this instance inserted the seed row; any other outcome means someone else has counts. */
+    private boolean claimSeed() {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    repository.saveAndFlush(new AuditCounter(TOTAL, 0)));
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    private long seed() {
+        LocalDateTime now = LocalDateTime.now();
+        long seeded = 0;
+        long before = Long.MAX_VALUE;
+        while (true) {
+            Slice<AuditLog> page = auditStore.findBefore(before, PageRequest.of(0, SEED_PAGE));
+            for (AuditLog event : page.getContent()) {
+                count(event, now);
+                before = event.getAuditId();
+                seeded++;
+            }
+            if (!page.hasNext()) {
+                return seeded;
+            }
+        }
+    }
+
+    private void count(AuditLog event, LocalDateTime now) {
+        List<String> keys = new ArrayList<>(4);
+        keys.add(TOTAL);
+        keys.add(SEVERITY + event.getSeverity().name());
+        if (event.getAction() != null) {
+            keys.add(ACTION + event.getAction());
+        }
+        if (event.getTimestamp() != null) {
+            String month = MONTH + YearMonth.from(event.getTimestamp()) + ":";
+            for (int i = 0, n = keys.size(); i < n; i++) {
+                keys.add(month + keys.get(i));
+            }
+            for (Buckets width : buckets) {
+                long bucket = width.key(event.getTimestamp());
+                if (!width.expired(bucket, now)) {
+                    keys.add(width.prefix + bucket);
+                }
+            }
+        }
+        for (String key : keys) {
+            adder(key).increment();
+        }
+    }
+
+    private LongAdder adder(String key) {
+        LongAdder adder = pending.get(key);
+        return adder != null ? adder : pending.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    private long value(String key) {
+        LongAdder adder = pending.get(key);
+        return persisted.getOrDefault(key, 0L) + flushing.getOrDefault(key, 0L) + (adder != null ? adder.sum() : 0);
+    }
+
+    private Set<String> keys() {
+        Set<String> all = new HashSet<>(persisted.keySet());
+        all.addAll(flushing.keySet());
+        all.addAll(pending.keySet());
+        return all;
+    }
+
+    private List<String> expiredBucketKeys(LocalDateTime now) {
+        List<String> expired = new ArrayList<>();
+        for (String key : persisted.keySet()) {
+            if (expiredBucket(key, now)) {
+                expired.add(key);
+            }
+        }
+        return expired;
+    }
+
+    private boolean expiredBucket(String key, LocalDateTime now) {
+        for (Buckets width : buckets) {
+            if (key.startsWith(width.prefix)
+                    && width.expired(Long.parseLong(key.substring(width.prefix.length())), now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<String> dayKeys(YearMonth month) {
+        Buckets days = buckets.get(2);
+        List<String> keys = new ArrayList<>();
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            keys.add(days.prefix + days.key(month.atDay(day).atStartOfDay()));
+        }
+        return keys;
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.springapp.service;
 
+import com.example.springapp.dto.AuditDashboardDTO;
+import com.example.springapp.dto.AuditLogDTO;
+import com.example.springapp.dto.AuditPipelineStatsDTO;
+import com.example.springapp.dto.CursorPage;
+import com.example.springapp.mapper.AuditLogMapper;
 import com.example.springapp.model.AuditLog;
-import com.example.springapp.repository.AuditLogRepository;
+import com.example.springapp.util.KeysetPagination;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
@@ -12,53 +17,108 @@ import java.util.List;
 @Slf4j
 public class AuditLogService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+    private static final int MAX_SEARCH_LIMIT = 500;
+
+    @Autowired
+    private AuditStore auditStore;
+
+    @Autowired
+    private AuditPipeline auditPipeline;
+
+    @Autowired
+    private AuditSearchIndex auditSearchIndex;
+
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditCounters auditCounters;
 
     public List<AuditLog> getAllAuditLogs() {
-        return auditLogRepository.findAll();
+        return auditStore.findAll();
+    }
+
+    public CursorPage<AuditLogDTO> getAuditLogPage(String cursor, Integer size, boolean withTotal) {
+        return KeysetPagination.fetch(cursor, size, auditStore::findBefore,
+                AuditLog::getAuditId, AuditLogMapper::toDTO, withTotal ? auditStore::count : null);
+    }
+
+    /** Queues the event for the asynchronous audit writer; returns without touching the database. */
+    public void createAuditLog(String username, String action, String resource,
+                               AuditLog.Severity severity, String ipAddress,
+                               String sessionId, String userAgent, String details,
+                               String changes) {
+
+        auditPipeline.submit(buildAuditLog(username, action, resource, severity, ipAddress,
+                sessionId, userAgent, details).changes(changes).build());
     }
 
-    public AuditLog createAuditLog(String username, String action, String resource, 
-                                  AuditLog.Severity severity, String ipAddress, 
-                                  String sessionId, String userAgent, String details, 
-                                  String changes) {
-        
-        AuditLog auditLog = AuditLog.builder()
-                .username(username)
-                .action(action)
-                .resource(resource)
+    /**
+     * Like {@link #createAuditLog} but only keeps references to the before/after state (null
+     * {@code before} for creations); the writer renders the diff (see {@link AuditChangeCapture}).
+     * Both objects must not be modified afterwards.
+     */
+    public void createChangeAuditLog(String username, String action, String resource,
+                                     AuditLog.Severity severity, String ipAddress,
+                                     String sessionId, String userAgent, String details,
+                                     Object before, Object after) {
+
+        auditPipeline.submit(buildAuditLog(username, action, resource, severity, ipAddress,
+                sessionId, userAgent, details).pendingChange(new AuditLog.PendingChange(before, after)).build());
+    }
+
+    private static AuditLog.AuditLogBuilder buildAuditLog(String username, String action, String resource,
+                                                          AuditLog.Severity severity, String ipAddress,
+                                                          String sessionId, String userAgent, String details) {
+        // Usernames, headers and exception messages come from the request; truncate rather than let
+        // one oversized value fail the writer's whole batch
+        return AuditLog.builder()
+                .username(clamp(username, AuditLog.SHORT_TEXT_LENGTH))
+                .action(clamp(action, AuditLog.SHORT_TEXT_LENGTH))
+                .resource(clamp(resource, AuditLog.SHORT_TEXT_LENGTH))
                 .severity(severity)
-                .ipAddress(ipAddress)
-                .sessionId(sessionId)
-                .userAgent(userAgent)
-                .details(details)
-                .changes(changes)
-                .build();
-        
-        log.info("Audit Log Created: {} performed {} on {} with severity {}", 
-                username, action, resource, severity);
-        
-        return auditLogRepository.save(auditLog);
+                .ipAddress(clamp(ipAddress, AuditLog.SHORT_TEXT_LENGTH))
+                .sessionId(clamp(sessionId, AuditLog.SHORT_TEXT_LENGTH))
+                .userAgent(clamp(userAgent, AuditLog.USER_AGENT_LENGTH))
+                .details(clamp(details, AuditLog.DETAILS_LENGTH));
     }
 
+    private static String clamp(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    public AuditPipelineStatsDTO getPipelineStats() {
+        return auditPipeline.getStats();
+    }
+
+    // Every match, so it asks the store: the index only sees other instances' events after its next sync
     public List<AuditLog> getAuditLogsByUsername(String username) {
-        return auditLogRepository.findByUsernameContainingIgnoreCaseOrderByTimestampDesc(username);
+        return auditStore.findByUsernameContaining(username);
+    }
+
+    /** Newest matches from the in-memory search index; see {@link AuditSearchIndex#search}. */
+    public List<AuditLogDTO> searchAuditLogs(String username, String action, String resource, String text,
+                                             Integer limit) {
+        int k = limit == null ? DEFAULT_SEARCH_LIMIT : Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT);
+        List<Long> ids = auditSearchIndex.search(username, action, resource, text, k);
+        return auditStore.findByIds(ids).stream().map(AuditLogMapper::toDTO).toList();
     }
 
     public List<AuditLog> getAuditLogsByAction(String action) {
-        return auditLogRepository.findByActionOrderByTimestampDesc(action);
+        return auditStore.findByAction(action);
     }
 
     public List<AuditLog> getAuditLogsBySeverity(AuditLog.Severity severity) {
-        return auditLogRepository.findBySeverityOrderByTimestampDesc(severity);
+        return auditStore.findBySeverity(severity);
     }
 
     public List<AuditLog> getAuditLogsByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
-        return auditLogRepository.findByTimestampBetween(startDate, endDate);
+        return auditStore.findByTimestampBetween(startDate, endDate);
     }
 
     public Long getCountBySeverity(AuditLog.Severity severity) {
-        return auditLogRepository.countBySeverity(severity);
+        return auditCounters.countBySeverity(severity);
+    }
+
+    public AuditDashboardDTO getDashboard() {
+        return auditCounters.getDashboard();
     }
 }
\ No newline at end of file
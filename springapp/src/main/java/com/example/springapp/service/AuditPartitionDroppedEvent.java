@@ -0,0 +1,10 @@
+package com.example.springapp.service;
+
+import java.time.YearMonth;
+
+/**
+ * Published by {@link AuditPartitionManager} once a month's table is gone, so in-memory views
+ * built from the audit store can forget that month's events.
+ */
+public record AuditPartitionDroppedEvent(YearMonth month) {
+}
@@ -0,0 +1,222 @@
+package com.example.springapp.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Owns the monthly audit tables ({@code audit_log_pYYYYMM}) behind {@link PartitionedAuditStore}:
+ * creates the current and next {@code months-ahead} months ahead of time, routes time ranges
+ * to the months they overlap, and enforces retention by dropping whole tables instead of
+ * deleting rows, announcing each drop with an {@link AuditPartitionDroppedEvent}. Ids come from a
+ * block allocator table, whose single row has the fixed key 1, so they stay unique across
+ * partitions and instances.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "partitioned")
+@Slf4j
+public class AuditPartitionManager {
+
+    static final String PREFIX = "audit_log_p";
+    private static final String SEQUENCE_TABLE = "audit_log_partition_seq";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher events;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final NavigableSet<YearMonth> partitions = new ConcurrentSkipListSet<>();
+    // MySQL's TIMESTAMP stops at 2038 and converts time zones; other databases take TIMESTAMP as is
+    private String timeType = "TIMESTAMP(6)";
+
+    public AuditPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher events,
+                                 @Value("${app.audit.partition.months-ahead:2}") int monthsAhead,
+                                 @Value("${app.audit.partition.retention-months:12}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.events = events;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @PostConstruct
+    public void init() {
+        discover();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + SEQUENCE_TABLE
+                + " (id INT PRIMARY KEY, next_val BIGINT NOT NULL)");
+        try {
+            jdbcTemplate.update("INSERT INTO " + SEQUENCE_TABLE + " (id, next_val) VALUES (1, ?)", maxExistingId() + 1);
+        } catch (DuplicateKeyException e) {
+            // Already seeded, possibly by another instance starting at the same time
+        }
+        maintain();
+    }
+
+    /** Creates upcoming partitions and drops those past retention. */
+    @Scheduled(fixedDelayString = "${app.audit.partition.maintenance-ms:3600000}",
+               initialDelayString = "${app.audit.partition.maintenance-ms:3600000}")
+    public void maintain() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            try {
+                ensure(current.plusMonths(i));
+            } catch (DataAccessException e) {
+                log.warn("Could not create audit partition {}: {}", tableName(current.plusMonths(i)), e.getMessage());
+            }
+        }
+        if (retentionMonths > 0) {
+            YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+            for (YearMonth month : List.copyOf(partitions.headSet(oldestKept, false))) {
+                drop(month);
+            }
+        }
+    }
+
+    /**
+     * Creates the month's table if it doesn't exist yet (late or back-dated events). Refuses a month
+     * that retention has already dropped, or would drop at the next maintenance run.
+     */
+    public String ensure(YearMonth month) {
+        if (!partitions.contains(month)) {
+            if (isExpired(month)) {
+                throw new IllegalArgumentException("Audit month " + month + " is past the retention of "
+                        + retentionMonths + " months");
+            }
+            synchronized (this) {
+                if (!partitions.contains(month)) {
+                    create(month);
+                }
+            }
+        }
+        return tableName(month);
+    }
+
+    /** True for months before the retention window; their events are no longer kept. */
+    public boolean isExpired(YearMonth month) {
+        return retentionMonths > 0 && month.isBefore(YearMonth.now().minusMonths(retentionMonths - 1L));
+    }
+
+    /** Existing months overlapping {@code [from, to]}, newest first. */
+    public List<YearMonth> overlapping(LocalDateTime from, LocalDateTime to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        return new ArrayList<>(partitions.subSet(YearMonth.from(from), true, YearMonth.from(to), true)
+                .descendingSet());
+    }
+
+    /** False once the month has been dropped by retention. */
+    public boolean isLive(YearMonth month) {
+        return partitions.contains(month);
+    }
+
+    /** Every existing month, newest first. */
+    public List<YearMonth> all() {
+        return new ArrayList<>(partitions.descendingSet());
+    }
+
+    /** Reserves {@code count} consecutive ids and returns the first. */
+    public long allocateIds(int count) {
+        Long end = transactionTemplate.execute(status -> {
+            jdbcTemplate.update("UPDATE " + SEQUENCE_TABLE + " SET next_val = next_val + ? WHERE id = 1", count);
+            return jdbcTemplate.queryForObject("SELECT next_val FROM " + SEQUENCE_TABLE + " WHERE id = 1", Long.class);
+        });
+        return end - count;
+    }
+
+    public static String tableName(YearMonth month) {
+        return PREFIX + month.format(SUFFIX);
+    }
+
+    /** Marks the month live only once its table exists; a failure propagates to the caller. */
+    private void create(YearMonth month) {
+        String table = tableName(month);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                + "audit_id BIGINT NOT NULL PRIMARY KEY, "
+                + "event_time " + timeType + " NOT NULL, "
+                + "username VARCHAR(255), action VARCHAR(255), resource VARCHAR(255), "
+                + "severity VARCHAR(16) NOT NULL, ip_address VARCHAR(255), session_id VARCHAR(255), "
+                + "user_agent VARCHAR(1000), details VARCHAR(2000), changes TEXT)");
+        try {
+            jdbcTemplate.execute("CREATE INDEX idx_" + table + "_time ON " + table + " (event_time)");
+            log.info("Created audit partition {}", table);
+        } catch (DataAccessException e) {
+            // The table exists, so the month is usable; most likely another instance created both first
+            log.debug("Audit partition {} time index not created: {}", table, e.getMessage());
+        }
+        partitions.add(month);
+    }
+
+    private void drop(YearMonth month) {
+        String table = tableName(month);
+        try {
+            // Routing forgets the month first so no query is sent to a table being dropped
+            partitions.remove(month);
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+            log.info("Dropped audit partition {} (retention {} months)", table, retentionMonths);
+        } catch (DataAccessException e) {
+            partitions.add(month);
+            log.warn("Could not drop audit partition {}: {}", table, e.getMessage());
+            return;
+        }
+        // Every instance runs maintenance, so each one hears about the drop even if another dropped it
+        events.publishEvent(new AuditPartitionDroppedEvent(month));
+    }
+
+    private void discover() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            DatabaseMetaData meta = connection.getMetaData();
+            if ("MySQL".equalsIgnoreCase(meta.getDatabaseProductName())) {
+                timeType = "DATETIME(6)";
+            }
+            try (ResultSet tables = meta.getTables(connection.getCatalog(), null, "%", new String[]{"TABLE"})) {
+                while (tables.next()) {
+                    String name = tables.getString("TABLE_NAME").toLowerCase(Locale.ROOT);
+                    String suffix = name.startsWith(PREFIX) ? name.substring(PREFIX.length()) : "";
+                    if (suffix.length() == 6 && suffix.chars().allMatch(Character::isDigit)) {
+                        partitions.add(YearMonth.parse(suffix, SUFFIX));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private long maxExistingId() {
+        long max = 0;
+        for (YearMonth month : partitions) {
+            Long id = jdbcTemplate.queryForObject("SELECT MAX(audit_id) FROM " + tableName(month), Long.class);
+            max = Math.max(max, id != null ? id : 0);
+        }
+        try {
+            // Keep ids unique against the unpartitioned table this store replaces
+            Long legacy = jdbcTemplate.queryForObject("SELECT MAX(audit_id) FROM audit_log", Long.class);
+            max = Math.max(max, legacy != null ? legacy : 0);
+        } catch (DataAccessException e) {
+            log.debug("No audit_log table to seed audit partition ids from");
+        }
+        return max;
+    }
+}
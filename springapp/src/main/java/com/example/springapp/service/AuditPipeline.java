@@ -0,0 +1,320 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AuditPipelineStatsDTO;
+import com.example.springapp.exception.AuditAppendException;
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.util.MpscRingBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Moves audit writes off the request thread. {@link #submit} puts the event on a bounded
+ * lock-free ring buffer and returns; one dedicated writer thread drains up to batch-size events
+ * at a time and hands them to the configured {@link AuditStore} as one batch, then to the
+ * {@link AuditSearchIndex} and {@link AuditCounters}.
+ * When the buffer is full the configured {@link OverflowPolicy} applies. The writer drains
+ * everything, including spilled events, before the application shuts down.
+ */
+@Component
+// The writer starts inserting as soon as it is constructed; ids must be aligned first
+@DependsOn("idSequenceInitializer")
+@Slf4j
+public class AuditPipeline {
+
+    public enum OverflowPolicy {
+        /** Wait (up to block-timeout-ms) for the writer to free a slot, then drop. */
+        BLOCK,
+        /** Drop LOW-severity events at once; wait like BLOCK for the rest. */
+        DROP_LOW_SEVERITY,
+        /** Append the event as a JSON line to the spill file; the writer replays it when idle. */
+        SPILL_TO_DISK
+    }
+
+    // Pause before replaying spilled events after a failed write
+    private static final long REPLAY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AuditStore auditStore;
+    private final AuditSearchIndex searchIndex;
+    private final AuditChangeCapture changeCapture;
+    private final AuditCounters counters;
+    private final ObjectMapper objectMapper;
+    private final MpscRingBuffer<AuditLog> ring;
+    private final OverflowPolicy policy;
+    private final int batchSize;
+    private final long idleParkNanos;
+    private final long blockTimeoutNanos;
+    private final Path spillFile;
+    private final Object spillLock = new Object();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastBatchLagMs;
+    private volatile long maxBatchLagMs;
+    private volatile boolean spillPending;
+    private volatile long replayNotBefore = System.nanoTime();
+    private volatile boolean running;
+    private Thread writer;
+
+    public AuditPipeline(AuditStore auditStore, AuditSearchIndex searchIndex, AuditChangeCapture changeCapture,
+                         AuditCounters counters, ObjectMapper objectMapper,
+                         @Value("${app.audit.queue-capacity:8192}") int capacity,
+                         @Value("${app.audit.batch-size:200}") int batchSize,
+                         @Value("${app.audit.idle-park-ms:20}") long idleParkMs,
+                         @Value("${app.audit.overflow-policy:DROP_LOW_SEVERITY}") OverflowPolicy policy,
+                         @Value("${app.audit.block-timeout-ms:50}") long blockTimeoutMs,
+                         @Value("${app.audit.spill-file:logs/audit-spill.ndjson}") String spillFile) {
+        this.auditStore = auditStore;
+        this.searchIndex = searchIndex;
+        this.changeCapture = changeCapture;
+        this.counters = counters;
+        this.objectMapper = objectMapper;
+        this.ring = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.idleParkNanos = TimeUnit.MILLISECONDS.toNanos(idleParkMs);
+        this.policy = policy;
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMs);
+        this.spillFile = Path.of(spillFile);
+    }
+
+    @PostConstruct
+    public void start() {
+        // Events spilled before a crash or restart are replayed once the writer is idle
+        spillPending = Files.exists(spillFile) || Files.exists(replayFile());
+        running = true;
+        writer = new Thread(this::runWriter, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Hands the event to the writer. Never throws and never touches the database. */
+    public void submit(AuditLog event) {
+        submitted.incrementAndGet();
+        if (ring.offer(event)) {
+            return;
+        }
+        switch (policy) {
+            case SPILL_TO_DISK -> spill(List.of(event));
+            case DROP_LOW_SEVERITY -> {
+                if (event.getSeverity() == AuditLog.Severity.LOW || !offerWithin(event)) {
+                    dropped.incrementAndGet();
+                }
+            }
+            default -> {
+                if (!offerWithin(event)) {
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public AuditPipelineStatsDTO getStats() {
+        AuditPipelineStatsDTO dto = new AuditPipelineStatsDTO();
+        dto.setPolicy(policy.name());
+        dto.setQueueDepth(ring.size());
+        dto.setQueueCapacity(ring.capacity());
+        dto.setSubmitted(submitted.get());
+        dto.setWritten(written.get());
+        dto.setDropped(dropped.get());
+        dto.setSpilled(spilled.get());
+        dto.setFailed(failed.get());
+        dto.setLastBatchLagMs(lastBatchLagMs);
+        dto.setMaxBatchLagMs(maxBatchLagMs);
+        dto.setSpillPending(spillPending);
+        return dto;
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever the writer didn't get to (or everything, if it is stuck) is flushed here
+        flushAll();
+    }
+
+    /** Writes everything queued so far on the calling thread; used on shutdown and by tests. */
+    public synchronized void flushAll() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (ring.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+        replaySpill();
+    }
+
+    private void runWriter() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            synchronized (this) {
+                if (ring.drainTo(batch, batchSize) > 0) {
+                    write(batch);
+                    batch.clear();
+                    continue;
+                }
+                if (spillPending && System.nanoTime() - replayNotBefore >= 0) {
+                    replaySpill();
+                    continue;
+                }
+            }
+            LockSupport.parkNanos(this, idleParkNanos);
+        }
+    }
+
+    private void write(List<AuditLog> batch) {
+        List<AuditLog> stored = batch;
+        try {
+            changeCapture.materialize(batch);
+            auditStore.appendBatch(batch);
+        } catch (RuntimeException e) {
+            int appended = e instanceof AuditAppendException partial ? partial.getAppended() : 0;
+            log.warn("Audit batch of {} events failed after {}: {}", batch.size(), appended, e.getMessage());
+            stored = List.copyOf(batch.subList(0, appended));
+            List<AuditLog> unwritten = new ArrayList<>(batch.subList(appended, batch.size()));
+            if (e instanceof AuditAppendException partial && partial.getRejected() > 0) {
+                // Retrying can't help these; count them and keep the rest
+                List<AuditLog> rejected = unwritten.subList(0, Math.min(partial.getRejected(), unwritten.size()));
+                failed.addAndGet(rejected.size());
+                rejected.clear();
+            }
+            unwritten.forEach(event -> event.setAuditId(null));
+            if (policy == OverflowPolicy.SPILL_TO_DISK) {
+                spill(unwritten);
+                // Don't replay straight into a store that just failed
+                replayNotBefore = System.nanoTime() + REPLAY_BACKOFF_NANOS;
+            } else {
+                failed.addAndGet(unwritten.size());
+            }
+            if (stored.isEmpty()) {
+                return;
+            }
+        }
+        written.addAndGet(stored.size());
+        long lag = Duration.between(stored.get(0).getTimestamp(), LocalDateTime.now()).toMillis();
+        lastBatchLagMs = lag;
+        if (lag > maxBatchLagMs) {
+            maxBatchLagMs = lag;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Audit writer persisted {} events, lag {} ms", stored.size(), lag);
+        }
+        searchIndex.addAll(stored);
+        counters.record(stored);
+    }
+
+    private boolean offerWithin(AuditLog event) {
+        long deadline = System.nanoTime() + blockTimeoutNanos;
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            if (ring.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void spill(List<AuditLog> events) {
+        // Pending changes aren't serialised; render them before they hit the file
+        changeCapture.materialize(events);
+        synchronized (spillLock) {
+            try {
+                Path parent = spillFile.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                try (BufferedWriter out = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    for (AuditLog event : events) {
+                        out.write(objectMapper.writeValueAsString(event));
+                        out.newLine();
+                    }
+                }
+                spilled.addAndGet(events.size());
+                spillPending = true;
+            } catch (IOException e) {
+                dropped.addAndGet(events.size());
+                log.warn("Audit spill of {} events failed: {}", events.size(), e.getMessage());
+            }
+        }
+    }
+
+    private Path replayFile() {
+        return spillFile.resolveSibling(spillFile.getFileName() + ".replay");
+    }
+
+    private void replaySpill() {
+        Path replaying = replayFile();
+        synchronized (spillLock) {
+            spillPending = false;
+            try {
+                if (!Files.exists(replaying)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    // New spills go to a fresh file while this one is replayed
+                    Files.move(spillFile, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException e) {
+                log.warn("Could not rotate audit spill file: {}", e.getMessage());
+                return;
+            }
+        }
+        try (BufferedReader in = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+            List<AuditLog> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                AuditLog event = objectMapper.readValue(line, AuditLog.class);
+                event.setAuditId(null);
+                batch.add(event);
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } catch (IOException e) {
+            log.warn("Audit spill replay failed, will retry: {}", e.getMessage());
+            spillPending = true;
+            return;
+        }
+        try {
+            Files.deleteIfExists(replaying);
+        } catch (IOException e) {
+            log.warn("Could not delete replayed audit spill file: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.util.PostingList;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process inverted index over audit events, so audit search doesn't run {@code LIKE '%x%'}
+ * table scans. Username and resource support case-insensitive substring matching through a
+ * trigram index over their (small) value dictionaries; action matches exactly ignoring case;
+ * details are split into lower-cased word tokens that must all be present. Posting lists hold
+ * audit ids in ascending order (ids are assigned in write order), so the newest k matches are
+ * read from the tail with a leapfrog intersection that stops after k hits.
+ *
+ * <p>Built from the {@link AuditStore} at startup and kept current by the audit writer. Events
+ * written by other instances sharing the store are picked up by {@link #sync()}, which rescans
+ * the newest events every {@code sync-ms}; ids that arrive out of order are inserted in place.
+ * Each event is also filed under its month, so a month dropped by retention is pruned from every
+ * posting list.
+ */
+@Component
+@Slf4j
+public class AuditSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final int SYNC_PAGE = 500;
+
+    /** One indexed field: term to posting list, plus term trigrams when substring search is on. */
+    static final class Field {
+        final boolean substring;
+        final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+        final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+
+        Field(boolean substring) {
+            this.substring = substring;
+        }
+
+        boolean add(String term, long id) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                list = new PostingList();
+                register(term, list);
+            }
+            return list.append(id);
+        }
+
+        /** Copies every non-empty posting list, minus {@code removed}, into {@code target}. */
+        void copyWithout(PostingList removed, Field target) {
+            postings.forEach((term, list) -> {
+                PostingList kept = list.without(removed);
+                if (kept.size() > 0) {
+                    target.register(term, kept);
+                }
+            });
+        }
+
+        void register(String term, PostingList list) {
+            if (substring) {
+                for (int i = 0; i + GRAM <= term.length(); i++) {
+                    grams.computeIfAbsent(term.substring(i, i + GRAM), g -> ConcurrentHashMap.newKeySet()).add(term);
+                }
+            }
+            postings.put(term, list);
+        }
+
+        /** Posting lists of every term containing {@code query}. */
+        List<PostingList> containing(String query) {
+            Collection<String> candidates = postings.keySet();
+            if (query.length() >= GRAM) {
+                Set<String> smallest = null;
+                for (int i = 0; i + GRAM <= query.length(); i++) {
+                    Set<String> terms = grams.get(query.substring(i, i + GRAM));
+                    if (terms == null) {
+                        return List.of();
+                    }
+                    if (smallest == null || terms.size() < smallest.size()) {
+                        smallest = terms;
+                    }
+                }
+                candidates = smallest;
+            }
+            List<PostingList> lists = new ArrayList<>();
+            for (String term : candidates) {
+                PostingList list = postings.get(term);
+                if (list != null && term.contains(query)) {
+                    lists.add(list);
+                }
+            }
+            return lists;
+        }
+    }
+
+    private static final class Fields {
+        final Field username = new Field(true);
+        final Field action = new Field(false);
+        final Field resource = new Field(true);
+        final Field text = new Field(false);
+        // Not searchable; every event is in exactly one month, which makes it the count of record
+        final Field month = new Field(false);
+    }
+
+    private final AuditStore auditStore;
+    private final int rebuildPageSize;
+    private final long rescanWindowMs;
+    private final AtomicLong indexed = new AtomicLong();
+    private volatile Fields fields = new Fields();
+    private long syncedUpToId;
+    private LocalDateTime lastSync = LocalDateTime.now();
+
+    public AuditSearchIndex(AuditStore auditStore,
+                            @Value("${app.audit.search.rebuild-page-size:5000}") int rebuildPageSize,
+                            @Value("${app.audit.search.rescan-window-ms:60000}") long rescanWindowMs) {
+        this.auditStore = auditStore;
+        this.rebuildPageSize = rebuildPageSize;
+        this.rescanWindowMs = rescanWindowMs;
+    }
+
+    /** Indexes everything already in the store; runs before the audit writer starts. */
+    @PostConstruct
+    public synchronized void rebuild() {
+        long t0 = System.nanoTime();
+        LocalDateTime started = LocalDateTime.now();
+        long highest = 0;
+        // The store pages newest-first, so ids are collected descending and reversed per term
+        Map<Field, Map<String, IdBuffer>> collected = new HashMap<>();
+        Fields fresh = new Fields();
+        long count = 0;
+        long before = Long.MAX_VALUE;
+        while (true) {
+            Slice<AuditLog> page = auditStore.findBefore(before, PageRequest.of(0, rebuildPageSize));
+            for (AuditLog event : page.getContent()) {
+                long id = event.getAuditId();
+                TermSink sink = (field, term) -> collected
+                        .computeIfAbsent(field, f -> new HashMap<>())
+                        .computeIfAbsent(term, t -> new IdBuffer())
+                        .add(id);
+                if (event.getTimestamp() != null) {
+                    sink.accept(fresh.month, monthOf(event.getTimestamp()));
+                }
+                forEachTerm(fresh, event, sink);
+                before = id;
+                highest = Math.max(highest, id);
+                count++;
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+        }
+        collected.forEach((field, terms) -> terms.forEach((term, buffer) -> {
+            PostingList list = new PostingList(buffer.size);
+            for (int i = buffer.size - 1; i >= 0; i--) {
+                list.append(buffer.ids[i]);
+            }
+            field.register(term, list);
+        }));
+        fields = fresh;
+        indexed.set(count);
+        syncedUpToId = highest;
+        lastSync = started;
+        log.info("Audit search index built: {} events in {} ms", count, (System.nanoTime() - t0) / 1_000_000);
+    }
+
+    /**
+     * Adds persisted events and returns how many were new; ids already indexed are skipped, so
+     * overlapping batches are harmless.
+     */
+    public synchronized int addAll(List<AuditLog> events) {
+        Fields current = fields;
+        int added = 0;
+        for (AuditLog event : events) {
+            if (event.getAuditId() == null) {
+                continue;
+            }
+            long id = event.getAuditId();
+            if (event.getTimestamp() != null && !current.month.add(monthOf(event.getTimestamp()), id)) {
+                continue;
+            }
+            forEachTerm(current, event, (field, term) -> field.add(term, id));
+            indexed.incrementAndGet();
+            added++;
+        }
+        return added;
+    }
+
+    /**
+     * Indexes events other instances wrote to the shared store since the last sync: pages
+     * newest-first past the highest id seen last time and on through the rescan window, which
+     * covers writers whose ids were allocated before ours but committed after. Reads the store
+     * outside the lock, so the audit writer is only held up while the events are added.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.search.sync-ms:10000}",
+               initialDelayString = "${app.audit.search.sync-ms:10000}")
+    public void sync() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime cutoff;
+        long upToId;
+        synchronized (this) {
+            cutoff = lastSync.minusNanos(rescanWindowMs * 1_000_000);
+            upToId = syncedUpToId;
+        }
+        List<AuditLog> recent = new ArrayList<>();
+        long highest = upToId;
+        long before = Long.MAX_VALUE;
+        boolean more = true;
+        while (more) {
+            Slice<AuditLog> page = auditStore.findBefore(before, PageRequest.of(0, SYNC_PAGE));
+            for (AuditLog event : page.getContent()) {
+                long id = event.getAuditId();
+                if (id <= upToId && event.getTimestamp() != null && event.getTimestamp().isBefore(cutoff)) {
+                    more = false;
+                    break;
+                }
+                recent.add(event);
+                highest = Math.max(highest, id);
+                before = id;
+            }
+            more = more && page.hasNext();
+        }
+        int added = addAll(recent);
+        synchronized (this) {
+            syncedUpToId = Math.max(syncedUpToId, highest);
+            lastSync = started;
+        }
+        if (added > 0) {
+            log.debug("Audit search index picked up {} events written elsewhere", added);
+        }
+    }
+
+    /** Forgets every event of the dropped month. */
+    @EventListener
+    public synchronized void onPartitionDropped(AuditPartitionDroppedEvent event) {
+        Fields current = fields;
+        PostingList removed = current.month.postings.get(monthOf(event.month()));
+        if (removed == null) {
+            return;
+        }
+        Fields pruned = new Fields();
+        current.username.copyWithout(removed, pruned.username);
+        current.action.copyWithout(removed, pruned.action);
+        current.resource.copyWithout(removed, pruned.resource);
+        current.text.copyWithout(removed, pruned.text);
+        current.month.copyWithout(removed, pruned.month);
+        // Searches already running keep the old lists; new ones see the pruned copy
+        fields = pruned;
+        indexed.addAndGet(-removed.size());
+        log.info("Audit search index pruned {} events of {}", removed.size(), event.month());
+    }
+
+    /**
+     * Ids of the newest {@code limit} events matching every non-blank criterion, highest id first.
+     * {@code username} and {@code resource} match as case-insensitive substrings, {@code action}
+     * exactly ignoring case, and every word of {@code text} must occur in details. Returns nothing
+     * when no criterion is given.
+     */
+    public List<Long> search(String username, String action, String resource, String text, int limit) {
+        Fields current = fields;
+        List<Cursor> criteria = new ArrayList<>();
+        if (!isBlank(username)) {
+            criteria.add(union(current.username.containing(normalize(username))));
+        }
+        if (!isBlank(action)) {
+            criteria.add(union(listOrEmpty(current.action.postings.get(normalize(action)))));
+        }
+        if (!isBlank(resource)) {
+            criteria.add(union(current.resource.containing(normalize(resource))));
+        }
+        if (!isBlank(text)) {
+            for (String token : tokens(text)) {
+                criteria.add(union(listOrEmpty(current.text.postings.get(token))));
+            }
+        }
+        List<Long> ids = new ArrayList<>();
+        if (criteria.isEmpty()) {
+            return ids;
+        }
+        long bound = Long.MAX_VALUE;
+        while (ids.size() < limit) {
+            long lowest = Long.MAX_VALUE;
+            long highest = Long.MIN_VALUE;
+            for (Cursor cursor : criteria) {
+                cursor.seek(bound);
+                long id = cursor.current();
+                if (id < 0) {
+                    return ids;
+                }
+                lowest = Math.min(lowest, id);
+                highest = Math.max(highest, id);
+            }
+            if (lowest == highest) {
+                ids.add(lowest);
+                bound = lowest - 1;
+            } else {
+                bound = lowest;
+            }
+        }
+        return ids;
+    }
+
+    public long indexedCount() {
+        return indexed.get();
+    }
+
+    private static String monthOf(LocalDateTime time) {
+        return monthOf(YearMonth.from(time));
+    }
+
+    private static String monthOf(YearMonth month) {
+        return month.toString();
+    }
+
+    private static void forEachTerm(Fields target, AuditLog event, TermSink sink) {
+        if (event.getUsername() != null) {
+            sink.accept(target.username, normalize(event.getUsername()));
+        }
+        if (event.getAction() != null) {
+            sink.accept(target.action, normalize(event.getAction()));
+        }
+        if (event.getResource() != null) {
+            sink.accept(target.resource, normalize(event.getResource()));
+        }
+        if (event.getDetails() != null) {
+            for (String token : tokens(event.getDetails())) {
+                sink.accept(target.text, token);
+            }
+        }
+    }
+
+    static Set<String> tokens(String text) {
+        Set<String> tokens = new HashSet<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(normalize(text.substring(start, i)));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static List<PostingList> listOrEmpty(PostingList list) {
+        return list != null ? List.of(list) : List.of();
+    }
+
+    private static Cursor union(List<PostingList> lists) {
+        return lists.size() == 1 ? new ListCursor(lists.get(0)) : new UnionCursor(lists);
+    }
+
+    private static final class IdBuffer {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+    }
+
+    @FunctionalInterface
+    private interface TermSink {
+        void accept(Field field, String term);
+    }
+
+    /** Walks ids downwards; {@link #current()} is -1 once exhausted. */
+    private interface Cursor {
+        long current();
+
+        /** Moves to the largest id {@code <= maxId}. */
+        void seek(long maxId);
+    }
+
+    private static final class ListCursor implements Cursor {
+        private final PostingList list;
+        private int index;
+
+        ListCursor(PostingList list) {
+            this.list = list;
+            this.index = list.size() - 1;
+        }
+
+        @Override
+        public long current() {
+            return index >= 0 ? list.get(index) : -1;
+        }
+
+        @Override
+        public void seek(long maxId) {
+            if (index >= 0 && list.get(index) > maxId) {
+                index = list.floorIndex(maxId, index);
+            }
+        }
+    }
+
+    private static final class UnionCursor implements Cursor {
+        private final List<ListCursor> children = new ArrayList<>();
+
+        UnionCursor(List<PostingList> lists) {
+            lists.forEach(list -> children.add(new ListCursor(list)));
+        }
+
+        @Override
+        public long current() {
+            long max = -1;
+            for (ListCursor child : children) {
+                max = Math.max(max, child.current());
+            }
+            return max;
+        }
+
+        @Override
+        public void seek(long maxId) {
+            for (ListCursor child : children) {
+                child.seek(maxId);
+            }
+        }
+    }
+}
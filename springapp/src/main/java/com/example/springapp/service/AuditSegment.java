@@ -0,0 +1,384 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped, append-only audit segment file.
+ *
+ * <p>Record layout: {@code [int payloadLength][int crc32c(payload)][payload]}, where the payload is
+ * {@code long auditId, long epochMillis, byte severity} followed by username, action, resource,
+ * ipAddress, sessionId, userAgent, details and changes, each as {@code int byteLength} (-1 for
+ * null) plus UTF-8 bytes. A zero length marks the end of data. On recovery a record with an
+ * impossible length or a CRC mismatch is copied to a {@code .corrupt} file beside the segment and
+ * skipped by resynchronising on the next valid record; only when none follows is it treated as a
+ * torn write at crash time and cut off.
+ *
+ * <p>Every {@value #BLOCK_RECORDS} records start a new block; the in-memory sparse index keeps each
+ * block's start offset with its min/max timestamp and id, so range and keyset scans skip blocks
+ * (and whole segments) that can't match. Only the owning store's writer thread appends; readers
+ * see everything up to the volatile {@code committed} offset.
+ */
+@Slf4j
+final class AuditSegment implements Closeable {
+
+    static final int HEADER_BYTES = 8;
+    static final int BLOCK_RECORDS = 64;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final AuditLog.Severity[] SEVERITIES = AuditLog.Severity.values();
+
+    static final class Block {
+        final int start;
+        volatile int end;
+        volatile int count;
+        volatile long minTs = Long.MAX_VALUE;
+        volatile long maxTs = Long.MIN_VALUE;
+        volatile long minId = Long.MAX_VALUE;
+        volatile long maxId = Long.MIN_VALUE;
+
+        Block(int start) {
+            this.start = start;
+            this.end = start;
+        }
+
+        void add(long id, long ts, int recordEnd) {
+            minTs = Math.min(minTs, ts);
+            maxTs = Math.max(maxTs, ts);
+            minId = Math.min(minId, id);
+            maxId = Math.max(maxId, id);
+            end = recordEnd;
+            count++;
+        }
+    }
+
+    private final Path path;
+    private final long createdMillis;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private final List<Block> blocks = new CopyOnWriteArrayList<>();
+    private volatile int committed;
+    private volatile boolean sealed;
+    private boolean blockBreak;
+    private final CRC32C crc = new CRC32C();
+
+    private AuditSegment(Path path, FileChannel channel, MappedByteBuffer buffer, long createdMillis) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.createdMillis = createdMillis;
+    }
+
+    static AuditSegment create(Path path, int capacityBytes) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+        return new AuditSegment(path, channel, buffer, System.currentTimeMillis());
+    }
+
+    /**
+     * Maps an existing segment, rebuilds its index, quarantines corrupt records, drops any torn
+     * tail and seals it.
+     */
+    static AuditSegment recover(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int size = (int) channel.size();
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        AuditSegment segment = new AuditSegment(path, channel, buffer,
+                Files.getLastModifiedTime(path).toMillis());
+        int position = 0;
+        int dataEnd = 0;
+        while (position + HEADER_BYTES <= size) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            int recordEnd = segment.validRecordEnd(position, size);
+            if (recordEnd < 0) {
+                int next = segment.nextValidRecord(position + 1, size);
+                if (next < 0) {
+                    // Nothing valid follows: a write torn by a crash, cut off below
+                    break;
+                }
+                segment.quarantine(position, next);
+                // Blocks are contiguous runs of valid records; the skipped bytes sit between two
+                segment.blockBreak = true;
+                position = next;
+                continue;
+            }
+            ByteBuffer view = buffer.slice(position + HEADER_BYTES, 17);
+            segment.index(view.getLong(0), view.getLong(8), position, recordEnd);
+            position = recordEnd;
+            dataEnd = recordEnd;
+        }
+        segment.committed = dataEnd;
+        segment.seal();
+        return segment;
+    }
+
+    /** End offset of the record at {@code position} if its length and CRC check out, else -1. */
+    private int validRecordEnd(int position, int size) {
+        int length = buffer.getInt(position);
+        if (length < 17 || position + HEADER_BYTES + (long) length > size) {
+            return -1;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(position + HEADER_BYTES, payload);
+        return checksum(payload, length) == buffer.getInt(position + 4) ? position + HEADER_BYTES + length : -1;
+    }
+
+    private int nextValidRecord(int from, int size) {
+        for (int position = from; position + HEADER_BYTES <= size; position++) {
+            if (validRecordEnd(position, size) > 0) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void quarantine(int from, int to) throws IOException {
+        Path target = path.resolveSibling(path.getFileName() + "." + from + ".corrupt");
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        Files.write(target, bytes);
+        log.warn("Audit segment {}: {} corrupt bytes at offset {} skipped, copied to {}",
+                path.getFileName(), bytes.length, from, target.getFileName());
+    }
+
+    /** Appends one record; returns false (writing nothing) if it doesn't fit. */
+    boolean append(AuditLog event) {
+        byte[] payload = encode(event);
+        int position = committed;
+        int recordEnd = position + HEADER_BYTES + payload.length;
+        if (sealed || recordEnd > buffer.capacity()) {
+            return false;
+        }
+        buffer.put(position + HEADER_BYTES, payload);
+        buffer.putInt(position + 4, checksum(payload, payload.length));
+        // Length last: a crash between the two writes leaves a zero length, i.e. a clean end of data
+        buffer.putInt(position, payload.length);
+        index(event.getAuditId(), toMillis(event.getTimestamp()), position, recordEnd);
+        committed = recordEnd;
+        return true;
+    }
+
+    /**
+     * Walks blocks newest-first, decoding only blocks whose id/time bounds can match, and hands
+     * matching records to {@code sink} in descending offset order until it returns false.
+     */
+    void scanNewestFirst(long fromMs, long toMs, long beforeId, Predicate<AuditLog> filter,
+                         Predicate<AuditLog> sink) {
+        int limit = committed;
+        ByteBuffer view = buffer;
+        for (int b = blocks.size() - 1; b >= 0; b--) {
+            Block block = blocks.get(b);
+            if (block.start >= limit || block.maxTs < fromMs || block.minTs > toMs || block.minId >= beforeId) {
+                continue;
+            }
+            List<AuditLog> decoded = new ArrayList<>(BLOCK_RECORDS);
+            int position = block.start;
+            int end = Math.min(block.end, limit);
+            while (position < end) {
+                int length = view.getInt(position);
+                byte[] payload = new byte[length];
+                view.get(position + HEADER_BYTES, payload);
+                decoded.add(decode(payload));
+                position += HEADER_BYTES + length;
+            }
+            for (int i = decoded.size() - 1; i >= 0; i--) {
+                AuditLog event = decoded.get(i);
+                long ts = toMillis(event.getTimestamp());
+                if (event.getAuditId() < beforeId && ts >= fromMs && ts <= toMs && filter.test(event)
+                        && !sink.test(event)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Like {@link #scanNewestFirst} in ascending offset (and id) order, for ids above {@code afterId}. */
+    void scanOldestFirst(long fromMs, long toMs, long afterId, Predicate<AuditLog> sink) {
+        int limit = committed;
+        ByteBuffer view = buffer;
+        for (Block block : blocks) {
+            if (block.start >= limit) {
+                return;
+            }
+            if (block.maxTs < fromMs || block.minTs > toMs || block.maxId <= afterId) {
+                continue;
+            }
+            int position = block.start;
+            int end = Math.min(block.end, limit);
+            while (position < end) {
+                int length = view.getInt(position);
+                byte[] payload = new byte[length];
+                view.get(position + HEADER_BYTES, payload);
+                position += HEADER_BYTES + length;
+                AuditLog event = decode(payload);
+                long ts = toMillis(event.getTimestamp());
+                if (event.getAuditId() > afterId && ts >= fromMs && ts <= toMs && !sink.test(event)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    boolean mayContain(long fromMs, long toMs, long beforeId) {
+        if (blocks.isEmpty()) {
+            return false;
+        }
+        long minTs = Long.MAX_VALUE;
+        long maxTs = Long.MIN_VALUE;
+        for (Block block : blocks) {
+            minTs = Math.min(minTs, block.minTs);
+            maxTs = Math.max(maxTs, block.maxTs);
+        }
+        return blocks.get(0).minId < beforeId && maxTs >= fromMs && minTs <= toMs;
+    }
+
+    long maxId() {
+        long max = 0;
+        for (Block block : blocks) {
+            max = Math.max(max, block.maxId);
+        }
+        return max;
+    }
+
+    long recordCount() {
+        long count = 0;
+        for (Block block : blocks) {
+            count += block.count;
+        }
+        return count;
+    }
+
+    long createdMillis() {
+        return createdMillis;
+    }
+
+    int sizeBytes() {
+        return committed;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /** Flushes and truncates the file to its data, then remaps it read-only. */
+    void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        sealed = true;
+        buffer.force();
+        channel.truncate(committed);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, committed);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!sealed) {
+            buffer.force();
+        }
+        channel.close();
+    }
+
+    private void index(long id, long ts, int recordStart, int recordEnd) {
+        Block current = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+        if (current == null || current.count >= BLOCK_RECORDS || blockBreak) {
+            blockBreak = false;
+            current = new Block(recordStart);
+            current.add(id, ts, recordEnd);
+            blocks.add(current);
+        } else {
+            current.add(id, ts, recordEnd);
+        }
+    }
+
+    private int checksum(byte[] payload, int length) {
+        crc.reset();
+        crc.update(payload, 0, length);
+        return (int) crc.getValue();
+    }
+
+    static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    static byte[] encode(AuditLog event) {
+        byte[][] strings = {
+                bytes(event.getUsername()), bytes(event.getAction()), bytes(event.getResource()),
+                bytes(event.getIpAddress()), bytes(event.getSessionId()), bytes(event.getUserAgent()),
+                bytes(event.getDetails()), bytes(event.getChanges())
+        };
+        int size = 8 + 8 + 1;
+        for (byte[] s : strings) {
+            size += 4 + (s != null ? s.length : 0);
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putLong(event.getAuditId());
+        out.putLong(toMillis(event.getTimestamp()));
+        out.put((byte) event.getSeverity().ordinal());
+        for (byte[] s : strings) {
+            if (s == null) {
+                out.putInt(-1);
+            } else {
+                out.putInt(s.length);
+                out.put(s);
+            }
+        }
+        return out.array();
+    }
+
+    static AuditLog decode(byte[] payload) {
+        ByteBuffer in = ByteBuffer.wrap(payload);
+        AuditLog event = new AuditLog();
+        event.setAuditId(in.getLong());
+        event.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(in.getLong()), ZONE));
+        event.setSeverity(SEVERITIES[in.get()]);
+        event.setUsername(string(in));
+        event.setAction(string(in));
+        event.setResource(string(in));
+        event.setIpAddress(string(in));
+        event.setSessionId(string(in));
+        event.setUserAgent(string(in));
+        event.setDetails(string(in));
+        event.setChanges(string(in));
+        return event;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String string(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
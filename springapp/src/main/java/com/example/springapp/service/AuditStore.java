@@ -0,0 +1,53 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage backend for audit events, selected with {@code app.audit.store}: {@code jpa} (the
+ * audit_log table, default), {@code segment} (memory-mapped append-only segment files) or
+ * {@code partitioned} (monthly tables with drop-based retention).
+ * Appends come only from the single audit writer thread; reads may run concurrently.
+ * Unless noted, list results are newest first.
+ */
+public interface AuditStore {
+
+    /**
+     * Persists the batch, assigning auditId to each event. A store that can fail part-way through
+     * throws {@link com.example.springapp.exception.AuditAppendException}; any other exception means
+     * nothing was stored. Before throwing, a store may reorder the (mutable) list so that the events
+     * it stored come first.
+     */
+    void appendBatch(List<AuditLog> events);
+
+    List<AuditLog> findAll();
+
+    /** Keyset page: events with auditId below {@code beforeId}, highest id first. */
+    Slice<AuditLog> findBefore(Long beforeId, Pageable pageable);
+
+    /** The events with these ids, highest id first; ids no longer stored are skipped. */
+    List<AuditLog> findByIds(Collection<Long> ids);
+
+    List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Keyset page for exports: up to {@code limit} events with timestamp in {@code [from, to)} and
+     * auditId above {@code afterId}, lowest id first.
+     */
+    List<AuditLog> findBetweenAfter(LocalDateTime from, LocalDateTime to, long afterId, int limit);
+
+    List<AuditLog> findBySeverity(AuditLog.Severity severity);
+
+    List<AuditLog> findByUsernameContaining(String username);
+
+    List<AuditLog> findByAction(String action);
+
+    long countBySeverity(AuditLog.Severity severity);
+
+    long count();
+}
@@ -1,23 +1,31 @@
 package com.example.springapp.service;
 
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import com.example.springapp.model.User;
 import com.example.springapp.repository.UserRepository;
+import com.example.springapp.security.PasswordVerifier;
+import com.example.springapp.security.TokenRevocationService;
 import com.example.springapp.security.jwt.JwtService;
 import com.example.springapp.dto.*;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepo;
     private final PasswordEncoder encoder;
-    private final AuthenticationManager authManager;
+    private final PasswordVerifier passwordVerifier;
+    private final LastLoginWriteBehind lastLoginWriteBehind;
     private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
 
     public AuthResponse register(RegisterRequest req) {
         if (userRepo.existsByUsername(req.getUsername())) {
@@ -41,15 +49,26 @@ public class AuthService {
         return new AuthResponse(token, user.getRole().name(), user.getUsername());
     }
 
-    public AuthResponse login(LoginRequest req) {
-        authManager.authenticate(
-            new UsernamePasswordAuthenticationToken(req.getUsernameOrEmail(), req.getPassword())
-        );
-        User user = userRepo.findByUsernameOrEmail(req.getUsernameOrEmail(), req.getUsernameOrEmail())
-                .orElseThrow(() -> new IllegalArgumentException("Invalid credentials"));
-        user.recordLogin();
-        userRepo.save(user);
-        String token = jwtService.generateToken(user.getUserId(),user.getUsername(), user.getRole().name());
-        return new AuthResponse(token, user.getRole().name(), user.getUsername());
+    /**
+     * One user lookup, one BCrypt check on the bounded {@link PasswordVerifier} pool, and a
+     * write-behind lastLogin update. The returned future completes off the request thread.
+     */
+    public CompletableFuture<AuthResponse> login(LoginRequest req) {
+        Optional<User> found = userRepo.findByUsernameOrEmail(req.getUsernameOrEmail(), req.getUsernameOrEmail());
+        String hash = found.map(User::getPasswordHash).orElse(null);
+        return passwordVerifier.matches(req.getPassword(), hash).thenApply(matches -> {
+            User user = found.filter(u -> matches)
+                    .orElseThrow(() -> new BadCredentialsException("Invalid credentials"));
+            if (!user.isActive()) {
+                throw new DisabledException("Account is disabled");
+            }
+            lastLoginWriteBehind.record(user.getUserId(), LocalDateTime.now());
+            String token = jwtService.generateToken(user.getUserId(),user.getUsername(), user.getRole().name());
+            return new AuthResponse(token, user.getRole().name(), user.getUsername());
+        });
+    }
+
+    public void logout(String token) {
+        revocationService.revokeToken(jwtService.parseClaims(token));
     }
 }
@@ -0,0 +1,27 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.SlotAvailabilityDTO;
+
+import java.time.LocalDateTime;
+
+/**
+ * Receives changes applied to {@link SlotAvailabilityIndex}. Derived views (bitmaps,
+ * live streams) register themselves with the index instead of being called from every
+ * write path separately.
+ */
+public interface AvailabilityListener {
+
+    default void onIndexRebuilt() {
+    }
+
+    default void onSlotRegistered(SlotAvailabilityDTO slot) {
+    }
+
+    /** The slot was deleted, or moved away from {@code facilityId} (followed by onSlotRegistered). */
+    default void onSlotRemoved(Long slotId, Long facilityId) {
+    }
+
+    /** The occupancy of {@code slotId} may have changed somewhere inside [start, end). */
+    default void onWindowChanged(Long slotId, Long facilityId, LocalDateTime start, LocalDateTime end) {
+    }
+}
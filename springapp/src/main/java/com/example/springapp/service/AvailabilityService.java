@@ -0,0 +1,64 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.FacilityAvailabilityDTO;
+import com.example.springapp.dto.SlotAvailabilityDTO;
+import com.example.springapp.model.ParkingSlot;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AvailabilityService {
+
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final FacilityAvailabilityBitmaps availabilityBitmaps;
+
+    public AvailabilityService(SlotAvailabilityIndex availabilityIndex, FacilityAvailabilityBitmaps availabilityBitmaps) {
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityBitmaps = availabilityBitmaps;
+    }
+
+    public List<SlotAvailabilityDTO> findFreeSlots(Long facilityId, LocalDateTime start, LocalDateTime end, String slotType) {
+        validateWindow(start, end);
+        ParkingSlot.SlotType slotTypeEnum = null;
+        if (slotType != null && !slotType.isEmpty()) {
+            try {
+                slotTypeEnum = ParkingSlot.SlotType.valueOf(slotType.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid slotType value: " + slotType);
+            }
+        }
+        return availabilityIndex.findFreeSlots(facilityId, start, end, slotTypeEnum);
+    }
+
+    public FacilityAvailabilityDTO getFacilityAvailability(Long facilityId, LocalDateTime start, LocalDateTime end,
+                                                           boolean includeBuckets) {
+        validateWindow(start, end);
+        availabilityBitmaps.checkWithinHorizon(start, end);
+        Map<String, Integer> freeByType = new LinkedHashMap<>();
+        int total = 0;
+        for (Map.Entry<ParkingSlot.SlotType, Integer> e : availabilityBitmaps.countFree(facilityId, start, end).entrySet()) {
+            freeByType.put(e.getKey().name(), e.getValue());
+            total += e.getValue();
+        }
+        FacilityAvailabilityDTO dto = new FacilityAvailabilityDTO();
+        dto.setFacilityId(facilityId);
+        dto.setStart(start);
+        dto.setEnd(end);
+        dto.setTotalFree(total);
+        dto.setFreeByType(freeByType);
+        if (includeBuckets) {
+            dto.setFreeByBucket(availabilityBitmaps.freeCountsPerBucket(facilityId, start, end));
+        }
+        return dto;
+    }
+
+    private void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("start must be before end");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.springapp.service;
 
 import com.example.springapp.dto.BookingHistoryDTO;
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.mapper.BookingHistoryMapper;
 import com.example.springapp.model.Booking;
 import com.example.springapp.model.BookingHistory;
@@ -8,10 +9,11 @@ import com.example.springapp.model.User;
 import com.example.springapp.repository.BookingHistoryRepository;
 import com.example.springapp.repository.BookingRepository;
 import com.example.springapp.repository.UserRepository;
+import com.example.springapp.util.KeysetPagination;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class BookingHistoryService {
@@ -28,14 +30,16 @@ public class BookingHistoryService {
     }
 
     public List<BookingHistoryDTO> getAllHistories() {
-        return historyRepository.findAll().stream()
-                .map(BookingHistoryMapper::toDTO)
-                .collect(Collectors.toList());
+        return historyRepository.findAllDtos();
+    }
+
+    public CursorPage<BookingHistoryDTO> getHistoryPage(String cursor, Integer size, boolean withTotal) {
+        return KeysetPagination.fetch(cursor, size, historyRepository::findDtosBefore,
+                BookingHistoryDTO::getHistoryId, Function.identity(), withTotal ? historyRepository::count : null);
     }
 
     public BookingHistoryDTO getHistoryById(Long id) {
-        return historyRepository.findById(id)
-                .map(BookingHistoryMapper::toDTO)
+        return historyRepository.findDtoById(id)
                 .orElseThrow(() -> new RuntimeException("Booking history not found"));
     }
 
@@ -0,0 +1,257 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.BookingHistory;
+import com.example.springapp.model.Notification;
+import com.example.springapp.repository.BookingHistoryRepository;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntSupplier;
+
+/**
+ * Drives time-based booking transitions:
+ * <ul>
+ *   <li>CONFIRMED bookings starting within the reminder lead time get a REMINDER notification</li>
+ *   <li>ACTIVE bookings past their end time become OVERDUE</li>
+ *   <li>CONFIRMED bookings that ended without a check-in are cancelled and their slot released</li>
+ *   <li>slots of bookings that completed or were cancelled, or whose window ended, since the last
+ *       tick are released unless another booking holds them now</li>
+ * </ul>
+ * Each step pulls due rows in batches through the (status, startTime) / (status, endTime)
+ * indexes, locking them until the batch commits. A transitioned row no longer matches its
+ * query, so every tick only sees work that became due since the last one. History rows and
+ * new notifications are written with batched inserts and status changes with one set-based
+ * UPDATE per batch.
+ */
+@Service
+@Slf4j
+public class BookingLifecycleService {
+
+    private static final Set<Booking.Status> FINISHED_STATUSES = EnumSet.of(Booking.Status.COMPLETED,
+            Booking.Status.CANCELLED);
+
+    private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository historyRepository;
+    private final NotificationCoalescer notificationCoalescer;
+    private final ParkingSlotRepository slotRepository;
+    private final UserRepository userRepository;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.lifecycle.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.lifecycle.reminder-lead-minutes:30}")
+    private long reminderLeadMinutes;
+
+    @Value("${app.lifecycle.no-show-grace-minutes:15}")
+    private long noShowGraceMinutes;
+
+    // How far back the first release pass after startup looks for bookings that ended meanwhile
+    @Value("${app.lifecycle.release-lookback-hours:24}")
+    private long releaseLookbackHours;
+
+    // Upper bound of the last release pass; only touched by the scheduler thread
+    private LocalDateTime releasedUpTo;
+
+    public BookingLifecycleService(BookingRepository bookingRepository, BookingHistoryRepository historyRepository,
+                                   NotificationCoalescer notificationCoalescer, ParkingSlotRepository slotRepository,
+                                   UserRepository userRepository, SlotAvailabilityIndex availabilityIndex,
+                                   TransactionTemplate transactionTemplate) {
+        this.bookingRepository = bookingRepository;
+        this.historyRepository = historyRepository;
+        this.notificationCoalescer = notificationCoalescer;
+        this.slotRepository = slotRepository;
+        this.userRepository = userRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.lifecycle.interval-ms:30000}")
+    public void runCycle() {
+        int reminders = drain(this::sendReminderBatch);
+        int overdue = drain(this::markOverdueBatch);
+        int released = drain(this::releaseNoShowBatch);
+        int freed = releaseEndedSlots();
+        if (reminders + overdue + released + freed > 0) {
+            log.info("Booking lifecycle: {} reminders, {} overdue, {} no-shows released, {} slots freed",
+                    reminders, overdue, released, freed);
+        }
+    }
+
+    int sendReminderBatch() {
+        return inTransaction(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Object[]> due = bookingRepository.findStartingBetween(Booking.Status.CONFIRMED, now,
+                    now.plusMinutes(reminderLeadMinutes), PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = new ArrayList<>(due.size());
+            List<Notification> notifications = new ArrayList<>(due.size());
+            for (Object[] row : due) {
+                ids.add((Long) row[0]);
+                notifications.add(notification((Long) row[2], (Long) row[0], Notification.Type.REMINDER,
+                        Notification.Priority.MEDIUM, "Your booking #" + row[0] + " starts at " + row[3]));
+            }
+            bookingRepository.markRemindersSent(ids);
+            saveNotifications(notifications);
+            return due.size();
+        });
+    }
+
+    int markOverdueBatch() {
+        List<Object[]> overdue = new ArrayList<>();
+        int processed = inTransaction(() -> {
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            List<Object[]> due = bookingRepository.findEndedBefore(Booking.Status.ACTIVE, now, PageRequest.of(0, batchSize));
+            transition(due, Booking.Status.ACTIVE, Booking.Status.OVERDUE, now,
+                    "Marked overdue: end time passed without check-out");
+            List<Notification> notifications = new ArrayList<>(due.size());
+            for (Object[] row : due) {
+                overdue.add(row);
+                notifications.add(notification((Long) row[2], (Long) row[0], Notification.Type.ALERT,
+                        Notification.Priority.HIGH, "Your booking #" + row[0] + " is overdue, it ended at " + row[4]));
+            }
+            saveNotifications(notifications);
+            return due.size();
+        });
+        // The car is still there: the slot stays occupied past the booked end until check-out
+        for (Object[] row : overdue) {
+            availabilityIndex.markOverdue((Long) row[0], (Long) row[1], (LocalDateTime) row[3]);
+        }
+        return processed;
+    }
+
+    int releaseNoShowBatch() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<Long> cancelled = new ArrayList<>();
+        int processed = inTransaction(() -> {
+            List<Object[]> due = bookingRepository.findEndedBefore(Booking.Status.CONFIRMED,
+                    now.minusMinutes(noShowGraceMinutes), PageRequest.of(0, batchSize));
+            transition(due, Booking.Status.CONFIRMED, Booking.Status.CANCELLED, now,
+                    "Cancelled: booking ended without check-in");
+            Set<Long> slotIds = new HashSet<>();
+            List<Notification> notifications = new ArrayList<>(due.size());
+            for (Object[] row : due) {
+                cancelled.add((Long) row[0]);
+                slotIds.add((Long) row[1]);
+                notifications.add(notification((Long) row[2], (Long) row[0], Notification.Type.ALERT,
+                        Notification.Priority.MEDIUM, "Your booking #" + row[0] + " ended without check-in and was released"));
+            }
+            if (!slotIds.isEmpty()) {
+                slotRepository.releaseIfIdle(slotIds, Booking.BLOCKING_STATUSES, now);
+            }
+            saveNotifications(notifications);
+            return due.size();
+        });
+        cancelled.forEach(availabilityIndex::removeBooking);
+        return processed;
+    }
+
+    /**
+     * Frees the slots of bookings that finished since the last pass: completed (by check-out or an
+     * edit) or cancelled, or whose window ended. releaseIfIdle keeps a slot that another blocking
+     * booking covers right now and is a no-op for one already free, so passes may safely overlap;
+     * each looks back a minute past the previous one to catch rows committed late.
+     */
+    int releaseEndedSlots() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        LocalDateTime since = releasedUpTo != null
+                ? releasedUpTo.minusMinutes(1)
+                : now.minusHours(releaseLookbackHours);
+        int freed = inTransaction(() -> {
+            Set<Long> slotIds = new HashSet<>(bookingRepository.findSlotsEndedBetween(FINISHED_STATUSES, since, now));
+            slotIds.addAll(bookingRepository.findSlotsModifiedBetween(FINISHED_STATUSES, since, now));
+            List<Long> ids = new ArrayList<>(slotIds);
+            int total = 0;
+            for (int i = 0; i < ids.size(); i += batchSize) {
+                total += slotRepository.releaseIfIdle(ids.subList(i, Math.min(ids.size(), i + batchSize)),
+                        Booking.BLOCKING_STATUSES, now);
+            }
+            return total;
+        });
+        releasedUpTo = now;
+        return freed;
+    }
+
+    /**
+     * Moves the given rows from {@code from} to {@code to} with one conditional UPDATE and records
+     * a history entry for each. The rows were selected FOR UPDATE in this transaction, so they are
+     * still in {@code from} and the UPDATE must affect every one of them; anything else rolls the
+     * batch back rather than recording history for rows that didn't move.
+     */
+    private void transition(List<Object[]> rows, Booking.Status from, Booking.Status to,
+                            LocalDateTime now, String notes) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Long> ids = rows.stream().map(r -> (Long) r[0]).toList();
+        int updated = bookingRepository.transitionStatus(ids, from, to, now);
+        if (updated != rows.size()) {
+            throw new IllegalStateException("Expected to move " + rows.size() + " bookings from " + from
+                    + " to " + to + " but moved " + updated);
+        }
+        List<BookingHistory> history = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            history.add(BookingHistory.builder()
+                    .booking(bookingRepository.getReferenceById((Long) row[0]))
+                    .statusChange(from + " → " + to)
+                    .previousStatus(from.name())
+                    .newStatus(to.name())
+                    .changeDate(now)
+                    .notes(notes)
+                    .build());
+        }
+        historyRepository.saveAll(history);
+    }
+
+    private Notification notification(Long userId, Long bookingId, Notification.Type type,
+                                      Notification.Priority priority, String message) {
+        return Notification.builder()
+                .user(userRepository.getReferenceById(userId))
+                .type(type)
+                .priority(priority)
+                .message(message)
+                .relatedEntityType("BOOKING")
+                .relatedEntityId(String.valueOf(bookingId))
+                .build();
+    }
+
+    // Through the coalescer like every other notification: a repeat for the same booking updates
+    // the earlier row, and LOW ones join the user's digest once the batch commits
+    private void saveNotifications(List<Notification> notifications) {
+        notificationCoalescer.submitAll(notifications);
+    }
+
+    // Runs batches until one comes back short, so a backlog is worked off within a single tick
+    private int drain(IntSupplier batch) {
+        int total = 0;
+        int processed;
+        do {
+            processed = batch.getAsInt();
+            total += processed;
+        } while (processed >= batchSize);
+        return total;
+    }
+
+    private int inTransaction(IntSupplier work) {
+        Integer result = transactionTemplate.execute(status -> work.getAsInt());
+        return result != null ? result : 0;
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.springapp.service;
 
 import com.example.springapp.dto.BookingDTO;
+import com.example.springapp.dto.BulkBookingItemResultDTO;
+import com.example.springapp.dto.BulkBookingResultDTO;
+import com.example.springapp.dto.CursorPage;
+import com.example.springapp.dto.HoldConfirmationDTO;
+import com.example.springapp.exception.BookingConflictException;
 import com.example.springapp.mapper.BookingMapper;
 import com.example.springapp.model.Booking;
 import com.example.springapp.model.ParkingSlot;
@@ -10,68 +15,339 @@ import com.example.springapp.repository.BookingRepository;
 import com.example.springapp.repository.ParkingSlotRepository;
 import com.example.springapp.repository.PaymentRepository;
 import com.example.springapp.repository.UserRepository;
+import com.example.springapp.util.KeysetPagination;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    private static final int MAX_BULK_ITEMS = 1000;
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ParkingSlotRepository slotRepository;
     private final PaymentRepository paymentRepository;
+    private final SlotLockManager slotLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final SlotHoldRegistry holdRegistry;
 
     public BookingService(BookingRepository bookingRepository, UserRepository userRepository,
-                          ParkingSlotRepository slotRepository, PaymentRepository paymentRepository) {
+                          ParkingSlotRepository slotRepository, PaymentRepository paymentRepository,
+                          SlotLockManager slotLocks, TransactionTemplate transactionTemplate,
+                          SlotAvailabilityIndex availabilityIndex, SlotHoldRegistry holdRegistry) {
         this.bookingRepository = bookingRepository;
         this.userRepository = userRepository;
         this.slotRepository = slotRepository;
         this.paymentRepository = paymentRepository;
+        this.slotLocks = slotLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.availabilityIndex = availabilityIndex;
+        this.holdRegistry = holdRegistry;
     }
 
     public List<BookingDTO> getAllBookings() {
-        return bookingRepository.findAll().stream()
-                .map(BookingMapper::toDTO)
-                .collect(Collectors.toList());
+        return bookingRepository.findAllDtos();
+    }
+
+    public CursorPage<BookingDTO> getBookingPage(String cursor, Integer size, boolean withTotal) {
+        return KeysetPagination.fetch(cursor, size, bookingRepository::findDtosBefore,
+                BookingDTO::getBookingId, Function.identity(), withTotal ? bookingRepository::count : null);
     }
 
     public BookingDTO getBookingById(Long id) {
-        return bookingRepository.findById(id)
-                .map(BookingMapper::toDTO)
+        return bookingRepository.findDtoById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
     }
 
+    // The slot stripe is held until the transaction has committed, so the next request
+    // for the same slot always sees this booking in its overlap check.
     public BookingDTO createBooking(BookingDTO dto) {
+        validateRequest(dto);
+        return slotLocks.withSlotLock(dto.getSlotId(), () -> {
+            Booking saved = transactionTemplate.execute(status -> insertBooking(dto, null));
+            availabilityIndex.onBookingSaved(saved);
+            return BookingMapper.toDTO(saved);
+        });
+    }
+
+    /**
+     * Turns a live hold into a confirmed booking, recording the completed payment with it.
+     * The hold keeps the window reserved until the booking has committed.
+     */
+    public BookingDTO confirmHold(Long holdId, HoldConfirmationDTO request) {
+        SlotHold hold = holdRegistry.get(holdId)
+                .orElseThrow(() -> new BookingConflictException("Hold " + holdId + " has expired or does not exist"));
+        return slotLocks.withSlotLock(hold.getSlotId(), () -> {
+            if (holdRegistry.get(holdId).isEmpty()) {
+                throw new BookingConflictException("Hold " + holdId + " has expired");
+            }
+            Booking saved = transactionTemplate.execute(status -> {
+                BookingDTO dto = new BookingDTO();
+                dto.setUserId(hold.getUserId());
+                dto.setSlotId(hold.getSlotId());
+                dto.setVehicleNumber(request.getVehicleNumber());
+                dto.setStartTime(hold.getStartTime());
+                dto.setEndTime(hold.getEndTime());
+                dto.setStatus(Booking.Status.CONFIRMED.name());
+                Booking booking = insertBooking(dto, holdId);
+                if (request.getPaymentMethod() != null) {
+                    Payment payment = Payment.builder()
+                            .amount(request.getAmount() > 0 ? request.getAmount() : booking.getTotalCost())
+                            .paymentMethod(Payment.PaymentMethod.valueOf(request.getPaymentMethod().toUpperCase()))
+                            .build();
+                    payment.markCompleted(request.getTransactionId());
+                    booking.setPayment(payment);
+                    paymentRepository.save(payment);
+                }
+                return booking;
+            });
+            holdRegistry.release(holdId);
+            availabilityIndex.onBookingSaved(saved);
+            return BookingMapper.toDTO(saved);
+        });
+    }
+
+    public BookingDTO updateBooking(Long id, BookingDTO dto) {
+        validateRequest(dto);
+        Long previousSlotId = bookingRepository.findById(id)
+                .map(b -> b.getSlot().getSlotId())
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+        return slotLocks.withSlotLocks(new Long[]{previousSlotId, dto.getSlotId()}, () -> {
+            Booking saved = transactionTemplate.execute(status -> replaceBooking(id, dto));
+            availabilityIndex.onBookingSaved(saved);
+            return BookingMapper.toDTO(saved);
+        });
+    }
+
+    /**
+     * Validates, prices and inserts a batch of bookings in one transaction. Items that fail
+     * validation or overlap an existing (or earlier in-batch) booking are rejected on their
+     * own; the rest go to the database as batched inserts.
+     */
+    public BulkBookingResultDTO createBookings(List<BookingDTO> dtos) {
+        if (dtos.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("A bulk request may contain at most " + MAX_BULK_ITEMS + " bookings");
+        }
+        List<BulkBookingItemResultDTO> results = new ArrayList<>(dtos.size());
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            String error = validateBulkItem(dtos.get(i));
+            results.add(new BulkBookingItemResultDTO(i, null, error == null ? null : "REJECTED", error));
+            if (error == null) {
+                candidates.add(i);
+            }
+        }
+
+        Long[] slotIds = candidates.stream().map(i -> dtos.get(i).getSlotId()).distinct().toArray(Long[]::new);
+        if (slotIds.length > 0) {
+            try {
+                slotLocks.withSlotLocks(slotIds, () -> {
+                    List<Booking> saved = transactionTemplate.execute(status -> insertBatch(dtos, candidates, results));
+                    saved.forEach(availabilityIndex::onBookingSaved);
+                    return saved;
+                });
+            } catch (RuntimeException e) {
+                // The transaction rolled back, so nothing from this batch was stored
+                for (int i : candidates) {
+                    BulkBookingItemResultDTO item = results.get(i);
+                    if (item.getStatus() == null || "CREATED".equals(item.getStatus())) {
+                        item.setBookingId(null);
+                        item.setStatus("FAILED");
+                        item.setError(e.getMessage());
+                    }
+                }
+            }
+        }
+
+        BulkBookingResultDTO result = new BulkBookingResultDTO();
+        result.setRequested(dtos.size());
+        result.setCreated((int) results.stream().filter(r -> "CREATED".equals(r.getStatus())).count());
+        result.setRejected(dtos.size() - result.getCreated());
+        result.setItems(results);
+        return result;
+    }
+
+    public void deleteBooking(Long id) {
+        bookingRepository.deleteById(id);
+        availabilityIndex.removeBooking(id);
+    }
+
+    private Booking insertBooking(BookingDTO dto, Long ownHoldId) {
         User user = userRepository.findById(dto.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        ParkingSlot slot = slotRepository.findById(dto.getSlotId())
+        ParkingSlot slot = slotRepository.findByIdForUpdate(dto.getSlotId())
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
-                slot.setAvailable(false); // Mark slot as booked
-        slotRepository.save(slot);
+        ensureNoOverlap(slot.getSlotId(), dto.getStartTime(), dto.getEndTime(), null, ownHoldId);
+        slot.markOccupied(); // Mark slot as booked; the locking read already bumped its version
         Payment payment = dto.getPaymentId() != null ? paymentRepository.findById(dto.getPaymentId()).orElse(null) : null;
         Booking booking = BookingMapper.toEntity(dto, user, slot, payment);
-        return BookingMapper.toDTO(bookingRepository.save(booking));
+        if (booking.getTotalCost() <= 0) {
+            booking.setTotalCost(priceOf(slot, dto.getStartTime(), dto.getEndTime()));
+        }
+        return bookingRepository.save(booking);
     }
 
-    public BookingDTO updateBooking(Long id, BookingDTO dto) {
+    private Booking replaceBooking(Long id, BookingDTO dto) {
         Booking existing = bookingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         User user = userRepository.findById(dto.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        ParkingSlot slot = slotRepository.findById(dto.getSlotId())
+        ParkingSlot slot = slotRepository.findByIdForUpdate(dto.getSlotId())
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
+        Booking.Status newStatus = Booking.Status.valueOf(dto.getStatus().toUpperCase());
+        if (Booking.BLOCKING_STATUSES.contains(newStatus)) {
+            ensureNoOverlap(slot.getSlotId(), dto.getStartTime(), dto.getEndTime(), existing.getBookingId(), null);
+        }
         Payment payment = dto.getPaymentId() != null ? paymentRepository.findById(dto.getPaymentId()).orElse(null) : null;
 
-        Booking updated = BookingMapper.toEntity(dto, user, slot, payment);
-        updated.setBookingId(existing.getBookingId());
+        // Updated in place so reminderSent and the history survive; a new start time gets its own reminder
+        boolean rescheduled = !existing.getStartTime().equals(dto.getStartTime());
+        BookingMapper.updateEntity(existing, dto, user, slot, payment);
+        if (rescheduled) {
+            existing.setReminderSent(false);
+        }
+        return bookingRepository.save(existing);
+    }
+
+    private List<Booking> insertBatch(List<BookingDTO> dtos, List<Integer> candidates,
+                                      List<BulkBookingItemResultDTO> results) {
+        List<BookingDTO> items = candidates.stream().map(dtos::get).toList();
+        Map<Long, User> users = userRepository.findAllById(
+                        items.stream().map(BookingDTO::getUserId).distinct().toList()).stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        Map<Long, ParkingSlot> slots = slotRepository.findAllByIdForUpdate(
+                        items.stream().map(BookingDTO::getSlotId).distinct().toList()).stream()
+                .collect(Collectors.toMap(ParkingSlot::getSlotId, Function.identity()));
+        Map<Long, Payment> payments = paymentRepository.findAllById(
+                        items.stream().map(BookingDTO::getPaymentId).filter(Objects::nonNull).distinct().toList()).stream()
+                .collect(Collectors.toMap(Payment::getPaymentId, Function.identity()));
 
-        return BookingMapper.toDTO(bookingRepository.save(updated));
+        // One query for every window already taken on the batch's slots within the batch's time span
+        LocalDateTime from = items.stream().map(BookingDTO::getStartTime).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = items.stream().map(BookingDTO::getEndTime).max(LocalDateTime::compareTo).orElseThrow();
+        Map<Long, List<LocalDateTime[]>> taken = new HashMap<>();
+        for (Object[] row : bookingRepository.findWindowsForSlots(slots.keySet(), Booking.BLOCKING_STATUSES, from, to)) {
+            taken.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new LocalDateTime[]{(LocalDateTime) row[1], (LocalDateTime) row[2]});
+        }
+
+        List<Booking> toSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        for (int i : candidates) {
+            BookingDTO dto = dtos.get(i);
+            User user = users.get(dto.getUserId());
+            ParkingSlot slot = slots.get(dto.getSlotId());
+            BulkBookingItemResultDTO item = results.get(i);
+            if (user == null || slot == null) {
+                item.setStatus("REJECTED");
+                item.setError(user == null ? "User not found" : "Slot not found");
+                continue;
+            }
+            List<LocalDateTime[]> windows = taken.computeIfAbsent(slot.getSlotId(), id -> new ArrayList<>());
+            boolean overlaps = holdRegistry.conflicts(slot.getSlotId(), dto.getStartTime(), dto.getEndTime(), null)
+                    || windows.stream().anyMatch(w -> w[0].isBefore(dto.getEndTime()) && w[1].isAfter(dto.getStartTime()));
+            if (overlaps) {
+                item.setStatus("REJECTED");
+                item.setError("Slot " + slot.getSlotId() + " is already booked between "
+                        + dto.getStartTime() + " and " + dto.getEndTime());
+                continue;
+            }
+            windows.add(new LocalDateTime[]{dto.getStartTime(), dto.getEndTime()});
+            slot.markOccupied();
+
+            Booking booking = BookingMapper.toEntity(dto, user, slot,
+                    dto.getPaymentId() != null ? payments.get(dto.getPaymentId()) : null);
+            if (booking.getTotalCost() <= 0) {
+                booking.setTotalCost(priceOf(slot, dto.getStartTime(), dto.getEndTime()));
+            }
+            toSave.add(booking);
+            savedIndexes.add(i);
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(toSave);
+        bookingRepository.flush();
+        for (int k = 0; k < saved.size(); k++) {
+            BulkBookingItemResultDTO item = results.get(savedIndexes.get(k));
+            item.setBookingId(saved.get(k).getBookingId());
+            item.setStatus("CREATED");
+        }
+        return saved;
     }
 
-    public void deleteBooking(Long id) {
-        bookingRepository.deleteById(id);
+    private String validateBulkItem(BookingDTO dto) {
+        if (dto == null) {
+            return "Booking is empty";
+        }
+        if (dto.getUserId() == null || dto.getSlotId() == null) {
+            return "userId and slotId are required";
+        }
+        if (dto.getVehicleNumber() == null || dto.getVehicleNumber().isBlank()) {
+            return "vehicleNumber is required";
+        }
+        if (dto.getStartTime() == null || dto.getEndTime() == null || !dto.getStartTime().isBefore(dto.getEndTime())) {
+            return "Booking start time must be before end time";
+        }
+        if (dto.getStatus() == null) {
+            dto.setStatus(Booking.Status.CONFIRMED.name());
+        }
+        try {
+            Booking.Status.valueOf(dto.getStatus().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return "Invalid status: " + dto.getStatus();
+        }
+        return null;
+    }
+
+    private static double priceOf(ParkingSlot slot, LocalDateTime start, LocalDateTime end) {
+        double hours = Duration.between(start, end).toMinutes() / 60.0;
+        return Math.round(hours * slot.getHourlyRate() * 100.0) / 100.0;
+    }
+
+    // Checked before any lock is taken: a missing slot id has no stripe and a bad status would fail mid-transaction
+    private void validateRequest(BookingDTO dto) {
+        if (dto.getUserId() == null || dto.getSlotId() == null) {
+            throw new IllegalArgumentException("userId and slotId are required");
+        }
+        validateWindow(dto.getStartTime(), dto.getEndTime());
+        if (dto.getStatus() == null) {
+            dto.setStatus(Booking.Status.CONFIRMED.name());
+        }
+        try {
+            Booking.Status.valueOf(dto.getStatus().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + dto.getStatus());
+        }
+    }
+
+    private void validateWindow(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("Booking start time must be before end time");
+        }
+    }
+
+    private void ensureNoOverlap(Long slotId, LocalDateTime startTime, LocalDateTime endTime,
+                                 Long excludeBookingId, Long ownHoldId) {
+        if (holdRegistry.conflicts(slotId, startTime, endTime, ownHoldId)) {
+            throw new BookingConflictException("Slot " + slotId + " is held by another user between "
+                    + startTime + " and " + endTime);
+        }
+        if (bookingRepository.existsOverlapping(slotId, startTime, endTime, Booking.BLOCKING_STATUSES, excludeBookingId)) {
+            throw new BookingConflictException("Slot " + slotId + " is already booked between "
+                    + startTime + " and " + endTime);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package com.example.springapp.service;
+
+import com.example.springapp.config.CacheConfig;
+import com.example.springapp.dto.CacheRegionStatsDTO;
+import com.example.springapp.security.PrincipalCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hit/miss/eviction counters for the second-level and query cache regions declared in
+ * {@link CacheConfig}, read from each region's Caffeine cache, plus the JWT filter's
+ * {@link PrincipalCache}. Put counts come from Hibernate, which only counts with the cache-stats
+ * profile active; without it they are reported as -1.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private static final String[] REGIONS = {
+            CacheConfig.FACILITY_REGION,
+            CacheConfig.PARKING_SLOT_REGION,
+            CacheConfig.USER_REGION,
+            CacheConfig.QUERY_RESULTS_REGION,
+            CacheConfig.UPDATE_TIMESTAMPS_REGION,
+    };
+
+    public static final String PRINCIPAL_REGION = "principal";
+
+    private final Statistics statistics;
+    // Absent when the second-level cache is off (e.g. slice tests without CacheConfig)
+    private final CacheManager cacheManager;
+    private final PrincipalCache principalCache;
+    // Caffeine stats are cumulative; reset() snapshots them and later reads report the difference
+    private final Map<String, CacheStats> baselines = new ConcurrentHashMap<>();
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory,
+                                  ObjectProvider<CacheManager> hibernateCacheManager, PrincipalCache principalCache) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.cacheManager = hibernateCacheManager.getIfAvailable();
+        this.principalCache = principalCache;
+    }
+
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        List<CacheRegionStatsDTO> result = new ArrayList<>(REGIONS.length + 1);
+        for (String region : REGIONS) {
+            Cache<?, ?> cache = regionCache(region);
+            if (cache == null) {
+                continue;
+            }
+            CacheRegionStatsDTO dto = toDTO(region, cache.stats(), cache.estimatedSize());
+            CacheRegionStatistics hibernateStats = statistics.isStatisticsEnabled()
+                    ? statistics.getCacheRegionStatistics(region) : null;
+            dto.setPutCount(hibernateStats != null ? hibernateStats.getPutCount() : -1);
+            result.add(dto);
+        }
+        CacheStats principal = principalCache.stats();
+        CacheRegionStatsDTO dto = toDTO(PRINCIPAL_REGION, principal, principalCache.size());
+        dto.setPutCount(principal.minus(baselines.getOrDefault(PRINCIPAL_REGION, CacheStats.empty()))
+                .loadSuccessCount());
+        result.add(dto);
+        return result;
+    }
+
+    public void reset() {
+        statistics.clear();
+        for (String region : REGIONS) {
+            Cache<?, ?> cache = regionCache(region);
+            if (cache != null) {
+                baselines.put(region, cache.stats());
+            }
+        }
+        baselines.put(PRINCIPAL_REGION, principalCache.stats());
+    }
+
+    private CacheRegionStatsDTO toDTO(String region, CacheStats cumulative, long size) {
+        CacheStats stats = cumulative.minus(baselines.getOrDefault(region, CacheStats.empty()));
+        CacheRegionStatsDTO dto = new CacheRegionStatsDTO();
+        dto.setRegion(region);
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setHitRatio(hitRatio(stats.hitCount(), stats.missCount()));
+        dto.setElementCount(size);
+        return dto;
+    }
+
+    /** The Caffeine cache behind a region's JCache facade, or null when there is none. */
+    private Cache<?, ?> regionCache(String region) {
+        javax.cache.Cache<Object, Object> cache = cacheManager != null ? cacheManager.getCache(region) : null;
+        return cache != null ? cache.unwrap(Cache.class) : null;
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        long reads = hits + misses;
+        return reads == 0 ? 0.0 : (double) hits / reads;
+    }
+}
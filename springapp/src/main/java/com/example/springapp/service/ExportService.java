@@ -0,0 +1,297 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AuditLogDTO;
+import com.example.springapp.dto.BookingDTO;
+import com.example.springapp.dto.PaymentDTO;
+import com.example.springapp.mapper.AuditLogMapper;
+import com.example.springapp.mapper.BookingMapper;
+import com.example.springapp.mapper.PaymentMapper;
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.Payment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams large admin exports straight from a forward-only JDBC cursor to the response.
+ * Rows are mapped and written one at a time and the persistence context is cleared every
+ * {@code fetchSize} rows, so heap use stays flat no matter how many rows match. Audit events
+ * are read from the configured {@link AuditStore} in keyset pages of {@code fetchSize} instead,
+ * since they may not live in the audit_log table at all.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    private record Column<D>(String name, Function<D, Object> value) {
+    }
+
+    private static final List<Column<BookingDTO>> BOOKING_COLUMNS = List.of(
+            new Column<>("bookingId", BookingDTO::getBookingId),
+            new Column<>("userId", BookingDTO::getUserId),
+            new Column<>("slotId", BookingDTO::getSlotId),
+            new Column<>("paymentId", BookingDTO::getPaymentId),
+            new Column<>("vehicleNumber", BookingDTO::getVehicleNumber),
+            new Column<>("status", BookingDTO::getStatus),
+            new Column<>("startTime", BookingDTO::getStartTime),
+            new Column<>("endTime", BookingDTO::getEndTime),
+            new Column<>("totalCost", BookingDTO::getTotalCost),
+            new Column<>("extendedTime", BookingDTO::getExtendedTime),
+            new Column<>("checkInTime", BookingDTO::getCheckInTime),
+            new Column<>("checkOutTime", BookingDTO::getCheckOutTime),
+            new Column<>("createdDate", BookingDTO::getCreatedDate),
+            new Column<>("lastModified", BookingDTO::getLastModified));
+
+    private static final List<Column<PaymentDTO>> PAYMENT_COLUMNS = List.of(
+            new Column<>("paymentId", PaymentDTO::getPaymentId),
+            new Column<>("bookingId", PaymentDTO::getBookingId),
+            new Column<>("amount", PaymentDTO::getAmount),
+            new Column<>("paymentMethod", PaymentDTO::getPaymentMethod),
+            new Column<>("transactionId", PaymentDTO::getTransactionId),
+            new Column<>("status", PaymentDTO::getStatus),
+            new Column<>("paymentDate", p -> p.getPaymentDate() != null ? p.getPaymentDate().toLocalDateTime() : null),
+            new Column<>("refundAmount", PaymentDTO::getRefundAmount),
+            new Column<>("gatewayResponse", PaymentDTO::getGatewayResponse));
+
+    private static final List<Column<AuditLogDTO>> AUDIT_COLUMNS = List.of(
+            new Column<>("auditId", AuditLogDTO::getAuditId),
+            new Column<>("timestamp", AuditLogDTO::getTimestamp),
+            new Column<>("username", AuditLogDTO::getUsername),
+            new Column<>("action", AuditLogDTO::getAction),
+            new Column<>("resource", AuditLogDTO::getResource),
+            new Column<>("severity", AuditLogDTO::getSeverity),
+            new Column<>("ipAddress", AuditLogDTO::getIpAddress),
+            new Column<>("sessionId", AuditLogDTO::getSessionId),
+            new Column<>("userAgent", AuditLogDTO::getUserAgent),
+            new Column<>("details", AuditLogDTO::getDetails),
+            new Column<>("changes", AuditLogDTO::getChanges));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+    private final AuditStore auditStore;
+    private final TransactionTemplate readOnlyTx;
+    private final int fetchSize;
+
+    public ExportService(ObjectMapper objectMapper, AuditStore auditStore,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.objectMapper = objectMapper;
+        this.auditStore = auditStore;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public StreamingResponseBody exportBookings(Format format, LocalDateTime from, LocalDateTime to) {
+        // To-one associations are fetched in the same row so mapping never issues per-row selects
+        String jpql = "SELECT b FROM Booking b JOIN FETCH b.user JOIN FETCH b.slot LEFT JOIN FETCH b.payment " +
+                "WHERE b.startTime >= :from AND b.startTime < :to ORDER BY b.bookingId";
+        return export(jpql, Booking.class, from, to, BookingMapper::toDTO, BookingDTO.class, BOOKING_COLUMNS, format);
+    }
+
+    public StreamingResponseBody exportPayments(Format format, LocalDateTime from, LocalDateTime to) {
+        String jpql = "SELECT p FROM Payment p JOIN FETCH p.booking b JOIN FETCH b.user JOIN FETCH b.slot " +
+                "WHERE p.paymentDate >= :from AND p.paymentDate < :to ORDER BY p.paymentId";
+        return export(jpql, Payment.class, from, to, PaymentMapper::toDTO, PaymentDTO.class, PAYMENT_COLUMNS, format);
+    }
+
+    public StreamingResponseBody exportAuditLogs(Format format, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime lower = lowerBound(from);
+        LocalDateTime upper = upperBound(to);
+        ObjectWriter json = objectMapper.writerFor(AuditLogDTO.class);
+
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            if (format == Format.CSV) {
+                writeCsvRow(writer, AUDIT_COLUMNS.stream().map(Column::name).toArray());
+            }
+            long rows = 0;
+            long afterId = 0;
+            List<AuditLog> page;
+            do {
+                page = auditStore.findBetweenAfter(lower, upper, afterId, fetchSize);
+                for (AuditLog event : page) {
+                    writeRow(writer, format, json, AUDIT_COLUMNS, AuditLogMapper.toDTO(event));
+                    afterId = event.getAuditId();
+                }
+                rows += page.size();
+                writer.flush();
+            } while (page.size() == fetchSize);
+            log.info("Exported {} AuditLog rows as {}", rows, format);
+        };
+    }
+
+    private <E, D> StreamingResponseBody export(String jpql, Class<E> entityType,
+                                                LocalDateTime from, LocalDateTime to,
+                                                Function<E, D> mapper, Class<D> dtoType,
+                                                List<Column<D>> columns, Format format) {
+        LocalDateTime lower = lowerBound(from);
+        LocalDateTime upper = upperBound(to);
+        ObjectWriter json = objectMapper.writerFor(dtoType);
+
+        // Runs on the MVC async thread, so it opens its own read-only transaction around the cursor
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            long rows = readOnlyTx.execute(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                Runnable restoreFetchMode = session.doReturningWork(ExportService::enableCursorFetch);
+                Query<E> query = session.createQuery(jpql, entityType)
+                        .setParameter("from", lower)
+                        .setParameter("to", upper)
+                        .setFetchSize(fetchSize)
+                        .setReadOnly(true);
+                try (ScrollableResults<E> cursor = query.scroll(ScrollMode.FORWARD_ONLY)) {
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, columns.stream().map(Column::name).toArray());
+                    }
+                    long count = 0;
+                    while (cursor.next()) {
+                        writeRow(writer, format, json, columns, mapper.apply(cursor.get()));
+                        if (++count % fetchSize == 0) {
+                            // Detach everything loaded so far and push the chunk to the client
+                            session.clear();
+                            writer.flush();
+                        }
+                    }
+                    return count;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    restoreFetchMode.run();
+                }
+            });
+            writer.flush();
+            log.info("Exported {} {} rows as {}", rows, entityType.getSimpleName(), format);
+        };
+    }
+
+    /**
+     * Switches this connection to server-side cursor fetches until the returned callback runs.
+     * Connector/J otherwise buffers the whole result set client-side, ignoring the fetch size.
+     * It is scoped to the export rather than set on the datasource URL, because cursor fetches
+     * force server-side prepared statements and an extra round trip on every other query.
+     */
+    private static Runnable enableCursorFetch(Connection connection) throws SQLException {
+        if (!connection.isWrapperFor(JdbcConnection.class)) {
+            return () -> { };
+        }
+        PropertySet properties = connection.unwrap(JdbcConnection.class).getPropertySet();
+        RuntimeProperty<Boolean> cursorFetch = properties.getBooleanProperty(PropertyKey.useCursorFetch);
+        RuntimeProperty<Boolean> serverPrepare = properties.getBooleanProperty(PropertyKey.useServerPrepStmts);
+        boolean cursorFetchBefore = cursorFetch.getValue();
+        boolean serverPrepareBefore = serverPrepare.getValue();
+        cursorFetch.setValue(true);
+        serverPrepare.setValue(true);
+        // The connection goes back to the pool after the export; leave it as it was handed out
+        return () -> {
+            cursorFetch.setValue(cursorFetchBefore);
+            serverPrepare.setValue(serverPrepareBefore);
+        };
+    }
+
+    private static LocalDateTime lowerBound(LocalDateTime from) {
+        return from != null ? from : LocalDateTime.of(1970, 1, 1, 0, 0);
+    }
+
+    private static LocalDateTime upperBound(LocalDateTime to) {
+        return to != null ? to : LocalDateTime.of(9999, 12, 31, 0, 0);
+    }
+
+    private static <D> void writeRow(Writer writer, Format format, ObjectWriter json, List<Column<D>> columns,
+                                     D dto) throws IOException {
+        if (format == Format.CSV) {
+            writeCsvRow(writer, columns.stream().map(c -> c.value().apply(dto)).toArray());
+        } else {
+            writer.write(json.writeValueAsString(dto));
+            writer.write('\n');
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting: only fields containing a delimiter, quote or line break are wrapped
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.SlotAvailabilityDTO;
+import com.example.springapp.model.ParkingSlot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-facility occupancy bitmaps: one {@code long[]} per 15-minute bucket with one bit per
+ * slot, kept in a ring that covers a rolling horizon (14 days by default). "Free for the
+ * whole window" is the AND-NOT of the covered buckets and "free by type" is a popcount
+ * against a per-type mask, so both cost a handful of word operations per 64 slots.
+ *
+ * <p>The bitmaps are derived from {@link SlotAvailabilityIndex}: whenever a window changes
+ * the affected buckets are recomputed from the index, which keeps partially-used buckets
+ * correct when two bookings share one.
+ */
+@Component
+@Slf4j
+public class FacilityAvailabilityBitmaps implements AvailabilityListener {
+
+    static final long BUCKET_SECONDS = 15 * 60;
+    private static final ParkingSlot.SlotType[] SLOT_TYPES = ParkingSlot.SlotType.values();
+
+    private final SlotAvailabilityIndex index;
+    private final int horizon;
+    private final Map<Long, FacilityGrid> grids = new ConcurrentHashMap<>();
+
+    public FacilityAvailabilityBitmaps(SlotAvailabilityIndex index,
+                                       @Value("${app.availability.horizon-days:14}") int horizonDays) {
+        this.index = index;
+        this.horizon = (int) (horizonDays * 24 * 3600 / BUCKET_SECONDS);
+        index.addListener(this);
+    }
+
+    @Override
+    public void onIndexRebuilt() {
+        grids.clear();
+        for (Long facilityId : index.facilityIds()) {
+            index.slotsOf(facilityId).forEach(this::onSlotRegistered);
+        }
+        log.info("Availability bitmaps built for {} facilities ({} buckets each)", grids.size(), horizon);
+    }
+
+    @Override
+    public void onSlotRegistered(SlotAvailabilityDTO slot) {
+        FacilityGrid grid = grids.computeIfAbsent(slot.getFacilityId(), id -> new FacilityGrid(currentBucket()));
+        grid.lock.writeLock().lock();
+        try {
+            int ordinal = grid.ordinalOf(slot.getSlotId());
+            ParkingSlot.SlotType type = slot.getSlotType() != null ? ParkingSlot.SlotType.valueOf(slot.getSlotType()) : null;
+            grid.setType(ordinal, type);
+            grid.refill(ordinal, grid.base, grid.base + horizon);
+        } finally {
+            grid.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onSlotRemoved(Long slotId, Long facilityId) {
+        FacilityGrid grid = grids.get(facilityId);
+        if (grid == null) {
+            return;
+        }
+        grid.lock.writeLock().lock();
+        try {
+            grid.release(slotId);
+        } finally {
+            grid.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onWindowChanged(Long slotId, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        FacilityGrid grid = grids.get(facilityId);
+        if (grid == null) {
+            return;
+        }
+        grid.lock.writeLock().lock();
+        try {
+            Integer ordinal = grid.ordinals.get(slotId);
+            if (ordinal != null) {
+                grid.refill(ordinal, bucketOf(start), lastBucketOf(end) + 1);
+            }
+        } finally {
+            grid.lock.writeLock().unlock();
+        }
+    }
+
+    /** Number of slots free for the whole of [start, end), broken down by slot type. */
+    public Map<ParkingSlot.SlotType, Integer> countFree(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        Map<ParkingSlot.SlotType, Integer> counts = new EnumMap<>(ParkingSlot.SlotType.class);
+        for (ParkingSlot.SlotType type : SLOT_TYPES) {
+            counts.put(type, 0);
+        }
+        FacilityGrid grid = grids.get(facilityId);
+        if (grid == null) {
+            return counts;
+        }
+        grid.lock.readLock().lock();
+        try {
+            long[] free = grid.freeMask(checkedBucket(grid, bucketOf(start)), checkedBucket(grid, lastBucketOf(end)));
+            for (ParkingSlot.SlotType type : SLOT_TYPES) {
+                counts.put(type, popcount(free, grid.typeMasks[type.ordinal()]));
+            }
+        } finally {
+            grid.lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    /** Free-slot count for every bucket in [start, end), for the slot grid view. */
+    public Map<LocalDateTime, Integer> freeCountsPerBucket(Long facilityId, LocalDateTime start, LocalDateTime end) {
+        Map<LocalDateTime, Integer> counts = new LinkedHashMap<>();
+        FacilityGrid grid = grids.get(facilityId);
+        if (grid == null) {
+            return counts;
+        }
+        grid.lock.readLock().lock();
+        try {
+            long last = checkedBucket(grid, lastBucketOf(end));
+            for (long b = checkedBucket(grid, bucketOf(start)); b <= last; b++) {
+                counts.put(startOf(b), popcount(grid.freeMask(b, b), grid.present));
+            }
+        } finally {
+            grid.lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    // Roll every grid forward so the horizon always starts at the current bucket
+    @Scheduled(fixedDelayString = "${app.availability.advance-interval-ms:60000}")
+    public void advance() {
+        long now = currentBucket();
+        for (FacilityGrid grid : grids.values()) {
+            grid.lock.writeLock().lock();
+            try {
+                grid.advanceTo(now);
+            } finally {
+                grid.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /** Rejects windows that don't lie inside the rolling horizon the bitmaps cover. */
+    public void checkWithinHorizon(LocalDateTime start, LocalDateTime end) {
+        long now = currentBucket();
+        if (bucketOf(start) < now || lastBucketOf(end) >= now + horizon) {
+            throw new IllegalArgumentException("Requested window is outside the availability horizon ("
+                    + startOf(now) + " to " + startOf(now + horizon) + ")");
+        }
+    }
+
+    private long checkedBucket(FacilityGrid grid, long bucket) {
+        if (bucket < grid.base || bucket >= grid.base + horizon) {
+            throw new IllegalArgumentException("Requested window is outside the availability horizon");
+        }
+        return bucket;
+    }
+
+    static long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), BUCKET_SECONDS);
+    }
+
+    // End is exclusive, so a booking ending exactly on a boundary does not touch the next bucket
+    static long lastBucketOf(LocalDateTime end) {
+        return Math.floorDiv(end.toEpochSecond(ZoneOffset.UTC) - 1, BUCKET_SECONDS);
+    }
+
+    static LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * BUCKET_SECONDS, 0, ZoneOffset.UTC);
+    }
+
+    private static long currentBucket() {
+        return bucketOf(LocalDateTime.now());
+    }
+
+    private static int popcount(long[] bits, long[] mask) {
+        int count = 0;
+        for (int w = 0; w < bits.length && w < mask.length; w++) {
+            count += Long.bitCount(bits[w] & mask[w]);
+        }
+        return count;
+    }
+
+    private final class FacilityGrid {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        final Map<Long, Integer> ordinals = new HashMap<>();
+        final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+        Long[] slotByOrdinal = new Long[64];
+        int nextOrdinal;
+        long base;
+        long[][] ring;
+        long[] present = new long[1];
+        long[][] typeMasks = new long[SLOT_TYPES.length][1];
+
+        FacilityGrid(long base) {
+            this.base = base;
+            this.ring = new long[horizon][1];
+        }
+
+        int ordinalOf(Long slotId) {
+            Integer existing = ordinals.get(slotId);
+            if (existing != null) {
+                return existing;
+            }
+            int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.poll();
+            ensureCapacity(ordinal);
+            ordinals.put(slotId, ordinal);
+            slotByOrdinal[ordinal] = slotId;
+            present[ordinal >>> 6] |= 1L << ordinal;
+            return ordinal;
+        }
+
+        void release(Long slotId) {
+            Integer ordinal = ordinals.remove(slotId);
+            if (ordinal == null) {
+                return;
+            }
+            long clear = ~(1L << ordinal);
+            int word = ordinal >>> 6;
+            present[word] &= clear;
+            for (long[] mask : typeMasks) {
+                mask[word] &= clear;
+            }
+            for (long[] bucket : ring) {
+                bucket[word] &= clear;
+            }
+            slotByOrdinal[ordinal] = null;
+            freeOrdinals.push(ordinal);
+        }
+
+        void setType(int ordinal, ParkingSlot.SlotType type) {
+            long bit = 1L << ordinal;
+            int word = ordinal >>> 6;
+            for (int t = 0; t < typeMasks.length; t++) {
+                typeMasks[t][word] = (type != null && t == type.ordinal())
+                        ? typeMasks[t][word] | bit
+                        : typeMasks[t][word] & ~bit;
+            }
+        }
+
+        /** Recomputes the bit of one slot for buckets [from, to) that fall inside the horizon. */
+        void refill(int ordinal, long from, long to) {
+            long lo = Math.max(from, base);
+            long hi = Math.min(to, base + horizon);
+            if (lo >= hi) {
+                return;
+            }
+            long bit = 1L << ordinal;
+            int word = ordinal >>> 6;
+            for (long b = lo; b < hi; b++) {
+                ring[slotOf(b)][word] &= ~bit;
+            }
+            index.forEachWindow(slotByOrdinal[ordinal], startOf(lo), startOf(hi), (s, e) -> {
+                long last = Math.min(lastBucketOf(e), hi - 1);
+                for (long b = Math.max(bucketOf(s), lo); b <= last; b++) {
+                    ring[slotOf(b)][word] |= bit;
+                }
+            });
+        }
+
+        long[] freeMask(long fromBucket, long toBucketInclusive) {
+            long[] free = present.clone();
+            for (long b = fromBucket; b <= toBucketInclusive; b++) {
+                long[] occupied = ring[slotOf(b)];
+                for (int w = 0; w < free.length; w++) {
+                    free[w] &= ~occupied[w];
+                }
+            }
+            return free;
+        }
+
+        void advanceTo(long newBase) {
+            if (newBase <= base) {
+                return;
+            }
+            long fillFrom = Math.max(base + horizon, newBase);
+            base = newBase;
+            // Ring positions of buckets that fell off the front are reused for the buckets entering at the back
+            for (long b = fillFrom; b < newBase + horizon; b++) {
+                Arrays.fill(ring[slotOf(b)], 0L);
+            }
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                if (slotByOrdinal[ordinal] != null) {
+                    refill(ordinal, fillFrom, newBase + horizon);
+                }
+            }
+        }
+
+        private void ensureCapacity(int ordinal) {
+            int words = (ordinal >>> 6) + 1;
+            if (slotByOrdinal.length <= ordinal) {
+                slotByOrdinal = Arrays.copyOf(slotByOrdinal, slotByOrdinal.length * 2);
+            }
+            if (present.length >= words) {
+                return;
+            }
+            present = Arrays.copyOf(present, words);
+            for (int t = 0; t < typeMasks.length; t++) {
+                typeMasks[t] = Arrays.copyOf(typeMasks[t], words);
+            }
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = Arrays.copyOf(ring[i], words);
+            }
+        }
+
+        private int slotOf(long bucket) {
+            return (int) Math.floorMod(bucket, (long) horizon);
+        }
+    }
+}
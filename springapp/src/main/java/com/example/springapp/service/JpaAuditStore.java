@@ -0,0 +1,144 @@
+package com.example.springapp.service;
+
+import com.example.springapp.exception.AuditAppendException;
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.repository.AuditLogRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Audit events in the audit_log table; batches are one transaction of JDBC-batched inserts. A batch
+ * rejected by a constraint is retried event by event so only the offending rows are reported.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "jpa", matchIfMissing = true)
+public class JpaAuditStore implements AuditStore {
+
+    private static final int ID_CHUNK = 1000;
+
+    private final AuditLogRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JpaAuditStore(AuditLogRepository repository, TransactionTemplate transactionTemplate) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void appendBatch(List<AuditLog> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(events));
+        } catch (DataIntegrityViolationException e) {
+            // One bad row rolls back the whole batch; find it by retrying the events one by one
+            appendIndividually(events, e);
+        }
+    }
+
+    /**
+     * Stores each event in its own transaction, moving the stored ones to the front of the list and
+     * the rejected ones (constraint or length violations) right after them. Stops at the first
+     * other failure, leaving that event and the rest unwritten.
+     */
+    private void appendIndividually(List<AuditLog> events, DataIntegrityViolationException batchFailure) {
+        List<AuditLog> stored = new ArrayList<>(events.size());
+        List<AuditLog> rejected = new ArrayList<>();
+        List<AuditLog> unwritten = new ArrayList<>();
+        RuntimeException failure = batchFailure;
+        for (AuditLog event : events) {
+            if (!unwritten.isEmpty()) {
+                unwritten.add(event);
+                continue;
+            }
+            // The rolled-back batch already assigned ids; start over so save() inserts
+            event.setAuditId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> repository.save(event));
+                stored.add(event);
+            } catch (DataIntegrityViolationException e) {
+                event.setAuditId(null);
+                rejected.add(event);
+                failure = e;
+            } catch (RuntimeException e) {
+                event.setAuditId(null);
+                unwritten.add(event);
+                failure = e;
+            }
+        }
+        if (rejected.isEmpty() && unwritten.isEmpty()) {
+            return;
+        }
+        events.clear();
+        events.addAll(stored);
+        events.addAll(rejected);
+        events.addAll(unwritten);
+        throw new AuditAppendException(stored.size(), rejected.size(), failure);
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        return repository.findAll();
+    }
+
+    @Override
+    public Slice<AuditLog> findBefore(Long beforeId, Pageable pageable) {
+        return repository.findByAuditIdLessThanOrderByAuditIdDesc(beforeId, pageable);
+    }
+
+    @Override
+    public List<AuditLog> findByIds(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        List<AuditLog> rows = new ArrayList<>(all.size());
+        // Chunked to stay well under driver bind-parameter limits
+        for (int i = 0; i < all.size(); i += ID_CHUNK) {
+            rows.addAll(repository.findAllById(all.subList(i, Math.min(all.size(), i + ID_CHUNK))));
+        }
+        rows.sort(Comparator.comparing(AuditLog::getAuditId).reversed());
+        return rows;
+    }
+
+    @Override
+    public List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end) {
+        return repository.findByTimestampBetween(start, end);
+    }
+
+    @Override
+    public List<AuditLog> findBetweenAfter(LocalDateTime from, LocalDateTime to, long afterId, int limit) {
+        return repository.findBetweenAfter(from, to, afterId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public List<AuditLog> findBySeverity(AuditLog.Severity severity) {
+        return repository.findBySeverityOrderByTimestampDesc(severity);
+    }
+
+    @Override
+    public List<AuditLog> findByUsernameContaining(String username) {
+        return repository.findByUsernameContainingIgnoreCaseOrderByTimestampDesc(username);
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return repository.findByActionOrderByTimestampDesc(action);
+    }
+
+    @Override
+    public long countBySeverity(AuditLog.Severity severity) {
+        return repository.countBySeverity(severity);
+    }
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+}
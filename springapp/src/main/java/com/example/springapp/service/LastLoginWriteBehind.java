@@ -0,0 +1,74 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.User;
+import com.example.springapp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffers lastLogin timestamps and writes them in one transaction per flush. Repeated logins by the
+ * same user collapse into one entry. A flush loads the batch's users with one
+ * {@code SELECT ... WHERE user_id IN (...)} and, with {@code @DynamicUpdate} on User, each dirty row
+ * becomes an {@code UPDATE user SET last_login = ?} that Hibernate sends as a single JDBC batch.
+ * Only last_login is written, so a concurrent admin edit of the same user is never overwritten.
+ */
+@Component
+@Slf4j
+public class LastLoginWriteBehind {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    public LastLoginWriteBehind(UserRepository userRepository, TransactionTemplate transactionTemplate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void record(Long userId, LocalDateTime loginTime) {
+        pending.merge(userId, loginTime, (a, b) -> a.isAfter(b) ? a : b);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.last-login-flush-ms:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> batch = new HashMap<>();
+        for (Long userId : List.copyOf(pending.keySet())) {
+            LocalDateTime time = pending.remove(userId);
+            if (time != null) {
+                batch.put(userId, time);
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (User user : userRepository.findAllById(batch.keySet())) {
+                    LocalDateTime time = batch.get(user.getUserId());
+                    if (user.getLastLogin() == null || user.getLastLogin().isBefore(time)) {
+                        user.setLastLogin(time);
+                    }
+                }
+            });
+        } catch (DataAccessException e) {
+            // Put the batch back; a newer login recorded meanwhile wins
+            batch.forEach(this::record);
+            log.warn("lastLogin flush of {} users failed, will retry: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Notification;
+import com.example.springapp.repository.NotificationRepository;
+import com.example.springapp.repository.UserRepository;
+import com.example.springapp.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write stage in front of notification inserts that keeps bursts out of the table:
+ * <ul>
+ *   <li>Coalescing: a notification with the same user, type and related entity as one inserted
+ *   within the sliding window updates that row (latest message, unread again) instead of adding
+ *   another. Each hit restarts the window.</li>
+ *   <li>Digests: LOW-priority notifications are buffered per user once their transaction commits
+ *   and written as one DIGEST notification per user every interval, or as soon as a user's
+ *   buffer is full.</li>
+ * </ul>
+ * Lookups and writes for one key run under a striped lock, never inside a cache computation; a
+ * writer that can't get the lock quickly inserts without coalescing rather than wait, since it may
+ * hold row locks the lock holder needs. The window is a bounded Caffeine cache. The digest buffer
+ * holds at most {@code max-users} users; past that, LOW notifications of other users are inserted
+ * as they come. A digest that fails to write goes back into the buffer for the next flush.
+ * Buffered digests are flushed on shutdown but are lost on a crash, which is acceptable for
+ * LOW-priority content.
+ */
+@Component
+@Slf4j
+public class NotificationCoalescer {
+
+    private static final int DIGEST_PREVIEW = 3;
+    private static final int MESSAGE_LENGTH = 500;
+    private static final int LOCK_STRIPES = 256;
+    private static final long LOCK_WAIT_MS = 100;
+
+    private record CoalesceKey(Long userId, Notification.Type type, String entityType, String entityId) {}
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final UnreadNotificationCounters unreadCounters;
+    private final NotificationStreamService notificationStream;
+    private final TransactionTemplate transactionTemplate;
+    // Digests are written on their own, also from after-commit callbacks of the caller's transaction
+    private final TransactionTemplate digestTransaction;
+    private final boolean digestEnabled;
+    private final long maxDigestUsers;
+    private final int maxPerDigest;
+    // Key -> id of the row that later duplicates fold into
+    private final Cache<CoalesceKey, Long> recent;
+    private final Lock[] stripes = new Lock[LOCK_STRIPES];
+    private final Map<Long, List<Notification>> digests = new ConcurrentHashMap<>();
+
+    public NotificationCoalescer(NotificationRepository notificationRepository, UserRepository userRepository,
+                                 UnreadNotificationCounters unreadCounters,
+                                 NotificationStreamService notificationStream,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.notifications.coalesce.window-seconds:300}") long windowSeconds,
+                                 @Value("${app.notifications.coalesce.max-keys:100000}") long maxKeys,
+                                 @Value("${app.notifications.digest.enabled:true}") boolean digestEnabled,
+                                 @Value("${app.notifications.digest.max-users:50000}") long maxDigestUsers,
+                                 @Value("${app.notifications.digest.max-per-digest:20}") int maxPerDigest) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.unreadCounters = unreadCounters;
+        this.notificationStream = notificationStream;
+        this.transactionTemplate = transactionTemplate;
+        this.digestTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.digestTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.digestEnabled = digestEnabled;
+        this.maxDigestUsers = maxDigestUsers;
+        this.maxPerDigest = maxPerDigest;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Inserts, coalesces or buffers the notification. Returns the row it ended up in, or the
+     * unsaved notification (no id) when it was buffered for a digest.
+     */
+    public Notification submit(Notification notification) {
+        return transactionTemplate.execute(status -> {
+            List<Notification> inserted = new ArrayList<>(1);
+            Notification result = route(notification, inserted);
+            announce(inserted);
+            return result;
+        });
+    }
+
+    /**
+     * Routes a batch in the caller's transaction (or a new one). New rows are inserted as one
+     * batch and counted with one UPDATE per distinct count.
+     */
+    public void submitAll(Collection<Notification> notifications) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Notification> inserted = new ArrayList<>(notifications.size());
+            notifications.forEach(notification -> route(notification, inserted));
+            announce(inserted);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.digest.interval-ms:900000}",
+               initialDelayString = "${app.notifications.digest.interval-ms:900000}")
+    public void flushDigests() {
+        for (Long userId : List.copyOf(digests.keySet())) {
+            List<Notification> pending = digests.remove(userId);
+            if (pending != null) {
+                writeDigest(userId, pending);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushDigests();
+        int lost = digests.values().stream().mapToInt(List::size).sum();
+        if (lost > 0) {
+            log.warn("Shutting down with {} buffered LOW-priority notifications unwritten", lost);
+        }
+    }
+
+    int bufferedFor(Long userId) {
+        List<Notification> pending = digests.get(userId);
+        return pending != null ? pending.size() : 0;
+    }
+
+    private Notification route(Notification notification, List<Notification> inserted) {
+        Long userId = notification.getUser().getUserId();
+        if (digestEnabled && notification.getPriority() == Notification.Priority.LOW
+                && (digests.size() < maxDigestUsers || digests.containsKey(userId))) {
+            // Buffered only once committed, so a rolled-back caller leaves nothing behind
+            AfterCommit.run(() -> buffer(userId, notification));
+            return notification;
+        }
+        if (notification.getRelatedEntityType() == null || notification.getRelatedEntityId() == null) {
+            return persist(notification, inserted);
+        }
+        CoalesceKey key = new CoalesceKey(userId, notification.getType(),
+                notification.getRelatedEntityType(), notification.getRelatedEntityId());
+        Lock lock = stripes[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+        if (!tryLock(lock)) {
+            return persist(notification, inserted);
+        }
+        try {
+            Long existingId = recent.getIfPresent(key);
+            Notification merged = existingId != null ? merge(existingId, notification) : null;
+            Notification result = merged != null ? merged : persist(notification, inserted);
+            recent.put(key, result.getNotificationId());
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean tryLock(Lock lock) {
+        try {
+            return lock.tryLock(LOCK_WAIT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // The id comes from the pooled sequence, so the INSERT itself waits for the batch flush
+    private Notification persist(Notification notification, List<Notification> inserted) {
+        Notification saved = notificationRepository.save(notification);
+        inserted.add(saved);
+        return saved;
+    }
+
+    // Counted in the same transaction, pushed once it commits
+    private void announce(List<Notification> inserted) {
+        if (!inserted.isEmpty()) {
+            unreadCounters.created(inserted);
+            notificationStream.publishCreated(inserted);
+        }
+    }
+
+    // Null when the row is gone (deleted), in which case the caller inserts a fresh one
+    private Notification merge(Long existingId, Notification update) {
+        return notificationRepository.findById(existingId).map(existing -> {
+            boolean wasRead = existing.isRead();
+            existing.setMessage(update.getMessage());
+            existing.setRead(false);
+            if (update.getPriority().compareTo(existing.getPriority()) > 0) {
+                existing.setPriority(update.getPriority());
+            }
+            Notification saved = notificationRepository.save(existing);
+            unreadCounters.adjust(saved.getUser().getUserId(), wasRead ? 1 : 0);
+            // Same id again: clients replace the entry rather than adding one
+            notificationStream.publishCreated(List.of(saved));
+            return saved;
+        }).orElse(null);
+    }
+
+    private void buffer(Long userId, Notification notification) {
+        List<List<Notification>> full = new ArrayList<>(1);
+        digests.compute(userId, (id, pending) -> {
+            List<Notification> buffer = pending != null ? pending : new ArrayList<>();
+            buffer.add(notification);
+            if (buffer.size() >= maxPerDigest) {
+                full.add(buffer);
+                return null;
+            }
+            return buffer;
+        });
+        if (!full.isEmpty()) {
+            writeDigest(userId, full.get(0));
+        }
+    }
+
+    private void writeDigest(Long userId, List<Notification> pending) {
+        try {
+            digestTransaction.executeWithoutResult(status -> {
+                List<Notification> inserted = new ArrayList<>(1);
+                persist(pending.size() == 1 ? pending.get(0) : digestOf(userId, pending), inserted);
+                announce(inserted);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            // Ahead of anything buffered since, so the next flush writes them in order
+            digests.merge(userId, pending, (current, failed) -> {
+                List<Notification> combined = new ArrayList<>(failed);
+                combined.addAll(current);
+                return combined;
+            });
+            log.warn("Digest of {} notifications for user {} failed, retrying on the next flush: {}",
+                    pending.size(), userId, e.getMessage());
+        }
+    }
+
+    private Notification digestOf(Long userId, List<Notification> pending) {
+        StringBuilder message = new StringBuilder("You have " + pending.size() + " new updates: ");
+        for (int i = 0; i < Math.min(DIGEST_PREVIEW, pending.size()); i++) {
+            message.append(i > 0 ? "; " : "").append(pending.get(i).getMessage());
+        }
+        if (pending.size() > DIGEST_PREVIEW) {
+            message.append("; and ").append(pending.size() - DIGEST_PREVIEW).append(" more");
+        }
+        String text = message.length() > MESSAGE_LENGTH
+                ? message.substring(0, MESSAGE_LENGTH - 3) + "..."
+                : message.toString();
+        return Notification.builder()
+                .user(userRepository.getReferenceById(userId))
+                .type(Notification.Type.DIGEST)
+                .priority(Notification.Priority.LOW)
+                .message(text)
+                .build();
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.NotificationBroadcastDTO;
+import com.example.springapp.mapper.NotificationBroadcastMapper;
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.NotificationBroadcast;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.NotificationBroadcastRepository;
+import com.example.springapp.repository.NotificationRepository;
+import com.example.springapp.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans one broadcast out into per-user Notification rows on a background pool. Recipient ids are
+ * read in ascending keyset chunks straight from the index (no User entities are loaded), and each
+ * chunk is inserted as JDBC batches in one transaction together with the broadcast's progress, so
+ * the progress row always matches what was delivered. A broadcast is run by whichever instance
+ * claims its lease; the lease is renewed in every chunk transaction, and a chunk whose renewal
+ * finds the lease taken rolls back and stops that run. Broadcasts left PENDING or RUNNING by a
+ * crash or shutdown are claimed again (at startup, and periodically once their lease lapses) and
+ * continue after the last delivered user.
+ */
+@Service
+@Slf4j
+public class NotificationFanoutService {
+
+    private static final EnumSet<NotificationBroadcast.Status> UNFINISHED =
+            EnumSet.of(NotificationBroadcast.Status.PENDING, NotificationBroadcast.Status.RUNNING);
+
+    private final NotificationBroadcastRepository broadcastRepository;
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UnreadNotificationCounters unreadCounters;
+    private final NotificationStreamService notificationStream;
+    private final int chunkSize;
+    private final Duration lease;
+    private final ThreadPoolExecutor executor;
+
+    public NotificationFanoutService(NotificationBroadcastRepository broadcastRepository,
+                                     NotificationRepository notificationRepository,
+                                     UserRepository userRepository, BookingRepository bookingRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     UnreadNotificationCounters unreadCounters,
+                                     NotificationStreamService notificationStream,
+                                     @Value("${app.notifications.broadcast.chunk-size:1000}") int chunkSize,
+                                     @Value("${app.notifications.broadcast.threads:2}") int threads,
+                                     @Value("${app.notifications.broadcast.lease-seconds:120}") long leaseSeconds) {
+        this.broadcastRepository = broadcastRepository;
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.unreadCounters = unreadCounters;
+        this.notificationStream = notificationStream;
+        this.chunkSize = chunkSize;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "notification-fanout-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /** Records the broadcast and starts fanning it out; the returned DTO carries its id for progress polling. */
+    public NotificationBroadcastDTO submit(NotificationBroadcastDTO dto) {
+        if (dto.getMessage() == null || dto.getMessage().isBlank() || dto.getType() == null
+                || dto.getAudience() == null) {
+            throw new IllegalArgumentException("message, type and audience are required");
+        }
+        NotificationBroadcast broadcast = NotificationBroadcastMapper.toEntity(dto);
+        if (broadcast.getAudience() == NotificationBroadcast.Audience.ROLE && broadcast.getRole() == null) {
+            throw new IllegalArgumentException("role is required for a ROLE broadcast");
+        }
+        if (broadcast.getAudience() == NotificationBroadcast.Audience.FACILITY && broadcast.getFacilityId() == null) {
+            throw new IllegalArgumentException("facilityId is required for a FACILITY broadcast");
+        }
+        NotificationBroadcast saved = broadcastRepository.save(broadcast);
+        claimAndSchedule(saved.getBroadcastId());
+        return NotificationBroadcastMapper.toDTO(saved);
+    }
+
+    public Optional<NotificationBroadcastDTO> getById(Long id) {
+        return broadcastRepository.findById(id).map(NotificationBroadcastMapper::toDTO);
+    }
+
+    public List<NotificationBroadcastDTO> getRecent() {
+        return broadcastRepository.findTop50ByOrderByBroadcastIdDesc().stream()
+                .map(NotificationBroadcastMapper::toDTO)
+                .toList();
+    }
+
+    // Broadcasts held by a live instance keep renewing their lease, so only abandoned ones are claimed
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.notifications.broadcast.resume-ms:60000}",
+               initialDelayString = "${app.notifications.broadcast.resume-ms:60000}")
+    public void resumeUnfinished() {
+        for (NotificationBroadcast broadcast : broadcastRepository.findByStatusInOrderByBroadcastId(UNFINISHED)) {
+            if (claimAndSchedule(broadcast.getBroadcastId())) {
+                log.info("Resuming broadcast {} after user {} ({} delivered)",
+                        broadcast.getBroadcastId(), broadcast.getLastUserId(), broadcast.getDelivered());
+            }
+        }
+    }
+
+    // Running fan-outs stop after their current chunk and release their lease for another instance
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /** A new lease token if this caller now owns the broadcast, null if someone else holds it or it is done. */
+    String claim(Long broadcastId) {
+        String token = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        return broadcastRepository.claim(broadcastId, UNFINISHED, token, now, now.plus(lease)) > 0 ? token : null;
+    }
+
+    private boolean claimAndSchedule(Long broadcastId) {
+        String token = claim(broadcastId);
+        if (token == null) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                run(broadcastId, token);
+            } catch (RuntimeException e) {
+                log.error("Broadcast {} failed", broadcastId, e);
+                markFailed(broadcastId, e);
+            }
+        });
+        return true;
+    }
+
+    void run(Long broadcastId, String token) {
+        NotificationBroadcast broadcast = transactionTemplate.execute(status -> {
+            NotificationBroadcast b = broadcastRepository.findById(broadcastId).orElse(null);
+            if (b == null || !UNFINISHED.contains(b.getStatus())) {
+                return null;
+            }
+            if (b.getStatus() == NotificationBroadcast.Status.PENDING) {
+                b.setStatus(NotificationBroadcast.Status.RUNNING);
+                b.setStartedDate(LocalDateTime.now());
+                b.setTotalRecipients(countRecipients(b));
+            }
+            return b;
+        });
+        if (broadcast == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        long after = broadcast.getLastUserId();
+        while (!executor.isShutdown()) {
+            List<Long> recipients = recipients(broadcast, after);
+            if (recipients.isEmpty()) {
+                finish(broadcastId);
+                log.info("Broadcast {} delivered to {} users in {} ms", broadcastId,
+                        broadcast.getDelivered(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+                return;
+            }
+            if (!deliver(broadcast, recipients, token)) {
+                log.warn("Broadcast {} lost its lease after {} users; another instance continues it",
+                        broadcastId, broadcast.getDelivered());
+                return;
+            }
+            after = recipients.get(recipients.size() - 1);
+            broadcast.setDelivered(broadcast.getDelivered() + recipients.size());
+        }
+        broadcastRepository.renew(broadcastId, token, null);
+    }
+
+    // One transaction per chunk: the rows, the progress cursor and the lease renewal commit (or roll back) together
+    private boolean deliver(NotificationBroadcast broadcast, List<Long> recipients, String token) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (broadcastRepository.renew(broadcast.getBroadcastId(), token, LocalDateTime.now().plus(lease)) == 0) {
+                return false;
+            }
+            List<Notification> notifications = new ArrayList<>(recipients.size());
+            for (Long userId : recipients) {
+                notifications.add(Notification.builder()
+                        .user(userRepository.getReferenceById(userId))
+                        .message(broadcast.getMessage())
+                        .type(broadcast.getType())
+                        .priority(broadcast.getPriority())
+                        .relatedEntityType(broadcast.getRelatedEntityType())
+                        .relatedEntityId(broadcast.getRelatedEntityId())
+                        .build());
+            }
+            List<Notification> saved = notificationRepository.saveAll(notifications);
+            broadcastRepository.findById(broadcast.getBroadcastId()).ifPresent(progress -> {
+                progress.setLastUserId(recipients.get(recipients.size() - 1));
+                progress.setDelivered(progress.getDelivered() + recipients.size());
+            });
+            unreadCounters.created(saved);
+            notificationStream.publishBroadcast(saved);
+            return true;
+        }));
+    }
+
+    private List<Long> recipients(NotificationBroadcast broadcast, long after) {
+        PageRequest chunk = PageRequest.of(0, chunkSize);
+        return switch (broadcast.getAudience()) {
+            case ALL -> userRepository.findActiveIdsAfter(after, chunk);
+            case ROLE -> userRepository.findActiveIdsByRoleAfter(broadcast.getRole(), after, chunk);
+            case FACILITY -> bookingRepository.findUserIdsAtFacilityAfter(broadcast.getFacilityId(),
+                    Booking.BLOCKING_STATUSES, after, chunk);
+        };
+    }
+
+    private long countRecipients(NotificationBroadcast broadcast) {
+        return switch (broadcast.getAudience()) {
+            case ALL -> userRepository.countByIsActiveTrue();
+            case ROLE -> userRepository.countByRoleAndIsActiveTrue(broadcast.getRole());
+            case FACILITY -> bookingRepository.countUsersAtFacility(broadcast.getFacilityId(),
+                    Booking.BLOCKING_STATUSES);
+        };
+    }
+
+    private void finish(Long broadcastId) {
+        transactionTemplate.executeWithoutResult(status ->
+                broadcastRepository.findById(broadcastId).ifPresent(b -> {
+                    b.setStatus(NotificationBroadcast.Status.COMPLETED);
+                    b.setCompletedDate(LocalDateTime.now());
+                    b.setLeaseUntil(null);
+                }));
+    }
+
+    private void markFailed(Long broadcastId, RuntimeException cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    broadcastRepository.findById(broadcastId).ifPresent(b -> {
+                        b.setStatus(NotificationBroadcast.Status.FAILED);
+                        b.setCompletedDate(LocalDateTime.now());
+                        b.setLeaseUntil(null);
+                        String message = String.valueOf(cause.getMessage());
+                        b.setError(message.length() > 500 ? message.substring(0, 500) : message);
+                    }));
+        } catch (DataAccessException e) {
+            // Left RUNNING, so the next start retries it from the last committed chunk
+            log.warn("Could not record failure of broadcast {}: {}", broadcastId, e.getMessage());
+        }
+    }
+}
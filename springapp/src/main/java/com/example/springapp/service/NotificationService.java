@@ -1,14 +1,18 @@
 package com.example.springapp.service;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.NotificationDTO;
 import com.example.springapp.mapper.NotificationMapper;
 import com.example.springapp.model.Notification;
 import com.example.springapp.model.User;
 import com.example.springapp.repository.NotificationRepository;
 import com.example.springapp.repository.UserRepository;
+import com.example.springapp.util.KeysetPagination;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
@@ -23,6 +27,19 @@ public class NotificationService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private NotificationStreamService notificationStream;
+
+    @Autowired
+    private UnreadNotificationCounters unreadCounters;
+
+    @Autowired
+    private NotificationCoalescer coalescer;
+
+    // Notification writes and their unread-count adjustments commit together
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public List<NotificationDTO> getAll() {
         return notificationRepository.findAll()
                 .stream()
@@ -30,6 +47,13 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<NotificationDTO> getPage(String cursor, Integer size, boolean withTotal) {
+        return KeysetPagination.fetch(cursor, size,
+                notificationRepository::findByNotificationIdLessThanOrderByNotificationIdDesc,
+                Notification::getNotificationId, NotificationMapper::toDTO,
+                withTotal ? notificationRepository::count : null);
+    }
+
     public Optional<NotificationDTO> getById(Long id) {
         return notificationRepository.findById(id)
                 .map(NotificationMapper::toDTO);
@@ -39,24 +63,40 @@ public class NotificationService {
         User user = userRepository.findById(dto.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + dto.getUserId()));
         Notification notification = NotificationMapper.toEntity(dto, user);
-        return NotificationMapper.toDTO(notificationRepository.save(notification));
+        // May fold into a recent duplicate or be held for a digest (returned without an id)
+        return NotificationMapper.toDTO(coalescer.submit(notification));
     }
 
     public NotificationDTO update(Long id, NotificationDTO dto) {
-        return notificationRepository.findById(id)
+        return transactionTemplate.execute(status -> notificationRepository.findById(id)
                 .map(existing -> {
                     User user = dto.getUserId() != null
                             ? userRepository.findById(dto.getUserId()).orElse(existing.getUser())
                             : existing.getUser();
+                    Long previousOwner = existing.getUser().getUserId();
+                    boolean wasUnread = !existing.isRead();
                     Notification updated = NotificationMapper.toEntity(dto, user);
                     updated.setNotificationId(existing.getNotificationId());
-                    return NotificationMapper.toDTO(notificationRepository.save(updated));
+                    Notification saved = notificationRepository.save(updated);
+                    unreadCounters.adjust(previousOwner, wasUnread ? -1 : 0);
+                    unreadCounters.adjust(user.getUserId(), saved.isRead() ? 0 : 1);
+                    notificationStream.publishUnreadCount(previousOwner);
+                    if (!previousOwner.equals(user.getUserId())) {
+                        notificationStream.publishUnreadCount(user.getUserId());
+                    }
+                    return NotificationMapper.toDTO(saved);
                 })
-                .orElse(null);
+                .orElse(null));
     }
 
     public void delete(Long id) {
-        notificationRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status ->
+                notificationRepository.findById(id).ifPresent(notification -> {
+                    notificationRepository.delete(notification);
+                    Long userId = notification.getUser().getUserId();
+                    unreadCounters.adjust(userId, notification.isRead() ? 0 : -1);
+                    notificationStream.publishUnreadCount(userId);
+                }));
     }
 
     public List<NotificationDTO> getNotificationsByUser(Long userId) {
@@ -66,6 +106,13 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<NotificationDTO> getUserPage(Long userId, String cursor, Integer size) {
+        return KeysetPagination.fetch(cursor, size,
+                (before, pageable) -> notificationRepository
+                        .findByUserUserIdAndNotificationIdLessThanOrderByNotificationIdDesc(userId, before, pageable),
+                Notification::getNotificationId, NotificationMapper::toDTO, null);
+    }
+
     public List<NotificationDTO> getUnreadNotificationsByUser(Long userId) {
         return notificationRepository.findByUserUserIdAndIsReadFalse(userId)
                 .stream()
@@ -74,24 +121,53 @@ public class NotificationService {
     }
 
     public NotificationDTO markAsRead(Long notificationId) {
-        return notificationRepository.findById(notificationId)
+        return transactionTemplate.execute(status -> notificationRepository.findById(notificationId)
                 .map(notification -> {
+                    if (notification.isRead()) {
+                        return NotificationMapper.toDTO(notification);
+                    }
                     notification.setRead(true);
-                    return NotificationMapper.toDTO(notificationRepository.save(notification));
+                    Notification saved = notificationRepository.save(notification);
+                    Long userId = saved.getUser().getUserId();
+                    unreadCounters.adjust(userId, -1);
+                    notificationStream.publishUnreadCount(userId);
+                    return NotificationMapper.toDTO(saved);
                 })
-                .orElse(null);
+                .orElse(null));
     }
 
-    public void markAllAsRead(Long userId) {
-        notificationRepository.findByUserUserIdAndIsReadFalse(userId)
-                .forEach(notification -> {
-                    notification.setRead(true);
-                    notificationRepository.save(notification);
-                });
+    // Single set-based UPDATE; returns how many notifications were marked
+    public int markAllAsRead(Long userId) {
+        return transactionTemplate.execute(status ->
+                markedRead(userId, notificationRepository.markAllRead(userId)));
+    }
+
+    // Unknown types are rejected (IllegalArgumentException) before the UPDATE runs
+    public int markAllAsReadByType(Long userId, String type) {
+        Notification.Type parsed = parseType(type);
+        return transactionTemplate.execute(status ->
+                markedRead(userId, notificationRepository.markAllReadByType(userId, parsed)));
+    }
+
+    private int markedRead(Long userId, int marked) {
+        if (marked > 0) {
+            unreadCounters.adjust(userId, -marked);
+            notificationStream.publishUnreadCount(userId);
+        }
+        return marked;
+    }
+
+    private static Notification.Type parseType(String type) {
+        for (Notification.Type candidate : Notification.Type.values()) {
+            if (candidate.name().equalsIgnoreCase(type)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("Unknown notification type: " + type);
     }
 
     public List<NotificationDTO> getNotificationsByType(String type) {
-        return notificationRepository.findByType(Notification.Type.valueOf(type.toUpperCase()))
+        return notificationRepository.findByType(parseType(type))
                 .stream()
                 .map(NotificationMapper::toDTO)
                 .collect(Collectors.toList());
@@ -104,7 +180,11 @@ public class NotificationService {
                 .collect(Collectors.toList());
     }
 
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        return notificationStream.subscribe(userId, lastEventId);
+    }
+
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserUserIdAndIsReadFalse(userId);
+        return unreadCounters.get(userId);
     }
 }
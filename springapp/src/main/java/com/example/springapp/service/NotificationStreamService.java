@@ -0,0 +1,406 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.NotificationDTO;
+import com.example.springapp.mapper.NotificationMapper;
+import com.example.springapp.model.Notification;
+import com.example.springapp.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events push for notifications, replacing client polling. Each connected user has
+ * a set of {@link SseEmitter}s (one per open tab); emitters are servlet async requests, so an
+ * idle connection holds no thread. New notifications go out as {@code notification} events and
+ * are kept in a bounded per-user replay log, so a client reconnecting with {@code Last-Event-ID}
+ * gets what it missed; if the gap can't be covered (log trimmed or expired, or the server
+ * restarted) it gets a {@code resync} event and reloads over REST. Every (re)connect and every
+ * read-state change sends a fresh {@code unread-count}. Events are published after the
+ * surrounding transaction commits and written by a small delivery pool, never by the caller.
+ * Deliveries to one user go through that user's outbox, which at most one pool thread drains at
+ * a time, so a user's events are sent in order and never concurrently.
+ */
+@Service
+@Slf4j
+public class NotificationStreamService {
+
+    static final String NOTIFICATION = "notification";
+    static final String UNREAD_COUNT = "unread-count";
+    static final String RESYNC = "resync";
+
+    private static final int HEARTBEAT_BATCH = 500;
+
+    private record StreamEvent(long seq, String name, Object data) {}
+
+    /** Pending deliveries of one user; whoever flips {@code draining} runs them. */
+    private static final class Outbox {
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        boolean claim() {
+            return draining.compareAndSet(false, true);
+        }
+    }
+
+    /** Recent events of one user; {@code trimmedUpTo} is the highest seq that fell off the front. */
+    private static final class ReplayLog {
+        final ArrayDeque<StreamEvent> events = new ArrayDeque<>();
+        long trimmedUpTo;
+    }
+
+    private final UnreadNotificationCounters unreadCounters;
+    private final Executor delivery;
+    private final long emitterTimeoutMs;
+    private final int replayPerUser;
+    // Ids are "<boot>-<seq>", so ids from before a restart are recognised and answered with a resync
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final Map<Long, Outbox> outboxes = new ConcurrentHashMap<>();
+    private final Cache<Long, ReplayLog> replay;
+    // Highest broadcast seq of each recipient that had no replay log to record it
+    private final Cache<Long, Long> broadcastGaps;
+    private final AtomicInteger connections = new AtomicInteger();
+    // Highest seq of any user that no longer has its replay log or broadcast mark (expired or evicted)
+    private final AtomicLong evictedUpTo = new AtomicLong();
+
+    @Autowired
+    public NotificationStreamService(UnreadNotificationCounters unreadCounters,
+                                     @Value("${app.notifications.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                                     @Value("${app.notifications.stream.replay-per-user:50}") int replayPerUser,
+                                     @Value("${app.notifications.stream.replay-ttl-minutes:30}") long replayTtlMinutes,
+                                     @Value("${app.notifications.stream.replay-max-users:100000}") long replayMaxUsers,
+                                     @Value("${app.notifications.stream.delivery-threads:2}") int deliveryThreads) {
+        this(unreadCounters, deliveryExecutor(deliveryThreads), emitterTimeoutMs, replayPerUser,
+                replayTtlMinutes, replayMaxUsers);
+    }
+
+    NotificationStreamService(UnreadNotificationCounters unreadCounters, Executor delivery,
+                              long emitterTimeoutMs, int replayPerUser, long replayTtlMinutes, long replayMaxUsers) {
+        this.unreadCounters = unreadCounters;
+        this.delivery = delivery;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replayPerUser = replayPerUser;
+        this.replay = Caffeine.newBuilder()
+                .maximumSize(replayMaxUsers)
+                .expireAfterWrite(Duration.ofMinutes(replayTtlMinutes))
+                .removalListener((Long userId, ReplayLog expired, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && expired != null) {
+                        synchronized (expired) {
+                            if (!expired.events.isEmpty()) {
+                                evictedUpTo.accumulateAndGet(expired.events.getLast().seq(), Math::max);
+                            }
+                        }
+                    }
+                })
+                .build();
+        this.broadcastGaps = Caffeine.newBuilder()
+                .maximumSize(replayMaxUsers)
+                .expireAfterWrite(Duration.ofMinutes(replayTtlMinutes))
+                .removalListener((Long userId, Long seq, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && seq != null) {
+                        evictedUpTo.accumulateAndGet(seq, Math::max);
+                    }
+                })
+                .build();
+    }
+
+    /** Opens a stream for the user, replaying what a reconnecting client missed. */
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = newEmitter(emitterTimeoutMs);
+        // Added and removed inside compute so a set is never dropped from the map while being joined
+        emitters.compute(userId, (id, set) -> {
+            Set<SseEmitter> joined = set != null ? set : ConcurrentHashMap.newKeySet();
+            joined.add(emitter);
+            return joined;
+        });
+        connections.incrementAndGet();
+        AtomicBoolean removed = new AtomicBoolean();
+        Runnable remove = () -> {
+            if (removed.compareAndSet(false, true)) {
+                connections.decrementAndGet();
+                emitters.computeIfPresent(userId, (id, set) -> {
+                    set.remove(emitter);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        };
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        List<StreamEvent> backlog = lastEventId != null ? missedSince(userId, lastEventId) : List.of();
+        deliver(userId, () -> {
+            if (backlog == null) {
+                send(userId, emitter, new StreamEvent(sequence.get(), RESYNC, Map.of()));
+            } else {
+                backlog.forEach(event -> send(userId, emitter, event));
+            }
+            send(userId, emitter, unreadCountEvent(userId));
+        });
+        return emitter;
+    }
+
+    /** Pushes newly saved notifications (and the owners' unread counts) once the transaction commits. */
+    public void publishCreated(Collection<Notification> notifications) {
+        List<NotificationDTO> created = notifications.stream().map(NotificationMapper::toDTO).toList();
+        AfterCommit.run(() -> {
+            Set<Long> owners = new LinkedHashSet<>();
+            for (NotificationDTO dto : created) {
+                if (dto.getUserId() == null) {
+                    continue;
+                }
+                StreamEvent event = new StreamEvent(sequence.incrementAndGet(), NOTIFICATION, dto);
+                remember(dto.getUserId(), event);
+                owners.add(dto.getUserId());
+                broadcast(dto.getUserId(), event);
+            }
+            owners.forEach(this::publishUnreadCountNow);
+        });
+    }
+
+    /**
+     * Pushes a broadcast fan-out chunk once the transaction commits, as one delivery per connected
+     * recipient. Only replay logs that already exist record it, so a broadcast to every user
+     * doesn't evict every log; a recipient without a log only gets a mark, and reconnecting from
+     * before it gets a resync instead.
+     */
+    public void publishBroadcast(Collection<Notification> notifications) {
+        List<NotificationDTO> created = notifications.stream().map(NotificationMapper::toDTO).toList();
+        AfterCommit.run(() -> {
+            for (NotificationDTO dto : created) {
+                Long userId = dto.getUserId();
+                StreamEvent event = new StreamEvent(sequence.incrementAndGet(), NOTIFICATION, dto);
+                ReplayLog replayLog = replay.getIfPresent(userId);
+                if (replayLog != null) {
+                    remember(replayLog, event);
+                } else {
+                    broadcastGaps.asMap().merge(userId, event.seq(), Math::max);
+                }
+                if (emitters.containsKey(userId)) {
+                    deliver(userId, () -> {
+                        broadcastNow(userId, event);
+                        broadcastNow(userId, unreadCountEvent(userId));
+                    });
+                }
+            }
+        });
+    }
+
+    /** Pushes the user's current unread count once the transaction commits (read-state changes). */
+    public void publishUnreadCount(Long userId) {
+        if (userId != null) {
+            AfterCommit.run(() -> publishUnreadCountNow(userId));
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * Proxies and load balancers drop idle connections; a comment line keeps them open. One pool
+     * task per {@value #HEARTBEAT_BATCH} users, and a user whose outbox is busy is skipped, since
+     * that connection isn't idle.
+     */
+    @Scheduled(fixedRateString = "${app.notifications.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        List<Long> users = new ArrayList<>(emitters.keySet());
+        for (int i = 0; i < users.size(); i += HEARTBEAT_BATCH) {
+            List<Long> batch = users.subList(i, Math.min(users.size(), i + HEARTBEAT_BATCH));
+            try {
+                delivery.execute(() -> batch.forEach(this::heartbeatNow));
+            } catch (RejectedExecutionException e) {
+                log.warn("Notification push queue full, skipping heartbeats for {} users", users.size() - i);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        emitters.values().forEach(set -> set.forEach(SseEmitter::complete));
+        if (delivery instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /** Events after {@code lastEventId}, or null when the gap can't be covered from the log. */
+    private List<StreamEvent> missedSince(Long userId, String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(bootId)) {
+            return null;
+        }
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        Long broadcastGap = broadcastGaps.getIfPresent(userId);
+        if (broadcastGap != null && lastSeq < broadcastGap) {
+            return null;
+        }
+        ReplayLog replayLog = replay.getIfPresent(userId);
+        if (replayLog == null) {
+            // No log: nothing was published for this user, unless an evicted log held something newer
+            return lastSeq >= evictedUpTo.get() ? List.of() : null;
+        }
+        synchronized (replayLog) {
+            if (lastSeq < replayLog.trimmedUpTo) {
+                return null;
+            }
+            List<StreamEvent> missed = new ArrayList<>();
+            for (StreamEvent event : replayLog.events) {
+                if (event.seq() > lastSeq) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+    }
+
+    private void remember(Long userId, StreamEvent event) {
+        remember(replay.get(userId, id -> new ReplayLog()), event);
+    }
+
+    private void remember(ReplayLog replayLog, StreamEvent event) {
+        synchronized (replayLog) {
+            replayLog.events.addLast(event);
+            while (replayLog.events.size() > replayPerUser) {
+                replayLog.trimmedUpTo = replayLog.events.removeFirst().seq();
+            }
+        }
+    }
+
+    private void publishUnreadCountNow(Long userId) {
+        if (emitters.containsKey(userId)) {
+            // Only pushed when someone is listening; every connect sends a fresh count anyway
+            deliver(userId, () -> broadcastNow(userId, unreadCountEvent(userId)));
+        }
+    }
+
+    private StreamEvent unreadCountEvent(Long userId) {
+        return new StreamEvent(sequence.get(), UNREAD_COUNT, Map.of("count", unreadCounters.get(userId)));
+    }
+
+    private void broadcast(Long userId, StreamEvent event) {
+        if (emitters.containsKey(userId)) {
+            deliver(userId, () -> broadcastNow(userId, event));
+        }
+    }
+
+    /** Queues the task on the user's outbox and starts a drain unless one is running. */
+    private void deliver(Long userId, Runnable task) {
+        Outbox outbox = outboxes.computeIfAbsent(userId, id -> new Outbox());
+        outbox.tasks.add(task);
+        if (outbox.claim()) {
+            try {
+                delivery.execute(() -> drain(userId, outbox));
+            } catch (RejectedExecutionException e) {
+                // A flooded pool drops pushes rather than blocking publishers; clients catch up on reconnect
+                outbox.tasks.clear();
+                outbox.draining.set(false);
+                log.warn("Notification push queue full, dropping deliveries to user {}", userId);
+            }
+        }
+    }
+
+    /** Runs the claimed outbox dry, then releases it; a task added after the release re-claims it. */
+    private void drain(Long userId, Outbox outbox) {
+        do {
+            Runnable task;
+            while ((task = outbox.tasks.poll()) != null) {
+                task.run();
+            }
+            outbox.draining.set(false);
+        } while (!outbox.tasks.isEmpty() && outbox.claim());
+        if (!emitters.containsKey(userId)) {
+            outboxes.remove(userId, outbox);
+        }
+    }
+
+    private void heartbeatNow(Long userId) {
+        Outbox outbox = outboxes.computeIfAbsent(userId, id -> new Outbox());
+        if (!outbox.claim()) {
+            return;
+        }
+        Set<SseEmitter> set = emitters.get(userId);
+        if (set != null) {
+            set.forEach(emitter -> {
+                try {
+                    emitter.send(SseEmitter.event().comment("hb"));
+                } catch (IOException | IllegalStateException e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        }
+        drain(userId, outbox);
+    }
+
+    private void broadcastNow(Long userId, StreamEvent event) {
+        Set<SseEmitter> set = emitters.get(userId);
+        if (set != null) {
+            set.forEach(emitter -> send(userId, emitter, event));
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, StreamEvent event) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(bootId + "-" + event.seq())
+                    .name(event.name())
+                    .data(event.data(), MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static ExecutorService deliveryExecutor(int threads) {
+        AtomicInteger n = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10_000), r -> {
+                    Thread t = new Thread(r, "notification-push-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // Rejections surface to deliver() and heartbeat(), which drop rather than block publishers
+                new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+}
@@ -1,9 +1,11 @@
 package com.example.springapp.service;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.ParkingSlotDTO;
 import com.example.springapp.mapper.ParkingSlotMapper;
 import com.example.springapp.model.ParkingSlot;
 import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.util.KeysetPagination;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.*;
@@ -19,6 +21,9 @@ public class ParkingSlotService {
     @Autowired
     private ParkingSlotRepository repository;
 
+    @Autowired
+    private SlotAvailabilityIndex availabilityIndex;
+
     public List<ParkingSlotDTO> getAll() {
         return repository.findAll()
                 .stream()
@@ -29,20 +34,32 @@ public class ParkingSlotService {
     public Page<ParkingSlotDTO> getParkingSlots(int page, int size, Long facilityId, String slotType, Boolean availableOnly) {
     Pageable pageable = PageRequest.of(page, size);
 
-    ParkingSlot.SlotType slotTypeEnum = null;
-    if (slotType != null && !slotType.isEmpty()) {
-        try {
-            slotTypeEnum = ParkingSlot.SlotType.valueOf(slotType.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Invalid slotType value: " + slotType);
-        }
-    }
+    ParkingSlot.SlotType slotTypeEnum = parseSlotType(slotType);
 
     Page<ParkingSlot> slots = repository.findFiltered(facilityId, slotTypeEnum, availableOnly, pageable);
 
     return slots.map(ParkingSlotMapper::toDTO);
 }
 
+    public CursorPage<ParkingSlotDTO> getSlotPage(String cursor, Integer size, Long facilityId, String slotType,
+                                                  Boolean availableOnly) {
+        ParkingSlot.SlotType slotTypeEnum = parseSlotType(slotType);
+        return KeysetPagination.fetch(cursor, size,
+                (before, pageable) -> repository.findFilteredBefore(before, facilityId, slotTypeEnum, availableOnly, pageable),
+                ParkingSlot::getSlotId, ParkingSlotMapper::toDTO, null);
+    }
+
+    private static ParkingSlot.SlotType parseSlotType(String slotType) {
+        if (slotType == null || slotType.isEmpty()) {
+            return null;
+        }
+        try {
+            return ParkingSlot.SlotType.valueOf(slotType.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid slotType value: " + slotType);
+        }
+    }
+
     public Optional<ParkingSlotDTO> getById(Long id) {
         return repository.findById(id)
                 .map(ParkingSlotMapper::toDTO);
@@ -51,6 +68,7 @@ public class ParkingSlotService {
     public ParkingSlotDTO save(ParkingSlotDTO dto) {
         ParkingSlot slot = ParkingSlotMapper.toEntity(dto);
         ParkingSlot saved = repository.save(slot);
+        availabilityIndex.registerSlot(saved);
         return ParkingSlotMapper.toDTO(saved);
     }
 
@@ -75,12 +93,15 @@ public class ParkingSlotService {
                         existing.setLastModified(dto.getLastModified().toLocalDateTime());
                     }
 
-                    return ParkingSlotMapper.toDTO(repository.save(existing));
+                    ParkingSlot saved = repository.save(existing);
+                    availabilityIndex.registerSlot(saved);
+                    return ParkingSlotMapper.toDTO(saved);
                 })
                 .orElse(null);
     }
 
     public void delete(Long id) {
         repository.deleteById(id);
+        availabilityIndex.removeSlot(id);
     }
 }
@@ -0,0 +1,240 @@
+package com.example.springapp.service;
+
+import com.example.springapp.exception.AuditAppendException;
+import com.example.springapp.model.AuditLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Audit events in monthly tables managed by {@link AuditPartitionManager}. Each event goes to the
+ * table of its timestamp's month; time-range queries touch only the months they overlap, and
+ * because months don't overlap, reading them newest month first yields one timestamp-ordered
+ * result without a merge step. Retention is a table drop, so old months never cost a DELETE.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "partitioned")
+public class PartitionedAuditStore implements AuditStore {
+
+    private static final String COLUMNS = "audit_id, event_time, username, action, resource, severity, "
+            + "ip_address, session_id, user_agent, details, changes";
+    private static final int ID_CHUNK = 1000;
+    private static final Comparator<AuditLog> NEWEST_ID_FIRST =
+            Comparator.comparing(AuditLog::getAuditId).reversed();
+
+    private static final RowMapper<AuditLog> ROW_MAPPER = (rs, rowNum) -> AuditLog.builder()
+            .auditId(rs.getLong("audit_id"))
+            .timestamp(rs.getObject("event_time", LocalDateTime.class))
+            .username(rs.getString("username"))
+            .action(rs.getString("action"))
+            .resource(rs.getString("resource"))
+            .severity(AuditLog.Severity.valueOf(rs.getString("severity")))
+            .ipAddress(rs.getString("ip_address"))
+            .sessionId(rs.getString("session_id"))
+            .userAgent(rs.getString("user_agent"))
+            .details(rs.getString("details"))
+            .changes(rs.getString("changes"))
+            .build();
+
+    private final AuditPartitionManager partitions;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public PartitionedAuditStore(AuditPartitionManager partitions, JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate) {
+        this.partitions = partitions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Writes the batch in one transaction. Events dated before the retention window are moved to
+     * the end of the list and rejected instead of recreating a dropped month.
+     */
+    @Override
+    public void appendBatch(List<AuditLog> events) {
+        List<AuditLog> kept = new ArrayList<>(events.size());
+        List<AuditLog> expired = new ArrayList<>();
+        for (AuditLog event : events) {
+            if (event.getTimestamp() == null) {
+                event.setTimestamp(LocalDateTime.now());
+            }
+            (partitions.isExpired(YearMonth.from(event.getTimestamp())) ? expired : kept).add(event);
+        }
+        if (!expired.isEmpty()) {
+            for (int i = 0; i < events.size(); i++) {
+                events.set(i, i < kept.size() ? kept.get(i) : expired.get(i - kept.size()));
+            }
+        }
+        if (!kept.isEmpty()) {
+            insert(kept);
+        }
+        if (!expired.isEmpty()) {
+            throw new AuditAppendException(kept.size(), expired.size(), new IllegalArgumentException(
+                    expired.size() + " audit events dated before the retention window, oldest "
+                            + expired.get(0).getTimestamp()));
+        }
+    }
+
+    private void insert(List<AuditLog> events) {
+        long nextId = partitions.allocateIds(events.size());
+        Map<String, List<AuditLog>> byTable = new LinkedHashMap<>();
+        for (AuditLog event : events) {
+            event.setAuditId(nextId++);
+            // Created outside the transaction: DDL commits implicitly on MySQL
+            String table = partitions.ensure(YearMonth.from(event.getTimestamp()));
+            byTable.computeIfAbsent(table, t -> new ArrayList<>()).add(event);
+        }
+        transactionTemplate.executeWithoutResult(status -> byTable.forEach((table, rows) ->
+                jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + COLUMNS + ") "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows, rows.size(), (ps, event) -> {
+                    ps.setLong(1, event.getAuditId());
+                    ps.setObject(2, event.getTimestamp());
+                    ps.setString(3, event.getUsername());
+                    ps.setString(4, event.getAction());
+                    ps.setString(5, event.getResource());
+                    ps.setString(6, event.getSeverity().name());
+                    ps.setString(7, event.getIpAddress());
+                    ps.setString(8, event.getSessionId());
+                    ps.setString(9, event.getUserAgent());
+                    ps.setString(10, event.getDetails());
+                    ps.setString(11, event.getChanges());
+                })));
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        return across(partitions.all(), "", "ORDER BY event_time DESC");
+    }
+
+    @Override
+    public Slice<AuditLog> findBefore(Long beforeId, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<AuditLog> rows = new ArrayList<>();
+        for (YearMonth month : partitions.all()) {
+            if (rows.size() > size) {
+                // Ids are assigned at write time, so an older month can hold a few ids above the
+                // newer month's lowest (events captured just before midnight); stop once it can't
+                rows.sort(NEWEST_ID_FIRST);
+                long cutoff = rows.get(size).getAuditId();
+                List<AuditLog> top = query(month, "WHERE audit_id < ?", "ORDER BY audit_id DESC LIMIT 1", beforeId);
+                if (top.isEmpty() || top.get(0).getAuditId() < cutoff) {
+                    break;
+                }
+            }
+            rows.addAll(query(month, "WHERE audit_id < ?", "ORDER BY audit_id DESC LIMIT " + (size + 1), beforeId));
+        }
+        rows.sort(NEWEST_ID_FIRST);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<AuditLog> findByIds(Collection<Long> ids) {
+        List<Long> all = List.copyOf(ids);
+        List<AuditLog> rows = new ArrayList<>(all.size());
+        for (int i = 0; i < all.size(); i += ID_CHUNK) {
+            List<Long> chunk = all.subList(i, Math.min(all.size(), i + ID_CHUNK));
+            String in = "WHERE audit_id IN (" + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            rows.addAll(across(partitions.all(), in, "", chunk.toArray()));
+        }
+        rows.sort(NEWEST_ID_FIRST);
+        return rows;
+    }
+
+    @Override
+    public List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end) {
+        return across(partitions.overlapping(start, end), "WHERE event_time BETWEEN ? AND ?",
+                "ORDER BY event_time DESC", start, end);
+    }
+
+    @Override
+    public List<AuditLog> findBetweenAfter(LocalDateTime from, LocalDateTime to, long afterId, int limit) {
+        // Each month's lowest ids above the cursor; the page is the lowest of those across months
+        List<AuditLog> rows = across(partitions.overlapping(from, to),
+                "WHERE event_time >= ? AND event_time < ? AND audit_id > ?",
+                "ORDER BY audit_id LIMIT " + limit, from, to, afterId);
+        rows.sort(Comparator.comparing(AuditLog::getAuditId));
+        return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+    }
+
+    @Override
+    public List<AuditLog> findBySeverity(AuditLog.Severity severity) {
+        return across(partitions.all(), "WHERE severity = ?", "ORDER BY event_time DESC", severity.name());
+    }
+
+    @Override
+    public List<AuditLog> findByUsernameContaining(String username) {
+        return across(partitions.all(), "WHERE LOWER(username) LIKE ?", "ORDER BY event_time DESC",
+                "%" + username.toLowerCase(Locale.ROOT) + "%");
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return across(partitions.all(), "WHERE action = ?", "ORDER BY event_time DESC", action);
+    }
+
+    @Override
+    public long countBySeverity(AuditLog.Severity severity) {
+        return countAcross("WHERE severity = ?", severity.name());
+    }
+
+    @Override
+    public long count() {
+        return countAcross("");
+    }
+
+    private List<AuditLog> across(List<YearMonth> months, String where, String order, Object... args) {
+        List<AuditLog> rows = new ArrayList<>();
+        for (YearMonth month : months) {
+            rows.addAll(query(month, where, order, args));
+        }
+        return rows;
+    }
+
+    private List<AuditLog> query(YearMonth month, String where, String order, Object... args) {
+        String sql = "SELECT " + COLUMNS + " FROM " + AuditPartitionManager.tableName(month) + " " + where + " " + order;
+        try {
+            return jdbcTemplate.query(sql, ROW_MAPPER, args);
+        } catch (DataAccessException e) {
+            // Dropped by retention after this query was routed to it
+            if (!partitions.isLive(month)) {
+                return List.of();
+            }
+            throw e;
+        }
+    }
+
+    private long countAcross(String where, Object... args) {
+        long total = 0;
+        for (YearMonth month : partitions.all()) {
+            String sql = "SELECT COUNT(*) FROM " + AuditPartitionManager.tableName(month) + " " + where;
+            try {
+                Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+                total += count != null ? count : 0;
+            } catch (DataAccessException e) {
+                if (partitions.isLive(month)) {
+                    throw e;
+                }
+            }
+        }
+        return total;
+    }
+}
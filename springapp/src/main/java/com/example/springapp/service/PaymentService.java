@@ -1,15 +1,17 @@
 package com.example.springapp.service;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.PaymentDTO;
 import com.example.springapp.mapper.PaymentMapper;
 import com.example.springapp.model.Payment;
 import com.example.springapp.repository.PaymentRepository;
+import com.example.springapp.util.KeysetPagination;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class PaymentService {
@@ -18,15 +20,16 @@ public class PaymentService {
     private PaymentRepository repository;
 
     public List<PaymentDTO> getAll() {
-        return repository.findAll()
-                .stream()
-                .map(PaymentMapper::toDTO)
-                .collect(Collectors.toList());
+        return repository.findAllDtos();
+    }
+
+    public CursorPage<PaymentDTO> getPage(String cursor, Integer size, boolean withTotal) {
+        return KeysetPagination.fetch(cursor, size, repository::findDtosBefore,
+                PaymentDTO::getPaymentId, Function.identity(), withTotal ? repository::count : null);
     }
 
     public Optional<PaymentDTO> getById(Long id) {
-        return repository.findById(id)
-                .map(PaymentMapper::toDTO);
+        return repository.findDtoById(id);
     }
 
     public PaymentDTO save(PaymentDTO dto) {
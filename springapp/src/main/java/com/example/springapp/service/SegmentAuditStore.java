@@ -0,0 +1,241 @@
+package com.example.springapp.service;
+
+import com.example.springapp.exception.AuditAppendException;
+import com.example.springapp.model.AuditLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Audit events in memory-mapped, append-only {@link AuditSegment} files under
+ * {@code app.audit.segment.dir}. The active segment rolls over when the next record doesn't fit in
+ * {@code segment-bytes} or it is older than {@code roll-ms}; sealed segments are truncated to their
+ * data and remapped read-only. Ids are assigned here, continuing from the highest recovered id.
+ * Reads scan segments newest-first and use each segment's sparse block index to skip data outside
+ * the requested id/time range.
+ */
+@Component
+@ConditionalOnProperty(name = "app.audit.store", havingValue = "segment")
+@Slf4j
+public class SegmentAuditStore implements AuditStore {
+
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long rollMillis;
+    private final boolean forceOnAppend;
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private volatile AuditSegment active;
+
+    public SegmentAuditStore(@Value("${app.audit.segment.dir:data/audit}") String directory,
+                             @Value("${app.audit.segment.segment-bytes:67108864}") int segmentBytes,
+                             @Value("${app.audit.segment.roll-ms:3600000}") long rollMillis,
+                             @Value("${app.audit.segment.force-on-append:false}") boolean forceOnAppend) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.rollMillis = rollMillis;
+        this.forceOnAppend = forceOnAppend;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        long maxId = 0;
+        for (Path file : files) {
+            AuditSegment segment = AuditSegment.recover(file);
+            if (segment.recordCount() == 0) {
+                segment.close();
+                Files.delete(file);
+                continue;
+            }
+            segments.add(segment);
+            maxId = Math.max(maxId, segment.maxId());
+        }
+        nextId.set(maxId + 1);
+        roll();
+        log.info("Audit segment store opened: {} segments, next id {}", segments.size(), nextId.get());
+    }
+
+    // Records are appended one at a time, so a failure can leave the batch partly stored
+    @Override
+    public synchronized void appendBatch(List<AuditLog> events) {
+        int appended = 0;
+        try {
+            for (AuditLog event : events) {
+                if (event.getTimestamp() == null) {
+                    event.setTimestamp(LocalDateTime.now());
+                }
+                event.setAuditId(nextId.getAndIncrement());
+                if (System.currentTimeMillis() - active.createdMillis() > rollMillis && active.sizeBytes() > 0) {
+                    roll();
+                }
+                if (!active.append(event)) {
+                    roll();
+                    if (!active.append(event)) {
+                        throw new AuditAppendException(appended, 1, new IllegalArgumentException(
+                                "Audit record larger than a segment: " + event.getAuditId()));
+                    }
+                }
+                appended++;
+            }
+            if (forceOnAppend) {
+                active.force();
+            }
+        } catch (AuditAppendException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new AuditAppendException(appended, 0, e);
+        }
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        return scan(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, e -> true, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Slice<AuditLog> findBefore(Long beforeId, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<AuditLog> rows = scan(Long.MIN_VALUE, Long.MAX_VALUE, beforeId, e -> true, size + 1);
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<AuditLog> findByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> wanted = new HashSet<>(ids);
+        long beforeId = Collections.max(wanted) + 1;
+        return scan(Long.MIN_VALUE, Long.MAX_VALUE, beforeId, e -> wanted.contains(e.getAuditId()), wanted.size());
+    }
+
+    @Override
+    public List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end) {
+        List<AuditLog> rows = scan(AuditSegment.toMillis(start), AuditSegment.toMillis(end), Long.MAX_VALUE,
+                e -> true, Integer.MAX_VALUE);
+        rows.sort(Comparator.comparing(AuditLog::getTimestamp).reversed());
+        return rows;
+    }
+
+    @Override
+    public List<AuditLog> findBetweenAfter(LocalDateTime from, LocalDateTime to, long afterId, int limit) {
+        List<AuditLog> out = new ArrayList<>(Math.min(limit, 1024));
+        long fromMs = AuditSegment.toMillis(from);
+        // Millisecond timestamps: the half-open bound is the last millisecond before to
+        long toMs = AuditSegment.toMillis(to) - 1;
+        for (AuditSegment segment : List.copyOf(segments)) {
+            if (out.size() >= limit) {
+                break;
+            }
+            if (segment.maxId() <= afterId || !segment.mayContain(fromMs, toMs, Long.MAX_VALUE)) {
+                continue;
+            }
+            segment.scanOldestFirst(fromMs, toMs, afterId, event -> {
+                out.add(event);
+                return out.size() < limit;
+            });
+        }
+        return out;
+    }
+
+    @Override
+    public List<AuditLog> findBySeverity(AuditLog.Severity severity) {
+        return scan(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, e -> e.getSeverity() == severity,
+                Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<AuditLog> findByUsernameContaining(String username) {
+        String needle = username.toLowerCase();
+        return scan(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE,
+                e -> e.getUsername() != null && e.getUsername().toLowerCase().contains(needle), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return scan(Long.MIN_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, e -> action.equals(e.getAction()),
+                Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long countBySeverity(AuditLog.Severity severity) {
+        return findBySeverity(severity).size();
+    }
+
+    @Override
+    public long count() {
+        long total = 0;
+        for (AuditSegment segment : segments) {
+            total += segment.recordCount();
+        }
+        return total;
+    }
+
+    /** Newest-first scan across segments, stopping after {@code limit} matches. */
+    List<AuditLog> scan(long fromMs, long toMs, long beforeId, Predicate<AuditLog> filter, int limit) {
+        List<AuditLog> out = new ArrayList<>();
+        List<AuditSegment> snapshot = List.copyOf(segments);
+        for (int i = snapshot.size() - 1; i >= 0 && out.size() < limit; i--) {
+            AuditSegment segment = snapshot.get(i);
+            if (!segment.mayContain(fromMs, toMs, beforeId)) {
+                continue;
+            }
+            segment.scanNewestFirst(fromMs, toMs, beforeId, filter, event -> {
+                out.add(event);
+                return out.size() < limit;
+            });
+        }
+        return out;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        for (AuditSegment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private void roll() throws IOException {
+        AuditSegment previous = active;
+        if (previous != null) {
+            if (previous.sizeBytes() == 0) {
+                return;
+            }
+            previous.seal();
+        }
+        Path file = directory.resolve(String.format("%020d%s", nextId.get(), SUFFIX));
+        AuditSegment segment = AuditSegment.create(file, segmentBytes);
+        segments.add(segment);
+        active = segment;
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.SlotAvailabilityDTO;
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory view of which slots are occupied when. Each slot keeps its active booking
+ * windows in a set sorted by start time, plus the longest window it has held. A window that
+ * intersects [start, end) must start after {@code start - longest}, so every lookup scans only
+ * that range. The booking engine keeps new windows disjoint, which makes the range hold one or
+ * two windows; overlapping legacy rows are still answered correctly, just with a longer scan.
+ * Overdue windows have no end, so they are kept in a set of their own and stay out of that bound.
+ * A facility query is therefore O(slots * log bookings) and never touches the booking table.
+ */
+@Component
+@Slf4j
+public class SlotAvailabilityIndex {
+
+    /** End of an OVERDUE booking's window: it holds the slot until check-out, whenever that is. */
+    static final LocalDateTime OPEN_END = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private final BookingRepository bookingRepository;
+    private final ParkingSlotRepository slotRepository;
+
+    private final Map<Long, SlotTimeline> slots = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, SlotTimeline>> slotsByFacility = new ConcurrentHashMap<>();
+    // owner (booking id, or negated hold id) -> slot it currently occupies, so moves can find the old window
+    private final Map<Long, Long> slotByOwner = new ConcurrentHashMap<>();
+    private final List<AvailabilityListener> listeners = new CopyOnWriteArrayList<>();
+    // Listeners get a single onIndexRebuilt() instead of one event per slot during a rebuild
+    private volatile boolean rebuilding;
+
+    public SlotAvailabilityIndex(BookingRepository bookingRepository, ParkingSlotRepository slotRepository) {
+        this.bookingRepository = bookingRepository;
+        this.slotRepository = slotRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        rebuilding = true;
+        slots.clear();
+        slotsByFacility.clear();
+        slotByOwner.clear();
+        slotRepository.findAll().forEach(this::registerSlot);
+        List<Object[]> windows = bookingRepository.findActiveWindows(Booking.BLOCKING_STATUSES, LocalDateTime.now(),
+                Booking.Status.OVERDUE);
+        for (Object[] row : windows) {
+            put((Long) row[0], (Long) row[1], (LocalDateTime) row[2], endOf((Booking.Status) row[4], (LocalDateTime) row[3]));
+        }
+        rebuilding = false;
+        log.info("Availability index built: {} slots, {} active bookings", slots.size(), windows.size());
+        listeners.forEach(AvailabilityListener::onIndexRebuilt);
+    }
+
+    public void addListener(AvailabilityListener listener) {
+        listeners.add(listener);
+    }
+
+    public void registerSlot(ParkingSlot slot) {
+        Long facilityId = slot.getFacility() != null ? slot.getFacility().getFacilityId() : null;
+        SlotTimeline timeline = slots.computeIfAbsent(slot.getSlotId(), SlotTimeline::new);
+        Long previousFacilityId = timeline.facilityId;
+        if (previousFacilityId != null && !previousFacilityId.equals(facilityId)) {
+            slotsByFacility.getOrDefault(previousFacilityId, Map.of()).remove(slot.getSlotId());
+            // A move is a removal from the old facility as far as its views are concerned
+            if (!rebuilding) {
+                listeners.forEach(l -> l.onSlotRemoved(slot.getSlotId(), previousFacilityId));
+            }
+        }
+        timeline.describe(slot, facilityId);
+        if (facilityId != null) {
+            slotsByFacility.computeIfAbsent(facilityId, id -> new ConcurrentHashMap<>()).put(slot.getSlotId(), timeline);
+        }
+        if (facilityId != null && !rebuilding) {
+            SlotAvailabilityDTO dto = timeline.toDTO();
+            listeners.forEach(l -> l.onSlotRegistered(dto));
+        }
+    }
+
+    public void removeSlot(Long slotId) {
+        SlotTimeline timeline = slots.remove(slotId);
+        if (timeline != null && timeline.facilityId != null) {
+            slotsByFacility.getOrDefault(timeline.facilityId, Map.of()).remove(slotId);
+            listeners.forEach(l -> l.onSlotRemoved(slotId, timeline.facilityId));
+        }
+    }
+
+    /** Applies a committed booking: indexes it if it still blocks the slot, otherwise drops it. */
+    public void onBookingSaved(Booking booking) {
+        removeBooking(booking.getBookingId());
+        if (Booking.BLOCKING_STATUSES.contains(booking.getStatus())) {
+            Long slotId = booking.getSlot().getSlotId();
+            LocalDateTime end = endOf(booking.getStatus(), booking.getEndTime());
+            put(booking.getBookingId(), slotId, booking.getStartTime(), end);
+            fireWindowChanged(slotId, booking.getStartTime(), end);
+        }
+    }
+
+    /** Applies a committed ACTIVE to OVERDUE transition: the slot stays occupied until check-out. */
+    public void markOverdue(Long bookingId, Long slotId, LocalDateTime start) {
+        removeOwner(bookingId);
+        put(bookingId, slotId, start, OPEN_END);
+        fireWindowChanged(slotId, start, OPEN_END);
+    }
+
+    public void removeBooking(Long bookingId) {
+        removeOwner(bookingId);
+    }
+
+    // Holds share the timelines with bookings under negative owner ids, so every query,
+    // bitmap and listener sees them exactly like a booking until they are released.
+    public void placeHold(Long holdId, Long slotId, LocalDateTime start, LocalDateTime end) {
+        put(-holdId, slotId, start, end);
+        fireWindowChanged(slotId, start, end);
+    }
+
+    public void releaseHold(Long holdId) {
+        removeOwner(-holdId);
+    }
+
+    /** Visits the windows of a slot that intersect [from, to), in start order. */
+    public void forEachWindow(Long slotId, LocalDateTime from, LocalDateTime to,
+                              BiConsumer<LocalDateTime, LocalDateTime> visitor) {
+        SlotTimeline timeline = slots.get(slotId);
+        if (timeline == null) {
+            return;
+        }
+        for (Window w : timeline.intersecting(from, to)) {
+            visitor.accept(w.start, w.end);
+        }
+    }
+
+    public Collection<Long> facilityIds() {
+        return slotsByFacility.keySet();
+    }
+
+    public List<SlotAvailabilityDTO> slotsOf(Long facilityId) {
+        return slotsByFacility.getOrDefault(facilityId, Map.of()).values().stream()
+                .map(SlotTimeline::toDTO)
+                .toList();
+    }
+
+    public SlotAvailabilityDTO slot(Long slotId) {
+        SlotTimeline timeline = slots.get(slotId);
+        return timeline != null ? timeline.toDTO() : null;
+    }
+
+    /** Owner of the window covering {@code at}: a booking id, a negated hold id, or null when free. */
+    public Long occupantAt(Long slotId, LocalDateTime at) {
+        SlotTimeline timeline = slots.get(slotId);
+        if (timeline == null) {
+            return null;
+        }
+        // Latest-starting window first, so a booking that began inside an older one wins
+        List<Window> covering = timeline.intersecting(at, at.plusNanos(1));
+        return covering.isEmpty() ? null : covering.get(covering.size() - 1).ownerId;
+    }
+
+    public boolean isFree(Long slotId, LocalDateTime start, LocalDateTime end) {
+        SlotTimeline timeline = slots.get(slotId);
+        return timeline != null && timeline.isFree(start, end);
+    }
+
+    public List<SlotAvailabilityDTO> findFreeSlots(Long facilityId, LocalDateTime start, LocalDateTime end,
+                                                   ParkingSlot.SlotType slotType) {
+        Collection<SlotTimeline> candidates = slotsByFacility.getOrDefault(facilityId, Map.of()).values();
+        List<SlotAvailabilityDTO> free = new ArrayList<>();
+        for (SlotTimeline timeline : candidates) {
+            if ((slotType == null || slotType == timeline.slotType) && timeline.isFree(start, end)) {
+                free.add(timeline.toDTO());
+            }
+        }
+        free.sort(Comparator.comparing(SlotAvailabilityDTO::getSlotNumber, Comparator.nullsLast(String::compareTo)));
+        return free;
+    }
+
+    // Bookings that ended before the cutoff can no longer affect any query worth answering
+    @Scheduled(fixedDelayString = "${app.availability.prune-interval-ms:3600000}")
+    public void pruneExpired() {
+        LocalDateTime cutoff = LocalDateTime.now();
+        slots.values().forEach(t -> {
+            t.windows.removeIf(w -> {
+                boolean expired = !w.end.isAfter(cutoff);
+                if (expired) slotByOwner.remove(w.ownerId, t.slotId);
+                return expired;
+            });
+            t.recomputeLongest();
+        });
+    }
+
+    private static LocalDateTime endOf(Booking.Status status, LocalDateTime end) {
+        return status == Booking.Status.OVERDUE ? OPEN_END : end;
+    }
+
+    private void removeOwner(long ownerId) {
+        Long slotId = slotByOwner.remove(ownerId);
+        SlotTimeline timeline = slotId != null ? slots.get(slotId) : null;
+        if (timeline == null) {
+            return;
+        }
+        for (Window w : timeline.windows) {
+            if (w.ownerId == ownerId && timeline.windows.remove(w)) {
+                fireWindowChanged(slotId, w.start, w.end);
+            }
+        }
+        for (Window w : timeline.overdue) {
+            if (w.ownerId == ownerId && timeline.overdue.remove(w)) {
+                fireWindowChanged(slotId, w.start, w.end);
+            }
+        }
+    }
+
+    private void fireWindowChanged(Long slotId, LocalDateTime start, LocalDateTime end) {
+        SlotTimeline timeline = slots.get(slotId);
+        if (timeline != null && timeline.facilityId != null) {
+            listeners.forEach(l -> l.onWindowChanged(slotId, timeline.facilityId, start, end));
+        }
+    }
+
+    private void put(Long ownerId, Long slotId, LocalDateTime start, LocalDateTime end) {
+        SlotTimeline timeline = slots.get(slotId);
+        if (timeline == null) {
+            return;
+        }
+        timeline.add(new Window(ownerId, start, end));
+        slotByOwner.put(ownerId, slotId);
+    }
+
+    record Window(long ownerId, LocalDateTime start, LocalDateTime end) {
+        static final Comparator<Window> ORDER = Comparator.comparing(Window::start).thenComparingLong(Window::ownerId);
+    }
+
+    static final class SlotTimeline {
+        final Long slotId;
+        final ConcurrentSkipListSet<Window> windows = new ConcurrentSkipListSet<>(Window.ORDER);
+        // Windows ending at OPEN_END; they never expire, and counting them would make every scan full
+        final ConcurrentSkipListSet<Window> overdue = new ConcurrentSkipListSet<>(Window.ORDER);
+        // Longest window in windows; grows on add and is recomputed when expired windows are pruned
+        final AtomicLong longestSeconds = new AtomicLong();
+        volatile Long facilityId;
+        volatile String slotNumber;
+        volatile ParkingSlot.SlotType slotType;
+        volatile int floor;
+        volatile String section;
+        volatile double hourlyRate;
+
+        SlotTimeline(Long slotId) {
+            this.slotId = slotId;
+        }
+
+        void describe(ParkingSlot slot, Long facilityId) {
+            this.facilityId = facilityId;
+            this.slotNumber = slot.getSlotNumber();
+            this.slotType = slot.getSlotType();
+            this.floor = slot.getFloor();
+            this.section = slot.getSection();
+            this.hourlyRate = slot.getHourlyRate();
+        }
+
+        synchronized void add(Window window) {
+            if (window.end.equals(OPEN_END)) {
+                overdue.add(window);
+                return;
+            }
+            longestSeconds.accumulateAndGet(spanOf(window), Math::max);
+            windows.add(window);
+        }
+
+        // Shrinks the bound again once long windows are gone; synchronized with
+        // add so a window added meanwhile can't be missed by the recount
+        synchronized void recomputeLongest() {
+            longestSeconds.set(windows.stream().mapToLong(SlotTimeline::spanOf).max().orElse(0));
+        }
+
+        private static long spanOf(Window window) {
+            return Duration.between(window.start, window.end).toSeconds() + 1;
+        }
+
+        /** Earliest start a window can have and still end after {@code at}. */
+        LocalDateTime earliestReaching(LocalDateTime at) {
+            return at.minusSeconds(longestSeconds.get());
+        }
+
+        /** Windows starting in [from, to). */
+        NavigableSet<Window> startingBetween(LocalDateTime from, LocalDateTime to) {
+            if (!from.isBefore(to)) {
+                return Collections.emptyNavigableSet();
+            }
+            return windows.subSet(new Window(Long.MIN_VALUE, from, from), new Window(Long.MIN_VALUE, to, to));
+        }
+
+        /** Overdue windows starting before {@code to}; they reach past any time. */
+        NavigableSet<Window> overdueBefore(LocalDateTime to) {
+            return overdue.headSet(new Window(Long.MIN_VALUE, to, to));
+        }
+
+        /** Windows intersecting [from, to), in start order. */
+        List<Window> intersecting(LocalDateTime from, LocalDateTime to) {
+            List<Window> hits = new ArrayList<>();
+            for (Window w : startingBetween(earliestReaching(from), to)) {
+                if (w.end.isAfter(from)) {
+                    hits.add(w);
+                }
+            }
+            NavigableSet<Window> open = overdueBefore(to);
+            if (!open.isEmpty()) {
+                hits.addAll(open);
+                hits.sort(Window.ORDER);
+            }
+            return hits;
+        }
+
+        boolean isFree(LocalDateTime start, LocalDateTime end) {
+            for (Window w : startingBetween(earliestReaching(start), end)) {
+                if (w.end.isAfter(start)) {
+                    return false;
+                }
+            }
+            return overdueBefore(end).isEmpty();
+        }
+
+        SlotAvailabilityDTO toDTO() {
+            return new SlotAvailabilityDTO(slotId, facilityId, slotNumber,
+                    slotType != null ? slotType.name() : null, floor, section, hourlyRate);
+        }
+    }
+}
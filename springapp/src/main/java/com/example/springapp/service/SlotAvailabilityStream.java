@@ -0,0 +1,488 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AvailabilityStreamEventDTO;
+import com.example.springapp.dto.SlotAvailabilityDTO;
+import com.example.springapp.dto.SlotStateChangeDTO;
+import com.example.springapp.dto.SlotStateDTO;
+import com.example.springapp.repository.FacilityRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live slot availability over Server-Sent Events. One stream watches one or more facilities: a
+ * subscriber gets a {@code snapshot} per facility (every slot with its state and version) and then
+ * {@code delta} events that carry only the slots whose state changed, so traffic is proportional
+ * to changes rather than to slots times clients.
+ *
+ * <p>Fed by {@link SlotAvailabilityIndex}: bookings, holds, check-ins and releases mark slots
+ * dirty, and a flusher evaluates them against the index every few hundred milliseconds, so a
+ * burst becomes one delta. Time alone also changes state (a booking starting), so facilities
+ * with subscribers are swept periodically; only actual changes are sent. Each facility numbers
+ * its deltas and keeps the latest ones. An event id carries the client's position in every
+ * facility of its stream, so a client reconnecting with {@code Last-Event-ID} gets the deltas it
+ * missed per facility, or a fresh snapshot of a facility whose gap is no longer covered.
+ *
+ * <p>The flusher only computes events; they are written by a small delivery pool. Each client
+ * has an outbox that at most one pool thread drains at a time, and events are queued on it under
+ * the facility's lock, so a client gets each facility's events in seq order and never concurrently.
+ */
+@Component
+@Slf4j
+public class SlotAvailabilityStream implements AvailabilityListener {
+
+    static final String SNAPSHOT = "snapshot";
+    static final String DELTA = "delta";
+    static final int MAX_FACILITIES = 50;
+
+    private static final int HEARTBEAT_BATCH = 500;
+
+    public enum State {
+        FREE, HELD, BOOKED, REMOVED
+    }
+
+    private static final class SlotEntry {
+        SlotAvailabilityDTO slot;
+        State state;
+        long version;
+    }
+
+    /** Stream state of one facility; everything but the dirty set and flags is guarded by the feed. */
+    private static final class Feed {
+        final Long facilityId;
+        final Map<Long, SlotEntry> slots = new HashMap<>();
+        final ArrayDeque<AvailabilityStreamEventDTO> recent = new ArrayDeque<>();
+        final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+        final Set<Client> clients = ConcurrentHashMap.newKeySet();
+        volatile boolean structureChanged;
+        long seq;
+
+        Feed(Long facilityId) {
+            this.facilityId = facilityId;
+        }
+    }
+
+    /** One open stream and its pending sends; whoever flips {@code draining} runs them. */
+    private static final class Client {
+        final SseEmitter emitter;
+        final List<Feed> feeds;
+        // Last seq sent per facility; only touched by the thread draining the outbox
+        final Map<Long, Long> positions = new TreeMap<>();
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Client(SseEmitter emitter, List<Feed> feeds) {
+            this.emitter = emitter;
+            this.feeds = feeds;
+        }
+
+        boolean claim() {
+            return draining.compareAndSet(false, true);
+        }
+    }
+
+    private final SlotAvailabilityIndex index;
+    private final FacilityRepository facilityRepository;
+    private final Executor delivery;
+    private final long emitterTimeoutMs;
+    private final int replaySize;
+    // Ids are "<boot>-<facility>:<seq>,...", so ids from before a restart are answered with snapshots
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, Feed> feeds = new ConcurrentHashMap<>();
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public SlotAvailabilityStream(SlotAvailabilityIndex index, FacilityRepository facilityRepository,
+                                  @Value("${app.availability.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                                  @Value("${app.availability.stream.replay-size:500}") int replaySize,
+                                  @Value("${app.availability.stream.delivery-threads:2}") int deliveryThreads) {
+        this(index, facilityRepository, deliveryExecutor(deliveryThreads), emitterTimeoutMs, replaySize);
+    }
+
+    SlotAvailabilityStream(SlotAvailabilityIndex index, FacilityRepository facilityRepository, Executor delivery,
+                           long emitterTimeoutMs, int replaySize) {
+        this.index = index;
+        this.facilityRepository = facilityRepository;
+        this.delivery = delivery;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replaySize = replaySize;
+        index.addListener(this);
+    }
+
+    /**
+     * Opens one stream for the facilities, resuming each after its position in {@code lastEventId}
+     * when the gap is still covered. Unknown facilities are rejected (IllegalArgumentException), so
+     * feeds only ever exist for real facilities.
+     */
+    public SseEmitter subscribe(Collection<Long> facilityIds, String lastEventId) {
+        Set<Long> requested = new LinkedHashSet<>(facilityIds);
+        if (requested.isEmpty() || requested.size() > MAX_FACILITIES) {
+            throw new IllegalArgumentException("A stream watches 1 to " + MAX_FACILITIES + " facilities");
+        }
+        for (Long facilityId : requested) {
+            if (facilityId == null || !feeds.containsKey(facilityId) && !facilityRepository.existsById(facilityId)) {
+                throw new IllegalArgumentException("Unknown facility: " + facilityId);
+            }
+        }
+        List<Feed> watched = requested.stream().map(id -> feeds.computeIfAbsent(id, this::openFeed)).toList();
+        Client client = new Client(newEmitter(emitterTimeoutMs), watched);
+        Map<Long, Long> resumed = positionsOf(lastEventId);
+        for (Long facilityId : requested) {
+            Long seq = resumed.get(facilityId);
+            if (seq != null) {
+                client.positions.put(facilityId, seq);
+            }
+        }
+        client.emitter.onCompletion(() -> close(client));
+        client.emitter.onTimeout(() -> close(client));
+        client.emitter.onError(e -> close(client));
+        join(clients, client);
+        for (Feed feed : watched) {
+            synchronized (feed) {
+                if (feed.clients.isEmpty()) {
+                    // Nobody was listening, so time-driven changes weren't swept; catch up first
+                    feed.dirty.addAll(feed.slots.keySet());
+                    flush(feed, LocalDateTime.now());
+                }
+                List<AvailabilityStreamEventDTO> missed = missedSince(feed, resumed.get(feed.facilityId));
+                if (missed != null) {
+                    missed.forEach(event -> deliver(client, DELTA, event));
+                } else {
+                    deliver(client, SNAPSHOT, snapshot(feed));
+                }
+                join(feed.clients, client);
+            }
+        }
+        return client.emitter;
+    }
+
+    public int connectionCount() {
+        return clients.size();
+    }
+
+    @Override
+    public void onIndexRebuilt() {
+        feeds.values().forEach(feed -> feed.structureChanged = true);
+    }
+
+    @Override
+    public void onSlotRegistered(SlotAvailabilityDTO slot) {
+        // A move between facilities has already reached the old facility through onSlotRemoved
+        Feed feed = feeds.get(slot.getFacilityId());
+        if (feed != null) {
+            feed.structureChanged = true;
+        }
+    }
+
+    @Override
+    public void onSlotRemoved(Long slotId, Long facilityId) {
+        Feed feed = feeds.get(facilityId);
+        if (feed != null) {
+            feed.structureChanged = true;
+        }
+    }
+
+    @Override
+    public void onWindowChanged(Long slotId, Long facilityId, LocalDateTime start, LocalDateTime end) {
+        Feed feed = feeds.get(facilityId);
+        if (feed != null) {
+            feed.dirty.add(slotId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.availability.stream.flush-ms:500}")
+    public void flushAll() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Feed feed : feeds.values()) {
+            synchronized (feed) {
+                if (feed.structureChanged) {
+                    resnapshot(feed, now);
+                } else if (!feed.dirty.isEmpty()) {
+                    flush(feed, now);
+                }
+            }
+        }
+    }
+
+    // Bookings start and end without any write; re-evaluate every slot that someone is watching
+    @Scheduled(fixedDelayString = "${app.availability.stream.sweep-ms:15000}")
+    public void sweep() {
+        for (Feed feed : feeds.values()) {
+            if (!feed.clients.isEmpty()) {
+                synchronized (feed) {
+                    feed.dirty.addAll(feed.slots.keySet());
+                }
+            }
+        }
+    }
+
+    // One pool task per batch of clients; a client whose outbox is busy isn't idle and is skipped
+    @Scheduled(fixedRateString = "${app.availability.stream.heartbeat-ms:20000}")
+    public void heartbeat() {
+        List<Client> open = new ArrayList<>(clients);
+        for (int i = 0; i < open.size(); i += HEARTBEAT_BATCH) {
+            List<Client> batch = open.subList(i, Math.min(open.size(), i + HEARTBEAT_BATCH));
+            try {
+                delivery.execute(() -> batch.forEach(this::heartbeatNow));
+            } catch (RejectedExecutionException e) {
+                log.warn("Availability push queue full, skipping heartbeats for {} clients", open.size() - i);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.forEach(client -> client.emitter.complete());
+        if (delivery instanceof ExecutorService executor) {
+            executor.shutdown();
+        }
+    }
+
+    SseEmitter newEmitter(long timeoutMs) {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private Feed openFeed(Long facilityId) {
+        Feed feed = new Feed(facilityId);
+        load(feed, LocalDateTime.now());
+        return feed;
+    }
+
+    private void load(Feed feed, LocalDateTime now) {
+        feed.slots.clear();
+        for (SlotAvailabilityDTO slot : index.slotsOf(feed.facilityId)) {
+            SlotEntry entry = new SlotEntry();
+            entry.slot = slot;
+            entry.state = stateOf(slot.getSlotId(), now);
+            entry.version = feed.seq;
+            feed.slots.put(slot.getSlotId(), entry);
+        }
+    }
+
+    // Slots were added, removed or moved: deltas can't describe that, so everyone gets a new snapshot
+    private void resnapshot(Feed feed, LocalDateTime now) {
+        feed.structureChanged = false;
+        feed.dirty.clear();
+        feed.seq++;
+        load(feed, now);
+        feed.recent.clear();
+        AvailabilityStreamEventDTO snapshot = snapshot(feed);
+        for (Client client : feed.clients) {
+            deliver(client, SNAPSHOT, snapshot);
+        }
+    }
+
+    private void flush(Feed feed, LocalDateTime now) {
+        List<Long> dirty = new ArrayList<>(feed.dirty);
+        feed.dirty.removeAll(dirty);
+        List<SlotStateChangeDTO> changes = new ArrayList<>();
+        long seq = feed.seq + 1;
+        for (Long slotId : dirty) {
+            SlotEntry entry = feed.slots.get(slotId);
+            if (entry == null) {
+                continue;
+            }
+            State state = stateOf(slotId, now);
+            if (state != entry.state) {
+                entry.state = state;
+                entry.version = seq;
+                changes.add(new SlotStateChangeDTO(slotId, state.name(), seq));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        feed.seq = seq;
+        AvailabilityStreamEventDTO delta = new AvailabilityStreamEventDTO(feed.facilityId, seq, null, changes);
+        feed.recent.addLast(delta);
+        while (feed.recent.size() > replaySize) {
+            feed.recent.removeFirst();
+        }
+        for (Client client : feed.clients) {
+            deliver(client, DELTA, delta);
+        }
+    }
+
+    /** Facility positions in {@code lastEventId}; empty when it is missing, malformed or from another boot. */
+    private Map<Long, Long> positionsOf(String lastEventId) {
+        int dash = lastEventId != null ? lastEventId.lastIndexOf('-') : -1;
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(bootId)) {
+            return Map.of();
+        }
+        Map<Long, Long> positions = new HashMap<>();
+        try {
+            for (String position : lastEventId.substring(dash + 1).split(",")) {
+                int colon = position.indexOf(':');
+                positions.put(Long.parseLong(position.substring(0, colon)),
+                        Long.parseLong(position.substring(colon + 1)));
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return Map.of();
+        }
+        return positions;
+    }
+
+    /** Deltas after {@code lastSeq}, or null when a snapshot is needed instead. */
+    private List<AvailabilityStreamEventDTO> missedSince(Feed feed, Long lastSeq) {
+        if (lastSeq == null) {
+            return null;
+        }
+        if (lastSeq == feed.seq) {
+            return List.of();
+        }
+        if (lastSeq > feed.seq || feed.recent.isEmpty() || feed.recent.getFirst().getSeq() > lastSeq + 1) {
+            return null;
+        }
+        List<AvailabilityStreamEventDTO> missed = new ArrayList<>();
+        for (AvailabilityStreamEventDTO delta : feed.recent) {
+            if (delta.getSeq() > lastSeq) {
+                missed.add(delta);
+            }
+        }
+        return missed;
+    }
+
+    private AvailabilityStreamEventDTO snapshot(Feed feed) {
+        List<SlotStateDTO> slots = new ArrayList<>(feed.slots.size());
+        for (SlotEntry entry : feed.slots.values()) {
+            slots.add(new SlotStateDTO(entry.slot, entry.state.name(), entry.version));
+        }
+        slots.sort(Comparator.comparing(s -> s.getSlot().getSlotNumber(), Comparator.nullsLast(String::compareTo)));
+        return new AvailabilityStreamEventDTO(feed.facilityId, feed.seq, slots, null);
+    }
+
+    private State stateOf(Long slotId, LocalDateTime now) {
+        if (index.slot(slotId) == null) {
+            return State.REMOVED;
+        }
+        Long occupant = index.occupantAt(slotId, now);
+        if (occupant == null) {
+            return State.FREE;
+        }
+        // Holds share the index under negated ids
+        return occupant < 0 ? State.HELD : State.BOOKED;
+    }
+
+    /** Adds the client unless it closed meanwhile; close() flags before it removes, so neither side leaks it. */
+    private static void join(Set<Client> members, Client client) {
+        members.add(client);
+        if (client.closed.get()) {
+            members.remove(client);
+        }
+    }
+
+    private void close(Client client) {
+        if (client.closed.compareAndSet(false, true)) {
+            clients.remove(client);
+            client.feeds.forEach(feed -> feed.clients.remove(client));
+        }
+    }
+
+    /** Queues the event on the client's outbox and starts a drain unless one is running. */
+    private void deliver(Client client, String name, AvailabilityStreamEventDTO event) {
+        client.tasks.add(() -> send(client, name, event));
+        if (client.claim()) {
+            try {
+                delivery.execute(() -> drain(client));
+            } catch (RejectedExecutionException e) {
+                // A skipped delta would leave the client's view wrong; it resumes from its last id instead
+                client.tasks.clear();
+                client.draining.set(false);
+                log.warn("Availability push queue full, closing a stream of {} facilities", client.feeds.size());
+                drop(client, e);
+            }
+        }
+    }
+
+    /** Runs the claimed outbox dry, then releases it; a task added after the release re-claims it. */
+    private void drain(Client client) {
+        do {
+            Runnable task;
+            while ((task = client.tasks.poll()) != null) {
+                task.run();
+            }
+            client.draining.set(false);
+        } while (!client.tasks.isEmpty() && client.claim());
+    }
+
+    private void heartbeatNow(Client client) {
+        if (!client.claim()) {
+            return;
+        }
+        if (!client.closed.get()) {
+            try {
+                client.emitter.send(SseEmitter.event().comment("hb"));
+            } catch (IOException | IllegalStateException e) {
+                drop(client, e);
+            }
+        }
+        drain(client);
+    }
+
+    private void send(Client client, String name, AvailabilityStreamEventDTO event) {
+        if (client.closed.get()) {
+            return;
+        }
+        client.positions.put(event.getFacilityId(), event.getSeq());
+        StringJoiner id = new StringJoiner(",", bootId + "-", "");
+        client.positions.forEach((facilityId, seq) -> id.add(facilityId + ":" + seq));
+        try {
+            client.emitter.send(SseEmitter.event()
+                    .id(id.toString())
+                    .name(name)
+                    .data(event, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            drop(client, e);
+        }
+    }
+
+    private void drop(Client client, Exception cause) {
+        log.debug("Dropping availability stream: {}", cause.getMessage());
+        close(client);
+        client.emitter.completeWithError(cause);
+    }
+
+    private static ExecutorService deliveryExecutor(int threads) {
+        AtomicInteger n = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(10_000), r -> {
+                    Thread t = new Thread(r, "availability-push-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                // Rejections surface to deliver() and heartbeat(), which never block the flusher
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
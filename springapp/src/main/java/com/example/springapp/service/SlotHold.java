@@ -0,0 +1,33 @@
+package com.example.springapp.service;
+
+import com.example.springapp.util.HierarchicalTimingWheel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/** A short-lived in-memory reservation of a slot window while the user completes payment. */
+@Getter
+public class SlotHold {
+
+    private final Long holdId;
+    private final Long slotId;
+    private final Long userId;
+    private final LocalDateTime startTime;
+    private final LocalDateTime endTime;
+    private final LocalDateTime expiresAt;
+    HierarchicalTimingWheel.Timeout<SlotHold> timeout;
+
+    SlotHold(Long holdId, Long slotId, Long userId, LocalDateTime startTime, LocalDateTime endTime,
+             LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.slotId = slotId;
+        this.userId = userId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.expiresAt = expiresAt;
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+}
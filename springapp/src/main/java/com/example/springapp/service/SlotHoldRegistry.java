@@ -0,0 +1,120 @@
+package com.example.springapp.service;
+
+import com.example.springapp.exception.BookingConflictException;
+import com.example.springapp.util.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Active slot holds. Expiry is driven by a {@link HierarchicalTimingWheel} ticked once per
+ * {@code app.holds.tick-ms}, so placing, releasing and expiring a hold are all O(1) no matter
+ * how many are pending. Holds are mirrored into {@link SlotAvailabilityIndex} and therefore
+ * show up as occupied in every availability query until they are released or expire.
+ */
+@Component
+@Slf4j
+public class SlotHoldRegistry {
+
+    private final SlotAvailabilityIndex availabilityIndex;
+    private final HierarchicalTimingWheel<SlotHold> wheel;
+    private final Duration ttl;
+    private final int maxActive;
+
+    private final Map<Long, SlotHold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, Set<SlotHold>> holdsBySlot = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    public SlotHoldRegistry(SlotAvailabilityIndex availabilityIndex,
+                            @Value("${app.holds.tick-ms:1000}") long tickMs,
+                            @Value("${app.holds.ttl-seconds:600}") long ttlSeconds,
+                            @Value("${app.holds.max-active:100000}") int maxActive) {
+        if (ttlSeconds * 1000 <= tickMs) {
+            throw new IllegalArgumentException("app.holds.ttl-seconds must be longer than one wheel tick");
+        }
+        this.availabilityIndex = availabilityIndex;
+        this.wheel = new HierarchicalTimingWheel<>(tickMs, 64, 3, System.currentTimeMillis());
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.maxActive = maxActive;
+    }
+
+    /** Places a hold; the caller must hold the slot lock and have checked for conflicts. */
+    public SlotHold place(Long slotId, Long userId, LocalDateTime start, LocalDateTime end) {
+        if (holds.size() >= maxActive) {
+            throw new BookingConflictException("Too many pending holds, please retry shortly");
+        }
+        long now = System.currentTimeMillis();
+        SlotHold hold = new SlotHold(ids.incrementAndGet(), slotId, userId, start, end,
+                LocalDateTime.now().plus(ttl));
+        holds.put(hold.getHoldId(), hold);
+        holdsBySlot.compute(slotId, (id, slotHolds) -> {
+            Set<SlotHold> set = slotHolds != null ? slotHolds : ConcurrentHashMap.newKeySet();
+            set.add(hold);
+            return set;
+        });
+        availabilityIndex.placeHold(hold.getHoldId(), slotId, start, end);
+        hold.timeout = wheel.schedule(hold, now + ttl.toMillis());
+        return hold;
+    }
+
+    public Optional<SlotHold> get(Long holdId) {
+        return Optional.ofNullable(holds.get(holdId));
+    }
+
+    public boolean release(Long holdId) {
+        SlotHold hold = holds.remove(holdId);
+        if (hold == null) {
+            return false;
+        }
+        wheel.cancel(hold.timeout);
+        forget(hold);
+        return true;
+    }
+
+    /** True if a hold other than {@code exceptHoldId} covers part of [start, end) on the slot. */
+    public boolean conflicts(Long slotId, LocalDateTime start, LocalDateTime end, Long exceptHoldId) {
+        Set<SlotHold> slotHolds = holdsBySlot.get(slotId);
+        if (slotHolds == null) {
+            return false;
+        }
+        for (SlotHold hold : slotHolds) {
+            if (!hold.getHoldId().equals(exceptHoldId) && hold.overlaps(start, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int activeCount() {
+        return holds.size();
+    }
+
+    @Scheduled(fixedRateString = "${app.holds.tick-ms:1000}")
+    public void tick() {
+        wheel.advance(System.currentTimeMillis(), this::expire);
+    }
+
+    private void expire(SlotHold hold) {
+        if (holds.remove(hold.getHoldId(), hold)) {
+            forget(hold);
+            log.debug("Hold {} on slot {} expired", hold.getHoldId(), hold.getSlotId());
+        }
+    }
+
+    private void forget(SlotHold hold) {
+        holdsBySlot.computeIfPresent(hold.getSlotId(), (id, slotHolds) -> {
+            slotHolds.remove(hold);
+            return slotHolds.isEmpty() ? null : slotHolds;
+        });
+        availabilityIndex.releaseHold(hold.getHoldId());
+    }
+}
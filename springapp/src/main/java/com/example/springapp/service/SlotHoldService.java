@@ -0,0 +1,75 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.SlotHoldDTO;
+import com.example.springapp.exception.BookingConflictException;
+import com.example.springapp.exception.ResourceNotFoundException;
+import com.example.springapp.model.Booking;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.UserRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+public class SlotHoldService {
+
+    private final SlotHoldRegistry holdRegistry;
+    private final SlotLockManager slotLocks;
+    private final BookingRepository bookingRepository;
+    private final ParkingSlotRepository slotRepository;
+    private final UserRepository userRepository;
+
+    public SlotHoldService(SlotHoldRegistry holdRegistry, SlotLockManager slotLocks, BookingRepository bookingRepository,
+                           ParkingSlotRepository slotRepository, UserRepository userRepository) {
+        this.holdRegistry = holdRegistry;
+        this.slotLocks = slotLocks;
+        this.bookingRepository = bookingRepository;
+        this.slotRepository = slotRepository;
+        this.userRepository = userRepository;
+    }
+
+    /** Bad input is an IllegalArgumentException, an unknown user or slot a ResourceNotFoundException. */
+    public SlotHoldDTO createHold(SlotHoldDTO dto) {
+        if (dto.getUserId() == null || dto.getSlotId() == null) {
+            throw new IllegalArgumentException("userId and slotId are required");
+        }
+        if (dto.getStartTime() == null || dto.getEndTime() == null || !dto.getStartTime().isBefore(dto.getEndTime())) {
+            throw new IllegalArgumentException("Hold start time must be before end time");
+        }
+        if (!userRepository.existsById(dto.getUserId())) {
+            throw new ResourceNotFoundException("User not found: " + dto.getUserId());
+        }
+        if (!slotRepository.existsById(dto.getSlotId())) {
+            throw new ResourceNotFoundException("Slot not found: " + dto.getSlotId());
+        }
+        return slotLocks.withSlotLock(dto.getSlotId(), () -> {
+            if (holdRegistry.conflicts(dto.getSlotId(), dto.getStartTime(), dto.getEndTime(), null)
+                    || bookingRepository.existsOverlapping(dto.getSlotId(), dto.getStartTime(), dto.getEndTime(),
+                    Booking.BLOCKING_STATUSES, null)) {
+                throw new BookingConflictException("Slot " + dto.getSlotId() + " is not free between "
+                        + dto.getStartTime() + " and " + dto.getEndTime());
+            }
+            return toDTO(holdRegistry.place(dto.getSlotId(), dto.getUserId(), dto.getStartTime(), dto.getEndTime()));
+        });
+    }
+
+    public Optional<SlotHoldDTO> getHold(Long holdId) {
+        return holdRegistry.get(holdId).map(SlotHoldService::toDTO);
+    }
+
+    public boolean releaseHold(Long holdId) {
+        return holdRegistry.release(holdId);
+    }
+
+    static SlotHoldDTO toDTO(SlotHold hold) {
+        SlotHoldDTO dto = new SlotHoldDTO();
+        dto.setHoldId(hold.getHoldId());
+        dto.setSlotId(hold.getSlotId());
+        dto.setUserId(hold.getUserId());
+        dto.setStartTime(hold.getStartTime());
+        dto.setEndTime(hold.getEndTime());
+        dto.setExpiresAt(hold.getExpiresAt());
+        return dto;
+    }
+}
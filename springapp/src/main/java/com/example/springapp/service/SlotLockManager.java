@@ -0,0 +1,74 @@
+package com.example.springapp.service;
+
+import com.example.springapp.exception.BookingConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks keyed by slot id. Bookings for the same slot are serialised
+ * before they reach the database, so concurrent requests for a popular slot queue here
+ * instead of piling up on the row lock. Unrelated slots map to different stripes and
+ * proceed in parallel.
+ */
+@Component
+public class SlotLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMs;
+
+    public SlotLockManager(@Value("${app.booking.lock-stripes:1024}") int stripeCount,
+                           @Value("${app.booking.lock-timeout-ms:2000}") long timeoutMs) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public <T> T withSlotLock(Long slotId, Supplier<T> action) {
+        return withSlotLocks(new Long[]{slotId}, action);
+    }
+
+    /**
+     * Runs the action while holding the stripes of all given slots. Stripes are acquired
+     * in index order so two callers locking the same pair of slots can never deadlock.
+     */
+    public <T> T withSlotLocks(Long[] slotIds, Supplier<T> action) {
+        for (Long slotId : slotIds) {
+            if (slotId == null) {
+                throw new IllegalArgumentException("slotId is required");
+            }
+        }
+        int[] indexes = Arrays.stream(slotIds).mapToInt(this::stripeOf).sorted().distinct().toArray();
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                if (!stripes[index].tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new BookingConflictException("Slot is busy, please retry");
+                }
+                acquired++;
+            }
+            return action.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingConflictException("Interrupted while waiting for slot lock");
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+        }
+    }
+
+    int stripeOf(Long slotId) {
+        long h = slotId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.UnreadNotificationCounter;
+import com.example.springapp.repository.NotificationRepository;
+import com.example.springapp.repository.UnreadNotificationCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user unread notification counts, so the badge and the unread-count event read one row
+ * instead of running a COUNT per poll. The counts live in the unread_notification_counter table,
+ * so every instance sees the same value. A user's row is seeded with one COUNT on first read and
+ * then adjusted by the writes that change it (inserts, reads, deletes) inside their own
+ * transaction, so a count commits together with the change it describes. Writes that bypass the
+ * adjustments (manual SQL) are corrected by a periodic reconcile that recounts in grouped queries.
+ */
+@Component
+@Slf4j
+public class UnreadNotificationCounters {
+
+    private static final int RECONCILE_CHUNK = 1000;
+
+    private record Reconciled(int checked, int corrected, long lastUserId) {}
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate seedTransaction;
+
+    public UnreadNotificationCounters(NotificationRepository notificationRepository,
+                                      UnreadNotificationCounterRepository counterRepository,
+                                      TransactionTemplate transactionTemplate) {
+        this.notificationRepository = notificationRepository;
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = transactionTemplate;
+        // A lost seed race must not mark a caller's transaction rollback-only
+        this.seedTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.seedTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long get(Long userId) {
+        return counterRepository.findById(userId)
+                .map(UnreadNotificationCounter::getUnreadCount)
+                .orElseGet(() -> seed(userId));
+    }
+
+    /** Counts newly inserted unread notifications; call in the transaction that inserts them. */
+    public void created(Collection<Notification> notifications) {
+        Map<Long, Long> added = new HashMap<>();
+        for (Notification notification : notifications) {
+            if (!notification.isRead() && notification.getUser() != null) {
+                added.merge(notification.getUser().getUserId(), 1L, Long::sum);
+            }
+        }
+        // One UPDATE per distinct delta; a broadcast chunk is a single statement
+        Map<Long, List<Long>> byDelta = new HashMap<>();
+        added.forEach((userId, delta) -> byDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(userId));
+        byDelta.forEach((delta, userIds) -> counterRepository.addTo(userIds, delta));
+    }
+
+    /** Applies a change in the user's unread count; call in the transaction that makes the change. */
+    public void adjust(Long userId, long delta) {
+        if (userId != null && delta != 0) {
+            counterRepository.addTo(List.of(userId), delta);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.unread.reconcile-ms:300000}",
+               initialDelayString = "${app.notifications.unread.reconcile-ms:300000}")
+    public void reconcile() {
+        long after = 0;
+        int checked = 0;
+        int corrected = 0;
+        while (true) {
+            long from = after;
+            // One transaction per chunk, so the counters and the recount come from the same snapshot
+            Reconciled chunk = transactionTemplate.execute(status -> reconcileChunk(from));
+            if (chunk.checked() == 0) {
+                break;
+            }
+            checked += chunk.checked();
+            corrected += chunk.corrected();
+            after = chunk.lastUserId();
+        }
+        if (corrected > 0) {
+            log.info("Reconciled {} of {} unread notification counters", corrected, checked);
+        }
+    }
+
+    private Reconciled reconcileChunk(long after) {
+        List<UnreadNotificationCounter> chunk = counterRepository
+                .findByUserIdGreaterThanOrderByUserId(after, PageRequest.of(0, RECONCILE_CHUNK));
+        if (chunk.isEmpty()) {
+            return new Reconciled(0, 0, after);
+        }
+        List<Long> userIds = chunk.stream().map(UnreadNotificationCounter::getUserId).toList();
+        Map<Long, Long> actual = new HashMap<>();
+        for (Object[] row : notificationRepository.countUnreadByUserIds(userIds)) {
+            actual.put((Long) row[0], (Long) row[1]);
+        }
+        int corrected = 0;
+        for (UnreadNotificationCounter counter : chunk) {
+            long expected = actual.getOrDefault(counter.getUserId(), 0L);
+            if (counter.getUnreadCount() != expected
+                    && counterRepository.correct(counter.getUserId(), counter.getUnreadCount(), expected) > 0) {
+                corrected++;
+            }
+        }
+        return new Reconciled(chunk.size(), corrected, userIds.get(userIds.size() - 1));
+    }
+
+    private long seed(Long userId) {
+        try {
+            seedTransaction.executeWithoutResult(status -> counterRepository.seed(userId));
+        } catch (DataIntegrityViolationException e) {
+            // Another request seeded it first
+        }
+        return counterRepository.findById(userId).map(UnreadNotificationCounter::getUnreadCount).orElse(0L);
+    }
+}
@@ -1,9 +1,13 @@
 package com.example.springapp.service;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.UserDTO;
 import com.example.springapp.mapper.UserMapper;
 import com.example.springapp.model.User;
 import com.example.springapp.repository.UserRepository;
+import com.example.springapp.security.PrincipalCache;
+import com.example.springapp.security.TokenRevocationService;
+import com.example.springapp.util.KeysetPagination;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,9 +22,14 @@ public class UserService {
     private UserRepository repository;
 
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService revocationService;
 
-    public UserService(PasswordEncoder passwordEncoder) {
+    public UserService(PasswordEncoder passwordEncoder, PrincipalCache principalCache,
+                       TokenRevocationService revocationService) {
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.revocationService = revocationService;
     }
 
     public List<UserDTO> getAll() {
@@ -30,6 +39,11 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<UserDTO> getPage(String cursor, Integer size, boolean withTotal) {
+        return KeysetPagination.fetch(cursor, size, repository::findByUserIdLessThanOrderByUserIdDesc,
+                User::getUserId, UserMapper::toDTO, withTotal ? repository::count : null);
+    }
+
     public Optional<UserDTO> getById(Long id) {
         return repository.findById(id)
                 .map(UserMapper::toDTO);
@@ -47,6 +61,9 @@ public class UserService {
     public UserDTO update(Long id, UserDTO dto) {
         return repository.findById(id)
                 .map(existing -> {
+                    String previousUsername = existing.getUsername();
+                    User.Role previousRole = existing.getRole();
+                    boolean wasActive = existing.isActive();
                     existing.setUsername(dto.getUsername());
                     existing.setEmail(dto.getEmail());
                     existing.setFirstName(dto.getFirstName());
@@ -63,12 +80,24 @@ public class UserService {
                         existing.setLastLogin(dto.getLastLogin().toLocalDateTime());
                     }
                     existing.setEmailVerified(dto.isEmailVerified());
-                    return UserMapper.toDTO(repository.save(existing));
+                    User saved = repository.save(existing);
+                    // Role, active flag or username may have changed; the filter must reload the principal
+                    principalCache.invalidate(previousUsername);
+                    principalCache.invalidate(saved.getUsername());
+                    // Issued tokens carry username and role as claims; stateless auth must stop honouring them
+                    if (saved.getRole() != previousRole || saved.isActive() != wasActive
+                            || !saved.getUsername().equals(previousUsername)) {
+                        revocationService.revokeUserTokens(saved.getUserId());
+                    }
+                    return UserMapper.toDTO(saved);
                 })
                 .orElse(null);
     }
 
     public void delete(Long id) {
+        Optional<String> username = repository.findById(id).map(User::getUsername);
         repository.deleteById(id);
+        username.ifPresent(principalCache::invalidate);
+        revocationService.revokeUserTokens(id);
     }
 }
\ No newline at end of file
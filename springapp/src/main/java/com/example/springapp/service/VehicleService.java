@@ -1,17 +1,19 @@
 package com.example.springapp.service;
 
+import com.example.springapp.dto.CursorPage;
 import com.example.springapp.dto.VehicleDTO;
 import com.example.springapp.mapper.VehicleMapper;
 import com.example.springapp.model.User;
 import com.example.springapp.model.Vehicle;
 import com.example.springapp.repository.UserRepository;
 import com.example.springapp.repository.VehicleRepository;
+import com.example.springapp.util.KeysetPagination;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Service
 public class VehicleService {
@@ -23,16 +25,17 @@ public class VehicleService {
     private UserRepository userRepository;
 
     public List<VehicleDTO> getAll() {
-        return vehicleRepository.findAll()
-                .stream()
-                .map(VehicleMapper::toDTO)
-                .collect(Collectors.toList());
+        return vehicleRepository.findAllDtos();
+    }
+
+    public CursorPage<VehicleDTO> getPage(String cursor, Integer size, boolean withTotal) {
+        return KeysetPagination.fetch(cursor, size, vehicleRepository::findDtosBefore,
+                VehicleDTO::getVehicleId, Function.identity(), withTotal ? vehicleRepository::count : null);
     }
 
     public VehicleDTO getById(Long id) {
-        Vehicle vehicle = vehicleRepository.findById(id)
+        return vehicleRepository.findDtoById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + id));
-        return VehicleMapper.toDTO(vehicle);
     }
 
     public VehicleDTO create(VehicleDTO dto) {
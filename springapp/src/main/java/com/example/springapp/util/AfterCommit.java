@@ -0,0 +1,29 @@
+package com.example.springapp.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects that mirror database state (in-memory counters, pushes to clients) until
+ * the surrounding transaction commits, so a rollback never leaks them. Outside a transaction the
+ * write has already committed and the action runs immediately. Synchronizations run in
+ * registration order.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
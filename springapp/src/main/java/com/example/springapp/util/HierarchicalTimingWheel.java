@@ -0,0 +1,171 @@
+package com.example.springapp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Level 0 has {@code wheelSize} buckets of {@code tickMs}; each
+ * higher level has buckets as wide as the whole level below. Scheduling and cancelling are
+ * O(1) (a bucket is an intrusive doubly-linked list); every tick expires one level-0 bucket
+ * and, when a lower level wraps, cascades one bucket of the level above downwards.
+ *
+ * <p>Thread-safe: every method locks the wheel, and {@link #advance} runs the expiry callbacks
+ * after releasing the lock, so they may schedule or cancel.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    public static final class Timeout<T> {
+        private final T payload;
+        private final long deadlineMs;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+        private boolean linked;
+
+        private Timeout(T payload, long deadlineMs) {
+            this.payload = payload;
+            this.deadlineMs = deadlineMs;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        public long deadlineMs() {
+            return deadlineMs;
+        }
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long[] levelTickMs;
+    private final Timeout<T>[][] buckets; // [level][bucket] -> sentinel node
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.levelTickMs = new long[levels];
+        this.buckets = new Timeout[levels][wheelSize];
+        long tick = tickMs;
+        for (int level = 0; level < levels; level++) {
+            levelTickMs[level] = tick;
+            tick *= wheelSize;
+            for (int b = 0; b < wheelSize; b++) {
+                Timeout<T> sentinel = new Timeout<>(null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                buckets[level][b] = sentinel;
+            }
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    /** Longest delay the wheel can hold from now. */
+    public long maxDelayMs() {
+        return levelTickMs[levelTickMs.length - 1] * (wheelSize - 1);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Schedules {@code payload} to expire at {@code deadlineMs}. Deadlines that are already due
+     * are not scheduled; the caller gets {@code null} and should expire the payload itself.
+     */
+    public synchronized Timeout<T> schedule(T payload, long deadlineMs) {
+        if (deadlineMs / tickMs <= currentTick) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(payload, deadlineMs);
+        if (!place(timeout)) {
+            throw new IllegalArgumentException("Deadline is beyond the timing wheel range");
+        }
+        size++;
+        return timeout;
+    }
+
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || !timeout.linked) {
+            return false;
+        }
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    /** Moves the wheel forward to {@code nowMs}, handing every due payload to {@code onExpire}. */
+    public void advance(long nowMs, Consumer<T> onExpire) {
+        List<T> expired = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = nowMs / tickMs;
+            while (currentTick < targetTick) {
+                currentTick++;
+                cascade(expired);
+                drain(buckets[0][(int) (currentTick % wheelSize)], expired);
+            }
+        }
+        // Callbacks run outside the wheel lock so they may schedule or cancel freely
+        expired.forEach(onExpire);
+    }
+
+    private void cascade(List<T> expired) {
+        long nowMs = currentTick * tickMs;
+        for (int level = levelTickMs.length - 1; level >= 1; level--) {
+            if (nowMs % levelTickMs[level] != 0) {
+                continue;
+            }
+            Timeout<T> sentinel = buckets[level][(int) ((nowMs / levelTickMs[level]) % wheelSize)];
+            while (sentinel.next != sentinel) {
+                Timeout<T> timeout = sentinel.next;
+                unlink(timeout);
+                if (timeout.deadlineMs / tickMs <= currentTick) {
+                    expired.add(timeout.payload);
+                    size--;
+                } else {
+                    place(timeout);
+                }
+            }
+        }
+    }
+
+    private void drain(Timeout<T> sentinel, List<T> expired) {
+        while (sentinel.next != sentinel) {
+            Timeout<T> timeout = sentinel.next;
+            unlink(timeout);
+            expired.add(timeout.payload);
+            size--;
+        }
+    }
+
+    private boolean place(Timeout<T> timeout) {
+        long nowMs = currentTick * tickMs;
+        for (int level = 0; level < levelTickMs.length; level++) {
+            long levelTick = levelTickMs[level];
+            if (timeout.deadlineMs / levelTick - nowMs / levelTick < wheelSize) {
+                link(buckets[level][(int) ((timeout.deadlineMs / levelTick) % wheelSize)], timeout);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void link(Timeout<T> sentinel, Timeout<T> timeout) {
+        timeout.prev = sentinel.prev;
+        timeout.next = sentinel;
+        sentinel.prev.next = timeout;
+        sentinel.prev = timeout;
+        timeout.linked = true;
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.linked = false;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.springapp.util;
+
+import com.example.springapp.dto.CursorPage;
+import com.example.springapp.exception.InvalidCursorException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyset (seek) pagination over a descending primary key. Every page is fetched with
+ * {@code WHERE id < :cursor ORDER BY id DESC LIMIT size + 1}, so page 1000 costs the same
+ * index range scan as page 1 and no COUNT(*) is needed to know whether more rows exist.
+ * Cursors are opaque to clients: a versioned, URL-safe Base64 encoding of the last id.
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 200;
+    private static final String PREFIX = "k1:";
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * @param query   fetches rows with id strictly below the given key, newest first; the
+     *                repository method must order by id descending
+     * @param counter total row count, or {@code null} for count-free (slice) mode
+     */
+    public static <E, D> CursorPage<D> fetch(String cursor, Integer size,
+                                             BiFunction<Long, Pageable, Slice<E>> query,
+                                             Function<E, Long> idOf,
+                                             Function<E, D> mapper,
+                                             LongSupplier counter) {
+        int pageSize = size == null ? DEFAULT_SIZE : Math.max(1, Math.min(size, MAX_SIZE));
+        Slice<E> slice = query.apply(decode(cursor), PageRequest.of(0, pageSize));
+        List<E> rows = slice.getContent();
+        String next = slice.hasNext() && !rows.isEmpty() ? encode(idOf.apply(rows.get(rows.size() - 1))) : null;
+        Long total = counter != null ? counter.getAsLong() : null;
+        return new CursorPage<>(rows.stream().map(mapper).toList(), next, next != null, total);
+    }
+
+    public static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        if (!raw.startsWith(PREFIX)) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+        try {
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.springapp.util;
+
+/**
+ * Sorted set of {@code long} ids, as used by an inverted index. Ids almost always arrive in
+ * increasing order and are appended in place; one that arrives late is inserted into a copy of
+ * the array, so a published array is never shifted under a reader. One writer adds; any number of
+ * readers may read concurrently without locking. A reader should take {@link #size()} once and
+ * only look at indexes below it: the element is stored (and the new array published) before the
+ * volatile size write that makes it visible. A reader that overlaps a late insert may or may not
+ * see the inserted id.
+ */
+public final class PostingList {
+
+    private volatile long[] ids;
+    private volatile int size;
+
+    public PostingList() {
+        this(4);
+    }
+
+    public PostingList(int initialCapacity) {
+        this.ids = new long[Math.max(1, initialCapacity)];
+    }
+
+    /** Adds {@code id} in order; returns false if it is already present, so replays are harmless. */
+    public boolean append(long id) {
+        int n = size;
+        long[] current = ids;
+        if (n > 0 && current[n - 1] >= id) {
+            return insert(id, n, current);
+        }
+        if (n == current.length) {
+            long[] grown = new long[n + (n >> 1) + 1];
+            System.arraycopy(current, 0, grown, 0, n);
+            grown[n] = id;
+            ids = grown;
+        } else {
+            current[n] = id;
+        }
+        size = n + 1;
+        return true;
+    }
+
+    private boolean insert(long id, int n, long[] current) {
+        int floor = floorIndex(id, n);
+        if (floor >= 0 && current[floor] == id) {
+            return false;
+        }
+        int at = floor + 1;
+        long[] copy = new long[n == current.length ? n + (n >> 1) + 1 : current.length];
+        System.arraycopy(current, 0, copy, 0, at);
+        copy[at] = id;
+        System.arraycopy(current, at, copy, at + 1, n - at);
+        ids = copy;
+        size = n + 1;
+        return true;
+    }
+
+    /** A new list of the ids not in {@code removed}. */
+    public PostingList without(PostingList removed) {
+        int n = size;
+        long[] snapshot = ids;
+        int removedSize = removed.size();
+        PostingList kept = new PostingList(n);
+        for (int i = 0; i < n; i++) {
+            long id = snapshot[i];
+            int floor = removed.floorIndex(id, removedSize);
+            if (floor < 0 || removed.get(floor) != id) {
+                kept.append(id);
+            }
+        }
+        return kept;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long get(int index) {
+        return ids[index];
+    }
+
+    /** Index of the largest id {@code <= maxId} among the first {@code limit} entries, or -1. */
+    public int floorIndex(long maxId, int limit) {
+        long[] snapshot = ids;
+        int lo = 0;
+        int hi = limit - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (snapshot[mid] <= maxId) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+}
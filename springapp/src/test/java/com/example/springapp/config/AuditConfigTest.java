@@ -0,0 +1,59 @@
+package com.example.springapp.config;
+
+import com.example.springapp.dto.LoginRequest;
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.service.AuditLogService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AuditConfigTest {
+
+    private final AuditLogService auditLogService = mock(AuditLogService.class);
+    private final AuditConfig auditConfig = new AuditConfig();
+
+    AuditConfigTest() {
+        ReflectionTestUtils.setField(auditConfig, "auditLogService", auditLogService);
+    }
+
+    @Test
+    void loginIsAuditedOnceTheFutureSucceeds() {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        auditConfig.auditLogin(request("alice"), result);
+        verifyNoInteractions(auditLogService);
+
+        result.complete("token");
+
+        verify(auditLogService).createAuditLog(eq("alice"), eq("LOGIN"), eq("Authentication"),
+                eq(AuditLog.Severity.LOW), anyString(), anyString(), any(), anyString(), isNull());
+    }
+
+    @Test
+    void failedLoginIsAuditedWithHighSeverity() {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        auditConfig.auditLogin(request("mallory"), result);
+
+        result.completeExceptionally(new BadCredentialsException("Invalid credentials"));
+
+        verify(auditLogService).createAuditLog(eq("mallory"), eq("LOGIN_FAILED"), eq("Authentication"),
+                eq(AuditLog.Severity.HIGH), anyString(), anyString(), any(),
+                eq("Login failed: Invalid credentials"), isNull());
+    }
+
+    private static LoginRequest request(String username) {
+        LoginRequest request = new LoginRequest();
+        request.setUsernameOrEmail(username);
+        request.setPassword("secret");
+        return request;
+    }
+}
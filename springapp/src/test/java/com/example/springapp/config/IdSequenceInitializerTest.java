@@ -0,0 +1,46 @@
+package com.example.springapp.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Table-emulated sequences as Hibernate creates them on MySQL: one row holding next_val.
+ */
+class IdSequenceInitializerTest {
+
+    private final EmbeddedDatabase db = new EmbeddedDatabaseBuilder()
+            .setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+    private final JdbcTemplate jdbc = new JdbcTemplate(db);
+
+    @AfterEach
+    void close() {
+        db.shutdown();
+    }
+
+    @Test
+    void sequenceStartsAWholeBlockAboveTheMaxId() {
+        jdbc.execute("CREATE TABLE booking (booking_id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE booking_seq (next_val BIGINT)");
+        jdbc.update("INSERT INTO booking_seq VALUES (1)");
+        jdbc.update("INSERT INTO booking VALUES (1), (70), (120)");
+        jdbc.execute("CREATE TABLE payment (payment_id BIGINT PRIMARY KEY)");
+        jdbc.execute("CREATE TABLE payment_seq (next_val BIGINT)");
+        jdbc.update("INSERT INTO payment_seq VALUES (1000)");
+        jdbc.update("INSERT INTO payment VALUES (5)");
+
+        new IdSequenceInitializer(jdbc).afterPropertiesSet();
+
+        // Pooled blocks are next_val - 49 .. next_val, so the first id handed out is 122
+        long bookingNext = jdbc.queryForObject("SELECT next_val FROM booking_seq", Long.class);
+        assertEquals(120 + IdSequenceInitializer.ALLOCATION_SIZE + 1, bookingNext);
+        assertEquals(122, bookingNext - IdSequenceInitializer.ALLOCATION_SIZE + 1);
+        // Never moved backwards
+        assertEquals(1000L, jdbc.queryForObject("SELECT next_val FROM payment_seq", Long.class));
+    }
+}
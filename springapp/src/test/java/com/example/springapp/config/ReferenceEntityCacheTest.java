@@ -0,0 +1,114 @@
+package com.example.springapp.config;
+
+import com.example.springapp.dto.CacheRegionStatsDTO;
+import com.example.springapp.model.Facility;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.FacilityRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.UserRepository;
+import com.example.springapp.security.PrincipalCache;
+import com.example.springapp.service.CacheStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reference entities are served from the second-level cache after the first load, and writes
+ * through the session keep the cached copy current.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CacheConfig.class, CacheStatisticsService.class, PrincipalCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceEntityCacheTest {
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private FacilityRepository facilityRepository;
+    @Autowired private ParkingSlotRepository slotRepository;
+    @Autowired private CacheStatisticsService cacheStatisticsService;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+    private ParkingSlot slot;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String suffix = String.valueOf(System.nanoTime());
+        user = userRepository.save(User.builder().username("cached" + suffix).email("cached" + suffix + "@example.com")
+                .passwordHash("x").firstName("Cache").lastName("Hit").build());
+        Facility facility = facilityRepository.save(Facility.builder().facilityName("C" + suffix).address("1 Road")
+                .totalSlots(1).manager(user).build());
+        slot = slotRepository.save(ParkingSlot.builder().slotNumber(suffix.substring(suffix.length() - 8))
+                .hourlyRate(2.0).facility(facility).build());
+    }
+
+    @Test
+    void entityLookupsAfterFirstLoadIssueNoSql() {
+        Long facilityId = slot.getFacility().getFacilityId();
+        // IDENTITY inserts don't populate the cache, so the first load of each entity still hits the database
+        userRepository.findById(user.getUserId()).orElseThrow();
+        slotRepository.findById(slot.getSlotId()).orElseThrow();
+        facilityRepository.findById(facilityId).orElseThrow();
+
+        assertEquals(0, statementsIssuedBy(() -> userRepository.findById(user.getUserId()).orElseThrow()));
+        assertEquals(0, statementsIssuedBy(() -> slotRepository.findById(slot.getSlotId()).orElseThrow()));
+        assertEquals(0, statementsIssuedBy(() -> facilityRepository.findById(facilityId).orElseThrow()));
+    }
+
+    @Test
+    void writeThroughSessionRefreshesCachedCopy() {
+        User loaded = userRepository.findById(user.getUserId()).orElseThrow();
+        loaded.setPhone("5550100");
+        userRepository.save(loaded);
+
+        assertEquals("5550100", userRepository.findById(user.getUserId()).orElseThrow().getPhone());
+    }
+
+    @Test
+    void principalLookupIsServedFromQueryCache() {
+        String username = user.getUsername();
+        userRepository.findByUsernameOrEmail(username, username).orElseThrow();
+
+        assertEquals(0, statementsIssuedBy(() -> userRepository.findByUsernameOrEmail(username, username)
+                .orElseThrow()));
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void regionStatisticsReportHits() {
+        userRepository.findById(user.getUserId()).orElseThrow();
+        cacheStatisticsService.reset();
+        userRepository.findById(user.getUserId()).orElseThrow();
+
+        CacheRegionStatsDTO userStats = cacheStatisticsService.getRegionStatistics().stream()
+                .filter(s -> CacheConfig.USER_REGION.equals(s.getRegion()))
+                .findFirst().orElseThrow();
+        assertEquals(1, userStats.getHitCount());
+        assertEquals(0, userStats.getMissCount());
+        assertEquals(1.0, userStats.getHitRatio());
+    }
+
+    private long statementsIssuedBy(Supplier<?> read) {
+        statistics.clear();
+        read.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springapp.security;
+
+import com.example.springapp.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache cache = new PrincipalCache(100, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, UserDetails> loader = username -> {
+        loads.incrementAndGet();
+        if (username.startsWith("missing")) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
+        return new AppUserDetails(User.builder().username(username).role(User.Role.USER).build());
+    };
+
+    @Test
+    void repeatedLookupsLoadOnce() {
+        UserDetails first = cache.get("alice", loader);
+        assertSame(first, cache.get("alice", loader));
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void invalidationForcesReload() {
+        cache.get("alice", loader);
+        cache.invalidate("alice");
+        cache.get("alice", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("missing", loader));
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("missing", loader));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.springapp.security;
+
+import com.example.springapp.model.TokenRevocation;
+import com.example.springapp.repository.TokenRevocationRepository;
+import com.example.springapp.security.jwt.JwtService;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationServiceTest {
+
+    private static final String SECRET = "P3oSAMm4FiDwqtBALWArkS6vLrGAIVnQkRLc241Vbjs=";
+
+    private final JwtService jwtService = new JwtService(SECRET, 3_600_000, "parking-app", 1_000);
+    private final TokenRevocationRepository repository = mock(TokenRevocationRepository.class);
+    private final AtomicLong ids = new AtomicLong();
+
+    private TokenRevocationService newService() {
+        return newService(true);
+    }
+
+    private TokenRevocationService newService(boolean failOpen) {
+        when(repository.save(any(TokenRevocation.class))).thenAnswer(inv -> {
+            TokenRevocation row = inv.getArgument(0);
+            row.setRevocationId(ids.incrementAndGet());
+            return row;
+        });
+        return new TokenRevocationService(repository, 3_600_000, 1_000, 60_000, failOpen, 0);
+    }
+
+    @Test
+    void logoutRevokesOnlyThatToken() {
+        TokenRevocationService service = newService();
+        Claims first = jwtService.parseClaims(jwtService.generateToken(1L, "alice", "USER"));
+        Claims second = jwtService.parseClaims(jwtService.generateToken(1L, "alice", "USER"));
+
+        service.revokeToken(first);
+
+        assertTrue(service.isRevoked(first));
+        assertFalse(service.isRevoked(second));
+    }
+
+    @Test
+    void userCutoffRevokesEarlierTokensOfThatUserOnly() {
+        TokenRevocationService service = newService();
+        Claims alice = jwtService.parseClaims(jwtService.generateToken(1L, "alice", "USER"));
+        Claims bob = jwtService.parseClaims(jwtService.generateToken(2L, "bob", "USER"));
+
+        service.revokeUserTokens(1L);
+
+        assertTrue(service.isRevoked(alice));
+        assertFalse(service.isRevoked(bob));
+    }
+
+    @Test
+    void refreshPicksUpRevocationsFromOtherInstances() {
+        TokenRevocationService service = newService();
+        Claims claims = jwtService.parseClaims(jwtService.generateToken(3L, "carol", "FACILITY_MANAGER"));
+        when(repository.findAfterOrCreatedSince(anyLong(), any())).thenReturn(List.of(userRule(10L, 3L)));
+
+        assertFalse(service.isRevoked(claims));
+        service.refresh();
+        assertTrue(service.isRevoked(claims));
+    }
+
+    @Test
+    void rowCommittedBelowTheCursorIsPickedUpByTheRescan() {
+        TokenRevocationService service = newService();
+        Claims dave = jwtService.parseClaims(jwtService.generateToken(4L, "dave", "USER"));
+        // Id 11 commits first and moves the cursor; id 10 becomes visible only afterwards
+        when(repository.findAfterOrCreatedSince(eq(0L), any())).thenReturn(List.of(userRule(11L, 9L)));
+        service.refresh();
+        when(repository.findAfterOrCreatedSince(eq(11L), any())).thenReturn(List.of(userRule(10L, 4L), userRule(11L, 9L)));
+        service.refresh();
+
+        assertTrue(service.isRevoked(dave));
+        verify(repository).findAfterOrCreatedSince(eq(11L), any());
+    }
+
+    @Test
+    void failedRefreshServesTheLastViewOnlyWhenFailingOpen() {
+        Claims erin = jwtService.parseClaims(jwtService.generateToken(5L, "erin", "USER"));
+        when(repository.findAfterOrCreatedSince(anyLong(), any()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        TokenRevocationService open = newService(true);
+        open.refresh();
+        assertFalse(open.isRevoked(erin));
+
+        TokenRevocationService closed = newService(false);
+        closed.refresh();
+        assertTrue(closed.isRevoked(erin), "a stale view rejects every token when fail-open is off");
+    }
+
+    private static TokenRevocation userRule(long id, long userId) {
+        return TokenRevocation.builder().revocationId(id).type(TokenRevocation.Type.USER).userId(userId)
+                .revokedBefore(LocalDateTime.now().plusSeconds(1))
+                .expiresAt(LocalDateTime.now().plusHours(1)).build();
+    }
+}
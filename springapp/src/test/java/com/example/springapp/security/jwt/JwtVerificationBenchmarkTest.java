@@ -0,0 +1,118 @@
+package com.example.springapp.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares tokens/sec of the old filter path (a fresh parser per claim, three parses per request)
+ * with the single-parse path backed by the verified-claims cache. The timed run is opt-in
+ * ({@code mvn test -Pbenchmark}); the cache behaviour itself is checked in the unit suite.
+ */
+class JwtVerificationBenchmarkTest {
+
+    private static final String SECRET = "P3oSAMm4FiDwqtBALWArkS6vLrGAIVnQkRLc241Vbjs=";
+    private static final int USERS = 1_000;
+    private static final int REQUESTS = 100_000;
+
+    private final JwtService jwtService = new JwtService(SECRET, 3_600_000, "parking-app", 50_000);
+
+    @Test
+    @Tag("benchmark")
+    void singleParseWithClaimsCacheOutperformsTriplePerRequestParse() {
+        String[] tokens = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            tokens[i] = jwtService.generateToken((long) i, "user" + i, "USER");
+        }
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+        // warm-up both paths so neither pays class loading / JIT on the timed run
+        for (int i = 0; i < 5_000; i++) {
+            legacyRequest(key, tokens[i % USERS]);
+            cachedRequest(tokens[i % USERS]);
+        }
+
+        long started = System.nanoTime();
+        int legacyValid = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            legacyValid += legacyRequest(key, tokens[i % USERS]) ? 1 : 0;
+        }
+        double legacySeconds = (System.nanoTime() - started) / 1e9;
+
+        started = System.nanoTime();
+        int cachedValid = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            cachedValid += cachedRequest(tokens[i % USERS]) ? 1 : 0;
+        }
+        double cachedSeconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("jwt tokens/sec legacy=%.0f cached=%.0f speedup=%.1fx%n",
+                REQUESTS / legacySeconds, REQUESTS / cachedSeconds, legacySeconds / cachedSeconds);
+
+        assertEquals(REQUESTS, legacyValid);
+        assertEquals(REQUESTS, cachedValid);
+        assertTrue(cachedSeconds < legacySeconds, "the cached path should be faster");
+    }
+
+    @Test
+    void cachedClaimsMatchVerifiedToken() {
+        String token = jwtService.generateToken(7L, "alice", "FACILITY_MANAGER");
+        Claims first = jwtService.parseClaims(token);
+        Claims second = jwtService.parseClaims(token);
+        assertEquals("alice", second.getSubject());
+        assertEquals("FACILITY_MANAGER", second.get("role", String.class));
+        assertSame(first, second, "the second call is served from the cache without parsing again");
+        assertTrue(jwtService.isTokenValid(token, "alice"));
+    }
+
+    @Test
+    void cachedClaimsCannotBeModifiedByOneRequestForTheNext() {
+        String token = jwtService.generateToken(7L, "alice", "USER");
+        Claims claims = jwtService.parseClaims(token);
+
+        assertThrows(UnsupportedOperationException.class, () -> claims.put("role", "SYSTEM_ADMIN"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.setSubject("mallory"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.remove("role"));
+        assertThrows(UnsupportedOperationException.class, () -> claims.entrySet().clear());
+        assertEquals("USER", jwtService.parseClaims(token).get("role", String.class));
+    }
+
+    @Test
+    void tamperedAndExpiredTokensAreRejected() {
+        String token = jwtService.generateToken(7L, "alice", "USER");
+        jwtService.parseClaims(token);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtService.parseClaims(tampered));
+
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        String expired = Jwts.builder().setSubject("alice")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000)).signWith(key).compact();
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseClaims(expired));
+    }
+
+    // What JwtAuthenticationFilter did before: subject, subject again, then expiration, each a full parse
+    private static boolean legacyRequest(SecretKey key, String token) {
+        String username = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        String subject = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+        Date exp = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getExpiration();
+        return subject.equals(username) && !exp.before(new Date());
+    }
+
+    private boolean cachedRequest(String token) {
+        Claims claims = jwtService.parseClaims(token);
+        return jwtService.isTokenValid(claims, claims.getSubject());
+    }
+}
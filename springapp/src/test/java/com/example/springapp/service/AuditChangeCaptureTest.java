@@ -0,0 +1,86 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.UserDTO;
+import com.example.springapp.model.AuditLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AuditChangeCaptureTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditChangeCapture capture = new AuditChangeCapture(objectMapper);
+
+    @Test
+    void diffListsOnlyChangedProperties() throws Exception {
+        UserDTO before = user("alice", "alice@example.com", "555-0100");
+        UserDTO after = user("alice", "alice@new.example.com", null);
+        after.setRole("ADMIN");
+
+        JsonNode ops = objectMapper.readTree(capture.diff(before, after));
+
+        assertEquals(3, ops.size());
+        assertEquals(Map.of("op", "replace", "path", "/email", "value", "alice@new.example.com"),
+                objectMapper.convertValue(ops.get(0), Map.class));
+        assertEquals(Map.of("op", "remove", "path", "/phone"), objectMapper.convertValue(ops.get(1), Map.class));
+        assertEquals(Map.of("op", "add", "path", "/role", "value", "ADMIN"),
+                objectMapper.convertValue(ops.get(2), Map.class));
+    }
+
+    @Test
+    void creationAddsOnlySetPropertiesAndUnchangedIsEmpty() throws Exception {
+        UserDTO created = user("bob", "bob@example.com", null);
+
+        JsonNode ops = objectMapper.readTree(capture.diff(null, created));
+        for (JsonNode op : ops) {
+            assertEquals("add", op.get("op").asText());
+        }
+        assertEquals("[]", capture.diff(created, user("bob", "bob@example.com", null)));
+    }
+
+    @Test
+    void nestedKeysAreEscapedAndArraysReplacedWhole() throws Exception {
+        Map<String, Object> before = Map.of("a/b", Map.of("x", 1), "tags", List.of("p", "q"));
+        Map<String, Object> after = Map.of("a/b", Map.of("x", 2), "tags", List.of("p"));
+
+        JsonNode ops = objectMapper.readTree(capture.diff(before, after));
+
+        assertEquals(2, ops.size());
+        for (JsonNode op : ops) {
+            String path = op.get("path").asText();
+            if (path.startsWith("/a~1b")) {
+                assertEquals("/a~1b/x", path);
+            } else {
+                assertEquals("/tags", path);
+                assertEquals(1, op.get("value").size());
+            }
+        }
+    }
+
+    @Test
+    void materializeRendersAndClearsPendingChange() {
+        AuditLog event = AuditLog.builder().action("USER_UPDATED")
+                .pendingChange(new AuditLog.PendingChange(user("a", "a@x", null), user("b", "a@x", null)))
+                .build();
+
+        capture.materialize(List.of(event));
+
+        assertNull(event.getPendingChange());
+        assertEquals("[{\"op\":\"replace\",\"path\":\"/username\",\"value\":\"b\"}]", event.getChanges());
+    }
+
+    private static UserDTO user(String username, String email, String phone) {
+        UserDTO dto = new UserDTO();
+        dto.setUserId(7L);
+        dto.setUsername(username);
+        dto.setEmail(email);
+        dto.setPhone(phone);
+        return dto;
+    }
+}
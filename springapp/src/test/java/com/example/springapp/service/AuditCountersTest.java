@@ -0,0 +1,125 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AuditDashboardDTO;
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.repository.AuditCounterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Two {@link AuditCounters} on one audit_counter table stand in for two instances. */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditCountersTest {
+
+    @TempDir
+    Path dir;
+
+    @Autowired private AuditCounterRepository repository;
+    @Autowired private TransactionTemplate tx;
+
+    private SegmentAuditStore store;
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+
+    @BeforeEach
+    void openStore() throws Exception {
+        repository.deleteAll();
+        store = new SegmentAuditStore(dir.toString(), 1 << 20, 3_600_000, false);
+        store.open();
+    }
+
+    @AfterEach
+    void closeStore() throws Exception {
+        store.close();
+    }
+
+    @Test
+    void seedsAnEmptyTableOnceAndAddsEveryInstancesCounts() {
+        store.appendBatch(events(now, 4));
+        AuditCounters first = new AuditCounters(store, repository, tx);
+        first.load();
+        AuditCounters second = new AuditCounters(store, repository, tx);
+        second.load();
+        assertEquals(4, first.getDashboard().getTotal());
+        assertEquals(4, second.getDashboard().getTotal(), "the second instance doesn't seed again");
+
+        List<AuditLog> a = events(now.plusMinutes(1), 6);
+        store.appendBatch(a);
+        first.record(a);
+        List<AuditLog> b = events(now.plusMinutes(1), 3);
+        store.appendBatch(b);
+        second.record(b);
+        assertEquals(7, second.getDashboard().getTotal(), "the other instance's writes arrive with its flush");
+
+        first.persist();
+        second.persist();
+        first.persist();
+
+        for (AuditCounters counters : List.of(first, second)) {
+            AuditDashboardDTO dashboard = counters.getDashboard();
+            assertEquals(13, dashboard.getTotal());
+            assertEquals(5L, dashboard.getBySeverity().get("LOW"));
+            assertEquals(7L, dashboard.getByAction().get("LOGIN"));
+            assertEquals(4L, dashboard.getPerMinute().get(now));
+            assertEquals(9L, dashboard.getPerMinute().get(now.plusMinutes(1)));
+        }
+        AuditCounters restarted = new AuditCounters(store, repository, tx);
+        restarted.load();
+        assertEquals(13, restarted.getDashboard().getTotal());
+    }
+
+    @Test
+    void droppedMonthIsSubtractedOnce() {
+        AuditCounters first = new AuditCounters(store, repository, tx);
+        first.load();
+        AuditCounters second = new AuditCounters(store, repository, tx);
+        second.load();
+        LocalDateTime lastMonth = now.minusMonths(1);
+        List<AuditLog> old = events(lastMonth, 5);
+        List<AuditLog> recent = events(now, 2);
+        store.appendBatch(old);
+        store.appendBatch(recent);
+        first.record(old);
+        second.record(recent);
+        first.persist();
+        second.persist();
+
+        AuditPartitionDroppedEvent drop = new AuditPartitionDroppedEvent(YearMonth.from(lastMonth));
+        first.onPartitionDropped(drop);
+        second.onPartitionDropped(drop);
+
+        for (AuditCounters counters : List.of(first, second)) {
+            AuditDashboardDTO dashboard = counters.getDashboard();
+            assertEquals(2, dashboard.getTotal());
+            assertEquals(1L, dashboard.getByAction().get("LOGIN"));
+            assertEquals(1L, counters.countBySeverity(AuditLog.Severity.LOW));
+        }
+    }
+
+    private static List<AuditLog> events(LocalDateTime at, int count) {
+        AuditLog.Severity[] severities = AuditLog.Severity.values();
+        List<AuditLog> out = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            out.add(AuditLog.builder().username("u").action(i % 2 == 0 ? "LOGIN" : "UPDATE").resource("r")
+                    .severity(severities[i % severities.length]).timestamp(at.plusSeconds(i)).build());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AuditPipelineStatsDTO;
+import com.example.springapp.exception.AuditAppendException;
+import com.example.springapp.model.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Drives the pipeline without its writer thread (except for the shutdown test), so the ring
+ * fills deterministically and {@link AuditPipeline#flushAll()} does the writing.
+ */
+class AuditPipelineTest {
+
+    @TempDir
+    Path dir;
+
+    private final AuditStore store = mock(AuditStore.class);
+    private final AuditSearchIndex searchIndex = mock(AuditSearchIndex.class);
+    private final AuditCounters counters = mock(AuditCounters.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<String> stored = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void storeRecordsEveryBatch() {
+        doAnswer(inv -> {
+            List<AuditLog> batch = inv.getArgument(0);
+            batch.forEach(e -> {
+                e.setAuditId(ids.incrementAndGet());
+                stored.add(e.getDetails());
+            });
+            return null;
+        }).when(store).appendBatch(anyList());
+    }
+
+    @Test
+    void dropLowSeverityShedsLowEventsAtOnceAndOthersAfterTheTimeout() {
+        AuditPipeline pipeline = pipeline(AuditPipeline.OverflowPolicy.DROP_LOW_SEVERITY);
+        pipeline.submit(event("a", AuditLog.Severity.MEDIUM));
+        pipeline.submit(event("b", AuditLog.Severity.MEDIUM));
+        pipeline.submit(event("c", AuditLog.Severity.LOW));
+        pipeline.submit(event("d", AuditLog.Severity.HIGH));
+
+        pipeline.flushAll();
+
+        assertEquals(List.of("a", "b"), stored);
+        AuditPipelineStatsDTO stats = pipeline.getStats();
+        assertEquals(4, stats.getSubmitted());
+        assertEquals(2, stats.getWritten());
+        assertEquals(2, stats.getDropped());
+    }
+
+    @Test
+    void blockDropsWhatTheWriterCannotTakeInTime() {
+        AuditPipeline pipeline = pipeline(AuditPipeline.OverflowPolicy.BLOCK);
+        for (String details : List.of("a", "b", "c")) {
+            pipeline.submit(event(details, AuditLog.Severity.LOW));
+        }
+
+        pipeline.flushAll();
+
+        assertEquals(List.of("a", "b"), stored);
+        assertEquals(1, pipeline.getStats().getDropped());
+    }
+
+    @Test
+    void overflowIsSpilledAndReplayedInOrder() {
+        AuditPipeline pipeline = pipeline(AuditPipeline.OverflowPolicy.SPILL_TO_DISK);
+        for (String details : List.of("a", "b", "c", "d")) {
+            pipeline.submit(event(details, AuditLog.Severity.LOW));
+        }
+        assertTrue(Files.exists(spillFile()));
+        assertTrue(pipeline.getStats().isSpillPending());
+
+        pipeline.flushAll();
+
+        assertEquals(List.of("a", "b", "c", "d"), stored);
+        AuditPipelineStatsDTO stats = pipeline.getStats();
+        assertEquals(2, stats.getSpilled());
+        assertEquals(4, stats.getWritten());
+        assertEquals(0, stats.getDropped());
+        assertFalse(stats.isSpillPending());
+        assertFalse(Files.exists(spillFile()));
+    }
+
+    @Test
+    void spillLeftByAnEarlierRunIsReplayed() throws IOException {
+        AuditPipeline previous = pipeline(AuditPipeline.OverflowPolicy.SPILL_TO_DISK);
+        for (String details : List.of("a", "b", "c")) {
+            previous.submit(event(details, AuditLog.Severity.LOW));
+        }
+        // The process dies before the writer replays the spill
+        assertTrue(Files.size(spillFile()) > 0);
+
+        AuditPipeline restarted = pipeline(AuditPipeline.OverflowPolicy.SPILL_TO_DISK);
+        restarted.flushAll();
+
+        assertEquals(List.of("c"), stored);
+        assertEquals(1, restarted.getStats().getWritten());
+    }
+
+    @Test
+    void partialFailureSpillsOnlyTheUnwrittenEvents() {
+        doAnswer(inv -> {
+            List<AuditLog> batch = inv.getArgument(0);
+            batch.get(0).setAuditId(ids.incrementAndGet());
+            stored.add(batch.get(0).getDetails());
+            batch.get(1).setAuditId(ids.incrementAndGet());
+            throw new AuditAppendException(1, 0, new IOException("disk full"));
+        }).doAnswer(inv -> {
+            List<AuditLog> batch = inv.getArgument(0);
+            batch.forEach(e -> stored.add(e.getDetails()));
+            return null;
+        }).when(store).appendBatch(anyList());
+        AuditPipeline pipeline = pipeline(AuditPipeline.OverflowPolicy.SPILL_TO_DISK, 4);
+        for (String details : List.of("a", "b", "c")) {
+            pipeline.submit(event(details, AuditLog.Severity.MEDIUM));
+        }
+
+        pipeline.flushAll();
+
+        // b comes back from the spill after c; a is not written twice
+        assertEquals(List.of("a", "c", "b"), stored);
+        AuditPipelineStatsDTO stats = pipeline.getStats();
+        assertEquals(1, stats.getSpilled());
+        assertEquals(3, stats.getWritten());
+        assertEquals(0, stats.getFailed());
+        verify(searchIndex).addAll(argThat(events -> events.size() == 1 && "a".equals(events.get(0).getDetails())));
+    }
+
+    @Test
+    void failedBatchesAreCountedWhenNotSpilling() {
+        doAnswer(inv -> {
+            throw new IllegalStateException("database down");
+        }).when(store).appendBatch(anyList());
+        AuditPipeline pipeline = pipeline(AuditPipeline.OverflowPolicy.DROP_LOW_SEVERITY);
+        pipeline.submit(event("a", AuditLog.Severity.HIGH));
+        pipeline.submit(event("b", AuditLog.Severity.HIGH));
+
+        pipeline.flushAll();
+
+        AuditPipelineStatsDTO stats = pipeline.getStats();
+        assertEquals(2, stats.getFailed());
+        assertEquals(0, stats.getWritten());
+        verify(searchIndex, never()).addAll(anyList());
+        verify(counters, never()).record(anyList());
+    }
+
+    @Test
+    void rejectedEventIsCountedOnceInsteadOfRespilledForever() {
+        doAnswer(inv -> {
+            throw new AuditAppendException(0, 1, new IllegalArgumentException("too large"));
+        }).doAnswer(inv -> {
+            List<AuditLog> batch = inv.getArgument(0);
+            batch.forEach(e -> stored.add(e.getDetails()));
+            return null;
+        }).when(store).appendBatch(anyList());
+        AuditPipeline pipeline = pipeline(AuditPipeline.OverflowPolicy.SPILL_TO_DISK, 4);
+        pipeline.submit(event("huge", AuditLog.Severity.LOW));
+        pipeline.submit(event("b", AuditLog.Severity.LOW));
+
+        pipeline.flushAll();
+
+        assertEquals(List.of("b"), stored);
+        assertEquals(1, pipeline.getStats().getFailed());
+        assertEquals(1, pipeline.getStats().getWritten());
+    }
+
+    @Test
+    void shutdownFlushesEverythingQueued() {
+        AuditPipeline pipeline = pipeline(AuditPipeline.OverflowPolicy.BLOCK, 1024);
+        pipeline.start();
+        for (int i = 0; i < 500; i++) {
+            pipeline.submit(event("e" + i, AuditLog.Severity.LOW));
+        }
+
+        pipeline.stop();
+
+        assertEquals(500, stored.size());
+        assertEquals(500, pipeline.getStats().getWritten());
+        assertEquals(0, pipeline.getStats().getQueueDepth());
+    }
+
+    private AuditPipeline pipeline(AuditPipeline.OverflowPolicy policy) {
+        return pipeline(policy, 2);
+    }
+
+    private AuditPipeline pipeline(AuditPipeline.OverflowPolicy policy, int capacity) {
+        return new AuditPipeline(store, searchIndex, mock(AuditChangeCapture.class), counters, objectMapper,
+                capacity, 2, 1, policy, 1, spillFile().toString());
+    }
+
+    private Path spillFile() {
+        return dir.resolve("audit-spill.ndjson");
+    }
+
+    private static AuditLog event(String details, AuditLog.Severity severity) {
+        return AuditLog.builder().username("u").action("TEST").resource("Audit").severity(severity)
+                .ipAddress("127.0.0.1").sessionId("s").details(details).timestamp(LocalDateTime.now()).build();
+    }
+}
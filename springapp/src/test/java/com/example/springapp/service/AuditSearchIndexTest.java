@@ -0,0 +1,129 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditSearchIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final String[] USERS = {"alice", "Malika", "bob", "robert"};
+    private static final String[] ACTIONS = {"LOGIN", "UPDATE", "DELETE"};
+
+    @TempDir
+    Path dir;
+
+    private SegmentAuditStore store;
+
+    @BeforeEach
+    void openStore() throws Exception {
+        store = new SegmentAuditStore(dir.toString(), 1 << 20, 3_600_000, false);
+        store.open();
+    }
+
+    @AfterEach
+    void closeStore() throws Exception {
+        store.close();
+    }
+
+    @Test
+    void substringExactAndTextCriteriaIntersectNewestFirst() {
+        store.appendBatch(events(0, 120));
+        AuditSearchIndex index = new AuditSearchIndex(store, 50, 60_000);
+        index.rebuild();
+
+        // "ali" matches alice and Malika; results are the newest ids of either
+        List<Long> ali = index.search("ALI", null, null, null, 5);
+        assertEquals(List.of(118L, 117L, 114L, 113L, 110L), ali);
+
+        // Short queries fall back to scanning the username dictionary
+        assertEquals(60, index.search("b", null, null, null, 1000).size());
+
+        List<Long> bobDeletes = index.search("bob", "delete", null, null, 1000);
+        for (AuditLog event : store.findByIds(bobDeletes)) {
+            assertEquals("bob", event.getUsername());
+            assertEquals("DELETE", event.getAction());
+        }
+        assertEquals(10, bobDeletes.size());
+
+        assertEquals(List.of(43L), index.search(null, null, null, "slot 42", 10));
+        assertTrue(index.search("nobody", null, null, null, 10).isEmpty());
+        assertTrue(index.search(null, null, null, null, 10).isEmpty());
+    }
+
+    @Test
+    void catchesUpWithWriterBatchesAfterRebuild() {
+        store.appendBatch(events(0, 10));
+        AuditSearchIndex index = new AuditSearchIndex(store, 3, 60_000);
+        index.rebuild();
+        assertEquals(10, index.indexedCount());
+
+        List<AuditLog> more = events(10, 10);
+        store.appendBatch(more);
+        index.addAll(more);
+
+        assertEquals(20, index.indexedCount());
+        assertEquals(List.of(20L, 16L), index.search("robert", null, "booking", null, 2));
+    }
+
+    @Test
+    void syncPicksUpEventsWrittenElsewhereInIdOrder() {
+        store.appendBatch(events(0, 10));
+        AuditSearchIndex index = new AuditSearchIndex(store, 3, 60_000);
+        index.rebuild();
+
+        // Another instance writes 11..20; this instance's writer only indexed 19 and 20 so far
+        List<AuditLog> more = events(10, 10);
+        store.appendBatch(more);
+        index.addAll(more.subList(8, 10));
+        assertEquals(12, index.indexedCount());
+
+        index.sync();
+
+        assertEquals(20, index.indexedCount());
+        assertEquals(List.of(20L, 16L, 12L, 8L), index.search("robert", null, null, null, 4));
+        index.sync();
+        assertEquals(20, index.indexedCount(), "a second sync adds nothing twice");
+    }
+
+    @Test
+    void droppedMonthIsPrunedFromEveryField() {
+        store.appendBatch(events(BASE.minusMonths(1), 0, 8));
+        store.appendBatch(events(0, 8));
+        AuditSearchIndex index = new AuditSearchIndex(store, 5, 60_000);
+        index.rebuild();
+        assertEquals(16, index.indexedCount());
+
+        index.onPartitionDropped(new AuditPartitionDroppedEvent(YearMonth.from(BASE.minusMonths(1))));
+
+        assertEquals(8, index.indexedCount());
+        assertEquals(List.of(13L, 9L), index.search("alice", null, null, null, 10));
+        assertEquals(List.of(9L), index.search(null, null, "booking", "slot 0", 10));
+        assertTrue(index.search(null, null, null, "slot 7", 10).stream().allMatch(id -> id > 8));
+    }
+
+    private static List<AuditLog> events(int from, int count) {
+        return events(BASE, from, count);
+    }
+
+    private static List<AuditLog> events(LocalDateTime start, int from, int count) {
+        List<AuditLog> out = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            out.add(AuditLog.builder().username(USERS[i % USERS.length]).action(ACTIONS[i % ACTIONS.length])
+                    .resource("Booking").severity(AuditLog.Severity.LOW).timestamp(start.plusMinutes(i))
+                    .details("{\"slot\":\"" + i + "\"}").build());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Appends the same events in pipeline-sized batches to the segment store and to the JPA store on
+ * the embedded database, then runs the same one-hour range scan against each. Tagged
+ * {@code benchmark}, so it only runs with {@code mvn test -Pbenchmark}.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(JpaAuditStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditStoreBenchmarkTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2031, 1, 1, 0, 0);
+    private static final int EVENTS = 50_000;
+    private static final int BATCH = 200;
+
+    @Autowired
+    private JpaAuditStore jpaStore;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Tag("benchmark")
+    void segmentStoreAgainstJpa() throws Exception {
+        SegmentAuditStore segmentStore = new SegmentAuditStore(dir.toString(), 16 << 20, 3_600_000, false);
+        segmentStore.open();
+        try {
+            long[] segment = run("segment", segmentStore);
+            long[] jpa = run("jpa", jpaStore);
+
+            System.out.printf("append speedup=%.1fx range-scan speedup=%.1fx%n",
+                    (double) jpa[0] / Math.max(1, segment[0]), (double) jpa[1] / Math.max(1, segment[1]));
+            assertTrue(segment[0] < jpa[0], "segment appends should beat JPA inserts");
+        } finally {
+            segmentStore.close();
+        }
+    }
+
+    /** Returns {appendNanos, scanNanos}. */
+    private static long[] run(String name, AuditStore store) {
+        List<AuditLog> events = events();
+        long t0 = System.nanoTime();
+        for (int i = 0; i < EVENTS; i += BATCH) {
+            store.appendBatch(events.subList(i, Math.min(EVENTS, i + BATCH)));
+        }
+        long appendNanos = System.nanoTime() - t0;
+
+        long t1 = System.nanoTime();
+        List<AuditLog> lastHour = store.findByTimestampBetween(BASE.plusMinutes(EVENTS - 60),
+                BASE.plusMinutes(EVENTS - 1));
+        long scanNanos = System.nanoTime() - t1;
+
+        System.out.printf("%s: %d appends in %d ms (%.0f events/sec), 60-row range scan over %d rows in %d us%n",
+                name, EVENTS, appendNanos / 1_000_000, EVENTS / (appendNanos / 1e9), EVENTS, scanNanos / 1000);
+        assertEquals(60, lastHour.size());
+        return new long[]{appendNanos, scanNanos};
+    }
+
+    private static List<AuditLog> events() {
+        AuditLog.Severity[] severities = AuditLog.Severity.values();
+        List<AuditLog> out = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            out.add(AuditLog.builder().username("bench" + (i % 50)).action("UPDATE").resource("Booking")
+                    .severity(severities[i % severities.length]).ipAddress("10.0.0." + (i % 250))
+                    .sessionId("s" + (i % 100)).timestamp(BASE.plusMinutes(i)).details("{\"i\":" + i + "}").build());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AuthResponse;
+import com.example.springapp.dto.LoginRequest;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.UserRepository;
+import com.example.springapp.security.PasswordVerifier;
+import com.example.springapp.security.TokenRevocationService;
+import com.example.springapp.security.jwt.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceLoginTest {
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final LastLoginWriteBehind lastLogins = mock(LastLoginWriteBehind.class);
+    private final AuthService authService = new AuthService(userRepository, encoder,
+            new PasswordVerifier(encoder, 2, 16),
+            lastLogins,
+            new JwtService("P3oSAMm4FiDwqtBALWArkS6vLrGAIVnQkRLc241Vbjs=", 3_600_000, "parking-app", 100),
+            mock(TokenRevocationService.class));
+
+    private User user(boolean active) {
+        User user = User.builder().userId(5L).username("alice").email("alice@example.com")
+                .passwordHash(encoder.encode("secret")).role(User.Role.USER).isActive(active).build();
+        when(userRepository.findByUsernameOrEmail(anyString(), anyString())).thenReturn(Optional.of(user));
+        return user;
+    }
+
+    @Test
+    void loginLooksUpOnceAndDefersLastLogin() throws Exception {
+        user(true);
+        AuthResponse response = authService.login(request("alice", "secret")).get();
+
+        assertEquals("alice", response.getUsername());
+        verify(userRepository, times(1)).findByUsernameOrEmail("alice", "alice");
+        verify(userRepository, never()).save(any());
+        verify(lastLogins).record(eq(5L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void wrongPasswordAndUnknownUserAreRejected() {
+        user(true);
+        ExecutionException wrong = assertThrows(ExecutionException.class,
+                () -> authService.login(request("alice", "nope")).get());
+        assertInstanceOf(BadCredentialsException.class, wrong.getCause());
+
+        when(userRepository.findByUsernameOrEmail(anyString(), anyString())).thenReturn(Optional.empty());
+        ExecutionException unknown = assertThrows(ExecutionException.class,
+                () -> authService.login(request("ghost", "secret")).get());
+        assertInstanceOf(BadCredentialsException.class, unknown.getCause());
+        verify(lastLogins, never()).record(any(), any());
+    }
+
+    @Test
+    void disabledUserIsRejected() {
+        user(false);
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> authService.login(request("alice", "secret")).get());
+        assertInstanceOf(DisabledException.class, e.getCause());
+    }
+
+    private static LoginRequest request(String username, String password) {
+        LoginRequest req = new LoginRequest();
+        req.setUsernameOrEmail(username);
+        req.setPassword(password);
+        return req;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.BookingDTO;
+import com.example.springapp.exception.BookingConflictException;
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.PaymentRepository;
+import com.example.springapp.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Hammers a handful of popular slots from many threads. Repositories are in-memory stubs so
+ * the numbers reflect the locking and overlap logic rather than the database. The full run,
+ * which reports bookings/sec and rejection latency, is tagged {@code benchmark} and only runs
+ * with {@code mvn test -Pbenchmark}.
+ */
+class BookingContentionBenchmarkTest {
+
+    private static final int SLOTS = 8;
+    private static final int THREADS = 64;
+
+    private final Map<Long, List<Booking>> bookingsBySlot = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @Test
+    void concurrentRequestsForPopularSlotsNeverOverlap() throws Exception {
+        int requests = 2_000;
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        hammer(newService(), requests, accepted, rejected, new long[requests]);
+
+        assertEquals(requests, accepted.get() + rejected.get());
+        assertTrue(accepted.get() > 0);
+        bookingsBySlot.values().forEach(BookingContentionBenchmarkTest::assertNoOverlap);
+    }
+
+    @Test
+    void requestsWithoutSlotOrWithUnknownStatusAreRejectedBeforeLocking() {
+        BookingService service = newService();
+        BookingDTO noSlot = request(null, LocalDateTime.of(2030, 1, 1, 9, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.createBooking(noSlot));
+
+        BookingDTO badStatus = request(1L, LocalDateTime.of(2030, 1, 1, 9, 0));
+        badStatus.setStatus("PARKED");
+        assertThrows(IllegalArgumentException.class, () -> service.createBooking(badStatus));
+        assertThrows(IllegalArgumentException.class,
+                () -> new SlotLockManager(16, 100).withSlotLocks(new Long[]{1L, null}, () -> null));
+
+        BookingDTO noStatus = request(1L, LocalDateTime.of(2030, 1, 1, 9, 0));
+        noStatus.setStatus(null);
+        assertEquals("CONFIRMED", service.createBooking(noStatus).getStatus());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void popularSlotsUnderContention() throws Exception {
+        int requests = 20_000;
+        AtomicInteger accepted = new AtomicInteger();
+        long[] rejectionNanos = new long[requests];
+        AtomicInteger rejected = new AtomicInteger();
+
+        long started = System.nanoTime();
+        hammer(newService(), requests, accepted, rejected, rejectionNanos);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        long[] latencies = Arrays.copyOf(rejectionNanos, rejected.get());
+        Arrays.sort(latencies);
+        System.out.printf("bookings/sec=%.0f requests/sec=%.0f accepted=%d rejected=%d "
+                        + "rejection p50=%dus p99=%dus%n",
+                accepted.get() / seconds, requests / seconds, accepted.get(), rejected.get(),
+                percentile(latencies, 0.50) / 1000, percentile(latencies, 0.99) / 1000);
+
+        assertEquals(requests, accepted.get() + rejected.get());
+        bookingsBySlot.values().forEach(BookingContentionBenchmarkTest::assertNoOverlap);
+    }
+
+    private static void hammer(BookingService service, int requests, AtomicInteger accepted,
+                               AtomicInteger rejected, long[] rejectionNanos) throws InterruptedException {
+        LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < requests; i++) {
+            pool.execute(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                BookingDTO dto = request(1L + rnd.nextInt(SLOTS), day.plusMinutes(15L * rnd.nextInt(96)));
+                dto.setEndTime(dto.getStartTime().plusMinutes(15L * (1 + rnd.nextInt(8))));
+                long t0 = System.nanoTime();
+                try {
+                    service.createBooking(dto);
+                    accepted.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    rejectionNanos[rejected.getAndIncrement()] = System.nanoTime() - t0;
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+    }
+
+    private static BookingDTO request(Long slotId, LocalDateTime start) {
+        BookingDTO dto = new BookingDTO();
+        dto.setUserId(1L);
+        dto.setSlotId(slotId);
+        dto.setVehicleNumber("KA01AB1234");
+        dto.setStatus("CONFIRMED");
+        dto.setStartTime(start);
+        dto.setEndTime(start.plusHours(1));
+        return dto;
+    }
+
+    private BookingService newService() {
+        User user = User.builder().userId(1L).username("bench").build();
+        Map<Long, ParkingSlot> slots = new ConcurrentHashMap<>();
+        for (long id = 1; id <= SLOTS; id++) {
+            slots.put(id, ParkingSlot.builder().slotId(id).slotNumber("S" + id).build());
+            bookingsBySlot.put(id, new ArrayList<>());
+        }
+
+        UserRepository users = mock(UserRepository.class, withSettings().stubOnly());
+        when(users.findById(anyLong())).thenReturn(Optional.of(user));
+
+        ParkingSlotRepository slotRepository = mock(ParkingSlotRepository.class, withSettings().stubOnly());
+        when(slotRepository.findByIdForUpdate(anyLong()))
+                .thenAnswer(inv -> Optional.ofNullable(slots.get(inv.<Long>getArgument(0))));
+
+        BookingRepository bookings = mock(BookingRepository.class, withSettings().stubOnly());
+        when(bookings.existsOverlapping(anyLong(), any(), any(), any(), any())).thenAnswer(inv -> {
+            LocalDateTime start = inv.getArgument(1);
+            LocalDateTime end = inv.getArgument(2);
+            return bookingsBySlot.get(inv.<Long>getArgument(0)).stream()
+                    .anyMatch(b -> b.getStartTime().isBefore(end) && b.getEndTime().isAfter(start));
+        });
+        when(bookings.save(any(Booking.class))).thenAnswer(inv -> {
+            Booking b = inv.getArgument(0);
+            b.setBookingId(ids.incrementAndGet());
+            bookingsBySlot.get(b.getSlot().getSlotId()).add(b);
+            return b;
+        });
+
+        SlotAvailabilityIndex index = new SlotAvailabilityIndex(bookings, slotRepository);
+        slots.values().forEach(index::registerSlot);
+
+        TransactionTemplate tx = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        return new BookingService(bookings, users, slotRepository, mock(PaymentRepository.class),
+                new SlotLockManager(1024, 5000), tx, index, new SlotHoldRegistry(index, 1000, 600, 1000));
+    }
+
+    private static void assertNoOverlap(List<Booking> bookings) {
+        List<Booking> sorted = new ArrayList<>(bookings);
+        sorted.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(!sorted.get(i).getStartTime().isBefore(sorted.get(i - 1).getEndTime()),
+                    "overlapping bookings on slot " + sorted.get(i).getSlot().getSlotId());
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * p)];
+    }
+}
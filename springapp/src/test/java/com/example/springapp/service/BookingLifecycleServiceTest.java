@@ -0,0 +1,169 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.BookingDTO;
+import com.example.springapp.mapper.BookingMapper;
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.Facility;
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.BookingHistoryRepository;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.FacilityRepository;
+import com.example.springapp.repository.NotificationRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the scheduler batches against the embedded database with a batch size of two, so
+ * {@code drain} has to loop to work off the backlog.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({BookingLifecycleService.class, SlotAvailabilityIndex.class, NotificationStreamService.class,
+        UnreadNotificationCounters.class, NotificationCoalescer.class, BookingService.class, SlotLockManager.class,
+        SlotHoldRegistry.class, FacilityAvailabilityBitmaps.class})
+@TestPropertySource(properties = {"app.lifecycle.batch-size=2", "app.lifecycle.reminder-lead-minutes=30",
+        "app.lifecycle.no-show-grace-minutes=15"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingLifecycleServiceTest {
+
+    @Autowired private BookingLifecycleService lifecycle;
+    @Autowired private BookingService bookingService;
+    @Autowired private SlotAvailabilityIndex availabilityIndex;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private BookingHistoryRepository historyRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private FacilityRepository facilityRepository;
+    @Autowired private ParkingSlotRepository slotRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+    private User user;
+    private final List<ParkingSlot> slots = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        String suffix = String.valueOf(System.nanoTime());
+        user = userRepository.save(User.builder().username("life" + suffix).email("life" + suffix + "@example.com")
+                .passwordHash("x").firstName("Life").lastName("Cycle").build());
+        Facility facility = facilityRepository.save(Facility.builder().facilityName("L" + suffix).address("1 Road")
+                .totalSlots(6).manager(user).build());
+        for (int i = 0; i < 6; i++) {
+            slots.add(slotRepository.save(ParkingSlot.builder().slotNumber("L" + suffix.substring(suffix.length() - 6) + i)
+                    .hourlyRate(2.0).facility(facility).build()));
+        }
+    }
+
+    @Test
+    void remindsMarksOverdueAndReleasesNoShowsInBatches() {
+        List<Booking> upcoming = List.of(
+                booking(0, Booking.Status.CONFIRMED, now.plusMinutes(10), now.plusHours(1)),
+                booking(1, Booking.Status.CONFIRMED, now.plusMinutes(20), now.plusHours(1)),
+                booking(2, Booking.Status.CONFIRMED, now.plusMinutes(25), now.plusHours(1)));
+        Booking overdue = booking(3, Booking.Status.ACTIVE, now.minusHours(2), now.minusMinutes(5));
+        Booking noShow = booking(4, Booking.Status.CONFIRMED, now.minusHours(2), now.minusMinutes(30));
+        Booking withinGrace = booking(5, Booking.Status.CONFIRMED, now.minusHours(1), now.minusMinutes(5));
+        availabilityIndex.rebuild();
+
+        lifecycle.runCycle();
+
+        upcoming.forEach(b -> assertTrue(reload(b).isReminderSent()));
+        assertEquals(Booking.Status.OVERDUE, reload(overdue).getStatus());
+        assertEquals(Booking.Status.CANCELLED, reload(noShow).getStatus());
+        assertEquals(Booking.Status.CONFIRMED, reload(withinGrace).getStatus());
+        assertTrue(slotRepository.findById(noShow.getSlot().getSlotId()).orElseThrow().isAvailable(),
+                "the no-show's slot is released");
+
+        List<Notification> notifications = notificationRepository.findByUserUserId(user.getUserId());
+        assertEquals(3, notifications.stream().filter(n -> n.getType() == Notification.Type.REMINDER).count());
+        assertEquals(2, notifications.stream().filter(n -> n.getType() == Notification.Type.ALERT).count());
+        assertEquals(2, historyRepository.count());
+
+        // Overdue cars keep their slot past the booked end; released no-shows don't
+        assertEquals(overdue.getBookingId(), availabilityIndex.occupantAt(overdue.getSlot().getSlotId(), now));
+        assertFalse(availabilityIndex.isFree(overdue.getSlot().getSlotId(), now.plusHours(1), now.plusHours(2)));
+        assertNull(availabilityIndex.occupantAt(noShow.getSlot().getSlotId(), now.minusHours(1)));
+
+        // Nothing left to do: a second tick changes nothing
+        lifecycle.runCycle();
+        assertEquals(5, notificationRepository.findByUserUserId(user.getUserId()).size());
+        assertEquals(2, historyRepository.count());
+    }
+
+    @Test
+    void overdueBookingsSurviveAnIndexRebuild() {
+        Booking overdue = booking(0, Booking.Status.OVERDUE, now.minusHours(3), now.minusHours(1));
+        availabilityIndex.rebuild();
+
+        assertEquals(overdue.getBookingId(), availabilityIndex.occupantAt(overdue.getSlot().getSlotId(), now));
+    }
+
+    @Test
+    void slotsOfFinishedBookingsAreFreedUnlessAnotherBookingHoldsThem() {
+        occupy(0);
+        occupy(1);
+        booking(0, Booking.Status.COMPLETED, now.minusHours(2), now.minusMinutes(1));
+        booking(1, Booking.Status.COMPLETED, now.minusHours(3), now.minusHours(2));
+        booking(1, Booking.Status.ACTIVE, now.minusHours(1), now.plusHours(1));
+
+        lifecycle.runCycle();
+
+        assertTrue(slotRepository.findById(slots.get(0).getSlotId()).orElseThrow().isAvailable());
+        assertFalse(slotRepository.findById(slots.get(1).getSlotId()).orElseThrow().isAvailable(),
+                "the active booking still holds the slot");
+    }
+
+    @Test
+    void editsKeepTheReminderAndCompletingABookingFreesItsSlot() {
+        occupy(2);
+        Booking upcoming = booking(2, Booking.Status.CONFIRMED, now.plusMinutes(10), now.plusHours(1));
+        lifecycle.runCycle();
+
+        BookingDTO edit = BookingMapper.toDTO(reload(upcoming));
+        edit.setVehicleNumber("KA02CD2");
+        bookingService.updateBooking(upcoming.getBookingId(), edit);
+        lifecycle.runCycle();
+        assertTrue(reload(upcoming).isReminderSent());
+        assertEquals(1, notificationRepository.findByUserUserId(user.getUserId()).stream()
+                .filter(n -> n.getType() == Notification.Type.REMINDER).count(), "an edit doesn't remind again");
+
+        edit.setStatus(Booking.Status.COMPLETED.name());
+        bookingService.updateBooking(upcoming.getBookingId(), edit);
+        lifecycle.runCycle();
+        assertTrue(slotRepository.findById(slots.get(2).getSlotId()).orElseThrow().isAvailable());
+    }
+
+    private void occupy(int slot) {
+        ParkingSlot occupied = slots.get(slot);
+        occupied.markOccupied();
+        slots.set(slot, slotRepository.save(occupied));
+    }
+
+    private Booking booking(int slot, Booking.Status status, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.save(Booking.builder().user(user).slot(slots.get(slot)).vehicleNumber("KA01AB" + slot)
+                .status(status).startTime(start).endTime(end).totalCost(4.0).build());
+    }
+
+    private Booking reload(Booking booking) {
+        return bookingRepository.findById(booking.getBookingId()).orElseThrow();
+    }
+}
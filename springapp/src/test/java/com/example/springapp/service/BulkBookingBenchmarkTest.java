@@ -0,0 +1,117 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.BookingDTO;
+import com.example.springapp.dto.BulkBookingResultDTO;
+import com.example.springapp.model.Facility;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.FacilityRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.UserRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares N single createBooking calls against one createBookings batch of N on the
+ * embedded database. Each single call commits on its own, as a POST would; the bulk call
+ * commits once with batched inserts. The timing run is tagged {@code benchmark}, so it only
+ * runs with {@code mvn test -Pbenchmark}; the unit suite checks a small batch for correctness.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({BookingService.class, SlotLockManager.class, SlotAvailabilityIndex.class, FacilityAvailabilityBitmaps.class,
+        SlotHoldRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkBookingBenchmarkTest {
+
+    private static final int BOOKINGS = 500;
+    private static final int SLOTS = 50;
+
+    @Autowired private BookingService bookingService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private FacilityRepository facilityRepository;
+    @Autowired private ParkingSlotRepository slotRepository;
+
+    @Test
+    void bulkCreatesNonOverlappingItemsAndRejectsTheRest() {
+        User user = user("bulk-check");
+        List<Long> slotIds = slots(user, 5);
+        List<BookingDTO> dtos = batch(user.getUserId(), slotIds, LocalDateTime.of(2030, 2, 1, 0, 0), 20);
+        // Same slot and window as the first item
+        dtos.add(batch(user.getUserId(), slotIds, LocalDateTime.of(2030, 2, 1, 0, 0), 1).get(0));
+
+        BulkBookingResultDTO result = bookingService.createBookings(dtos);
+        assertEquals(20, result.getCreated());
+        assertEquals(1, result.getRejected());
+        assertEquals("REJECTED", result.getItems().get(20).getStatus());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void bulkInsertVersusSingleRequests() {
+        User user = user("bulk");
+        List<Long> slotIds = slots(user, SLOTS);
+
+        LocalDateTime singleDay = LocalDateTime.of(2030, 1, 1, 0, 0);
+        long t0 = System.nanoTime();
+        for (BookingDTO dto : batch(user.getUserId(), slotIds, singleDay, BOOKINGS)) {
+            bookingService.createBooking(dto);
+        }
+        long singleNanos = System.nanoTime() - t0;
+
+        List<BookingDTO> bulk = batch(user.getUserId(), slotIds, singleDay.plusDays(1), BOOKINGS);
+        long t1 = System.nanoTime();
+        BulkBookingResultDTO result = bookingService.createBookings(bulk);
+        long bulkNanos = System.nanoTime() - t1;
+
+        double speedup = (double) singleNanos / bulkNanos;
+        System.out.printf("single: %.0f bookings/sec, bulk: %.0f bookings/sec, speedup %.1fx%n",
+                BOOKINGS / (singleNanos / 1e9), BOOKINGS / (bulkNanos / 1e9), speedup);
+        assertEquals(BOOKINGS, result.getCreated());
+        assertTrue(speedup >= 10, "bulk should be at least 10x faster than single requests, was " + speedup);
+    }
+
+    private User user(String name) {
+        return userRepository.save(User.builder().username(name).email(name + "@example.com")
+                .passwordHash("x").firstName("Bulk").lastName("Tester").build());
+    }
+
+    private List<Long> slots(User manager, int count) {
+        Facility facility = facilityRepository.save(Facility.builder().facilityName("Bench " + manager.getUsername())
+                .address("1 Road").totalSlots(count).manager(manager).build());
+        List<Long> slotIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            slotIds.add(slotRepository.save(ParkingSlot.builder().slotNumber("B" + i).hourlyRate(2.5)
+                    .facility(facility).build()).getSlotId());
+        }
+        return slotIds;
+    }
+
+    private static List<BookingDTO> batch(Long userId, List<Long> slotIds, LocalDateTime day, int count) {
+        List<BookingDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            BookingDTO dto = new BookingDTO();
+            dto.setUserId(userId);
+            dto.setSlotId(slotIds.get(i % slotIds.size()));
+            dto.setVehicleNumber("KA01AB" + i);
+            dto.setStatus("CONFIRMED");
+            dto.setStartTime(day.plusMinutes(30L * (i / slotIds.size())));
+            dto.setEndTime(dto.getStartTime().plusMinutes(30));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+}
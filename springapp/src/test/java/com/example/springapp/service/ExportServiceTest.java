@@ -0,0 +1,77 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import com.example.springapp.repository.AuditLogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streams exports through a tiny fetch size so the chunked clear/flush path (and the audit
+ * store's keyset paging) runs several times.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({ExportService.class, JpaAuditStore.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@TestPropertySource(properties = "app.export.fetch-size=3")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ExportServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 3, 1, 9, 0);
+
+    @Autowired private ExportService exportService;
+    @Autowired private AuditLogRepository auditLogRepository;
+
+    @Test
+    void streamsRowsInIdOrderWithinTheRange() throws Exception {
+        List<AuditLog> logs = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            logs.add(AuditLog.builder().username("user" + i).action("UPDATE").resource("Booking")
+                    .ipAddress("127.0.0.1").sessionId("s").details(i == 4 ? "moved, then \"extended\"" : "d" + i)
+                    .timestamp(T0.plusMinutes(i)).build());
+        }
+        auditLogRepository.saveAll(logs);
+
+        String ndjson = export(ExportService.Format.NDJSON, T0, T0.plusMinutes(7));
+        String[] lines = ndjson.split("\n");
+        assertEquals(7, lines.length);
+        assertTrue(lines[0].contains("\"username\":\"user0\""));
+        assertTrue(lines[6].contains("\"username\":\"user6\""));
+
+        String csv = export(ExportService.Format.CSV, null, null);
+        String[] rows = csv.split("\r\n");
+        assertEquals(11, rows.length);
+        assertTrue(rows[0].startsWith("auditId,timestamp,username"));
+        assertTrue(rows[5].contains(",\"moved, then \"\"extended\"\"\","));
+    }
+
+    @Test
+    void formatsParseCaseInsensitivelyAndRejectUnknownOnes() {
+        assertEquals(ExportService.Format.CSV, ExportService.Format.parse("csv"));
+        assertThrows(IllegalArgumentException.class, () -> ExportService.Format.parse("xlsx"));
+    }
+
+    private String export(ExportService.Format format, LocalDateTime from, LocalDateTime to) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportAuditLogs(format, from, to).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
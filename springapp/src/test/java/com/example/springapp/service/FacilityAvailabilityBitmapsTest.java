@@ -0,0 +1,75 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.Facility;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class FacilityAvailabilityBitmapsTest {
+
+    private final SlotAvailabilityIndex index =
+            new SlotAvailabilityIndex(mock(BookingRepository.class), mock(ParkingSlotRepository.class));
+    private final FacilityAvailabilityBitmaps bitmaps = new FacilityAvailabilityBitmaps(index, 1);
+    // Start of the next bucket, so every window below lies inside the one-day horizon
+    private final LocalDateTime t0 = FacilityAvailabilityBitmaps.startOf(
+            FacilityAvailabilityBitmaps.bucketOf(LocalDateTime.now()) + 1);
+    private final Facility north = Facility.builder().facilityId(1L).build();
+    private final Facility south = Facility.builder().facilityId(2L).build();
+
+    @BeforeEach
+    void slots() {
+        index.registerSlot(slot(1L, north, ParkingSlot.SlotType.REGULAR));
+        index.registerSlot(slot(2L, north, ParkingSlot.SlotType.REGULAR));
+        index.registerSlot(slot(3L, north, ParkingSlot.SlotType.VIP));
+    }
+
+    @Test
+    void countsFreeSlotsByTypeAndPerBucket() {
+        index.onBookingSaved(booking(10L, 1L, t0, t0.plusMinutes(30)));
+        index.onBookingSaved(booking(11L, 3L, t0.plusMinutes(15), t0.plusMinutes(45)));
+
+        Map<ParkingSlot.SlotType, Integer> free = bitmaps.countFree(1L, t0, t0.plusHours(1));
+        assertEquals(1, free.get(ParkingSlot.SlotType.REGULAR));
+        assertEquals(0, free.get(ParkingSlot.SlotType.VIP));
+
+        Map<LocalDateTime, Integer> perBucket = bitmaps.freeCountsPerBucket(1L, t0, t0.plusHours(1));
+        assertEquals(Map.of(t0, 2, t0.plusMinutes(15), 1, t0.plusMinutes(30), 2, t0.plusMinutes(45), 3), perBucket);
+    }
+
+    @Test
+    void slotMovedToAnotherFacilityLeavesItsOldGrid() {
+        index.onBookingSaved(booking(10L, 1L, t0, t0.plusMinutes(30)));
+        index.registerSlot(slot(1L, south, ParkingSlot.SlotType.REGULAR));
+
+        assertEquals(1, bitmaps.countFree(1L, t0, t0.plusMinutes(15)).get(ParkingSlot.SlotType.REGULAR));
+        assertEquals(0, bitmaps.countFree(2L, t0, t0.plusMinutes(15)).get(ParkingSlot.SlotType.REGULAR),
+                "the booking moves with the slot");
+        assertEquals(1, bitmaps.countFree(2L, t0.plusMinutes(30), t0.plusHours(1)).get(ParkingSlot.SlotType.REGULAR));
+    }
+
+    @Test
+    void windowsOutsideTheHorizonAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> bitmaps.checkWithinHorizon(t0, t0.plusDays(2)));
+        assertThrows(IllegalArgumentException.class, () -> bitmaps.checkWithinHorizon(t0.minusHours(2), t0));
+        bitmaps.checkWithinHorizon(t0, t0.plusHours(20));
+    }
+
+    private static ParkingSlot slot(Long id, Facility facility, ParkingSlot.SlotType type) {
+        return ParkingSlot.builder().slotId(id).slotNumber("S" + id).slotType(type).facility(facility).build();
+    }
+
+    private static Booking booking(Long id, Long slotId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().bookingId(id).slot(ParkingSlot.builder().slotId(slotId).build())
+                .startTime(start).endTime(end).build();
+    }
+}
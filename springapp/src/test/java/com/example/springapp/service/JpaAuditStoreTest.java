@@ -0,0 +1,53 @@
+package com.example.springapp.service;
+
+import com.example.springapp.exception.AuditAppendException;
+import com.example.springapp.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(JpaAuditStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaAuditStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2032, 1, 1, 0, 0);
+
+    @Autowired
+    private JpaAuditStore store;
+
+    @Test
+    void oversizedEventIsRejectedAloneAndTheRestOfTheBatchIsStored() {
+        List<AuditLog> batch = new ArrayList<>(List.of(event("a", "ok"),
+                event("huge", "x".repeat(AuditLog.DETAILS_LENGTH + 1)), event("c", "ok")));
+
+        AuditAppendException e = assertThrows(AuditAppendException.class, () -> store.appendBatch(batch));
+
+        assertEquals(2, e.getAppended());
+        assertEquals(1, e.getRejected());
+        assertEquals(List.of("a", "c", "huge"), batch.stream().map(AuditLog::getUsername).toList(),
+                "stored events first, then the rejected one");
+        assertNotNull(batch.get(0).getAuditId());
+        assertNull(batch.get(2).getAuditId());
+        assertEquals(2, store.findByTimestampBetween(BASE, BASE.plusHours(1)).size());
+    }
+
+    private static AuditLog event(String username, String details) {
+        return AuditLog.builder().username(username).action("UPDATE").resource("Booking")
+                .ipAddress("10.0.0.1").sessionId("s").timestamp(BASE).details(details).build();
+    }
+}
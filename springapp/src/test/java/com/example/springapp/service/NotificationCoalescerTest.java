@@ -0,0 +1,115 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.NotificationDTO;
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.NotificationRepository;
+import com.example.springapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({NotificationService.class, NotificationStreamService.class, UnreadNotificationCounters.class,
+        NotificationCoalescer.class})
+@TestPropertySource(properties = "app.notifications.digest.max-per-digest=5")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationCoalescerTest {
+
+    @Autowired private NotificationService notificationService;
+    @Autowired private NotificationCoalescer coalescer;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void duplicatesFoldIntoOneRowAndLowPriorityBecomesADigest() {
+        Long userId = userRepository.save(User.builder().username("burst").email("burst@example.com")
+                .passwordHash("x").firstName("Bur").lastName("St").build()).getUserId();
+
+        NotificationDTO first = notificationService.save(dto(userId, "REMINDER", "MEDIUM", "Starts in 30 min"));
+        notificationService.markAsRead(first.getNotificationId());
+        NotificationDTO again = notificationService.save(dto(userId, "REMINDER", "HIGH", "Starts in 5 min"));
+        notificationService.save(dto(userId, "PAYMENT_SUCCESS", "MEDIUM", "Paid"));
+
+        assertEquals(first.getNotificationId(), again.getNotificationId());
+        Notification folded = notificationRepository.findById(first.getNotificationId()).orElseThrow();
+        assertEquals("Starts in 5 min", folded.getMessage());
+        assertEquals(Notification.Priority.HIGH, folded.getPriority());
+        assertTrue(!folded.isRead(), "a folded duplicate is unread again");
+        assertEquals(2, notificationService.getUnreadCount(userId));
+
+        for (int i = 0; i < 7; i++) {
+            NotificationDTO held = notificationService.save(dto(userId, "SYSTEM_UPDATE", "LOW", "Tip " + i));
+            if (i < 4) {
+                assertNull(held.getNotificationId());
+            }
+        }
+        // Five filled a digest straight away; the other two go out with the next flush
+        coalescer.flushDigests();
+        List<Notification> digests = notificationRepository.findByUserUserId(userId).stream()
+                .filter(n -> n.getType() == Notification.Type.DIGEST)
+                .toList();
+        assertEquals(2, digests.size());
+        assertTrue(digests.get(0).getMessage().startsWith("You have 5 new updates: Tip 0; Tip 1; Tip 2; and 2 more"));
+        assertEquals(4, notificationService.getUnreadCount(userId));
+        assertEquals(4, notificationRepository.findByUserUserId(userId).size());
+    }
+
+    @Test
+    void aDigestThatFailsToWriteStaysBufferedForTheNextFlush() {
+        // No such user, so the insert fails on the foreign key
+        User missing = User.builder().userId(Long.MAX_VALUE).build();
+        for (int i = 0; i < 2; i++) {
+            coalescer.submit(Notification.builder().user(missing).type(Notification.Type.SYSTEM_UPDATE)
+                    .priority(Notification.Priority.LOW).message("Tip " + i).build());
+        }
+        assertEquals(2, coalescer.bufferedFor(Long.MAX_VALUE));
+
+        coalescer.flushDigests();
+        assertEquals(2, coalescer.bufferedFor(Long.MAX_VALUE));
+    }
+
+    @Test
+    void batchesCoalesceByBookingInTheCallersTransaction() {
+        User user = userRepository.save(User.builder().username("batch").email("batch@example.com")
+                .passwordHash("x").firstName("Bat").lastName("Ch").build());
+        List<Notification> batch = List.of(
+                reminder(user, "7", "Starts in 30 min"), reminder(user, "8", "Starts in 30 min"));
+        coalescer.submitAll(batch);
+        coalescer.submitAll(List.of(reminder(user, "7", "Starts in 10 min")));
+
+        List<Notification> rows = notificationRepository.findByUserUserId(user.getUserId());
+        assertEquals(2, rows.size());
+        assertTrue(rows.stream().anyMatch(n -> n.getMessage().equals("Starts in 10 min")));
+        assertEquals(2, notificationService.getUnreadCount(user.getUserId()));
+    }
+
+    private static Notification reminder(User user, String bookingId, String message) {
+        return Notification.builder().user(user).type(Notification.Type.REMINDER)
+                .priority(Notification.Priority.MEDIUM).message(message)
+                .relatedEntityType("BOOKING").relatedEntityId(bookingId).build();
+    }
+
+    private static NotificationDTO dto(Long userId, String type, String priority, String message) {
+        NotificationDTO dto = new NotificationDTO();
+        dto.setUserId(userId);
+        dto.setType(type);
+        dto.setPriority(priority);
+        dto.setMessage(message);
+        dto.setRelatedEntityType("BOOKING");
+        dto.setRelatedEntityId("42");
+        return dto;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.NotificationBroadcast;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.NotificationBroadcastRepository;
+import com.example.springapp.repository.NotificationRepository;
+import com.example.springapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({NotificationFanoutService.class, NotificationStreamService.class, UnreadNotificationCounters.class})
+@TestPropertySource(properties = "app.notifications.broadcast.chunk-size=7")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationFanoutServiceTest {
+
+    private static final int USERS = 30;
+
+    @Autowired private NotificationFanoutService fanout;
+    @Autowired private NotificationBroadcastRepository broadcastRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private UserRepository userRepository;
+
+    @Test
+    void fansOutInChunksAndResumesAfterTheLastDeliveredUser() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(userRepository.save(User.builder().username("fan" + i).email("fan" + i + "@example.com")
+                    .passwordHash("x").firstName("Fan").lastName("Out")
+                    .role(i % 10 == 0 ? User.Role.FACILITY_MANAGER : User.Role.USER)
+                    .isActive(i != 1).build()));
+        }
+
+        // As left by a crash after the first ten users were committed
+        long resumeAfter = users.get(9).getUserId();
+        NotificationBroadcast interrupted = broadcastRepository.save(broadcast(NotificationBroadcast.Audience.ALL)
+                .status(NotificationBroadcast.Status.RUNNING).lastUserId(resumeAfter).delivered(9).build());
+        fanout.run(interrupted.getBroadcastId(), fanout.claim(interrupted.getBroadcastId()));
+
+        NotificationBroadcast done = broadcastRepository.findById(interrupted.getBroadcastId()).orElseThrow();
+        assertEquals(NotificationBroadcast.Status.COMPLETED, done.getStatus());
+        assertEquals(USERS - 1, done.getDelivered());
+        assertEquals(users.get(USERS - 1).getUserId(), done.getLastUserId());
+        List<Long> userIds = users.stream().map(User::getUserId).toList();
+        List<Notification> rows = notificationRepository.findAll().stream()
+                .filter(n -> userIds.contains(n.getUser().getUserId())).toList();
+        assertEquals(USERS - 10, rows.size());
+        rows.forEach(n -> assertTrue(n.getUser().getUserId() > resumeAfter));
+
+        NotificationBroadcast managers = broadcastRepository.save(
+                broadcast(NotificationBroadcast.Audience.ROLE).role(User.Role.FACILITY_MANAGER).build());
+        fanout.run(managers.getBroadcastId(), fanout.claim(managers.getBroadcastId()));
+        NotificationBroadcast managersDone = broadcastRepository.findById(managers.getBroadcastId()).orElseThrow();
+        assertEquals(3L, managersDone.getTotalRecipients());
+        assertEquals(3, managersDone.getDelivered());
+        assertEquals(2L, notificationRepository.countByUserUserIdAndIsReadFalse(users.get(20).getUserId()));
+    }
+
+    @Test
+    void onlyTheLeaseHolderDeliversAndALapsedLeaseIsClaimedAgain() {
+        User user = userRepository.save(User.builder().username("lease").email("lease@example.com")
+                .passwordHash("x").firstName("Lea").lastName("Se").build());
+        NotificationBroadcast broadcast = broadcastRepository.save(broadcast(NotificationBroadcast.Audience.ALL)
+                .lastUserId(user.getUserId() - 1).build());
+        Long id = broadcast.getBroadcastId();
+
+        String first = fanout.claim(id);
+        assertNotNull(first);
+        assertNull(fanout.claim(id), "a second instance can't claim a leased broadcast");
+
+        // The first holder stalls past its lease; another instance takes over
+        broadcastRepository.findById(id).ifPresent(b -> {
+            b.setLeaseUntil(LocalDateTime.now().minusSeconds(1));
+            broadcastRepository.save(b);
+        });
+        String second = fanout.claim(id);
+        assertNotNull(second);
+
+        long before = notificationRepository.countByUserUserIdAndIsReadFalse(user.getUserId());
+        fanout.run(id, first);
+        NotificationBroadcast stale = broadcastRepository.findById(id).orElseThrow();
+        assertEquals(NotificationBroadcast.Status.RUNNING, stale.getStatus());
+        assertEquals(0, stale.getDelivered(), "the stale holder's chunk rolled back");
+
+        fanout.run(id, second);
+        NotificationBroadcast done = broadcastRepository.findById(id).orElseThrow();
+        assertEquals(NotificationBroadcast.Status.COMPLETED, done.getStatus());
+        assertEquals(before + 1, notificationRepository.countByUserUserIdAndIsReadFalse(user.getUserId()));
+        assertNull(fanout.claim(id), "a completed broadcast can't be claimed");
+    }
+
+    private static NotificationBroadcast.NotificationBroadcastBuilder broadcast(NotificationBroadcast.Audience audience) {
+        return NotificationBroadcast.builder().message("Scheduled maintenance tonight")
+                .type(Notification.Type.SYSTEM_UPDATE).audience(audience);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.NotificationDTO;
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationStreamServiceTest {
+
+    /** One sent event: its id and name, and the payload. */
+    private record Sent(String id, String name, Object data) {}
+
+    /** Captures events instead of writing them to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<Sent> sent = new ArrayList<>();
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            Object data = null;
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof String s) {
+                    text.append(s);
+                } else {
+                    data = part.getData();
+                }
+            }
+            String id = null;
+            String name = null;
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    id = line.substring(3);
+                } else if (line.startsWith("event:")) {
+                    name = line.substring(6);
+                }
+            }
+            sent.add(new Sent(id, name, data));
+        }
+
+        List<String> names() {
+            return sent.stream().map(Sent::name).toList();
+        }
+    }
+
+    private final UnreadNotificationCounters counters = mock(UnreadNotificationCounters.class);
+    private final List<RecordingEmitter> opened = new ArrayList<>();
+    private final NotificationStreamService stream = new NotificationStreamService(counters, Runnable::run,
+            60_000, 3, 30, 1000) {
+        @Override
+        SseEmitter newEmitter(long timeoutMs) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            opened.add(emitter);
+            return emitter;
+        }
+    };
+
+    @Test
+    void subscribeSendsUnreadCountAndPushesNewNotifications() {
+        when(counters.get(1L)).thenReturn(4L, 5L);
+
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(1L, null);
+        stream.publishCreated(List.of(notification(10L, 1L), notification(11L, 2L)));
+
+        assertEquals(List.of(NotificationStreamService.UNREAD_COUNT, NotificationStreamService.NOTIFICATION,
+                NotificationStreamService.UNREAD_COUNT), emitter.names());
+        assertEquals(Map.of("count", 4L), emitter.sent.get(0).data());
+        assertEquals(10L, ((NotificationDTO) emitter.sent.get(1).data()).getNotificationId());
+        assertEquals(Map.of("count", 5L), emitter.sent.get(2).data());
+        assertEquals(1, stream.connectionCount());
+    }
+
+    @Test
+    void reconnectReplaysMissedEventsOrAsksForResync() {
+        when(counters.get(1L)).thenReturn(0L);
+        RecordingEmitter first = (RecordingEmitter) stream.subscribe(1L, null);
+        String seenUpTo = first.sent.get(0).id();
+
+        stream.publishCreated(List.of(notification(10L, 1L), notification(11L, 1L)));
+        RecordingEmitter resumed = (RecordingEmitter) stream.subscribe(1L, seenUpTo);
+        assertEquals(List.of(NotificationStreamService.NOTIFICATION, NotificationStreamService.NOTIFICATION,
+                NotificationStreamService.UNREAD_COUNT), resumed.names());
+        assertEquals(11L, ((NotificationDTO) resumed.sent.get(1).data()).getNotificationId());
+
+        // Only the last three events are kept, so the first id is now beyond the log
+        stream.publishCreated(List.of(notification(12L, 1L), notification(13L, 1L)));
+        RecordingEmitter trimmed = (RecordingEmitter) stream.subscribe(1L, seenUpTo);
+        assertEquals(List.of(NotificationStreamService.RESYNC, NotificationStreamService.UNREAD_COUNT),
+                trimmed.names());
+
+        // Ids issued before a restart carry another boot id
+        RecordingEmitter restarted = (RecordingEmitter) stream.subscribe(1L, "oldboot-2");
+        assertEquals(List.of(NotificationStreamService.RESYNC, NotificationStreamService.UNREAD_COUNT),
+                restarted.names());
+    }
+
+    @Test
+    void deliveriesToOneUserAreQueuedBehindOneDrainAndHeartbeatsAreBatched() {
+        List<Runnable> queued = new ArrayList<>();
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        NotificationStreamService pooled = new NotificationStreamService(counters, queued::add, 60_000, 3, 30, 1000) {
+            @Override
+            SseEmitter newEmitter(long timeoutMs) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        when(counters.get(1L)).thenReturn(0L);
+        for (long user = 1; user <= 3; user++) {
+            pooled.subscribe(user, null);
+        }
+        pooled.publishCreated(List.of(notification(10L, 1L), notification(11L, 1L)));
+
+        // One drain per user, however many events are waiting for it
+        assertEquals(3, queued.size());
+        runAll(queued);
+        assertEquals(List.of(NotificationStreamService.UNREAD_COUNT, NotificationStreamService.NOTIFICATION,
+                NotificationStreamService.NOTIFICATION, NotificationStreamService.UNREAD_COUNT),
+                emitters.get(0).names());
+
+        pooled.heartbeat();
+        assertEquals(1, queued.size(), "one task for the whole batch of users");
+        runAll(queued);
+        emitters.forEach(emitter -> assertEquals(null, emitter.sent.get(emitter.sent.size() - 1).name()));
+    }
+
+    @Test
+    void broadcastsQueueOneDeliveryPerRecipientAndOnlyRecipientsResync() {
+        when(counters.get(1L)).thenReturn(0L);
+        RecordingEmitter recipient = (RecordingEmitter) stream.subscribe(1L, null);
+        RecordingEmitter bystander = (RecordingEmitter) stream.subscribe(2L, null);
+        String seenUpTo = recipient.sent.get(0).id();
+
+        stream.publishBroadcast(List.of(notification(20L, 1L), notification(21L, 3L)));
+        assertEquals(List.of(NotificationStreamService.UNREAD_COUNT, NotificationStreamService.NOTIFICATION,
+                NotificationStreamService.UNREAD_COUNT), recipient.names());
+        assertEquals(1, bystander.sent.size());
+
+        // Recipients without a replay log resync when reconnecting from before it; others are unaffected
+        RecordingEmitter missed = (RecordingEmitter) stream.subscribe(3L, seenUpTo);
+        assertEquals(NotificationStreamService.RESYNC, missed.names().get(0));
+        assertEquals(List.of(NotificationStreamService.UNREAD_COUNT),
+                ((RecordingEmitter) stream.subscribe(2L, seenUpTo)).names());
+    }
+
+    private static void runAll(List<Runnable> queued) {
+        while (!queued.isEmpty()) {
+            queued.remove(0).run();
+        }
+    }
+
+    private static Notification notification(Long id, Long userId) {
+        return Notification.builder().notificationId(id).message("n" + id).type(Notification.Type.ALERT)
+                .user(User.builder().userId(userId).build()).build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.springapp.service;
+
+import com.example.springapp.exception.AuditAppendException;
+import com.example.springapp.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import({PartitionedAuditStore.class, AuditPartitionManager.class})
+@TestPropertySource(properties = {
+        "app.audit.store=partitioned",
+        "app.audit.partition.months-ahead=1",
+        "app.audit.partition.retention-months=3"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class PartitionedAuditStoreTest {
+
+    @Autowired private PartitionedAuditStore store;
+    @Autowired private AuditPartitionManager partitions;
+    @Autowired private ApplicationEvents events;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void secondInstanceStartingUpKeepsTheSingleIdRow() {
+        long first = partitions.allocateIds(10);
+
+        partitions.init();
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM audit_log_partition_seq", Integer.class));
+        assertEquals(first + 10, partitions.allocateIds(1), "ids continue from the existing row");
+    }
+
+    @Test
+    void routesByMonthMergesNewestFirstAndDropsExpiredMonths() {
+        YearMonth current = YearMonth.now();
+        assertTrue(partitions.isLive(current.plusMonths(1)), "next month is created ahead of time");
+
+        LocalDateTime thisMonth = current.atDay(1).atTime(12, 0);
+        LocalDateTime lastMonth = thisMonth.minusMonths(1);
+        long before = store.count();
+        List<AuditLog> batch = new ArrayList<>();
+        batch.addAll(events(lastMonth, 5));
+        batch.addAll(events(thisMonth, 5));
+        store.appendBatch(batch);
+
+        assertTrue(partitions.isLive(current.minusMonths(1)), "late events create their month on demand");
+        assertEquals(before + 10, store.count());
+
+        List<AuditLog> range = store.findByTimestampBetween(lastMonth, thisMonth.plusHours(1));
+        assertEquals(10, range.size());
+        for (int i = 1; i < range.size(); i++) {
+            assertFalse(range.get(i).getTimestamp().isAfter(range.get(i - 1).getTimestamp()));
+        }
+
+        Slice<AuditLog> page = store.findBefore(Long.MAX_VALUE, PageRequest.of(0, 7));
+        assertEquals(7, page.getContent().size());
+        assertTrue(page.hasNext());
+        assertEquals(batch.get(9).getAuditId(), page.getContent().get(0).getAuditId());
+
+        // A month past retention that exists (say, left by an older deployment) is dropped
+        YearMonth expired = current.minusMonths(6);
+        jdbcTemplate.execute("CREATE TABLE " + AuditPartitionManager.tableName(expired)
+                + " AS SELECT * FROM " + AuditPartitionManager.tableName(current));
+        partitions.init();
+        assertFalse(partitions.isLive(expired));
+        assertEquals(List.of(new AuditPartitionDroppedEvent(expired)),
+                events.stream(AuditPartitionDroppedEvent.class).toList());
+        assertEquals(before + 10, store.count());
+    }
+
+    @Test
+    void eventsDatedBeforeRetentionAreRejectedWithoutRecreatingTheirMonth() {
+        YearMonth current = YearMonth.now();
+        // A day later than the other test's events, so its range queries don't see these
+        LocalDateTime thisMonth = current.atDay(2).atTime(12, 0);
+        LocalDateTime expired = thisMonth.minusMonths(6);
+        long before = store.count();
+        List<AuditLog> batch = new ArrayList<>();
+        batch.addAll(events(expired, 2));
+        batch.addAll(events(thisMonth, 3));
+
+        AuditAppendException e = assertThrows(AuditAppendException.class, () -> store.appendBatch(batch));
+
+        assertEquals(3, e.getAppended());
+        assertEquals(2, e.getRejected());
+        assertFalse(partitions.isLive(current.minusMonths(6)));
+        assertEquals(before + 3, store.count());
+        // The stored events come first, as the pipeline expects
+        batch.subList(0, 3).forEach(event -> assertEquals(YearMonth.from(thisMonth),
+                YearMonth.from(event.getTimestamp())));
+        batch.subList(3, 5).forEach(event -> assertNull(event.getAuditId()));
+    }
+
+    private static List<AuditLog> events(LocalDateTime start, int count) {
+        List<AuditLog> out = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            out.add(AuditLog.builder().username("user" + i).action("UPDATE").resource("Booking")
+                    .severity(AuditLog.Severity.MEDIUM).ipAddress("127.0.0.1").sessionId("s")
+                    .timestamp(start.plusMinutes(i)).build());
+        }
+        return out;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.BookingHistory;
+import com.example.springapp.model.Facility;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.model.Payment;
+import com.example.springapp.model.User;
+import com.example.springapp.model.Vehicle;
+import com.example.springapp.repository.BookingHistoryRepository;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.FacilityRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.PaymentRepository;
+import com.example.springapp.repository.UserRepository;
+import com.example.springapp.repository.VehicleRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * N+1 regression guard: every list/detail read on the projection path must cost exactly one
+ * SQL statement, however many rows and associations are involved.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookingService.class, PaymentService.class, VehicleService.class, BookingHistoryService.class,
+        SlotLockManager.class, SlotAvailabilityIndex.class, FacilityAvailabilityBitmaps.class, SlotHoldRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadPathStatementCountTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired private BookingService bookingService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private VehicleService vehicleService;
+    @Autowired private BookingHistoryService historyService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private FacilityRepository facilityRepository;
+    @Autowired private ParkingSlotRepository slotRepository;
+    @Autowired private BookingRepository bookingRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private VehicleRepository vehicleRepository;
+    @Autowired private BookingHistoryRepository historyRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (bookingRepository.count() > 0) {
+            return;
+        }
+        List<Booking> bookings = new ArrayList<>();
+        List<Vehicle> vehicles = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2030, 6, 1, 8, 0);
+        for (int i = 0; i < ROWS; i++) {
+            // distinct users and slots so an N+1 would show up as N extra selects, not one cached hit
+            User user = userRepository.save(User.builder().username("reader" + i).email("reader" + i + "@example.com")
+                    .passwordHash("x").firstName("Read").lastName("Er").build());
+            Facility facility = facilityRepository.save(Facility.builder().facilityName("F" + i).address("1 Road")
+                    .totalSlots(1).manager(user).build());
+            ParkingSlot slot = slotRepository.save(ParkingSlot.builder().slotNumber("R" + i).hourlyRate(2.0)
+                    .facility(facility).build());
+            bookings.add(Booking.builder().user(user).slot(slot).vehicleNumber("KA01RD" + i)
+                    .startTime(start).endTime(start.plusHours(1)).totalCost(2.0).build());
+            vehicles.add(Vehicle.builder().user(user).licensePlate("KA01RD" + i).build());
+        }
+        bookingRepository.saveAll(bookings);
+        vehicleRepository.saveAll(vehicles);
+
+        List<Payment> payments = new ArrayList<>();
+        List<BookingHistory> histories = new ArrayList<>();
+        for (Booking booking : bookings) {
+            payments.add(Payment.builder().booking(booking).amount(2.0)
+                    .paymentMethod(Payment.PaymentMethod.CASH).build());
+            histories.add(BookingHistory.builder().booking(booking).changedBy(booking.getUser())
+                    .statusChange("CREATED").newStatus("CONFIRMED").build());
+        }
+        paymentRepository.saveAll(payments);
+        historyRepository.saveAll(histories);
+    }
+
+    @Test
+    void bookingReadsAreSingleStatement() {
+        assertEquals(ROWS, inOneStatement(bookingService::getAllBookings).size());
+        Long id = bookingRepository.findAllDtos().get(0).getBookingId();
+        assertNotNull(inOneStatement(() -> bookingService.getBookingById(id)).getPaymentId());
+        assertEquals(10, inOneStatement(() -> bookingService.getBookingPage(null, 10, false)).getItems().size());
+    }
+
+    @Test
+    void paymentReadsAreSingleStatement() {
+        assertEquals(ROWS, inOneStatement(paymentService::getAll).size());
+        Long id = paymentRepository.findAllDtos().get(0).getPaymentId();
+        assertNotNull(inOneStatement(() -> paymentService.getById(id)).orElseThrow().getBookingId());
+        assertEquals(10, inOneStatement(() -> paymentService.getPage(null, 10, false)).getItems().size());
+    }
+
+    @Test
+    void vehicleReadsAreSingleStatement() {
+        assertEquals(ROWS, inOneStatement(vehicleService::getAll).size());
+        Long id = vehicleRepository.findAllDtos().get(0).getVehicleId();
+        assertNotNull(inOneStatement(() -> vehicleService.getById(id)).getUserId());
+        assertEquals(10, inOneStatement(() -> vehicleService.getPage(null, 10, false)).getItems().size());
+    }
+
+    @Test
+    void historyReadsAreSingleStatement() {
+        assertEquals(ROWS, inOneStatement(historyService::getAllHistories).size());
+        Long id = historyRepository.findAllDtos().get(0).getHistoryId();
+        assertNotNull(inOneStatement(() -> historyService.getHistoryById(id)).getChangedByUserId());
+        assertEquals(10, inOneStatement(() -> historyService.getHistoryPage(null, 10, false)).getItems().size());
+    }
+
+    private <T> T inOneStatement(Supplier<T> read) {
+        statistics.clear();
+        T result = read.get();
+        assertEquals(1, statistics.getPrepareStatementCount(), "SQL statements issued by one read");
+        return result;
+    }
+}
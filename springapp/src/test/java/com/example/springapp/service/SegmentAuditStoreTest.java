@@ -0,0 +1,170 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentAuditStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void assignsIdsAndServesNewestFirstQueries() throws Exception {
+        SegmentAuditStore store = open(4096);
+        store.appendBatch(events(0, 300));
+
+        assertEquals(300, store.count());
+        List<AuditLog> all = store.findAll();
+        assertEquals(300L, all.get(0).getAuditId());
+        assertEquals(1L, all.get(299).getAuditId());
+        assertNull(all.get(0).getSessionId());
+        assertEquals("{\"i\":299}", all.get(0).getDetails());
+
+        assertEquals(100, store.findBySeverity(AuditLog.Severity.HIGH).size());
+        assertEquals(100L, store.countBySeverity(AuditLog.Severity.LOW));
+        assertEquals(30, store.findByUsernameContaining("USER1").size());
+
+        List<AuditLog> range = store.findByTimestampBetween(BASE.plusMinutes(100), BASE.plusMinutes(109));
+        assertEquals(10, range.size());
+        assertEquals(BASE.plusMinutes(109), range.get(0).getTimestamp());
+
+        Slice<AuditLog> page = store.findBefore(151L, PageRequest.of(0, 20));
+        assertEquals(20, page.getContent().size());
+        assertEquals(150L, page.getContent().get(0).getAuditId());
+        assertTrue(page.hasNext());
+        assertFalse(store.findBefore(3L, PageRequest.of(0, 20)).hasNext());
+        store.close();
+    }
+
+    @Test
+    void rollsSegmentsAndRecoversAfterRestart() throws Exception {
+        SegmentAuditStore store = open(4096);
+        store.appendBatch(events(0, 200));
+        store.close();
+        assertTrue(segmentFiles().size() > 1, "small segments should have rolled");
+
+        SegmentAuditStore reopened = open(4096);
+        assertEquals(200, reopened.count());
+        reopened.appendBatch(events(200, 1));
+        assertEquals(201L, reopened.findAll().get(0).getAuditId());
+        reopened.close();
+    }
+
+    @Test
+    void dropsTornTailOnRecovery() throws Exception {
+        SegmentAuditStore store = open(1 << 20);
+        List<AuditLog> batch = events(0, 10);
+        store.appendBatch(batch);
+        store.close();
+
+        // Flip a payload byte of the last record, as a write torn by a crash would leave it
+        long lastRecord = 0;
+        for (int i = 0; i < 9; i++) {
+            lastRecord += AuditSegment.HEADER_BYTES + AuditSegment.encode(batch.get(i)).length;
+        }
+        Path file = segmentFiles().get(0);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long at = lastRecord + AuditSegment.HEADER_BYTES + 20;
+            raf.seek(at);
+            int b = raf.read();
+            raf.seek(at);
+            raf.write(b ^ 0xFF);
+        }
+
+        SegmentAuditStore reopened = open(1 << 20);
+        assertEquals(9, reopened.count());
+        assertEquals(9L, reopened.findAll().get(0).getAuditId());
+        reopened.appendBatch(events(10, 1));
+        assertEquals(10L, reopened.findAll().get(0).getAuditId());
+        reopened.close();
+    }
+
+    @Test
+    void quarantinesACorruptRecordAndKeepsItsNeighbours() throws Exception {
+        SegmentAuditStore store = open(1 << 20);
+        List<AuditLog> batch = events(0, 10);
+        store.appendBatch(batch);
+        store.close();
+
+        // Flip a payload byte of the fifth record; the records after it are intact
+        long fifthRecord = 0;
+        for (int i = 0; i < 4; i++) {
+            fifthRecord += AuditSegment.HEADER_BYTES + AuditSegment.encode(batch.get(i)).length;
+        }
+        Path file = segmentFiles().get(0);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long at = fifthRecord + AuditSegment.HEADER_BYTES + 20;
+            raf.seek(at);
+            int b = raf.read();
+            raf.seek(at);
+            raf.write(b ^ 0xFF);
+        }
+
+        SegmentAuditStore reopened = open(1 << 20);
+        assertEquals(9, reopened.count());
+        List<Long> ids = reopened.findAll().stream().map(AuditLog::getAuditId).toList();
+        assertEquals(List.of(10L, 9L, 8L, 7L, 6L, 4L, 3L, 2L, 1L), ids);
+        assertEquals(List.of(6L, 7L), reopened.findBetweenAfter(BASE.plusMinutes(3), BASE.plusMinutes(7), 4L, 10)
+                .stream().map(AuditLog::getAuditId).toList());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.filter(f -> f.getFileName().toString().endsWith(".corrupt")).count());
+        }
+        reopened.close();
+    }
+
+    @Test
+    void keysetPagesRunOldestFirstAcrossSegments() throws Exception {
+        SegmentAuditStore store = open(4096);
+        store.appendBatch(events(0, 200));
+
+        List<AuditLog> page = store.findBetweenAfter(BASE.plusMinutes(10), BASE.plusMinutes(150), 50L, 40);
+        assertEquals(40, page.size());
+        assertEquals(51L, page.get(0).getAuditId());
+        assertEquals(90L, page.get(39).getAuditId());
+        List<AuditLog> last = store.findBetweenAfter(BASE.plusMinutes(10), BASE.plusMinutes(150), 140L, 40);
+        assertEquals(10, last.size());
+        assertEquals(150L, last.get(9).getAuditId());
+        store.close();
+    }
+
+    private SegmentAuditStore open(int segmentBytes) throws Exception {
+        SegmentAuditStore store = new SegmentAuditStore(dir.toString(), segmentBytes, 3_600_000, false);
+        store.open();
+        return store;
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+
+    private static List<AuditLog> events(int from, int count) {
+        AuditLog.Severity[] severities = {AuditLog.Severity.LOW, AuditLog.Severity.MEDIUM, AuditLog.Severity.HIGH};
+        List<AuditLog> out = new ArrayList<>(count);
+        for (int i = from; i < from + count; i++) {
+            out.add(AuditLog.builder().username("user" + (i % 10)).action("UPDATE").resource("Booking")
+                    .severity(severities[i % 3]).timestamp(BASE.plusMinutes(i))
+                    .details("{\"i\":" + i + "}").build());
+        }
+        return out;
+    }
+}
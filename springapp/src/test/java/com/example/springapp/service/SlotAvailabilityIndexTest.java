@@ -0,0 +1,111 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.SlotAvailabilityDTO;
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.Facility;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class SlotAvailabilityIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final SlotAvailabilityIndex index =
+            new SlotAvailabilityIndex(mock(BookingRepository.class), mock(ParkingSlotRepository.class));
+
+    @BeforeEach
+    void slots() {
+        Facility facility = Facility.builder().facilityId(1L).build();
+        index.registerSlot(ParkingSlot.builder().slotId(1L).slotNumber("A1").facility(facility).build());
+        index.registerSlot(ParkingSlot.builder().slotId(2L).slotNumber("A2").facility(facility).build());
+    }
+
+    @Test
+    void freeAndOccupiedWindows() {
+        index.onBookingSaved(booking(10L, 1L, at(9), at(11)));
+        index.onBookingSaved(booking(11L, 1L, at(13), at(14)));
+
+        assertTrue(index.isFree(1L, at(11), at(13)), "back-to-back windows touch but don't overlap");
+        assertFalse(index.isFree(1L, at(10), at(12)));
+        assertFalse(index.isFree(1L, at(8), at(15)), "a window inside the request");
+        assertEquals(10L, index.occupantAt(1L, at(9)));
+        assertNull(index.occupantAt(1L, at(11)));
+        assertEquals(List.of("A2"), index.findFreeSlots(1L, at(9), at(10), null).stream()
+                .map(SlotAvailabilityDTO::getSlotNumber).toList());
+
+        Booking cancelled = booking(10L, 1L, at(9), at(11));
+        cancelled.setStatus(Booking.Status.CANCELLED);
+        index.onBookingSaved(cancelled);
+        assertTrue(index.isFree(1L, at(9), at(11)), "a cancelled booking frees its window");
+    }
+
+    @Test
+    void overlappingLegacyWindowsAreAllSeen() {
+        // A long legacy booking with a shorter one starting inside it, as older data may contain
+        index.onBookingSaved(booking(20L, 1L, at(8), at(18)));
+        index.onBookingSaved(booking(21L, 1L, at(9), at(10)));
+
+        // The latest window starting before 15:00 ended at 10:00, but the 08:00 one still covers it
+        assertFalse(index.isFree(1L, at(15), at(16)));
+        assertEquals(20L, index.occupantAt(1L, at(15)));
+        assertEquals(21L, index.occupantAt(1L, at(9)));
+
+        List<LocalDateTime> starts = new ArrayList<>();
+        index.forEachWindow(1L, at(9).plusMinutes(30), at(12), (start, end) -> starts.add(start));
+        assertEquals(List.of(at(8), at(9)), starts);
+
+        index.removeBooking(20L);
+        assertTrue(index.isFree(1L, at(15), at(16)));
+        assertNull(index.occupantAt(1L, at(15)));
+    }
+
+    @Test
+    void holdsOccupyLikeBookings() {
+        index.placeHold(5L, 2L, at(9), at(10));
+        assertEquals(-5L, index.occupantAt(2L, at(9)));
+        assertFalse(index.isFree(2L, at(9), at(9).plusMinutes(15)));
+
+        index.releaseHold(5L);
+        assertTrue(index.isFree(2L, at(9), at(10)));
+    }
+
+    @Test
+    void overdueWindowsStayOpenWithoutWideningTheScan() {
+        index.markOverdue(30L, 1L, at(8));
+        index.onBookingSaved(booking(31L, 1L, at(30), at(31)));
+        index.pruneExpired();
+
+        assertTrue(index.isFree(1L, at(6), at(7)));
+        assertFalse(index.isFree(1L, DAY.plusYears(5), DAY.plusYears(5).plusHours(1)), "held until check-out");
+        assertEquals(30L, index.occupantAt(1L, DAY.plusYears(5)));
+        assertEquals(31L, index.occupantAt(1L, at(30)), "the later booking starting inside it wins");
+        List<LocalDateTime> starts = new ArrayList<>();
+        index.forEachWindow(1L, at(29), at(32), (start, end) -> starts.add(start));
+        assertEquals(List.of(at(8), at(30)), starts);
+
+        index.removeBooking(30L);
+        assertTrue(index.isFree(1L, at(20), at(21)));
+    }
+
+    private static LocalDateTime at(int hour) {
+        return DAY.plusHours(hour);
+    }
+
+    private static Booking booking(Long id, Long slotId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().bookingId(id).slot(ParkingSlot.builder().slotId(slotId).build())
+                .startTime(start).endTime(end).build();
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.AvailabilityStreamEventDTO;
+import com.example.springapp.dto.SlotStateChangeDTO;
+import com.example.springapp.model.Booking;
+import com.example.springapp.model.Facility;
+import com.example.springapp.model.ParkingSlot;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.FacilityRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotAvailabilityStreamTest {
+
+    /** Captures events instead of writing them to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> ids = new ArrayList<>();
+        final List<String> names = new ArrayList<>();
+        final List<AvailabilityStreamEventDTO> events = new ArrayList<>();
+
+        @Override
+        public synchronized void send(SseEventBuilder builder) {
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof AvailabilityStreamEventDTO event) {
+                    events.add(event);
+                } else {
+                    text.append(part.getData());
+                }
+            }
+            for (String line : text.toString().split("\n")) {
+                if (line.startsWith("id:")) {
+                    ids.add(line.substring(3));
+                } else if (line.startsWith("event:")) {
+                    names.add(line.substring(6));
+                }
+            }
+        }
+    }
+
+    private final SlotAvailabilityIndex index =
+            new SlotAvailabilityIndex(mock(BookingRepository.class), mock(ParkingSlotRepository.class));
+    private final FacilityRepository facilities = mock(FacilityRepository.class);
+    private final SlotAvailabilityStream stream = stream(Runnable::run);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void slots() {
+        for (long id = 1; id <= 5; id++) {
+            register(id, id <= 3 ? 1L : 2L);
+        }
+        when(facilities.existsById(1L)).thenReturn(true);
+        when(facilities.existsById(2L)).thenReturn(true);
+        when(facilities.existsById(3L)).thenReturn(true);
+    }
+
+    @Test
+    void snapshotThenOnlyChangedSlots() {
+        RecordingEmitter emitter = (RecordingEmitter) stream.subscribe(List.of(1L), null);
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT), emitter.names);
+        assertEquals(3, emitter.events.get(0).getSlots().size());
+
+        index.placeHold(7L, 1L, now.minusMinutes(1), now.plusMinutes(10));
+        index.onBookingSaved(booking(2L, now.minusMinutes(5), now.plusHours(1)));
+        // A future booking doesn't change what the slot is right now
+        index.onBookingSaved(booking(3L, now.plusHours(2), now.plusHours(3)));
+        stream.flushAll();
+
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT, SlotAvailabilityStream.DELTA), emitter.names);
+        List<SlotStateChangeDTO> changes = new ArrayList<>(emitter.events.get(1).getChanges());
+        changes.sort((a, b) -> a.getSlotId().compareTo(b.getSlotId()));
+        assertEquals(List.of(new SlotStateChangeDTO(1L, "HELD", 1), new SlotStateChangeDTO(2L, "BOOKED", 1)), changes);
+
+        stream.flushAll();
+        assertEquals(2, emitter.events.size(), "nothing changed, nothing sent");
+    }
+
+    @Test
+    void reconnectReplaysMissedDeltasOrFallsBackToSnapshot() {
+        RecordingEmitter first = (RecordingEmitter) stream.subscribe(List.of(1L), null);
+        String seen = first.ids.get(0);
+
+        index.placeHold(7L, 1L, now.minusMinutes(1), now.plusMinutes(10));
+        stream.flushAll();
+        index.releaseHold(7L);
+        stream.flushAll();
+
+        RecordingEmitter resumed = (RecordingEmitter) stream.subscribe(List.of(1L), seen);
+        assertEquals(List.of(SlotAvailabilityStream.DELTA, SlotAvailabilityStream.DELTA), resumed.names);
+        assertEquals("FREE", resumed.events.get(1).getChanges().get(0).getState());
+
+        // Only two deltas are kept, so the first id is no longer covered
+        index.placeHold(8L, 2L, now.minusMinutes(1), now.plusMinutes(10));
+        stream.flushAll();
+        RecordingEmitter late = (RecordingEmitter) stream.subscribe(List.of(1L), seen);
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT), late.names);
+        assertEquals(3, late.events.get(0).getSeq());
+
+        RecordingEmitter restarted = (RecordingEmitter) stream.subscribe(List.of(1L), "oldboot-1:1");
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT), restarted.names);
+    }
+
+    @Test
+    void oneStreamWatchesSeveralFacilitiesAndResumesEachOnItsOwn() {
+        RecordingEmitter first = (RecordingEmitter) stream.subscribe(List.of(1L, 2L), null);
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT, SlotAvailabilityStream.SNAPSHOT), first.names);
+        String seen = first.ids.get(1);
+        assertTrue(seen.endsWith("-1:0,2:0"), seen);
+
+        index.placeHold(7L, 4L, now.minusMinutes(1), now.plusMinutes(10));
+        stream.flushAll();
+        assertEquals(2L, first.events.get(2).getFacilityId());
+        assertTrue(first.ids.get(2).endsWith("-1:0,2:1"), first.ids.get(2));
+
+        // Facility 1 is up to date; facility 2 replays the delta it missed
+        RecordingEmitter resumed = (RecordingEmitter) stream.subscribe(List.of(1L, 2L), seen);
+        assertEquals(List.of(SlotAvailabilityStream.DELTA), resumed.names);
+        assertEquals(2L, resumed.events.get(0).getFacilityId());
+        // A facility the old id doesn't cover starts with a snapshot
+        RecordingEmitter widened = (RecordingEmitter) stream.subscribe(List.of(2L, 1L), first.ids.get(0));
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT), widened.names);
+        assertEquals(2L, widened.events.get(0).getFacilityId());
+        assertEquals(3, stream.connectionCount());
+    }
+
+    @Test
+    void unknownFacilitiesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> stream.subscribe(List.of(1L, 99L), null));
+        assertThrows(IllegalArgumentException.class, () -> stream.subscribe(List.of(), null));
+        assertEquals(0, stream.connectionCount());
+    }
+
+    @Test
+    void aNewOrMovedSlotResnapshotsOnlyTheFacilitiesItTouches() {
+        RecordingEmitter one = (RecordingEmitter) stream.subscribe(List.of(1L), null);
+        RecordingEmitter two = (RecordingEmitter) stream.subscribe(List.of(2L), null);
+        RecordingEmitter three = (RecordingEmitter) stream.subscribe(List.of(3L), null);
+
+        register(6L, 2L);
+        stream.flushAll();
+        assertEquals(1, one.names.size());
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT, SlotAvailabilityStream.SNAPSHOT), two.names);
+        assertEquals(3, two.events.get(1).getSlots().size());
+
+        register(3L, 3L);
+        stream.flushAll();
+        assertEquals(2, one.events.get(1).getSlots().size());
+        assertEquals(2, two.names.size());
+        assertEquals(1, three.events.get(1).getSlots().size());
+    }
+
+    @Test
+    void eventsAreWrittenByTheDeliveryPoolNotTheFlusher() {
+        List<Runnable> queued = new ArrayList<>();
+        SlotAvailabilityStream pooled = stream(queued::add);
+        RecordingEmitter emitter = (RecordingEmitter) pooled.subscribe(List.of(1L, 2L), null);
+        index.placeHold(7L, 1L, now.minusMinutes(1), now.plusMinutes(10));
+        pooled.flushAll();
+
+        assertEquals(0, emitter.names.size());
+        assertEquals(1, queued.size(), "one drain for everything waiting on the client");
+        runAll(queued);
+        assertEquals(List.of(SlotAvailabilityStream.SNAPSHOT, SlotAvailabilityStream.SNAPSHOT,
+                SlotAvailabilityStream.DELTA), emitter.names);
+
+        pooled.heartbeat();
+        assertEquals(1, queued.size());
+        runAll(queued);
+        assertEquals(3, emitter.names.size(), "a heartbeat is a comment, not an event");
+    }
+
+    private SlotAvailabilityStream stream(Executor delivery) {
+        return new SlotAvailabilityStream(index, facilities, delivery, 60_000, 2) {
+            @Override
+            SseEmitter newEmitter(long timeoutMs) {
+                return new RecordingEmitter();
+            }
+        };
+    }
+
+    private void register(Long slotId, Long facilityId) {
+        index.registerSlot(ParkingSlot.builder().slotId(slotId).slotNumber("A" + slotId)
+                .facility(Facility.builder().facilityId(facilityId).build()).build());
+    }
+
+    private static void runAll(List<Runnable> queued) {
+        while (!queued.isEmpty()) {
+            queued.remove(0).run();
+        }
+    }
+
+    private static Booking booking(Long slotId, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder().bookingId(100 + slotId).slot(ParkingSlot.builder().slotId(slotId).build())
+                .startTime(start).endTime(end).build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.springapp.service;
+
+import com.example.springapp.dto.SlotHoldDTO;
+import com.example.springapp.exception.ResourceNotFoundException;
+import com.example.springapp.repository.BookingRepository;
+import com.example.springapp.repository.ParkingSlotRepository;
+import com.example.springapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SlotHoldServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 9, 0);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ParkingSlotRepository slotRepository = mock(ParkingSlotRepository.class);
+    private final SlotHoldService holds = new SlotHoldService(mock(SlotHoldRegistry.class), new SlotLockManager(16, 100),
+            mock(BookingRepository.class), slotRepository, userRepository);
+
+    @Test
+    void invalidRequestsAreRejectedBeforeAnyLookup() {
+        assertThrows(IllegalArgumentException.class, () -> holds.createHold(hold(null, 1L, START, START.plusHours(1))));
+        assertThrows(IllegalArgumentException.class, () -> holds.createHold(hold(1L, null, START, START.plusHours(1))));
+        assertThrows(IllegalArgumentException.class, () -> holds.createHold(hold(1L, 1L, START, START)));
+    }
+
+    @Test
+    void unknownUsersAndSlotsAreNotFound() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        assertThrows(ResourceNotFoundException.class, () -> holds.createHold(hold(2L, 1L, START, START.plusHours(1))));
+        assertThrows(ResourceNotFoundException.class, () -> holds.createHold(hold(1L, 9L, START, START.plusHours(1))));
+    }
+
+    private static SlotHoldDTO hold(Long userId, Long slotId, LocalDateTime start, LocalDateTime end) {
+        SlotHoldDTO dto = new SlotHoldDTO();
+        dto.setUserId(userId);
+        dto.setSlotId(slotId);
+        dto.setStartTime(start);
+        dto.setEndTime(end);
+        return dto;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.springapp.service;
+
+import com.example.springapp.model.Notification;
+import com.example.springapp.model.User;
+import com.example.springapp.repository.NotificationRepository;
+import com.example.springapp.repository.UnreadNotificationCounterRepository;
+import com.example.springapp.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({NotificationService.class, NotificationStreamService.class, UnreadNotificationCounters.class,
+        NotificationCoalescer.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UnreadNotificationCountersTest {
+
+    private static final int NOTIFICATIONS = 5000;
+
+    @Autowired private NotificationService notificationService;
+    @Autowired private UnreadNotificationCounters counters;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private UnreadNotificationCounterRepository counterRepository;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void countersFollowInsertsAndBulkReadsAreConstantStatements() {
+        User user = userRepository.save(User.builder().username("unread").email("unread@example.com")
+                .passwordHash("x").firstName("Un").lastName("Read").build());
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            notifications.add(Notification.builder().user(user).message("n" + i)
+                    .type(i % 5 == 0 ? Notification.Type.ALERT : Notification.Type.REMINDER).build());
+        }
+        assertEquals(0, notificationService.getUnreadCount(user.getUserId()));
+        counters.created(notificationRepository.saveAll(notifications));
+        assertEquals(NOTIFICATIONS, notificationService.getUnreadCount(user.getUserId()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // One UPDATE marks the notifications, one adjusts the counter in the same transaction
+        statistics.clear();
+        assertEquals(NOTIFICATIONS / 5, notificationService.markAllAsReadByType(user.getUserId(), "alert"));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(NOTIFICATIONS - NOTIFICATIONS / 5, notificationService.getUnreadCount(user.getUserId()));
+
+        statistics.clear();
+        assertEquals(NOTIFICATIONS - NOTIFICATIONS / 5, notificationService.markAllAsRead(user.getUserId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, notificationService.getUnreadCount(user.getUserId()));
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationService.markAllAsReadByType(user.getUserId(), "no-such-type"));
+
+        // Drift from writes that bypass the service is corrected by the reconcile
+        notificationRepository.save(Notification.builder().user(user).message("direct")
+                .type(Notification.Type.REMINDER).build());
+        assertEquals(0, notificationService.getUnreadCount(user.getUserId()));
+        counters.reconcile();
+        assertEquals(1, notificationService.getUnreadCount(user.getUserId()));
+    }
+
+    @Test
+    void instancesShareOneCountPerUser() {
+        User user = userRepository.save(User.builder().username("shared").email("shared@example.com")
+                .passwordHash("x").firstName("Sha").lastName("Red").build());
+        UnreadNotificationCounters other = new UnreadNotificationCounters(notificationRepository,
+                counterRepository, transactionTemplate);
+        assertEquals(0, other.get(user.getUserId()));
+
+        // Written through this instance, read through the other one
+        transactionTemplate.executeWithoutResult(status -> counters.created(notificationRepository.saveAll(List.of(
+                Notification.builder().user(user).message("a").type(Notification.Type.ALERT).build(),
+                Notification.builder().user(user).message("b").type(Notification.Type.ALERT).build()))));
+        assertEquals(2, other.get(user.getUserId()));
+
+        notificationService.markAllAsRead(user.getUserId());
+        assertEquals(0, other.get(user.getUserId()));
+        assertEquals(0, counters.get(user.getUserId()));
+    }
+}
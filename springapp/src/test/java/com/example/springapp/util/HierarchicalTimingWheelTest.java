@@ -0,0 +1,59 @@
+package com.example.springapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void expiresEachTimeoutOnItsTickAcrossLevels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 64, 3, 0);
+        List<Long> deadlines = List.of(1_000L, 63_000L, 64_000L, 65_500L, 600_000L, 4_100_000L);
+        deadlines.forEach(d -> wheel.schedule(d, d));
+
+        List<long[]> fired = new ArrayList<>();
+        for (long now = 0; now <= 4_200_000L; now += 1000) {
+            long at = now;
+            wheel.advance(now, d -> fired.add(new long[]{d, at}));
+        }
+
+        assertEquals(deadlines.size(), fired.size());
+        for (long[] f : fired) {
+            // fires on the tick that contains its deadline
+            assertEquals(f[0] / 1000, f[1] / 1000);
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTimeoutsNeverFire() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1000, 64, 3, 0);
+        HierarchicalTimingWheel.Timeout<String> kept = wheel.schedule("kept", 5_000);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 5_000);
+        assertTrue(wheel.cancel(cancelled));
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(10_000, fired::add);
+
+        assertEquals(List.of("kept"), fired);
+        assertEquals("kept", kept.payload());
+        assertNull(wheel.schedule("past", 9_000));
+    }
+
+    @Test
+    void handlesHundredThousandPendingTimeouts() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(1000, 64, 3, 0);
+        for (int i = 0; i < 100_000; i++) {
+            wheel.schedule(i, 1_000L + (i % 900) * 1000L);
+        }
+        int[] fired = {0};
+        wheel.advance(901_000, i -> fired[0]++);
+        assertEquals(100_000, fired[0]);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.springapp.util;
+
+import com.example.springapp.dto.CursorPage;
+import com.example.springapp.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetPaginationTest {
+
+    // ids 1..n, served newest-first the way the derived repository queries do
+    private static final List<Long> ROWS = LongStream.rangeClosed(1, 125).boxed().toList();
+
+    private static SliceImpl<Long> seek(Long before, Pageable pageable) {
+        List<Long> matching = ROWS.stream().filter(id -> id < before)
+                .sorted((a, b) -> Long.compare(b, a)).toList();
+        int size = pageable.getPageSize();
+        return new SliceImpl<>(matching.subList(0, Math.min(size, matching.size())), pageable, matching.size() > size);
+    }
+
+    @Test
+    void walksEveryRowExactlyOnceInDescendingOrder() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<Long> page = KeysetPagination.fetch(cursor, 50, KeysetPaginationTest::seek,
+                    Function.identity(), Function.identity(), null);
+            seen.addAll(page.getItems());
+            assertNull(page.getTotal());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(ROWS.size(), seen.size());
+        assertEquals(125L, seen.get(0));
+        assertEquals(1L, seen.get(seen.size() - 1));
+    }
+
+    @Test
+    void clampsSizeAndReportsTotalOnlyWhenAsked() {
+        CursorPage<Long> page = KeysetPagination.fetch(null, 10_000, KeysetPaginationTest::seek,
+                Function.identity(), Function.identity(), () -> ROWS.size());
+        assertEquals(125, page.getItems().size());
+        assertFalse(page.isHasNext());
+        assertEquals(125L, page.getTotal());
+    }
+
+    @Test
+    void rejectsForeignCursors() {
+        assertEquals(42L, KeysetPagination.decode(KeysetPagination.encode(42L)));
+        assertThrows(InvalidCursorException.class, () -> KeysetPagination.decode("not*base64"));
+        assertThrows(InvalidCursorException.class, () -> KeysetPagination.decode("MTIz"));
+    }
+}
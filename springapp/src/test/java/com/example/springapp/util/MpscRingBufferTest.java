@@ -0,0 +1,86 @@
+package com.example.springapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MpscRingBufferTest {
+
+    @Test
+    void capacityRoundsUpAndFullBufferRejects() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(5);
+        assertEquals(8, ring.capacity());
+        for (int i = 0; i < 8; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(8));
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(8));
+        assertEquals(8, ring.size());
+    }
+
+    @Test
+    void preservesFifoOrderAcrossWraparound() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        List<Integer> out = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(ring.offer(i));
+            if (i % 3 == 2) {
+                ring.drainTo(out, 4);
+            }
+        }
+        ring.drainTo(out, 4);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, out.get(i));
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void concurrentProducersLoseNothing() throws Exception {
+        int producers = 8;
+        int perProducer = 50_000;
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(1024);
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!ring.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+            batch.clear();
+            ring.drainTo(batch, 256);
+            seen.addAll(batch);
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(producers * perProducer, seen.size());
+    }
+}
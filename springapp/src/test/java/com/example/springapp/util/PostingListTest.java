@@ -0,0 +1,47 @@
+package com.example.springapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+
+    @Test
+    void lateIdsAreInsertedInOrderAndDuplicatesIgnored() {
+        PostingList list = new PostingList(2);
+        for (long id : new long[]{10, 20, 30}) {
+            assertTrue(list.append(id));
+        }
+        assertTrue(list.append(15));
+        assertTrue(list.append(1));
+        assertFalse(list.append(20));
+        assertFalse(list.append(30));
+
+        assertArrayEquals(new long[]{1, 10, 15, 20, 30}, toArray(list));
+    }
+
+    @Test
+    void withoutDropsOnlyTheRemovedIds() {
+        PostingList list = new PostingList();
+        PostingList removed = new PostingList();
+        for (long id = 1; id <= 6; id++) {
+            list.append(id);
+        }
+        removed.append(2);
+        removed.append(5);
+        removed.append(9);
+
+        assertArrayEquals(new long[]{1, 3, 4, 6}, toArray(list.without(removed)));
+        assertArrayEquals(new long[]{1, 2, 3, 4, 5, 6}, toArray(list));
+    }
+
+    private static long[] toArray(PostingList list) {
+        long[] out = new long[list.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = list.get(i);
+        }
+        return out;
+    }
+}